@@ -0,0 +1,108 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.commands.Command;
+import com.projeto.sistema.commands.MeteredCommand;
+import com.projeto.sistema.commands.RouteCommand;
+import com.projeto.sistema.factories.CommandFactory;
+import com.projeto.sistema.metrics.MetricsRegistry;
+import com.projeto.sistema.routing.Router;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo de despachar uma rota até o método do controlador: chamada direta, {@link RouteCommand}
+ * (reflexão), comando gerado pela {@link CommandFactory} e esse mesmo comando com métricas.
+ * O método de destino é trivial, para que o resultado reflita apenas o despacho. Também mede
+ * a busca no {@link Router} com as rotas da aplicação, sem e com parâmetros no caminho.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CommandDispatchBenchmark {
+
+    private final PingController controller = new PingController();
+    private final MockServletRequest request = new MockServletRequest("GET", new byte[0]);
+    private final MockServletResponse response = new MockServletResponse();
+
+    private Command reflective;
+    private Command generated;
+    private Command metered;
+    private final Router router = new Router();
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        Method ping = PingController.class.getMethod("ping", HttpServletRequest.class, HttpServletResponse.class);
+        reflective = new RouteCommand(controller, ping);
+        generated = CommandFactory.createCommand(controller, ping);
+        metered = new MeteredCommand(generated, new MetricsRegistry().forRoute("/ping"));
+
+        String[] post = {"POST"};
+        router.add("/usuario", post, generated);
+        router.add("/usuario/autenticar", post, generated);
+        router.add("/usuario/importar", post, generated);
+        router.add("/usuario/{id}", new String[] {"GET"}, generated);
+        router.add("/metricas", new String[] {"GET"}, generated);
+    }
+
+    @Benchmark
+    public Router.Handler routerLiteral() {
+        return router.match("/usuario/autenticar").handlerFor("POST");
+    }
+
+    @Benchmark
+    public Router.Handler routerParameter() {
+        return router.match("/usuario/12345").handlerFor("GET");
+    }
+
+    @Benchmark
+    public int direct() {
+        controller.ping(request, response);
+        return controller.calls;
+    }
+
+    @Benchmark
+    public int routeCommand() throws Exception {
+        reflective.execute(request, response);
+        return controller.calls;
+    }
+
+    @Benchmark
+    public int commandFactory() throws Exception {
+        generated.execute(request, response);
+        return controller.calls;
+    }
+
+    @Benchmark
+    public int meteredCommand() throws Exception {
+        metered.execute(request, response);
+        return controller.calls;
+    }
+
+    /**
+     * Controlador mínimo usado como destino do despacho.
+     */
+    public static class PingController {
+        int calls;
+
+        public void ping(HttpServletRequest req, HttpServletResponse resp) {
+            calls++;
+            resp.setStatus(HttpServletResponse.SC_OK);
+        }
+    }
+}
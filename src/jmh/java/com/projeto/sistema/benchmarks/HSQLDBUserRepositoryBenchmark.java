@@ -0,0 +1,15 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.repositories.HSQLDBUserRepository;
+import com.projeto.sistema.repositories.UserRepositoryInterface;
+
+/**
+ * Consultas e inserções no {@link HSQLDBUserRepository} (banco em memória, pool de conexões).
+ */
+public class HSQLDBUserRepositoryBenchmark extends UserRepositoryBenchmark {
+
+    @Override
+    protected UserRepositoryInterface createRepository() {
+        return HSQLDBUserRepository.getInstance();
+    }
+}
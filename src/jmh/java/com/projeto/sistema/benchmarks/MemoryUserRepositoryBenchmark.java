@@ -0,0 +1,15 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.repositories.MemoryUserRepository;
+import com.projeto.sistema.repositories.UserRepositoryInterface;
+
+/**
+ * Consultas e inserções no {@link MemoryUserRepository}.
+ */
+public class MemoryUserRepositoryBenchmark extends UserRepositoryBenchmark {
+
+    @Override
+    protected UserRepositoryInterface createRepository() {
+        return MemoryUserRepository.getInstance();
+    }
+}
@@ -0,0 +1,133 @@
+package com.projeto.sistema.benchmarks;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.lang.reflect.Proxy;
+
+/**
+ * Requisição simulada para os benchmarks, sem container de servlets.
+ * <p>
+ * Implementa apenas o que os controladores utilizam; os demais métodos lançam
+ * {@link UnsupportedOperationException}. O corpo pode ser relido a cada invocação,
+ * e o processamento assíncrono é desabilitado para que as rotas executem de forma síncrona.
+ */
+public class MockServletRequest extends HttpServletRequestWrapper {
+
+    private static final HttpServletRequest UNSUPPORTED = (HttpServletRequest) Proxy.newProxyInstance(
+        HttpServletRequest.class.getClassLoader(),
+        new Class<?>[]{HttpServletRequest.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+    private final String method;
+    private final byte[] body;
+    private final BodyInputStream inputStream = new BodyInputStream();
+
+    /**
+     * Cria a requisição simulada.
+     *
+     * @param method O método HTTP.
+     * @param body   O corpo da requisição.
+     */
+    public MockServletRequest(String method, byte[] body) {
+        super(UNSUPPORTED);
+        this.method = method;
+        this.body = body;
+    }
+
+    /**
+     * Volta o corpo ao início, permitindo reutilizar a requisição.
+     *
+     * @return Esta requisição.
+     */
+    public MockServletRequest rewind() {
+        inputStream.position = 0;
+        return this;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return null;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return null;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return false;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return false;
+    }
+
+    /**
+     * Fluxo de leitura sobre o corpo, sem sincronização (ao contrário de {@code ByteArrayInputStream}).
+     */
+    private final class BodyInputStream extends ServletInputStream {
+        private int position;
+
+        @Override
+        public int read() {
+            return position < body.length ? body[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (position >= body.length) {
+                return -1;
+            }
+            int count = Math.min(len, body.length - position);
+            System.arraycopy(body, position, b, off, count);
+            position += count;
+            return count;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= body.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("setReadListener");
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.projeto.sistema.benchmarks;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resposta simulada para os benchmarks, sem container de servlets.
+ * <p>
+ * Guarda o status e descarta o corpo, contando apenas os bytes escritos, para que o custo
+ * medido seja o da serialização e não o do armazenamento da saída.
+ */
+public class MockServletResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse UNSUPPORTED = (HttpServletResponse) Proxy.newProxyInstance(
+        HttpServletResponse.class.getClassLoader(),
+        new Class<?>[]{HttpServletResponse.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+    private int status = SC_OK;
+    private long bytesWritten;
+    private final CountingOutputStream outputStream = new CountingOutputStream();
+
+    /**
+     * Cria a resposta simulada.
+     */
+    public MockServletResponse() {
+        super(UNSUPPORTED);
+    }
+
+    /**
+     * Restaura o estado inicial, permitindo reutilizar a resposta.
+     *
+     * @return Esta resposta.
+     */
+    public MockServletResponse clear() {
+        status = SC_OK;
+        bytesWritten = 0;
+        return this;
+    }
+
+    /**
+     * Obtém a quantidade de bytes escritos desde o último {@link #clear()}.
+     *
+     * @return O total de bytes do corpo.
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) {
+        status = sc;
+    }
+
+    @Override
+    public void sendError(int sc, String msg) {
+        status = sc;
+    }
+
+    @Override
+    public void setContentType(String type) {
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+    }
+
+    @Override
+    public void setContentLength(int len) {
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return bytesWritten > 0;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() {
+        return new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void flushBuffer() {
+    }
+
+    /**
+     * Fluxo de saída que apenas contabiliza os bytes recebidos.
+     */
+    private final class CountingOutputStream extends ServletOutputStream {
+        @Override
+        public void write(int b) {
+            bytesWritten++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytesWritten += len;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            throw new UnsupportedOperationException("setWriteListener");
+        }
+    }
+}
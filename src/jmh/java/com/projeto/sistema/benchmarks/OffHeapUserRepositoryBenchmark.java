@@ -0,0 +1,15 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.repositories.OffHeapUserRepository;
+import com.projeto.sistema.repositories.UserRepositoryInterface;
+
+/**
+ * Consultas e inserções no {@link OffHeapUserRepository}.
+ */
+public class OffHeapUserRepositoryBenchmark extends UserRepositoryBenchmark {
+
+    @Override
+    protected UserRepositoryInterface createRepository() {
+        return OffHeapUserRepository.getInstance();
+    }
+}
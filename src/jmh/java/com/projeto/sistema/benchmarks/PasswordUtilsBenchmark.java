@@ -0,0 +1,64 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.utils.PasswordUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Geração de salt e hashing de senhas, nas variantes em texto (Base64) e em bytes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class PasswordUtilsBenchmark {
+
+    private final String password = "senha-de-benchmark";
+    private String salt;
+    private byte[] saltBytes;
+    private byte[] hash;
+
+    @Setup
+    public void setUp() {
+        salt = PasswordUtils.generateSalt();
+        saltBytes = PasswordUtils.decode(salt);
+        hash = PasswordUtils.hash(password, saltBytes);
+    }
+
+    @Benchmark
+    public String generateSalt() {
+        return PasswordUtils.generateSalt();
+    }
+
+    @Benchmark
+    public byte[] generateSaltBytes() {
+        return PasswordUtils.generateSaltBytes();
+    }
+
+    @Benchmark
+    public String hashWithSalt() {
+        return PasswordUtils.hashWithSalt(password, salt);
+    }
+
+    @Benchmark
+    public byte[] hash() {
+        return PasswordUtils.hash(password, saltBytes);
+    }
+
+    @Benchmark
+    public boolean verify() {
+        return PasswordUtils.verify(password, saltBytes, hash);
+    }
+}
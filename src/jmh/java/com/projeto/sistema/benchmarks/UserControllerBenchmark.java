@@ -0,0 +1,116 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.controllers.UserController;
+import com.projeto.sistema.repositories.MemoryUserRepository;
+import com.projeto.sistema.repositories.UserRepositoryInterface;
+import com.projeto.sistema.utils.HashingExecutor;
+import com.projeto.sistema.utils.SessionTokenService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Leitura do JSON da requisição e escrita do JSON da resposta no {@link UserController},
+ * com objetos de requisição e resposta simulados e o repositório em memória.
+ * <p>
+ * Sem suporte assíncrono na requisição simulada, o hashing roda na própria thread do benchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class UserControllerBenchmark {
+
+    private static final int IMPORT_USERS = 100;
+
+    private final UserController controller = new UserController();
+    private final MockServletResponse response = new MockServletResponse();
+
+    private MockServletRequest authenticate;
+    private MockServletRequest wrongPassword;
+    private MockServletRequest incomplete;
+    private MockServletRequest importUsers;
+
+    @Setup
+    public void setUp() throws Exception {
+        UserRepositoryInterface repository = MemoryUserRepository.getInstance();
+        Field field = UserController.class.getDeclaredField("userRepository");
+        field.setAccessible(true);
+        field.set(controller, repository);
+        Field hashing = UserController.class.getDeclaredField("hashingExecutor");
+        hashing.setAccessible(true);
+        hashing.set(controller, new HashingExecutor());
+        Field tokens = UserController.class.getDeclaredField("sessionTokens");
+        tokens.setAccessible(true);
+        tokens.set(controller, new SessionTokenService());
+
+        repository.createUser("benchmark@benchmark.local", "senha-de-benchmark");
+        authenticate = post("{\"email\":\"benchmark@benchmark.local\",\"password\":\"senha-de-benchmark\"}");
+        wrongPassword = post("{\"email\":\"benchmark@benchmark.local\",\"password\":\"outra-senha\"}");
+        incomplete = post("{\"email\":\"benchmark@benchmark.local\"}");
+
+        // Após a primeira chamada todos os emails já existem: o caso medido é o de conflito
+        StringBuilder users = new StringBuilder("[");
+        for (int i = 0; i < IMPORT_USERS; i++) {
+            if (i > 0) {
+                users.append(',');
+            }
+            users.append("{\"email\":\"importado").append(i)
+                 .append("@benchmark.local\",\"password\":\"senha-de-benchmark\"}");
+        }
+        importUsers = post(users.append(']').toString());
+    }
+
+    /**
+     * Leitura das credenciais, hashing, consulta e serialização do usuário autenticado.
+     */
+    @Benchmark
+    public long authenticateUser() throws Exception {
+        controller.authenticateUser(authenticate.rewind(), response.clear());
+        return response.getBytesWritten();
+    }
+
+    /**
+     * Mesmo caminho, com resposta de erro pré-codificada.
+     */
+    @Benchmark
+    public long authenticateWrongPassword() throws Exception {
+        controller.authenticateUser(wrongPassword.rewind(), response.clear());
+        return response.getBytesWritten();
+    }
+
+    /**
+     * Apenas a leitura e validação do JSON, sem hashing.
+     */
+    @Benchmark
+    public long registerIncomplete() throws Exception {
+        controller.registerUser(incomplete.rewind(), response.clear());
+        return response.getBytesWritten();
+    }
+
+    /**
+     * Leitura em fluxo de um array de usuários e escrita em fluxo do resultado de cada um.
+     */
+    @Benchmark
+    public long importUsers() throws Exception {
+        controller.importUsers(importUsers.rewind(), response.clear());
+        return response.getBytesWritten();
+    }
+
+    private static MockServletRequest post(String body) {
+        return new MockServletRequest("POST", body.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,107 @@
+package com.projeto.sistema.benchmarks;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.repositories.UserRepositoryInterface;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base dos benchmarks de repositório: consultas e inserções com 1 mil, 100 mil e 1 milhão
+ * de usuários pré-carregados.
+ * <p>
+ * Os repositórios são singletons, por isso cada combinação de parâmetros roda em um fork
+ * próprio, com a carga refeita do zero. Os emails consultados são sorteados com semente fixa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"-Xms3g", "-Xmx3g"})
+public abstract class UserRepositoryBenchmark {
+
+    private static final String PASSWORD = "senha-de-benchmark";
+    private static final long SEED = 42L;
+    private static final int LOAD_CHUNK = 10_000;
+    private static final int LOOKUPS = 1 << 16;
+
+    @Param({"1000", "100000", "1000000"})
+    public int users;
+
+    private UserRepositoryInterface repository;
+    private final String[] existing = new String[LOOKUPS];
+    private final String[] missing = new String[LOOKUPS];
+    private int cursor;
+    private int nextId;
+
+    /**
+     * Obtém o repositório medido.
+     *
+     * @return O repositório, ainda vazio.
+     */
+    protected abstract UserRepositoryInterface createRepository();
+
+    @Setup(Level.Trial)
+    public void load() {
+        repository = createRepository();
+
+        // Todos os usuários compartilham o mesmo hash: a carga mede o repositório, não o hashing
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hash = PasswordUtils.hash(PASSWORD, salt);
+        List<UserRegistration> chunk = new ArrayList<>(LOAD_CHUNK);
+        for (int i = 0; i < users; i++) {
+            chunk.add(new UserRegistration(email(i), hash, salt));
+            if (chunk.size() == LOAD_CHUNK || i == users - 1) {
+                repository.createUsers(chunk);
+                chunk.clear();
+            }
+        }
+
+        Random random = new Random(SEED);
+        for (int i = 0; i < LOOKUPS; i++) {
+            existing[i] = email(random.nextInt(users));
+            missing[i] = "ausente" + i + "@benchmark.local";
+        }
+        nextId = users;
+    }
+
+    @Benchmark
+    public Optional<User> findExistingUser() {
+        return repository.findUserByEmail(existing[cursor++ & (LOOKUPS - 1)]);
+    }
+
+    @Benchmark
+    public Optional<User> findMissingUser() {
+        return repository.findUserByEmail(missing[cursor++ & (LOOKUPS - 1)]);
+    }
+
+    /**
+     * Inclui o hashing da senha, como no registro feito pelo controlador.
+     */
+    @Benchmark
+    public void createUser() {
+        repository.createUser(email(nextId++), PASSWORD);
+    }
+
+    private static String email(int id) {
+        return "usuario" + id + "@benchmark.local";
+    }
+}
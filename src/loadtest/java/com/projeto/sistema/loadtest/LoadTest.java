@@ -0,0 +1,428 @@
+package com.projeto.sistema.loadtest;
+
+import com.projeto.sistema.metrics.LatencyHistogram;
+import com.projeto.sistema.servlets.MainServlet;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Teste de carga de ponta a ponta das rotas de registro e autenticação.
+ * <p>
+ * Inicia o {@link MainServlet} em um Tomcat embutido em uma porta local livre, com o pool de
+ * threads padrão do conector (como em uma implantação WAR), cadastra os usuários iniciais pela
+ * rota de importação e então envia uma mistura de chamadas a {@code /usuario} e
+ * {@code /usuario/autenticar} por HTTP. Há dois modos:
+ * <ul>
+ *   <li>{@code closed}: cada cliente envia a próxima requisição ao receber a resposta anterior;</li>
+ *   <li>{@code open}: as requisições partem em uma taxa fixa, independentemente das respostas.</li>
+ * </ul>
+ * O relatório traz vazão, taxa de erros e percentis de latência, corrigidos para omissão
+ * coordenada, além do tempo de serviço sem correção.
+ * <p>
+ * Compilado apenas com o perfil Maven {@code loadtest}:
+ * <pre>
+ * mvn -Ploadtest package -DskipTests
+ * java -Dsistema.loadtest.mode=open -Dsistema.loadtest.rate=800 -jar target/sistema-0.0.1-SNAPSHOT-loadtest.jar
+ * </pre>
+ * O repositório é escolhido uma única vez por JVM; por isso, sem {@code sistema.repository}, cada
+ * repositório de {@code sistema.loadtest.repositories} é testado em um processo separado.
+ */
+public class LoadTest {
+
+    /**
+     * Repositórios testados quando {@code sistema.repository} não é informado.
+     */
+    private static final String REPOSITORIES = System.getProperty("sistema.loadtest.repositories", "MEMORY,HSQLDB");
+
+    /**
+     * Quantidade de usuários cadastrados antes da carga ({@code sistema.loadtest.users}).
+     */
+    private static final int USERS = Integer.getInteger("sistema.loadtest.users", 10_000);
+
+    /**
+     * Modo de geração de carga: {@code closed} ou {@code open} ({@code sistema.loadtest.mode}).
+     */
+    private static final String MODE = System.getProperty("sistema.loadtest.mode", "closed");
+
+    /**
+     * Clientes simultâneos no modo {@code closed} ({@code sistema.loadtest.concurrency}).
+     */
+    private static final int CONCURRENCY = Integer.getInteger("sistema.loadtest.concurrency", 16);
+
+    /**
+     * Requisições por segundo no modo {@code open} ({@code sistema.loadtest.rate}).
+     */
+    private static final int RATE = Integer.getInteger("sistema.loadtest.rate", 500);
+
+    /**
+     * Limite de requisições pendentes no modo {@code open} ({@code sistema.loadtest.maxInFlight}).
+     * Atingido o limite, os envios atrasam, e o atraso entra na latência corrigida.
+     */
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("sistema.loadtest.maxInFlight", 1024);
+
+    /**
+     * Duração do aquecimento, em segundos, cujos resultados são descartados ({@code sistema.loadtest.warmup}).
+     */
+    private static final int WARMUP_SECONDS = Integer.getInteger("sistema.loadtest.warmup", 5);
+
+    /**
+     * Duração da medição, em segundos ({@code sistema.loadtest.duration}).
+     */
+    private static final int DURATION_SECONDS = Integer.getInteger("sistema.loadtest.duration", 30);
+
+    /**
+     * Fração das requisições que registram um novo usuário; as demais autenticam um usuário
+     * existente ({@code sistema.loadtest.registerRatio}).
+     */
+    private static final double REGISTER_RATIO =
+        Double.parseDouble(System.getProperty("sistema.loadtest.registerRatio", "0.1"));
+
+    /**
+     * Semente da sequência de operações ({@code sistema.loadtest.seed}).
+     */
+    private static final long SEED = Long.getLong("sistema.loadtest.seed", 42L);
+
+    private static final String PASSWORD = "senha-de-carga";
+    private static final int SEED_CHUNK = 1000;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String repository;
+    private final HttpClient client = HttpClient.newBuilder()
+        .version(HttpClient.Version.HTTP_1_1)
+        .connectTimeout(REQUEST_TIMEOUT)
+        .build();
+    private final AtomicLong registrations = new AtomicLong();
+
+    private URI registerUri;
+    private URI authenticateUri;
+
+    /**
+     * Cria o teste para o repositório configurado nesta JVM.
+     *
+     * @param repository O nome do repositório, usado no relatório.
+     */
+    public LoadTest(String repository) {
+        this.repository = repository;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String repository = System.getProperty("sistema.repository");
+        if (repository != null) {
+            new LoadTest(repository).run();
+            return;
+        }
+
+        for (String name : REPOSITORIES.split(",")) {
+            int exitCode = fork(name.trim());
+            if (exitCode != 0) {
+                System.exit(exitCode);
+            }
+        }
+    }
+
+    /**
+     * Executa o teste de um repositório em uma nova JVM, com as mesmas opções desta.
+     *
+     * @param repository O repositório a testar.
+     * @return O código de saída do processo.
+     */
+    private static int fork(String repository) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+        command.add("-Dsistema.repository=" + repository);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(LoadTest.class.getName());
+        return new ProcessBuilder(command).inheritIO().start().waitFor();
+    }
+
+    /**
+     * Inicia o servidor, cadastra os usuários, aquece, mede e imprime o relatório.
+     */
+    public void run() throws Exception {
+        Tomcat tomcat = startServer();
+        try {
+            String base = "http://localhost:" + tomcat.getConnector().getLocalPort();
+            registerUri = URI.create(base + "/usuario");
+            authenticateUri = URI.create(base + "/usuario/autenticar");
+
+            long seedStart = System.nanoTime();
+            seedUsers(URI.create(base + "/usuario/importar"));
+            System.out.printf(Locale.ROOT, "[%s] %d usuários cadastrados em %d ms%n",
+                repository, USERS, (System.nanoTime() - seedStart) / 1_000_000);
+
+            runPhase(WARMUP_SECONDS);
+            Phase measurement = runPhase(DURATION_SECONDS);
+            long expectedIntervalMicros = 0;
+            if (!isOpen()) {
+                // No laço fechado, a mediana do tempo de serviço serve de intervalo esperado entre requisições
+                expectedIntervalMicros = measurement.medianServiceTime();
+                for (OperationStats stats : measurement.all()) {
+                    stats.correct(expectedIntervalMicros);
+                }
+            }
+            report(measurement, expectedIntervalMicros);
+        } finally {
+            tomcat.stop();
+            tomcat.destroy();
+        }
+    }
+
+    private static boolean isOpen() {
+        return "open".equalsIgnoreCase(MODE);
+    }
+
+    private Tomcat startServer() throws IOException, LifecycleException {
+        File baseDir = Files.createTempDirectory("sistema-loadtest").toFile();
+        baseDir.deleteOnExit();
+
+        Tomcat tomcat = new Tomcat();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+        tomcat.getConnector().setPort(0);
+
+        Context context = tomcat.addContext("", baseDir.getAbsolutePath());
+        Wrapper servlet = Tomcat.addServlet(context, "MainServlet", new MainServlet());
+        servlet.setAsyncSupported(true);
+        servlet.setLoadOnStartup(1);
+        context.addServletMappingDecoded("/*", "MainServlet");
+
+        tomcat.start();
+        return tomcat;
+    }
+
+    /**
+     * Cadastra os usuários iniciais em lotes, pela rota de importação.
+     */
+    private void seedUsers(URI importUri) throws IOException, InterruptedException {
+        for (int first = 0; first < USERS; first += SEED_CHUNK) {
+            StringBuilder body = new StringBuilder(SEED_CHUNK * 64).append('[');
+            for (int i = first; i < Math.min(USERS, first + SEED_CHUNK); i++) {
+                if (i > first) {
+                    body.append(',');
+                }
+                body.append(credentials(seededEmail(i)));
+            }
+            HttpResponse<Void> response = client.send(post(importUri, body.append(']').toString()),
+                HttpResponse.BodyHandlers.discarding());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("Falha ao cadastrar usuários iniciais: HTTP " + response.statusCode());
+            }
+        }
+    }
+
+    private Phase runPhase(int seconds) throws InterruptedException {
+        Phase phase = new Phase();
+        if (seconds <= 0) {
+            return phase;
+        }
+        long start = System.nanoTime();
+        long deadline = start + seconds * 1_000_000_000L;
+        if (isOpen()) {
+            runOpenLoop(phase, start, deadline);
+        } else {
+            runClosedLoop(phase, deadline);
+        }
+        phase.elapsedNanos = System.nanoTime() - start;
+        return phase;
+    }
+
+    /**
+     * Cada cliente espera a resposta antes de enviar a próxima requisição.
+     */
+    private void runClosedLoop(Phase phase, long deadline) throws InterruptedException {
+        Thread[] clients = new Thread[CONCURRENCY];
+        for (int c = 0; c < CONCURRENCY; c++) {
+            Random random = new Random(SEED + c);
+            clients[c] = new Thread(() -> {
+                while (System.nanoTime() < deadline && !Thread.currentThread().isInterrupted()) {
+                    Operation operation = nextOperation(random, phase);
+                    long sent = System.nanoTime();
+                    int status = send(operation.request);
+                    operation.stats.record(status, System.nanoTime() - sent);
+                }
+            }, "carga-" + c);
+            clients[c].start();
+        }
+        for (Thread client : clients) {
+            client.join();
+        }
+    }
+
+    /**
+     * As requisições partem em instantes fixos; a latência corrigida conta a partir desses instantes.
+     */
+    private void runOpenLoop(Phase phase, long start, long deadline) throws InterruptedException {
+        long intervalNanos = 1_000_000_000L / RATE;
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        Random random = new Random(SEED);
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * intervalNanos;
+            if (intended >= deadline) {
+                break;
+            }
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+
+            Operation operation = nextOperation(random, phase);
+            long sent = System.nanoTime();
+            client.sendAsync(operation.request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    operation.stats.record(error == null ? response.statusCode() : 0, intended, sent, System.nanoTime());
+                    inFlight.release();
+                });
+        }
+        // Aguarda as respostas pendentes
+        inFlight.acquire(MAX_IN_FLIGHT);
+        inFlight.release(MAX_IN_FLIGHT);
+    }
+
+    private Operation nextOperation(Random random, Phase phase) {
+        if (random.nextDouble() < REGISTER_RATIO) {
+            String email = "novo" + registrations.incrementAndGet() + "@loadtest.local";
+            return new Operation(phase.register, post(registerUri, credentials(email)));
+        }
+        String email = seededEmail(random.nextInt(USERS));
+        return new Operation(phase.authenticate, post(authenticateUri, credentials(email)));
+    }
+
+    private int send(HttpRequest request) {
+        try {
+            return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    private static HttpRequest post(URI uri, String json) {
+        return HttpRequest.newBuilder(uri)
+            .timeout(REQUEST_TIMEOUT)
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(json))
+            .build();
+    }
+
+    private static String seededEmail(int index) {
+        return "carga" + index + "@loadtest.local";
+    }
+
+    private static String credentials(String email) {
+        return "{\"email\":\"" + email + "\",\"password\":\"" + PASSWORD + "\"}";
+    }
+
+    private void report(Phase phase, long expectedIntervalMicros) {
+        double seconds = phase.elapsedNanos / 1e9;
+        String mode = isOpen()
+            ? String.format(Locale.ROOT, "taxa fixa de %d req/s", RATE)
+            : String.format(Locale.ROOT, "laço fechado com %d clientes", CONCURRENCY);
+
+        StringBuilder out = new StringBuilder();
+        out.append(String.format(Locale.ROOT, "%n== Repositório %s | %s | %d usuários | %.1f s ==%n",
+            repository, mode, USERS, seconds));
+        out.append(String.format(Locale.ROOT, "%-12s %10s %10s %9s%n", "Operação", "Requisições", "Req/s", "Erros"));
+        long total = 0;
+        long errors = 0;
+        for (OperationStats stats : phase.all()) {
+            long completed = stats.getCompleted();
+            total += completed;
+            errors += stats.getErrors();
+            out.append(String.format(Locale.ROOT, "%-12s %10d %10.1f %8.2f%%  %s%n",
+                stats.getName(), completed, completed / seconds, percent(stats.getErrors(), completed),
+                stats.getStatusCounts()));
+        }
+        out.append(String.format(Locale.ROOT, "%-12s %10d %10.1f %8.2f%%%n",
+            "total", total, total / seconds, percent(errors, total)));
+
+        out.append(isOpen()
+            ? String.format(Locale.ROOT, "%nLatência corrigida (desde o envio previsto), em ms:%n")
+            : String.format(Locale.ROOT, "%nLatência corrigida (intervalo esperado de %.3f ms), em ms:%n",
+                expectedIntervalMicros / 1000.0));
+        appendPercentiles(out, phase, true);
+        out.append(String.format(Locale.ROOT, "%nTempo de serviço (sem correção), em ms:%n"));
+        appendPercentiles(out, phase, false);
+        System.out.print(out);
+    }
+
+    private static void appendPercentiles(StringBuilder out, Phase phase, boolean corrected) {
+        out.append(String.format(Locale.ROOT, "%-12s %9s %9s %9s %9s %9s %9s%n",
+            "Operação", "p50", "p90", "p99", "p99.9", "máx", "média"));
+        for (OperationStats stats : phase.all()) {
+            LatencyHistogram histogram = corrected ? stats.getCorrectedLatency() : stats.getServiceTime();
+            long count = histogram.getCount();
+            out.append(String.format(Locale.ROOT, "%-12s %9.3f %9.3f %9.3f %9.3f %9.3f %9.3f%n",
+                stats.getName(),
+                histogram.getPercentile(0.5) / 1000.0,
+                histogram.getPercentile(0.9) / 1000.0,
+                histogram.getPercentile(0.99) / 1000.0,
+                histogram.getPercentile(0.999) / 1000.0,
+                histogram.getMax() / 1000.0,
+                count == 0 ? 0.0 : histogram.getSum() / (double) count / 1000.0));
+        }
+    }
+
+    private static double percent(long part, long total) {
+        return total == 0 ? 0.0 : part * 100.0 / total;
+    }
+
+    /**
+     * Resultados de uma fase (aquecimento ou medição).
+     */
+    private static class Phase {
+        final OperationStats authenticate = new OperationStats("autenticar");
+        final OperationStats register = new OperationStats("registrar");
+        long elapsedNanos;
+
+        OperationStats[] all() {
+            return new OperationStats[]{authenticate, register};
+        }
+
+        /**
+         * Mediana do tempo de serviço da operação predominante na mistura.
+         */
+        long medianServiceTime() {
+            OperationStats dominant = authenticate.getCompleted() >= register.getCompleted() ? authenticate : register;
+            return dominant.getServiceTime().getPercentile(0.5);
+        }
+    }
+
+    /**
+     * Uma requisição pronta para envio e os resultados em que será registrada.
+     */
+    private static class Operation {
+        final OperationStats stats;
+        final HttpRequest request;
+
+        Operation(OperationStats stats, HttpRequest request) {
+            this.stats = stats;
+            this.request = request;
+        }
+    }
+}
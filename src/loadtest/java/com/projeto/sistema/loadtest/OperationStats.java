@@ -0,0 +1,153 @@
+package com.projeto.sistema.loadtest;
+
+import com.projeto.sistema.metrics.LatencyHistogram;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resultados de um tipo de operação durante uma fase do teste de carga.
+ * <p>
+ * Mantém dois histogramas: o tempo de serviço, medido do envio à resposta, e a latência
+ * corrigida para omissão coordenada, medida a partir do instante em que a requisição
+ * deveria ter sido enviada.
+ */
+public class OperationStats {
+
+    private final String name;
+    private final LatencyHistogram serviceTime = new LatencyHistogram();
+    private final LatencyHistogram correctedLatency = new LatencyHistogram();
+    private final Map<Integer, LongAdder> statusCounts = new ConcurrentHashMap<>();
+    private final LongAdder failures = new LongAdder();
+
+    /**
+     * Tempos de serviço do laço fechado, em microssegundos, guardados até a correção.
+     */
+    private long[] samples = new long[1024];
+    private int sampleCount;
+
+    /**
+     * Cria os resultados de uma operação.
+     *
+     * @param name O nome exibido no relatório.
+     */
+    public OperationStats(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Registra uma resposta no modo de taxa fixa, em que o instante previsto de cada envio é conhecido.
+     *
+     * @param status        O status HTTP, ou 0 se a requisição falhou sem resposta.
+     * @param intendedNanos O instante em que a requisição deveria ter sido enviada.
+     * @param sentNanos     O instante em que foi de fato enviada.
+     * @param endNanos      O instante em que a resposta chegou.
+     */
+    public void record(int status, long intendedNanos, long sentNanos, long endNanos) {
+        countStatus(status);
+        serviceTime.record((endNanos - sentNanos) / 1_000);
+        correctedLatency.record((endNanos - intendedNanos) / 1_000);
+    }
+
+    /**
+     * Registra uma resposta no modo de laço fechado. A latência corrigida só é calculada ao fim
+     * da fase, em {@link #correct(long)}, quando o intervalo esperado entre requisições é conhecido.
+     *
+     * @param status       O status HTTP, ou 0 se a requisição falhou sem resposta.
+     * @param elapsedNanos O tempo de serviço.
+     */
+    public void record(int status, long elapsedNanos) {
+        countStatus(status);
+        long micros = elapsedNanos / 1_000;
+        serviceTime.record(micros);
+        synchronized (this) {
+            if (sampleCount == samples.length) {
+                samples = Arrays.copyOf(samples, sampleCount * 2);
+            }
+            samples[sampleCount++] = micros;
+        }
+    }
+
+    /**
+     * Preenche a latência corrigida do laço fechado. Como cada cliente só envia a próxima
+     * requisição ao receber a resposta, uma resposta lenta esconde as requisições que teriam
+     * sido enviadas nesse intervalo; elas são acrescentadas ao histograma, como faz o
+     * HdrHistogram, a partir do intervalo esperado entre requisições.
+     *
+     * @param expectedIntervalMicros O intervalo esperado entre requisições de um mesmo cliente.
+     */
+    public synchronized void correct(long expectedIntervalMicros) {
+        for (int i = 0; i < sampleCount; i++) {
+            long micros = samples[i];
+            correctedLatency.record(micros);
+            if (expectedIntervalMicros > 0) {
+                for (long missing = micros - expectedIntervalMicros; missing >= expectedIntervalMicros;
+                        missing -= expectedIntervalMicros) {
+                    correctedLatency.record(missing);
+                }
+            }
+        }
+        sampleCount = 0;
+    }
+
+    private void countStatus(int status) {
+        if (status == 0) {
+            failures.increment();
+        } else {
+            statusCounts.computeIfAbsent(status, key -> new LongAdder()).increment();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public LatencyHistogram getServiceTime() {
+        return serviceTime;
+    }
+
+    public LatencyHistogram getCorrectedLatency() {
+        return correctedLatency;
+    }
+
+    /**
+     * Obtém a quantidade de respostas recebidas e de falhas sem resposta.
+     *
+     * @return O total de requisições concluídas.
+     */
+    public long getCompleted() {
+        return serviceTime.getCount();
+    }
+
+    /**
+     * Obtém a quantidade de respostas com status 4xx ou 5xx e de falhas sem resposta.
+     *
+     * @return O total de erros.
+     */
+    public long getErrors() {
+        long errors = failures.sum();
+        for (Map.Entry<Integer, LongAdder> entry : statusCounts.entrySet()) {
+            if (entry.getKey() >= 400) {
+                errors += entry.getValue().sum();
+            }
+        }
+        return errors;
+    }
+
+    /**
+     * Obtém a contagem de respostas por status, em ordem; falhas sem resposta aparecem com status 0.
+     *
+     * @return A contagem por status.
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statusCounts.forEach((status, count) -> counts.put(status, count.sum()));
+        if (failures.sum() > 0) {
+            counts.put(0, failures.sum());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,152 @@
+package com.projeto.sistema.admission;
+
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limites de taxa de uma rota: um token bucket por endereço do cliente e outro por email.
+ * <p>
+ * Os limites são lidos das propriedades de sistema no formato {@code <fichas por segundo>/<rajada>},
+ * como {@code 5/20}. {@code sistema.admission.client} e {@code sistema.admission.email} valem para
+ * todas as rotas, e {@code sistema.admission.client.<rota>} e {@code sistema.admission.email.<rota>}
+ * substituem o valor de uma rota específica (por exemplo,
+ * {@code -Dsistema.admission.email./usuario/autenticar=1/5}); o valor {@code 0} desativa o limite.
+ * Uma rota pode declarar um limite por cliente próprio em
+ * {@link com.projeto.sistema.annotations.Rota#clientLimit()}, que prevalece sobre
+ * {@code sistema.admission.client} mas não sobre a propriedade da rota. Fora isso, nenhum limite de
+ * taxa é aplicado por padrão.
+ * <p>
+ * O limite por cliente é aplicado antes da leitura do corpo. O limite por email depende do
+ * corpo e é aplicado pelo comando da rota, com {@link #admitEmail(String, HttpServletResponse)},
+ * sobre a política obtida por {@link #of(HttpServletRequest)}.
+ */
+public class AdmissionPolicy {
+
+    /**
+     * Nome do atributo da requisição que contém a política da rota.
+     */
+    public static final String ATTRIBUTE = AdmissionPolicy.class.getName();
+
+    /**
+     * Quantidade máxima de chaves por tabela de buckets ({@code sistema.admission.maxKeys}).
+     */
+    private static final int MAX_KEYS = Integer.getInteger("sistema.admission.maxKeys", 100_000);
+
+    private static final byte[] TOO_MANY_REQUESTS = JsonResponses.error("Muitas requisições. Tente novamente mais tarde.");
+    private static final int SC_TOO_MANY_REQUESTS = 429;
+
+    private static final AdmissionPolicy UNLIMITED = new AdmissionPolicy(null, null, new LongAdder(), new LongAdder());
+
+    private final TokenBucketTable clients;
+    private final TokenBucketTable emails;
+    private final LongAdder rejectedClients;
+    private final LongAdder rejectedEmails;
+
+    /**
+     * Cria a política.
+     *
+     * @param clients         Os buckets por endereço do cliente, ou {@code null} para não limitar.
+     * @param emails          Os buckets por email, ou {@code null} para não limitar.
+     * @param rejectedClients Contador das requisições rejeitadas pelo limite por cliente.
+     * @param rejectedEmails  Contador das requisições rejeitadas pelo limite por email.
+     */
+    public AdmissionPolicy(TokenBucketTable clients, TokenBucketTable emails,
+                           LongAdder rejectedClients, LongAdder rejectedEmails) {
+        this.clients = clients;
+        this.emails = emails;
+        this.rejectedClients = rejectedClients;
+        this.rejectedEmails = rejectedEmails;
+    }
+
+    /**
+     * Cria a política de uma rota a partir das propriedades de sistema.
+     *
+     * @param route           O caminho da rota, como declarado em {@link com.projeto.sistema.annotations.Rota}.
+     * @param clientLimit     O limite por cliente declarado pela rota, ou vazio para usar o geral.
+     * @param rejectedClients Contador das requisições rejeitadas pelo limite por cliente.
+     * @param rejectedEmails  Contador das requisições rejeitadas pelo limite por email.
+     * @return A política da rota.
+     */
+    public static AdmissionPolicy forRoute(String route, String clientLimit,
+                                           LongAdder rejectedClients, LongAdder rejectedEmails) {
+        return new AdmissionPolicy(table("sistema.admission.client", route, clientLimit),
+                                   table("sistema.admission.email", route, ""),
+                                   rejectedClients, rejectedEmails);
+    }
+
+    /**
+     * Retorna a política da rota de uma requisição.
+     *
+     * @param req A requisição.
+     * @return A política, ou uma política sem limites se a rota não tiver passado pelo controle de admissão.
+     */
+    public static AdmissionPolicy of(HttpServletRequest req) {
+        Object policy = req.getAttribute(ATTRIBUTE);
+        return policy instanceof AdmissionPolicy ? (AdmissionPolicy) policy : UNLIMITED;
+    }
+
+    /**
+     * Aplica o limite por endereço do cliente. Se a requisição for rejeitada, responde com 429.
+     *
+     * @param req  A requisição.
+     * @param resp A resposta.
+     * @return {@code true} se a requisição foi admitida.
+     * @throws IOException Caso ocorra algum erro ao escrever a resposta.
+     */
+    public boolean admitClient(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        return admit(clients, req.getRemoteAddr(), rejectedClients, resp);
+    }
+
+    /**
+     * Aplica o limite por email, antes de qualquer trabalho caro como o hashing da senha. Se a
+     * requisição for rejeitada, responde com 429.
+     *
+     * @param email O email informado na requisição.
+     * @param resp  A resposta.
+     * @return {@code true} se a requisição foi admitida.
+     * @throws IOException Caso ocorra algum erro ao escrever a resposta.
+     */
+    public boolean admitEmail(String email, HttpServletResponse resp) throws IOException {
+        return admit(emails, email.toLowerCase(Locale.ROOT), rejectedEmails, resp);
+    }
+
+    private static boolean admit(TokenBucketTable buckets, String key, LongAdder rejected,
+                                 HttpServletResponse resp) throws IOException {
+        if (buckets == null || key == null) {
+            return true;
+        }
+        long waitNanos = buckets.tryAcquire(key);
+        if (waitNanos == 0) {
+            return true;
+        }
+        rejected.increment();
+        resp.setHeader("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L))));
+        JsonResponses.send(resp, SC_TOO_MANY_REQUESTS, TOO_MANY_REQUESTS);
+        return false;
+    }
+
+    /**
+     * Cria a tabela de buckets configurada para a rota, ou retorna {@code null} se não houver limite.
+     */
+    private static TokenBucketTable table(String property, String route, String routeDefault) {
+        String limit = System.getProperty(property + "." + route,
+                                          routeDefault.isEmpty() ? System.getProperty(property) : routeDefault);
+        if (limit == null || limit.trim().equals("0")) {
+            return null;
+        }
+        String[] parts = limit.trim().split("/");
+        try {
+            double rate = Double.parseDouble(parts[0]);
+            int burst = parts.length > 1 ? Integer.parseInt(parts[1]) : (int) Math.max(1, Math.ceil(rate));
+            return new TokenBucketTable(rate, burst, MAX_KEYS);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Limite inválido em " + property + " para " + route + ": " + limit, e);
+        }
+    }
+}
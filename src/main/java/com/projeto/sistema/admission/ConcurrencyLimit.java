@@ -0,0 +1,47 @@
+package com.projeto.sistema.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Limite global de requisições em processamento, sem bloqueios nem fila: quando o limite é
+ * atingido, a permissão é negada imediatamente.
+ */
+public class ConcurrencyLimit {
+
+    private final int maxConcurrent;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Cria o limite.
+     *
+     * @param maxConcurrent Quantidade máxima de requisições simultâneas; zero ou negativo desativa o limite.
+     */
+    public ConcurrencyLimit(int maxConcurrent) {
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    /**
+     * Tenta obter uma permissão. Toda permissão obtida deve ser devolvida com {@link #release()}.
+     *
+     * @return {@code true} se a requisição pode ser processada.
+     */
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > maxConcurrent && maxConcurrent > 0) {
+            inFlight.decrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Devolve uma permissão obtida com {@link #tryAcquire()}.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /** @return Requisições em processamento no momento. */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,148 @@
+package com.projeto.sistema.admission;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conjunto de token buckets, um por chave (endereço do cliente, email...), com memória limitada.
+ * <p>
+ * Cada bucket acumula {@code ratePerSecond} fichas por segundo, até {@code burst}, e cada
+ * requisição admitida consome uma ficha. Os buckets ficam em segmentos independentes, cada um
+ * com um {@link LinkedHashMap} em ordem de acesso protegido por seu próprio monitor, de modo que
+ * chaves diferentes raramente disputam o mesmo bloqueio. Um bucket sem uso pelo tempo necessário
+ * para se encher é equivalente a um bucket novo e é descartado; quando um segmento atinge o
+ * limite de chaves, o bucket usado há mais tempo é descartado.
+ */
+public class TokenBucketTable {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * Quantidade máxima de buckets ociosos descartados por acesso, para limitar o custo de cada admissão.
+     */
+    private static final int IDLE_SWEEP = 2;
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final long idleNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Cria a tabela.
+     *
+     * @param ratePerSecond Fichas repostas por segundo em cada bucket.
+     * @param burst         Capacidade de cada bucket, isto é, a rajada máxima admitida.
+     * @param maxKeys       Quantidade máxima de buckets mantidos.
+     */
+    public TokenBucketTable(double ratePerSecond, int burst, int maxKeys) {
+        if (ratePerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Limite inválido: " + ratePerSecond + "/" + burst);
+        }
+        this.tokensPerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.idleNanos = (long) Math.ceil(burst / tokensPerNano);
+        int segmentSize = Math.max(1, (maxKeys + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    /**
+     * Tenta consumir uma ficha do bucket de uma chave.
+     *
+     * @param key A chave do bucket.
+     * @return Zero se a ficha foi consumida, ou o tempo, em nanossegundos, até a próxima ficha.
+     */
+    public long tryAcquire(String key) {
+        int hash = key.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)].tryAcquire(key, System.nanoTime());
+    }
+
+    /** @return Buckets descartados por falta de espaço, antes de ficarem ociosos. */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /** @return Quantidade de buckets mantidos no momento. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    /**
+     * Estado de um bucket: fichas disponíveis e o instante da última reposição.
+     */
+    private static final class Bucket {
+        double tokens;
+        long updatedAt;
+
+        Bucket(double tokens, long updatedAt) {
+            this.tokens = tokens;
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    private class Segment {
+        private final int maxSize;
+        private final LinkedHashMap<String, Bucket> buckets;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+            this.buckets = new LinkedHashMap<String, Bucket>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                    if (size() > Segment.this.maxSize) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized long tryAcquire(String key, long now) {
+            removeIdle(now);
+
+            Bucket bucket = buckets.get(key);
+            if (bucket == null) {
+                buckets.put(key, new Bucket(burst - 1, now));
+                return 0;
+            }
+            bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.updatedAt) * tokensPerNano);
+            bucket.updatedAt = now;
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+
+        /**
+         * Descarta os buckets mais antigos que já teriam se enchido: como o mapa está em ordem de
+         * acesso, basta examinar o início.
+         */
+        private void removeIdle(long now) {
+            Iterator<Bucket> eldest = buckets.values().iterator();
+            for (int i = 0; i < IDLE_SWEEP && eldest.hasNext(); i++) {
+                if (now - eldest.next().updatedAt < idleNanos) {
+                    return;
+                }
+                eldest.remove();
+            }
+        }
+
+        synchronized int size() {
+            return buckets.size();
+        }
+    }
+}
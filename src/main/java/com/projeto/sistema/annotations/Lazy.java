@@ -0,0 +1,18 @@
+package com.projeto.sistema.annotations;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adia a criação de uma dependência até o seu primeiro uso.
+ * <p>
+ * Em uma classe {@link Singleton}, a instância não é criada na inicialização da aplicação,
+ * mas na primeira vez em que for solicitada. Em um campo {@link Inject}, cujo tipo deve ser
+ * uma interface, é injetado um intermediário que resolve a dependência na primeira chamada.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.FIELD})
+public @interface Lazy {
+}
@@ -8,5 +8,29 @@ import java.lang.annotation.Target;
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.METHOD)
 public @interface Rota {
+    /**
+     * Caminho da rota. Segmentos na forma {@code {nome}} aceitam qualquer valor, disponível
+     * para o comando em {@link com.projeto.sistema.routing.PathParameters}.
+     */
     String value();
-}
\ No newline at end of file
+
+    /**
+     * Métodos HTTP aceitos pela rota. Requisições com outros métodos recebem 405 sem chegar ao
+     * controlador. Vazio aceita qualquer método.
+     */
+    String[] method() default {};
+
+    /**
+     * Indica se a rota usa E/S não bloqueante: o corpo da requisição é lido por completo
+     * antes da execução do método, e a resposta é escrita sem ocupar a thread do container.
+     * Indicado para rotas com corpos pequenos.
+     */
+    boolean nonBlocking() default false;
+
+    /**
+     * Limite de taxa padrão por cliente da rota, no formato {@code <fichas por segundo>/<rajada>}
+     * de {@link com.projeto.sistema.admission.AdmissionPolicy}. A propriedade
+     * {@code sistema.admission.client.<rota>} o substitui. Vazio usa o limite geral.
+     */
+    String clientLimit() default "";
+}
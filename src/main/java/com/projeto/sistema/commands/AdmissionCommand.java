@@ -0,0 +1,110 @@
+package com.projeto.sistema.commands;
+
+import com.projeto.sistema.admission.AdmissionPolicy;
+import com.projeto.sistema.admission.ConcurrencyLimit;
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decorador de {@link Command} que aplica o controle de admissão antes de executar a rota.
+ * <p>
+ * A requisição é rejeitada com 429 se o cliente exceder o limite de taxa da rota, e com 503
+ * se o limite global de requisições simultâneas tiver sido atingido. Em ambos os casos a
+ * resposta é imediata: nada é enfileirado e o corpo da requisição não é lido. A política da
+ * rota fica disponível para o comando em {@link AdmissionPolicy#of(HttpServletRequest)}.
+ * <p>
+ * Se o comando deixar a requisição em modo assíncrono, a permissão de concorrência é devolvida
+ * quando o processamento assíncrono terminar.
+ */
+public class AdmissionCommand implements Command {
+
+    private static final byte[] OVERLOADED = JsonResponses.error("Servidor sobrecarregado. Tente novamente.");
+
+    private final Command delegate;
+    private final AdmissionPolicy policy;
+    private final ConcurrencyLimit concurrency;
+    private final LongAdder rejectedConcurrency;
+
+    /**
+     * Cria o decorador.
+     *
+     * @param delegate            O comando admitido.
+     * @param policy              Os limites de taxa da rota.
+     * @param concurrency         O limite global de requisições simultâneas.
+     * @param rejectedConcurrency Contador das requisições rejeitadas pelo limite global.
+     */
+    public AdmissionCommand(Command delegate, AdmissionPolicy policy,
+                            ConcurrencyLimit concurrency, LongAdder rejectedConcurrency) {
+        this.delegate = delegate;
+        this.policy = policy;
+        this.concurrency = concurrency;
+        this.rejectedConcurrency = rejectedConcurrency;
+    }
+
+    @Override
+    public void execute(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        if (!policy.admitClient(req, resp)) {
+            return;
+        }
+        if (!concurrency.tryAcquire()) {
+            rejectedConcurrency.increment();
+            resp.setHeader("Retry-After", "1");
+            JsonResponses.send(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, OVERLOADED);
+            return;
+        }
+
+        req.setAttribute(AdmissionPolicy.ATTRIBUTE, policy);
+        try {
+            delegate.execute(req, resp);
+        } catch (Exception e) {
+            concurrency.release();
+            throw e;
+        }
+
+        if (req.isAsyncStarted()) {
+            req.getAsyncContext().addListener(new ReleaseListener());
+        } else {
+            concurrency.release();
+        }
+    }
+
+    /**
+     * Devolve a permissão quando o processamento assíncrono termina. O container pode notificar
+     * mais de um evento (por exemplo, timeout seguido de conclusão); apenas o primeiro é considerado.
+     */
+    private class ReleaseListener implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // A permissão continua em uso enquanto o processamento assíncrono não terminar
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                concurrency.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,458 @@
+package com.projeto.sistema.commands;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.sistema.servlets.AsyncGuard;
+import com.projeto.sistema.servlets.BatchServletRequest;
+import com.projeto.sistema.servlets.DetachedServletResponse;
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Executa várias operações em uma única requisição HTTP.
+ * <p>
+ * O corpo é um array JSON de operações
+ * {@code {"method": "POST", "path": "/usuario", "body": {...}, "dependsOn": [0]}}. Cada operação
+ * é despachada pelo mesmo caminho de uma requisição comum (rota, filtros e comando), sobre uma
+ * {@link BatchServletRequest} e uma {@link DetachedServletResponse} em memória. Operações sem
+ * {@code dependsOn} começam imediatamente e em paralelo, nas threads do container; as demais
+ * começam quando as operações anteriores indicadas terminam, qualquer que tenha sido o resultado.
+ * <p>
+ * A resposta é um array JSON escrito à medida que as operações terminam, com um objeto
+ * {@code {"index": ..., "status": ..., "headers": {...}, "body": ...}} por operação, na ordem
+ * de conclusão. Cada resultado é serializado na thread que conclui a operação, mas escrito na
+ * resposta apenas pelas threads do container. O lote tem o prazo do {@link AsyncGuard}: ao fim
+ * dele, o array é fechado com um resultado 503 para cada operação que não terminou, e as que
+ * ainda não começaram são canceladas; se o cliente desconectar, elas são apenas canceladas.
+ * <p>
+ * Uma operação cujo caminho leva à própria rota de lotes, qualquer que seja o caminho usado,
+ * resulta em 400: lotes não podem ser aninhados.
+ */
+public class BatchCommand implements Command {
+
+    /**
+     * Tamanho máximo do corpo do lote ({@code sistema.batch.maxBody}).
+     */
+    private static final int MAX_BODY = Integer.getInteger("sistema.batch.maxBody", 256 * 1024);
+
+    /**
+     * Quantidade máxima de operações por lote ({@code sistema.batch.maxOperations}).
+     */
+    private static final int MAX_OPERATIONS = Integer.getInteger("sistema.batch.maxOperations", 20);
+
+    private static final byte[] BODY_TOO_LARGE = JsonResponses.error("O corpo do lote excede o tamanho máximo.");
+    private static final byte[] OPERATION_FAILED = JsonResponses.error("Erro ao processar a operação.");
+    private static final byte[] NESTED_BATCH = JsonResponses.error("Lotes não podem ser aninhados.");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Command dispatcher;
+    private final LongAdder operations;
+
+    /**
+     * Cria o comando.
+     *
+     * @param dispatcher O comando que encontra a rota de uma requisição e a executa.
+     * @param operations Contador das operações executadas.
+     */
+    public BatchCommand(Command dispatcher, LongAdder operations) {
+        this.dispatcher = dispatcher;
+        this.operations = operations;
+    }
+
+    /**
+     * Operação de um lote, já validada.
+     */
+    private static final class Operation {
+        final int index;
+        final String method;
+        final String path;
+        final byte[] body;
+        final int[] dependsOn;
+
+        Operation(int index, String method, String path, byte[] body, int[] dependsOn) {
+            this.index = index;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+            this.dependsOn = dependsOn;
+        }
+    }
+
+    @Override
+    public void execute(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        // A rota da operação foi resolvida para este comando, por qualquer caminho que leve a ele
+        if (req instanceof BatchServletRequest) {
+            JsonResponses.send(resp, HttpServletResponse.SC_BAD_REQUEST, NESTED_BATCH);
+            return;
+        }
+
+        byte[] body = readBody(req.getInputStream());
+        if (body == null) {
+            JsonResponses.send(resp, HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, BODY_TOO_LARGE);
+            return;
+        }
+
+        List<Operation> batch;
+        try {
+            batch = parse(objectMapper.readTree(body));
+        } catch (IOException | IllegalArgumentException e) {
+            JsonResponses.send(resp, HttpServletResponse.SC_BAD_REQUEST, JsonResponses.error(
+                e instanceof IllegalArgumentException ? e.getMessage() : "O corpo deve ser um array JSON de operações."));
+            return;
+        }
+
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        ServletOutputStream output = resp.getOutputStream();
+        output.write('[');
+        output.flush();
+
+        AsyncGuard guard = req.isAsyncSupported() ? AsyncGuard.start(req, resp) : null;
+        Executor executor = guard != null ? guard.getContext()::start : Runnable::run;
+        ResultStream results = new ResultStream(output, guard, batch.size());
+
+        List<CompletableFuture<Void>> finished = new ArrayList<>(batch.size());
+        for (Operation operation : batch) {
+            CompletableFuture<?>[] dependencies = new CompletableFuture<?>[operation.dependsOn.length];
+            for (int i = 0; i < dependencies.length; i++) {
+                dependencies[i] = finished.get(operation.dependsOn[i]);
+            }
+            finished.add(CompletableFuture.allOf(dependencies)
+                .thenComposeAsync(ready -> run(operation, req, resp, results), executor));
+        }
+
+        CompletableFuture<Void> all = CompletableFuture.allOf(finished.toArray(new CompletableFuture<?>[0]))
+            .whenComplete((done, error) -> results.end());
+        results.track(finished);
+        if (guard != null) {
+            guard.onTimeoutResponse(results::closeOnTimeout);
+            guard.onAbort(results::abort);
+        } else {
+            all.join();
+            results.run();
+        }
+    }
+
+    /**
+     * Executa uma operação e entrega o seu resultado quando a resposta estiver pronta.
+     */
+    private CompletableFuture<Void> run(Operation operation, HttpServletRequest req, HttpServletResponse resp,
+                                        ResultStream results) {
+        if (results.aborted) {
+            return CompletableFuture.completedFuture(null);
+        }
+        operations.increment();
+        DetachedServletResponse subResponse = new DetachedServletResponse(resp);
+        BatchServletRequest subRequest = new BatchServletRequest(req, operation.method, operation.path,
+                                                                 operation.body, subResponse);
+        try {
+            dispatcher.execute(subRequest, subResponse);
+        } catch (Exception e) {
+            subResponse.reset();
+            try {
+                JsonResponses.send(subResponse, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, OPERATION_FAILED);
+            } catch (IOException ignored) {
+                // A resposta da operação está em memória
+            }
+            results.add(operation.index, serialize(operation.index, subResponse));
+            return CompletableFuture.completedFuture(null);
+        }
+        return subRequest.getCompletion()
+            .thenRun(() -> results.add(operation.index, serialize(operation.index, subResponse)));
+    }
+
+    /**
+     * Serializa o resultado de uma operação em memória, sem tocar a resposta do lote.
+     */
+    private byte[] serialize(int index, DetachedServletResponse response) {
+        byte[] body = response.getBody();
+        String contentType = response.getContentType();
+        ByteArrayOutputStream result = new ByteArrayOutputStream(body.length + 64);
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(result, JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeNumberField("index", index);
+            generator.writeNumberField("status", response.getStatus());
+            boolean hasHeaders = false;
+            for (String name : response.getHeaderNames()) {
+                if (!hasHeaders) {
+                    generator.writeObjectFieldStart("headers");
+                    hasHeaders = true;
+                }
+                generator.writeStringField(name, String.join(", ", response.getHeaders(name)));
+            }
+            if (hasHeaders) {
+                generator.writeEndObject();
+            }
+            if (body.length > 0) {
+                generator.writeFieldName("body");
+                String text = new String(body, StandardCharsets.UTF_8);
+                if (contentType != null && contentType.startsWith("application/json")) {
+                    generator.writeRawValue(text);
+                } else {
+                    generator.writeString(text);
+                }
+            }
+            generator.writeEndObject();
+        } catch (IOException e) {
+            // A saída está em memória e não falha
+            throw new IllegalStateException(e);
+        }
+        return result.toByteArray();
+    }
+
+    /**
+     * Saída do lote. Os resultados entram em uma fila, de qualquer thread, e são escritos na
+     * resposta por uma única tarefa de cada vez, iniciada pelo {@link javax.servlet.AsyncContext}.
+     * Sem suporte assíncrono, a própria thread da requisição escreve tudo ao final.
+     * <p>
+     * As escritas são feitas dentro de {@link AsyncGuard#write} e {@link AsyncGuard#complete}, e
+     * a do timeout dentro do próprio guarda; o estado da saída só é alterado nelas.
+     */
+    private static final class ResultStream implements Runnable {
+        private static final byte[] TIMED_OUT = JsonResponses.error("Tempo de processamento esgotado.");
+
+        private final ServletOutputStream output;
+        private final AsyncGuard guard;
+        private final int size;
+        private final Queue<Result> pending = new ConcurrentLinkedQueue<>();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile List<CompletableFuture<Void>> operations = new ArrayList<>();
+        private volatile boolean ended;
+        private volatile boolean aborted;
+        // Alterados apenas pelas escritas, uma de cada vez
+        private final BitSet written = new BitSet();
+        private boolean first = true;
+        private volatile boolean closed;
+
+        ResultStream(ServletOutputStream output, AsyncGuard guard, int size) {
+            this.output = output;
+            this.guard = guard;
+            this.size = size;
+        }
+
+        void track(List<CompletableFuture<Void>> operations) {
+            this.operations = operations;
+            if (aborted) {
+                abort();
+            }
+        }
+
+        void add(int index, byte[] result) {
+            pending.add(new Result(index, result));
+            schedule();
+        }
+
+        /**
+         * Indica que todas as operações terminaram.
+         */
+        void end() {
+            ended = true;
+            schedule();
+        }
+
+        /**
+         * Descarta os resultados seguintes e cancela as operações que ainda não começaram.
+         */
+        void abort() {
+            aborted = true;
+            pending.clear();
+            for (CompletableFuture<Void> operation : operations) {
+                operation.cancel(false);
+            }
+        }
+
+        /**
+         * Fecha o array no timeout: escreve os resultados já prontos e um resultado 503 para cada
+         * operação que ainda não terminou.
+         */
+        void closeOnTimeout() throws IOException {
+            Result result;
+            while ((result = pending.poll()) != null) {
+                writeResult(result);
+            }
+            for (int index = written.nextClearBit(0); index < size; index = written.nextClearBit(index + 1)) {
+                writeResult(new Result(index, timeoutResult(index)));
+            }
+            close();
+        }
+
+        private static byte[] timeoutResult(int index) {
+            byte[] prefix = ("{\"index\":" + index + ",\"status\":503,\"body\":").getBytes(StandardCharsets.UTF_8);
+            byte[] entry = Arrays.copyOf(prefix, prefix.length + TIMED_OUT.length + 1);
+            System.arraycopy(TIMED_OUT, 0, entry, prefix.length, TIMED_OUT.length);
+            entry[entry.length - 1] = '}';
+            return entry;
+        }
+
+        private void schedule() {
+            if (guard == null || aborted || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                guard.getContext().start(this);
+            } catch (IllegalStateException e) {
+                // O contexto já foi concluído, por timeout ou erro da conexão
+                draining.set(false);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                Result result;
+                while (!aborted && (result = pending.poll()) != null) {
+                    Result next = result;
+                    write(() -> writeResult(next));
+                }
+                if (ended && !closed && pending.isEmpty()) {
+                    if (guard != null) {
+                        guard.complete(this::close);
+                    } else {
+                        close();
+                    }
+                }
+            } catch (IOException e) {
+                // O cliente desconectou antes do fim do lote
+                abort();
+                if (guard != null) {
+                    completeQuietly();
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (!aborted && (!pending.isEmpty() || ended && !closed)) {
+                schedule();
+            }
+        }
+
+        private void writeResult(Result result) throws IOException {
+            if (closed) {
+                return;
+            }
+            if (!first) {
+                output.write(',');
+            }
+            first = false;
+            output.write(result.bytes);
+            output.flush();
+            written.set(result.index);
+        }
+
+        private void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                output.write(']');
+            }
+        }
+
+        private void write(AsyncGuard.ResponseAction action) throws IOException {
+            if (guard == null) {
+                action.run();
+            } else if (!guard.write(action)) {
+                abort();
+            }
+        }
+
+        private void completeQuietly() {
+            try {
+                guard.complete(() -> { });
+            } catch (IOException ignored) {
+                // Nada é escrito na conclusão
+            }
+        }
+    }
+
+    /**
+     * Resultado serializado de uma operação.
+     */
+    private static final class Result {
+        final int index;
+        final byte[] bytes;
+
+        Result(int index, byte[] bytes) {
+            this.index = index;
+            this.bytes = bytes;
+        }
+    }
+
+    /**
+     * Valida o lote e converte as operações.
+     *
+     * @throws IllegalArgumentException Se o lote for inválido, com uma mensagem para o cliente.
+     */
+    private List<Operation> parse(JsonNode root) throws IOException {
+        if (root == null || !root.isArray()) {
+            throw new IllegalArgumentException("O corpo deve ser um array JSON de operações.");
+        }
+        if (root.size() > MAX_OPERATIONS) {
+            throw new IllegalArgumentException("O lote excede o máximo de " + MAX_OPERATIONS + " operações.");
+        }
+
+        List<Operation> batch = new ArrayList<>(root.size());
+        for (int index = 0; index < root.size(); index++) {
+            JsonNode item = root.get(index);
+            JsonNode path = item.get("path");
+            if (path == null || !path.isTextual() || !path.asText().startsWith("/")) {
+                throw new IllegalArgumentException("Operação " + index + ": \"path\" deve começar com '/'.");
+            }
+
+            JsonNode bodyNode = item.get("body");
+            boolean hasBody = bodyNode != null && !bodyNode.isNull();
+            JsonNode method = item.get("method");
+            String methodName = method != null && method.isTextual()
+                ? method.asText().toUpperCase(Locale.ROOT)
+                : (hasBody ? "POST" : "GET");
+
+            JsonNode dependsOn = item.get("dependsOn");
+            int[] dependencies = new int[dependsOn == null ? 0 : dependsOn.isArray() ? dependsOn.size() : 1];
+            for (int i = 0; i < dependencies.length; i++) {
+                JsonNode dependency = dependsOn.isArray() ? dependsOn.get(i) : dependsOn;
+                if (!dependency.canConvertToInt() || dependency.asInt() < 0 || dependency.asInt() >= index) {
+                    throw new IllegalArgumentException(
+                        "Operação " + index + ": \"dependsOn\" deve indicar operações anteriores do lote.");
+                }
+                dependencies[i] = dependency.asInt();
+            }
+
+            batch.add(new Operation(index, methodName, path.asText(),
+                                    hasBody ? objectMapper.writeValueAsBytes(bodyNode) : new byte[0], dependencies));
+        }
+        return batch;
+    }
+
+    /**
+     * Lê o corpo do lote, ou retorna {@code null} se ele exceder o tamanho máximo.
+     */
+    private static byte[] readBody(InputStream input) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream(1024);
+        byte[] chunk = new byte[8192];
+        int read;
+        while ((read = input.read(chunk)) != -1) {
+            if (body.size() + read > MAX_BODY) {
+                return null;
+            }
+            body.write(chunk, 0, read);
+        }
+        return body.toByteArray();
+    }
+}
@@ -0,0 +1,92 @@
+package com.projeto.sistema.commands;
+
+import com.projeto.sistema.metrics.RouteMetrics;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Decorador de {@link Command} que registra, para cada execução, o código de status e a
+ * latência da rota em um {@link RouteMetrics}.
+ * <p>
+ * Se o comando deixar a requisição em modo assíncrono, o registro é feito quando o
+ * processamento assíncrono terminar.
+ */
+public class MeteredCommand implements Command {
+
+    private final Command delegate;
+    private final RouteMetrics metrics;
+
+    /**
+     * Cria o decorador.
+     *
+     * @param delegate O comando medido.
+     * @param metrics  As métricas da rota.
+     */
+    public MeteredCommand(Command delegate, RouteMetrics metrics) {
+        this.delegate = delegate;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void execute(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        long start = System.nanoTime();
+        try {
+            delegate.execute(req, resp);
+        } catch (Exception e) {
+            metrics.record(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, System.nanoTime() - start);
+            throw e;
+        }
+
+        if (req.isAsyncStarted()) {
+            req.getAsyncContext().addListener(new CompletionListener(resp, start));
+        } else {
+            metrics.record(resp.getStatus(), System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Registra a requisição quando o processamento assíncrono termina.
+     * O container pode notificar mais de um evento (por exemplo, timeout seguido de conclusão);
+     * apenas o primeiro é registrado.
+     */
+    private class CompletionListener implements AsyncListener {
+        private final HttpServletResponse resp;
+        private final long start;
+        private final AtomicBoolean recorded = new AtomicBoolean();
+
+        CompletionListener(HttpServletResponse resp, long start) {
+            this.resp = resp;
+            this.start = start;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            record(resp.getStatus());
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            record(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            record(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        }
+
+        private void record(int status) {
+            if (recorded.compareAndSet(false, true)) {
+                metrics.record(status, System.nanoTime() - start);
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Não há nada a registrar ao reiniciar o modo assíncrono
+        }
+    }
+}
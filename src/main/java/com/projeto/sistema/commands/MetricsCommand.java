@@ -0,0 +1,127 @@
+package com.projeto.sistema.commands;
+
+import com.projeto.sistema.metrics.LatencyHistogram;
+import com.projeto.sistema.metrics.MetricsRegistry;
+import com.projeto.sistema.metrics.RouteMetrics;
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Comando que exporta as métricas do {@link MetricsRegistry}.
+ * <p>
+ * Por padrão responde no formato de texto do Prometheus; com o parâmetro {@code format=json},
+ * ou com {@code Accept: application/json}, responde em JSON.
+ */
+public class MetricsCommand implements Command {
+
+    private static final double[] QUANTILES = {0.5, 0.99, 0.999};
+    private static final String[] QUANTILE_NAMES = {"p50", "p99", "p999"};
+
+    private final MetricsRegistry registry;
+
+    /**
+     * Cria o comando de exportação.
+     *
+     * @param registry O registro de métricas exportado.
+     */
+    public MetricsCommand(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public void execute(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        String accept = req.getHeader("Accept");
+        boolean json = "json".equalsIgnoreCase(req.getParameter("format"))
+            || (accept != null && accept.contains("application/json"));
+
+        if (json) {
+            JsonResponses.send(resp, HttpServletResponse.SC_OK, JsonResponses.encode(toJson()));
+        } else {
+            byte[] body = toPrometheus().getBytes(StandardCharsets.UTF_8);
+            resp.setStatus(HttpServletResponse.SC_OK);
+            resp.setContentType("text/plain; version=0.0.4");
+            resp.setCharacterEncoding("UTF-8");
+            resp.setContentLength(body.length);
+            resp.getOutputStream().write(body);
+        }
+    }
+
+    private String toPrometheus() {
+        StringBuilder out = new StringBuilder(1024);
+
+        out.append("# TYPE sistema_requests_total counter\n");
+        for (RouteMetrics route : registry.getRoutes()) {
+            out.append("sistema_requests_total{route=\"").append(route.getRoute()).append("\"} ")
+               .append(route.getRequests()).append('\n');
+        }
+
+        out.append("# TYPE sistema_responses_total counter\n");
+        for (RouteMetrics route : registry.getRoutes()) {
+            for (Map.Entry<Integer, Long> status : route.getStatusCounts().entrySet()) {
+                out.append("sistema_responses_total{route=\"").append(route.getRoute())
+                   .append("\",status=\"").append(status.getKey()).append("\"} ")
+                   .append(status.getValue()).append('\n');
+            }
+        }
+
+        out.append("# TYPE sistema_request_duration_seconds summary\n");
+        for (RouteMetrics route : registry.getRoutes()) {
+            LatencyHistogram latency = route.getLatency();
+            for (double quantile : QUANTILES) {
+                out.append("sistema_request_duration_seconds{route=\"").append(route.getRoute())
+                   .append("\",quantile=\"").append(quantile).append("\"} ")
+                   .append(seconds(latency.getPercentile(quantile))).append('\n');
+            }
+            out.append("sistema_request_duration_seconds_sum{route=\"").append(route.getRoute()).append("\"} ")
+               .append(seconds(latency.getSum())).append('\n');
+            out.append("sistema_request_duration_seconds_count{route=\"").append(route.getRoute()).append("\"} ")
+               .append(latency.getCount()).append('\n');
+        }
+
+        for (Map.Entry<String, Long> value : registry.snapshotValues().entrySet()) {
+            out.append("# TYPE ").append(value.getKey())
+               .append(value.getKey().endsWith("_total") ? " counter\n" : " gauge\n");
+            out.append(value.getKey()).append(' ').append(value.getValue()).append('\n');
+        }
+        return out.toString();
+    }
+
+    private Map<String, Object> toJson() {
+        Map<String, Object> routes = new LinkedHashMap<>();
+        for (RouteMetrics route : registry.getRoutes()) {
+            LatencyHistogram latency = route.getLatency();
+            Map<String, Object> latencyJson = new LinkedHashMap<>();
+            for (int i = 0; i < QUANTILES.length; i++) {
+                latencyJson.put(QUANTILE_NAMES[i] + "_ms", millis(latency.getPercentile(QUANTILES[i])));
+            }
+            latencyJson.put("max_ms", millis(latency.getMax()));
+            latencyJson.put("mean_ms", latency.getCount() == 0 ? 0.0 : millis(latency.getSum() / latency.getCount()));
+
+            Map<String, Object> routeJson = new LinkedHashMap<>();
+            routeJson.put("requests", route.getRequests());
+            routeJson.put("errors", route.getErrors());
+            routeJson.put("statuses", route.getStatusCounts());
+            routeJson.put("latency", latencyJson);
+            routes.put(route.getRoute(), routeJson);
+        }
+
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("routes", routes);
+        json.put("values", registry.snapshotValues());
+        return json;
+    }
+
+    private static String seconds(long micros) {
+        return String.format(Locale.ROOT, "%.6f", micros / 1_000_000.0);
+    }
+
+    private static double millis(long micros) {
+        return micros / 1_000.0;
+    }
+}
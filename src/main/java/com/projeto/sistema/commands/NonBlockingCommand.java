@@ -0,0 +1,204 @@
+package com.projeto.sistema.commands;
+
+import com.projeto.sistema.servlets.AsyncGuard;
+import com.projeto.sistema.servlets.BufferedServletRequest;
+import com.projeto.sistema.servlets.BufferedServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Decorador de {@link Command} que executa a rota com E/S não bloqueante (Servlet 3.1).
+ * <p>
+ * A requisição é colocada em modo assíncrono e o corpo é lido com um {@link ReadListener}
+ * para um buffer limitado. O comando decorado só é executado quando o corpo está completo,
+ * sobre uma {@link BufferedServletRequest} e uma {@link BufferedServletResponse}. Quando a
+ * resposta fica pronta (inclusive se o comando a concluir depois, via {@code startAsync}),
+ * o corpo produzido é escrito com um {@link WriteListener}. Assim, clientes lentos não
+ * ocupam threads do container enquanto enviam ou recebem dados. A leitura do corpo e a execução
+ * do comando têm o prazo do {@link AsyncGuard}; a escrita da resposta pronta não o tem, e um
+ * cliente lento para recebê-la é limitado pelo timeout de escrita do conector. Falhas do comando
+ * ou da conexão são registradas no log.
+ * Sem suporte assíncrono, ou se o corpo já estiver em memória, o comando é executado diretamente.
+ */
+public class NonBlockingCommand implements Command {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(NonBlockingCommand.class);
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final Command delegate;
+    private final int maxBodySize;
+
+    /**
+     * Cria o decorador.
+     *
+     * @param delegate    O comando a ser executado quando o corpo estiver completo.
+     * @param maxBodySize Tamanho máximo aceito para o corpo da requisição, em bytes.
+     */
+    public NonBlockingCommand(Command delegate, int maxBodySize) {
+        this.delegate = delegate;
+        this.maxBodySize = maxBodySize;
+    }
+
+    @Override
+    public void execute(HttpServletRequest req, HttpServletResponse resp) throws Exception {
+        // Sem suporte assíncrono, ou com o corpo já em memória (operações de um lote), não há o que ler
+        if (!req.isAsyncSupported() || req instanceof BufferedServletRequest) {
+            delegate.execute(req, resp);
+            return;
+        }
+
+        long declaredLength = req.getContentLengthLong();
+        if (declaredLength > maxBodySize) {
+            resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            return;
+        }
+
+        AsyncGuard guard = AsyncGuard.start(req, resp);
+        ServletInputStream input = req.getInputStream();
+        input.setReadListener(new BodyReader(guard, req, resp, input,
+            declaredLength > 0 ? (int) declaredLength : 256));
+    }
+
+    /**
+     * Lê o corpo da requisição à medida que os dados chegam.
+     */
+    private class BodyReader implements ReadListener {
+        private final AsyncGuard guard;
+        private final HttpServletRequest req;
+        private final HttpServletResponse resp;
+        private final ServletInputStream input;
+        private final ByteArrayOutputStream body;
+        private final byte[] chunk = new byte[CHUNK_SIZE];
+        private boolean rejected;
+
+        BodyReader(AsyncGuard guard, HttpServletRequest req, HttpServletResponse resp,
+                   ServletInputStream input, int initialSize) {
+            this.guard = guard;
+            this.req = req;
+            this.resp = resp;
+            this.input = input;
+            this.body = new ByteArrayOutputStream(initialSize);
+        }
+
+        @Override
+        public void onDataAvailable() throws IOException {
+            while (!rejected && input.isReady()) {
+                int read = input.read(chunk);
+                if (read == -1) {
+                    return;
+                }
+                if (body.size() + read > maxBodySize) {
+                    rejected = true;
+                    guard.complete(() -> resp.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE));
+                    return;
+                }
+                body.write(chunk, 0, read);
+            }
+        }
+
+        @Override
+        public void onAllDataRead() throws IOException {
+            if (rejected) {
+                return;
+            }
+
+            BufferedServletResponse bufferedResponse = new BufferedServletResponse(resp);
+            BufferedServletRequest bufferedRequest = new BufferedServletRequest(req, body.toByteArray(), bufferedResponse);
+            try {
+                delegate.execute(bufferedRequest, bufferedResponse);
+            } catch (Exception e) {
+                fail(e);
+                return;
+            }
+
+            bufferedRequest.getCompletion().thenRun(() -> {
+                try {
+                    // Descartada se o prazo já venceu e o container concluiu a resposta
+                    guard.write(() -> {
+                        guard.clearTimeout();
+                        byte[] output = bufferedResponse.getBody();
+                        resp.setContentLength(output.length);
+                        ServletOutputStream out = resp.getOutputStream();
+                        out.setWriteListener(new BodyWriter(guard, req, out, output));
+                    });
+                } catch (IOException | RuntimeException e) {
+                    fail(e);
+                }
+            });
+        }
+
+        private void fail(Exception e) {
+            LOGGER.error("Erro ao processar {} {}", req.getMethod(), req.getRequestURI(), e);
+            try {
+                guard.complete(() -> {
+                    if (!resp.isCommitted()) {
+                        resp.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                    }
+                });
+            } catch (IOException ignored) {
+                // A conexão já não pode receber a resposta de erro
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.warn("Erro ao ler o corpo de {} {}", req.getMethod(), req.getRequestURI(), t);
+            completeQuietly(guard);
+        }
+    }
+
+    private static void completeQuietly(AsyncGuard guard) {
+        try {
+            guard.complete(() -> { });
+        } catch (IOException ignored) {
+            // Nada é escrito ao concluir
+        }
+    }
+
+    /**
+     * Escreve o corpo da resposta à medida que a conexão aceita dados.
+     */
+    private static class BodyWriter implements WriteListener {
+        private final AsyncGuard guard;
+        private final HttpServletRequest req;
+        private final ServletOutputStream out;
+        private final byte[] body;
+        private int offset;
+
+        BodyWriter(AsyncGuard guard, HttpServletRequest req, ServletOutputStream out, byte[] body) {
+            this.guard = guard;
+            this.req = req;
+            this.out = out;
+            this.body = body;
+        }
+
+        @Override
+        public void onWritePossible() throws IOException {
+            while (out.isReady()) {
+                if (offset >= body.length) {
+                    completeQuietly(guard);
+                    return;
+                }
+                int length = Math.min(CHUNK_SIZE, body.length - offset);
+                out.write(body, offset, length);
+                offset += length;
+            }
+        }
+
+        @Override
+        public void onError(Throwable t) {
+            LOGGER.warn("Erro ao escrever a resposta de {} {}", req.getMethod(), req.getRequestURI(), t);
+            completeQuietly(guard);
+        }
+    }
+}
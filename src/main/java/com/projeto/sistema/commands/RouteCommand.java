@@ -1,5 +1,6 @@
 package com.projeto.sistema.commands;
 
+import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 
 import javax.servlet.http.HttpServletRequest;
@@ -7,6 +8,8 @@ import javax.servlet.http.HttpServletResponse;
 
 /**
  * Comando que adapta um método controlador para o padrão Command.
+ * Utiliza reflexão e serve como alternativa para métodos que não podem ser
+ * vinculados diretamente pela {@link com.projeto.sistema.factories.CommandFactory}.
  */
 public class RouteCommand implements Command {
 
@@ -22,10 +25,19 @@ public class RouteCommand implements Command {
     public RouteCommand(Object controllerInstance, Method method) {
         this.controllerInstance = controllerInstance;
         this.method = method;
+        this.method.setAccessible(true);
     }
 
     @Override
     public void execute(HttpServletRequest req, HttpServletResponse resp) throws Exception {
-        method.invoke(controllerInstance, req, resp);
+        try {
+            method.invoke(controllerInstance, req, resp);
+        } catch (InvocationTargetException e) {
+            // Propaga a exceção original do controlador, como faria uma chamada direta
+            if (e.getCause() instanceof Exception) {
+                throw (Exception) e.getCause();
+            }
+            throw e;
+        }
     }
 }
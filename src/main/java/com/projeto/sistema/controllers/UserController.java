@@ -1,19 +1,42 @@
 package com.projeto.sistema.controllers;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.projeto.sistema.admission.AdmissionPolicy;
 import com.projeto.sistema.annotations.Inject;
+import com.projeto.sistema.annotations.Lazy;
 import com.projeto.sistema.annotations.Rota;
 import com.projeto.sistema.annotations.Singleton;
 import com.projeto.sistema.repositories.UserRepositoryInterface;
+import com.projeto.sistema.models.AuthenticatedUser;
+import com.projeto.sistema.models.Credentials;
 import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.servlets.AsyncGuard;
+import com.projeto.sistema.utils.HashingExecutor;
+import com.projeto.sistema.utils.JsonResponses;
 import com.projeto.sistema.utils.PasswordUtils;
+import com.projeto.sistema.utils.SessionTokenService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.Map;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 /**
  * Controlador responsável pelo gerenciamento de usuários, incluindo registro e autenticação.
@@ -21,19 +44,68 @@ import java.util.Optional;
 
 @Singleton
 public class UserController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UserController.class);
     
     /**
-     * Repositório para operações relacionadas aos usuários.
+     * Repositório para operações relacionadas aos usuários. É resolvido na primeira chamada,
+     * para que a inicialização da aplicação não aguarde a sua abertura.
      */
 	
     @Inject
+    @Lazy
     private UserRepositoryInterface userRepository;
 
+    /**
+     * Executor dedicado ao hashing de senhas, que libera as threads do container.
+     */
+    @Inject
+    private HashingExecutor hashingExecutor;
+
+    /**
+     * Serviço que emite os tokens de sessão das autenticações bem-sucedidas.
+     */
+    @Inject
+    private SessionTokenService sessionTokens;
+
     /**
      * Utilizado para mapear e processar JSON na requisição e resposta.
      */
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    /**
+     * Leitor reutilizável para o corpo das requisições de registro e autenticação.
+     */
+    private final ObjectReader credentialsReader = objectMapper.readerFor(Credentials.class);
+
+    /**
+     * Escritor reutilizável para a resposta de autenticação.
+     */
+    private final ObjectWriter authenticatedUserWriter = objectMapper.writerFor(AuthenticatedUser.class);
+
+    /**
+     * Corpos de resposta constantes, codificados em UTF-8 uma única vez.
+     */
+    private static final byte[] MISSING_CREDENTIALS = JsonResponses.error("Email e senha são obrigatórios.");
+    private static final byte[] USER_REGISTERED = JsonResponses.message("Usuário registrado com sucesso!");
+    private static final byte[] WRONG_PASSWORD = JsonResponses.error("Senha incorreta.");
+    private static final byte[] USER_NOT_FOUND = JsonResponses.error("Usuário não encontrado.");
+    private static final byte[] OVERLOADED = JsonResponses.error("Servidor sobrecarregado. Tente novamente.");
+    private static final byte[] INTERNAL_ERROR = JsonResponses.error("Erro interno ao processar a requisição.");
+    private static final byte[] MISSING_TOKEN = JsonResponses.error("Token de sessão ausente.");
+    private static final byte[] INVALID_TOKEN = JsonResponses.error("Token de sessão inválido ou expirado.");
+    private static final byte[] INVALID_IMPORT_BODY = JsonResponses.error("O corpo deve ser um array JSON de usuários.");
+
+    /**
+     * Quantidade de registros lidos, hasheados e gravados por vez na importação em lote.
+     */
+    private static final int IMPORT_CHUNK_SIZE = 1000;
+
+    /**
+     * Registro da importação que não é um objeto {@code {"email": ..., "password": ...}}.
+     */
+    private static final Credentials INVALID_RECORD = new Credentials(null, null);
+
     /**
      * Registra um novo usuário no sistema.
      *
@@ -41,87 +113,296 @@ public class UserController {
      * @param resp Objeto {@link HttpServletResponse} para enviar a resposta HTTP.
      * @throws IOException Caso ocorra algum erro ao ler a entrada ou escrever a saída.
      */
-    @Rota("/usuario")
+    @Rota(value = "/usuario", method = "POST", nonBlocking = true)
     public void registerUser(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        if (!req.getMethod().equalsIgnoreCase("POST")) {
-            resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
+        Credentials body = credentialsReader.readValue(req.getInputStream());
+
+        if (!body.isComplete()) {
+            JsonResponses.send(resp, HttpServletResponse.SC_BAD_REQUEST, MISSING_CREDENTIALS);
             return;
         }
-
-        Map<String, String> body = objectMapper.readValue(req.getInputStream(), Map.class);
-        String email = body.get("email");
-        String password = body.get("password");
-
-        if ((email == null || password == null) || (email == "" || password == "")) {
-            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-            sendJsonResponse(resp, Map.of("error", "Email e senha são obrigatórios."));
+        if (!AdmissionPolicy.of(req).admitEmail(body.getEmail(), resp)) {
             return;
         }
 
-        try {
-            userRepository.createUser(email, password);
-            sendJsonResponse(resp, Map.of("message", "Usuário registrado com sucesso!"));
-        } catch (IllegalArgumentException e) {
-            resp.setStatus(HttpServletResponse.SC_CONFLICT);
-            sendJsonResponse(resp, Map.of("error", e.getMessage()));
-        }
+        runHashing(req, resp, () -> {
+            try {
+                userRepository.createUser(body.getEmail(), body.getPassword());
+                JsonResponses.send(resp, HttpServletResponse.SC_OK, USER_REGISTERED);
+            } catch (IllegalArgumentException e) {
+                JsonResponses.send(resp, HttpServletResponse.SC_CONFLICT, JsonResponses.error(e.getMessage()));
+            } catch (RejectedExecutionException e) {
+                // A fila de gravação do repositório está cheia
+                JsonResponses.send(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, OVERLOADED);
+            }
+        });
     }
 
     /**
-     * Autentica um usuário existente no sistema.
+     * Autentica um usuário existente no sistema e emite um token de sessão.
+     * <p>
+     * As credenciais são sempre exigidas: um token da requisição não é renovado, para que a
+     * validade de uma sessão não possa ser estendida indefinidamente sem a senha.
      *
      * @param req  Objeto {@link HttpServletRequest} contendo a requisição HTTP.
      * @param resp Objeto {@link HttpServletResponse} para enviar a resposta HTTP.
      * @throws IOException Caso ocorra algum erro ao ler a entrada ou escrever a saída.
      */
-    @Rota("/usuario/autenticar")
+    @Rota(value = "/usuario/autenticar", method = "POST", nonBlocking = true)
     public void authenticateUser(HttpServletRequest req, HttpServletResponse resp) throws IOException {
-        if (!req.getMethod().equalsIgnoreCase("POST")) {
-            resp.setStatus(HttpServletResponse.SC_METHOD_NOT_ALLOWED);
-            sendJsonResponse(resp, Map.of("error", "Método não permitido. Use POST."));
+        Credentials body = credentialsReader.readValue(req.getInputStream());
+
+        if (!body.isComplete()) {
+            JsonResponses.send(resp, HttpServletResponse.SC_BAD_REQUEST, MISSING_CREDENTIALS);
             return;
         }
+        if (!AdmissionPolicy.of(req).admitEmail(body.getEmail(), resp)) {
+            return;
+        }
+
+        runHashing(req, resp, () -> {
+            Optional<User> userOpt = userRepository.findUserByEmail(body.getEmail());
 
-        Map<String, String> body = objectMapper.readValue(req.getInputStream(), Map.class);
-        String email = body.get("email");
-        String password = body.get("password");
+            if (userOpt.isPresent()) {
+                User user = userOpt.get();
+                if (user.checkPassword(body.getPassword())) {
+                    JsonResponses.send(resp, HttpServletResponse.SC_OK, authenticatedUserWriter.writeValueAsBytes(
+                        sessionTokens.issue(user.getId(), user.getEmail())));
+                } else {
+                    JsonResponses.send(resp, HttpServletResponse.SC_UNAUTHORIZED, WRONG_PASSWORD);
+                }
+            } else {
+                JsonResponses.send(resp, HttpServletResponse.SC_NOT_FOUND, USER_NOT_FOUND);
+            }
+        });
+    }
 
-     if ((email == null || password == null) || (email == "" || password == "")) {
-            resp.setStatus(HttpServletResponse.SC_BAD_REQUEST);
-            sendJsonResponse(resp, Map.of("error", "Email e senha são obrigatórios."));
+    /**
+     * Retorna o usuário do token de sessão da requisição.
+     *
+     * @param req  Objeto {@link HttpServletRequest} contendo a requisição HTTP.
+     * @param resp Objeto {@link HttpServletResponse} para enviar a resposta HTTP.
+     * @throws IOException Caso ocorra algum erro ao escrever a saída.
+     */
+    @Rota(value = "/usuario/sessao", method = "GET")
+    public void currentSession(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        AuthenticatedUser session = (AuthenticatedUser) req.getAttribute(SessionTokenService.ATTRIBUTE);
+        if (session == null) {
+            if (req.getAttribute(SessionTokenService.REJECTED_ATTRIBUTE) != null) {
+                resp.setHeader("WWW-Authenticate", "Bearer error=\"invalid_token\"");
+                JsonResponses.send(resp, HttpServletResponse.SC_UNAUTHORIZED, INVALID_TOKEN);
+            } else {
+                resp.setHeader("WWW-Authenticate", "Bearer");
+                JsonResponses.send(resp, HttpServletResponse.SC_UNAUTHORIZED, MISSING_TOKEN);
+            }
             return;
         }
+        JsonResponses.send(resp, HttpServletResponse.SC_OK, authenticatedUserWriter.writeValueAsBytes(session));
+    }
 
-        Optional<User> userOpt = userRepository.findUserByEmail(email);
+    /**
+     * Executa uma tarefa que envolve hashing de senha no {@link HashingExecutor}.
+     * <p>
+     * Quando o container suporta processamento assíncrono, a requisição é colocada em modo
+     * assíncrono, com o prazo do {@link AsyncGuard}, e a thread do container é liberada enquanto
+     * o hashing é executado. Se a fila do executor estiver cheia, responde imediatamente com 503;
+     * se o prazo vencer antes de a tarefa começar, ela não é executada. Uma falha da tarefa é
+     * registrada no log e respondida com 500. Sem suporte assíncrono, a tarefa é executada na
+     * própria thread da requisição.
+     *
+     * @param req  Objeto {@link HttpServletRequest} contendo a requisição HTTP.
+     * @param resp Objeto {@link HttpServletResponse} para enviar a resposta HTTP.
+     * @param task A tarefa que produz a resposta.
+     * @throws IOException Caso ocorra algum erro ao escrever a saída.
+     */
+    private void runHashing(HttpServletRequest req, HttpServletResponse resp, ResponseTask task) throws IOException {
+        if (!req.isAsyncSupported()) {
+            task.run();
+            return;
+        }
 
-        if (userOpt.isPresent()) {
-            User user = userOpt.get();
-            String hashedInput = PasswordUtils.hashWithSalt(password, user.getSalt());
-            if (hashedInput.equals(user.getHashedPassword())) {
-                sendJsonResponse(resp, Map.of(
-                    "id", user.getId(),
-                    "email", user.getEmail()
-                ));
-            } else {
-                resp.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-                sendJsonResponse(resp, Map.of("error", "Senha incorreta."));
+        AsyncGuard guard = AsyncGuard.start(req, resp);
+        try {
+            hashingExecutor.execute(() -> {
+                try {
+                    guard.complete(() -> runLogged(req, resp, task));
+                } catch (IOException ignored) {
+                    // A conexão foi encerrada antes da resposta
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            guard.complete(() -> JsonResponses.send(resp, HttpServletResponse.SC_SERVICE_UNAVAILABLE, OVERLOADED));
+        }
+    }
+
+    /**
+     * Executa a tarefa, registrando no log e respondendo com 500 uma falha inesperada.
+     */
+    private static void runLogged(HttpServletRequest req, HttpServletResponse resp, ResponseTask task) {
+        try {
+            task.run();
+        } catch (IOException | RuntimeException e) {
+            LOGGER.error("Erro ao processar {} {}", req.getMethod(), req.getRequestURI(), e);
+            try {
+                if (!resp.isCommitted()) {
+                    resp.resetBuffer();
+                    JsonResponses.send(resp, HttpServletResponse.SC_INTERNAL_SERVER_ERROR, INTERNAL_ERROR);
+                }
+            } catch (IOException ignored) {
+                // A conexão já não pode receber a resposta de erro
             }
-        } else {
-            resp.setStatus(HttpServletResponse.SC_NOT_FOUND);
-            sendJsonResponse(resp, Map.of("error", "Usuário não encontrado."));
         }
     }
 
     /**
-     * Envia uma resposta JSON com o conteúdo especificado.
+     * Tarefa que escreve uma resposta HTTP.
+     */
+    @FunctionalInterface
+    private interface ResponseTask {
+        void run() throws IOException;
+    }
+
+    /**
+     * Importa uma grande quantidade de usuários a partir de um array JSON de objetos
+     * {@code {"email": ..., "password": ...}}.
+     * <p>
+     * O corpo é lido incrementalmente, em blocos de {@value #IMPORT_CHUNK_SIZE} registros:
+     * as senhas de cada bloco são hasheadas em paralelo no {@link HashingExecutor} e o bloco é
+     * gravado com {@link UserRepositoryInterface#createUsers(List)}. O resultado de cada registro
+     * ({@code created}, {@code conflict} ou {@code invalid}) é escrito na resposta assim
+     * que o bloco correspondente é concluído; elementos do array que não são objetos também
+     * resultam em {@code invalid}.
+     * <p>
+     * Se o corpo terminar antes do fim do array ou contiver JSON inválido, os registros lidos
+     * até ali são importados e a resposta termina com um elemento
+     * {@code {"status": "invalid", "error": ...}}. Um corpo que não começa por um array JSON
+     * é respondido com 400.
+     * <p>
+     * Cada importação ocupa a thread da requisição e o executor de hashing por toda a sua
+     * duração, por isso a rota tem um limite por cliente próprio, ajustável em
+     * {@code sistema.admission.client./usuario/importar}.
      *
+     * @param req  Objeto {@link HttpServletRequest} contendo a requisição HTTP.
      * @param resp Objeto {@link HttpServletResponse} para enviar a resposta HTTP.
-     * @param data Mapa contendo os dados a serem enviados na resposta JSON.
+     * @throws IOException Caso ocorra algum erro ao ler a entrada ou escrever a saída.
+     */
+    @Rota(value = "/usuario/importar", method = "POST", clientLimit = "0.1/2")
+    public void importUsers(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(req.getInputStream())) {
+            JsonToken first;
+            try {
+                first = parser.nextToken();
+            } catch (JsonParseException e) {
+                first = null;
+            }
+            if (first != JsonToken.START_ARRAY) {
+                JsonResponses.send(resp, HttpServletResponse.SC_BAD_REQUEST, INVALID_IMPORT_BODY);
+                return;
+            }
+
+            resp.setContentType("application/json");
+            resp.setCharacterEncoding("UTF-8");
+            try (JsonGenerator generator = objectMapper.getFactory()
+                    .createGenerator(resp.getOutputStream(), JsonEncoding.UTF8)) {
+                generator.writeStartArray();
+
+                List<Credentials> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                String error = null;
+                try {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                        if (token == null) {
+                            error = "O array JSON de usuários não foi fechado.";
+                            break;
+                        }
+                        chunk.add(readRecord(parser, token));
+                        if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                            importChunk(chunk, generator);
+                            chunk.clear();
+                        }
+                    }
+                } catch (JsonParseException e) {
+                    error = "JSON inválido na linha " + e.getLocation().getLineNr()
+                        + ", coluna " + e.getLocation().getColumnNr() + ".";
+                }
+                if (!chunk.isEmpty()) {
+                    importChunk(chunk, generator);
+                }
+                if (error != null) {
+                    generator.writeStartObject();
+                    generator.writeStringField("status", "invalid");
+                    generator.writeStringField("error", error);
+                    generator.writeEndObject();
+                }
+
+                generator.writeEndArray();
+            }
+        }
+    }
+
+    /**
+     * Lê o próximo elemento do array de importação, a partir do seu primeiro token.
+     *
+     * @return As credenciais do elemento, ou {@link #INVALID_RECORD} se ele não for um objeto
+     *         de credenciais.
+     */
+    private Credentials readRecord(JsonParser parser, JsonToken token) throws IOException {
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return INVALID_RECORD;
+        }
+        // Lido como árvore para que um campo de tipo inválido não deixe o parser no meio do objeto
+        JsonNode node = objectMapper.readTree(parser);
+        try {
+            return credentialsReader.readValue(node);
+        } catch (JsonMappingException e) {
+            return INVALID_RECORD;
+        }
+    }
+
+    /**
+     * Hasheia as senhas de um bloco de registros em paralelo, grava os válidos no repositório
+     * e escreve o resultado de cada registro na resposta.
+     *
+     * @param chunk     Os registros lidos do corpo da requisição.
+     * @param generator O gerador JSON da resposta.
      * @throws IOException Caso ocorra algum erro ao escrever a saída.
      */
-    private void sendJsonResponse(HttpServletResponse resp, Map<String, Object> data) throws IOException {
-    resp.setContentType("application/json");
-    resp.setCharacterEncoding("UTF-8"); // Configura o charset para UTF-8
-    objectMapper.writeValue(resp.getWriter(), data);
+    private void importChunk(List<Credentials> chunk, JsonGenerator generator) throws IOException {
+        UserRegistration[] hashed = new UserRegistration[chunk.size()];
+        try {
+            hashingExecutor.forEachIndex(chunk.size(), i -> {
+                Credentials credentials = chunk.get(i);
+                if (credentials.isComplete()) {
+                    byte[] salt = PasswordUtils.generateSaltBytes();
+                    hashed[i] = new UserRegistration(credentials.getEmail(),
+                                                     PasswordUtils.hash(credentials.getPassword(), salt), salt);
+                }
+            });
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Importação interrompida durante o hashing.");
+        }
+
+        List<UserRegistration> valid = new ArrayList<>(hashed.length);
+        for (UserRegistration registration : hashed) {
+            if (registration != null) {
+                valid.add(registration);
+            }
+        }
+        boolean[] created = userRepository.createUsers(valid);
+
+        int next = 0;
+        for (int i = 0; i < hashed.length; i++) {
+            generator.writeStartObject();
+            generator.writeStringField("email", chunk.get(i).getEmail());
+            if (hashed[i] == null) {
+                generator.writeStringField("status", "invalid");
+            } else {
+                generator.writeStringField("status", created[next++] ? "created" : "conflict");
+            }
+            generator.writeEndObject();
+        }
+        generator.flush();
     }
 }
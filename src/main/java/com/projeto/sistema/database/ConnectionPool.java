@@ -0,0 +1,165 @@
+package com.projeto.sistema.database;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pool limitado de conexões JDBC.
+ * <p>
+ * O número de conexões emprestadas simultaneamente é limitado por um {@link Semaphore};
+ * conexões devolvidas ficam em uma fila ociosa e são reutilizadas, junto com suas
+ * instruções preparadas, pelas próximas requisições.
+ */
+public class ConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+
+    /**
+     * Limita a quantidade de conexões emprestadas ao mesmo tempo.
+     */
+    private final Semaphore permits;
+
+    /**
+     * Conexões ociosas disponíveis para reutilização (LIFO, mantendo as mais "quentes").
+     */
+    private final ConcurrentLinkedDeque<PooledConnection> idle = new ConcurrentLinkedDeque<>();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong acquisitions = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong waitNanos = new AtomicLong();
+    final AtomicLong statementHits = new AtomicLong();
+    final AtomicLong statementMisses = new AtomicLong();
+
+    private volatile boolean closed;
+
+    /**
+     * Cria um novo pool de conexões.
+     *
+     * @param url                  URL JDBC do banco de dados.
+     * @param user                 Usuário do banco de dados.
+     * @param password             Senha do banco de dados.
+     * @param maxSize              Número máximo de conexões simultâneas.
+     * @param acquireTimeoutMillis Tempo máximo de espera por uma conexão, em milissegundos.
+     */
+    public ConnectionPool(String url, String user, String password, int maxSize, long acquireTimeoutMillis) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("O tamanho do pool deve ser positivo: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    /**
+     * Empresta uma conexão do pool, criando uma nova caso nenhuma esteja ociosa.
+     * A conexão deve ser devolvida com {@link PooledConnection#close()}.
+     *
+     * @return Uma conexão do pool.
+     * @throws SQLException Caso o tempo de espera se esgote ou a conexão não possa ser criada.
+     */
+    public PooledConnection acquire() throws SQLException {
+        if (closed) {
+            throw new SQLException("O pool de conexões está fechado.");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Tempo esgotado ao aguardar uma conexão do pool (" + acquireTimeoutMillis + " ms).");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrompido ao aguardar uma conexão do pool.", e);
+        } finally {
+            waitNanos.addAndGet(System.nanoTime() - start);
+        }
+
+        try {
+            PooledConnection connection;
+            while ((connection = idle.pollFirst()) != null) {
+                if (!connection.getConnection().isClosed()) {
+                    acquisitions.incrementAndGet();
+                    return connection;
+                }
+                destroy(connection);
+            }
+            connection = new PooledConnection(this, DriverManager.getConnection(url, user, password));
+            created.incrementAndGet();
+            acquisitions.incrementAndGet();
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Devolve uma conexão ao pool. Conexões marcadas como inválidas são descartadas.
+     *
+     * @param connection A conexão devolvida.
+     */
+    void release(PooledConnection connection) {
+        try {
+            if (closed || connection.isBroken()) {
+                destroy(connection);
+            } else {
+                idle.offerFirst(connection);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection connection) {
+        destroyed.incrementAndGet();
+        connection.closePhysically();
+    }
+
+    /**
+     * Retorna um retrato instantâneo das estatísticas do pool.
+     *
+     * @return As estatísticas atuais.
+     */
+    public PoolStatistics getStatistics() {
+        return new PoolStatistics(
+            maxSize,
+            maxSize - permits.availablePermits(),
+            idle.size(),
+            created.get(),
+            destroyed.get(),
+            acquisitions.get(),
+            timeouts.get(),
+            TimeUnit.NANOSECONDS.toMillis(waitNanos.get()),
+            statementHits.get(),
+            statementMisses.get()
+        );
+    }
+
+    /**
+     * Fecha o pool e todas as conexões ociosas.
+     * Conexões emprestadas são fechadas quando forem devolvidas.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.pollFirst()) != null) {
+            destroy(connection);
+        }
+    }
+}
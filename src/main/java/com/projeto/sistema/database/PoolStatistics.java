@@ -0,0 +1,90 @@
+package com.projeto.sistema.database;
+
+/**
+ * Retrato imutável das estatísticas de um {@link ConnectionPool}.
+ */
+public class PoolStatistics {
+
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long destroyed;
+    private final long acquisitions;
+    private final long timeouts;
+    private final long totalWaitMillis;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+
+    public PoolStatistics(int maxSize, int active, int idle, long created, long destroyed, long acquisitions,
+                          long timeouts, long totalWaitMillis, long statementCacheHits, long statementCacheMisses) {
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.destroyed = destroyed;
+        this.acquisitions = acquisitions;
+        this.timeouts = timeouts;
+        this.totalWaitMillis = totalWaitMillis;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+    }
+
+    /** @return Número máximo de conexões do pool. */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /** @return Conexões emprestadas no momento. */
+    public int getActive() {
+        return active;
+    }
+
+    /** @return Conexões ociosas no momento. */
+    public int getIdle() {
+        return idle;
+    }
+
+    /** @return Total de conexões físicas criadas. */
+    public long getCreated() {
+        return created;
+    }
+
+    /** @return Total de conexões físicas descartadas. */
+    public long getDestroyed() {
+        return destroyed;
+    }
+
+    /** @return Total de empréstimos bem-sucedidos. */
+    public long getAcquisitions() {
+        return acquisitions;
+    }
+
+    /** @return Total de empréstimos que excederam o tempo de espera. */
+    public long getTimeouts() {
+        return timeouts;
+    }
+
+    /** @return Tempo total gasto aguardando conexões, em milissegundos. */
+    public long getTotalWaitMillis() {
+        return totalWaitMillis;
+    }
+
+    /** @return Instruções preparadas reutilizadas do cache. */
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    /** @return Instruções preparadas que precisaram ser criadas. */
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    @Override
+    public String toString() {
+        return "PoolStatistics{maxSize=" + maxSize + ", active=" + active + ", idle=" + idle
+            + ", created=" + created + ", destroyed=" + destroyed + ", acquisitions=" + acquisitions
+            + ", timeouts=" + timeouts + ", totalWaitMillis=" + totalWaitMillis
+            + ", statementCacheHits=" + statementCacheHits + ", statementCacheMisses=" + statementCacheMisses + "}";
+    }
+}
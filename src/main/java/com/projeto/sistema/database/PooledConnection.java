@@ -0,0 +1,102 @@
+package com.projeto.sistema.database;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Conexão emprestada de um {@link ConnectionPool}.
+ * <p>
+ * Mantém um cache de {@link PreparedStatement} por SQL, de modo que cada instrução é
+ * preparada apenas uma vez por conexão física. As instruções retornadas pertencem à
+ * conexão e não devem ser fechadas por quem as utiliza. Uma instância é usada por
+ * uma única thread enquanto está emprestada.
+ */
+public class PooledConnection implements AutoCloseable {
+
+    private final ConnectionPool pool;
+    private final Connection connection;
+    private final Map<String, PreparedStatement> statementCache = new HashMap<>();
+    private boolean broken;
+
+    PooledConnection(ConnectionPool pool, Connection connection) {
+        this.pool = pool;
+        this.connection = connection;
+    }
+
+    /**
+     * Retorna a conexão JDBC subjacente.
+     *
+     * @return A conexão física.
+     */
+    public Connection getConnection() {
+        return connection;
+    }
+
+    /**
+     * Obtém uma instrução preparada do cache, preparando-a na primeira utilização.
+     * Os parâmetros de execuções anteriores são limpos antes do retorno.
+     *
+     * @param sql O SQL da instrução.
+     * @return A instrução preparada.
+     * @throws SQLException Caso a instrução não possa ser preparada.
+     */
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        PreparedStatement stmt = statementCache.get(sql);
+        if (stmt != null && !stmt.isClosed()) {
+            pool.statementHits.incrementAndGet();
+            stmt.clearParameters();
+            return stmt;
+        }
+        pool.statementMisses.incrementAndGet();
+        stmt = connection.prepareStatement(sql);
+        statementCache.put(sql, stmt);
+        return stmt;
+    }
+
+    /**
+     * Marca a conexão como inválida, fazendo com que seja descartada ao ser devolvida.
+     * Deve ser chamado quando ocorrer um erro que possa ter deixado a conexão em estado inconsistente.
+     */
+    public void markBroken() {
+        broken = true;
+    }
+
+    /**
+     * Indica se a conexão foi marcada como inválida.
+     *
+     * @return {@code true} se a conexão será descartada ao ser devolvida.
+     */
+    public boolean isBroken() {
+        return broken;
+    }
+
+    /**
+     * Devolve a conexão ao pool.
+     */
+    @Override
+    public void close() {
+        pool.release(this);
+    }
+
+    /**
+     * Fecha a conexão física e todas as instruções em cache.
+     */
+    void closePhysically() {
+        for (PreparedStatement stmt : statementCache.values()) {
+            try {
+                stmt.close();
+            } catch (SQLException ignored) {
+                // A conexão será fechada em seguida
+            }
+        }
+        statementCache.clear();
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Nada a fazer com uma conexão que já está sendo descartada
+        }
+    }
+}
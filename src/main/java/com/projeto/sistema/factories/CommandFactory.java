@@ -0,0 +1,101 @@
+package com.projeto.sistema.factories;
+
+import com.projeto.sistema.commands.Command;
+import com.projeto.sistema.commands.RouteCommand;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Fábrica para criar instâncias de {@link Command} a partir de métodos controladores.
+ * <p>
+ * Cada método anotado com uma rota é convertido, na inicialização, em uma implementação
+ * direta de {@link Command} gerada com {@link LambdaMetafactory}. A chamada resultante é
+ * equivalente a uma implementação escrita à mão e pode ser inlinada pelo JIT, sem o custo de
+ * {@link Method#invoke}. Métodos que não puderem ser vinculados dessa forma utilizam
+ * {@link RouteCommand}, baseado em reflexão, e são registrados no log.
+ */
+public class CommandFactory {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CommandFactory.class);
+
+    private static final MethodType EXECUTE_TYPE =
+        MethodType.methodType(void.class, HttpServletRequest.class, HttpServletResponse.class);
+
+    private CommandFactory() {}
+
+    /**
+     * Cria um {@link Command} que invoca o método especificado.
+     *
+     * @param controllerInstance A instância do controlador onde o método está definido.
+     * @param method             O método a ser invocado.
+     * @return O comando vinculado ao método.
+     */
+    public static Command createCommand(Object controllerInstance, Method method) {
+        try {
+            return bind(controllerInstance, method);
+        } catch (LambdaConversionException | ReflectiveOperationException | IllegalArgumentException e) {
+            // Assinatura incompatível ou método inacessível: mantém a invocação por reflexão
+            LOGGER.warn("Rota {} despachada por reflexão: {}", method, e.toString());
+            return new RouteCommand(controllerInstance, method);
+        }
+    }
+
+    /**
+     * Gera uma implementação de {@link Command} que chama o método diretamente.
+     *
+     * @param controllerInstance A instância do controlador.
+     * @param method             O método a ser vinculado.
+     * @return O comando gerado.
+     * @throws LambdaConversionException    Caso a implementação não possa ser gerada.
+     * @throws ReflectiveOperationException Caso o método seja inacessível.
+     * @throws IllegalArgumentException     Caso a assinatura do método não seja a de uma rota.
+     */
+    private static Command bind(Object controllerInstance, Method method)
+            throws LambdaConversionException, ReflectiveOperationException {
+        Class<?>[] parameters = method.getParameterTypes();
+        if (parameters.length != 2
+                || !parameters[0].isAssignableFrom(HttpServletRequest.class)
+                || !parameters[1].isAssignableFrom(HttpServletResponse.class)) {
+            throw new IllegalArgumentException("Assinatura de rota não suportada: " + method);
+        }
+
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle target = lookup.unreflect(method);
+        boolean isStatic = Modifier.isStatic(method.getModifiers());
+        MethodType factoryType = isStatic
+            ? MethodType.methodType(Command.class)
+            : MethodType.methodType(Command.class, method.getDeclaringClass());
+
+        CallSite site = LambdaMetafactory.metafactory(
+            lookup,
+            "execute",
+            factoryType,
+            EXECUTE_TYPE,
+            target,
+            EXECUTE_TYPE
+        );
+
+        MethodHandle factory = site.getTarget();
+        try {
+            return isStatic
+                ? (Command) factory.invoke()
+                : (Command) factory.invoke(controllerInstance);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new InvocationTargetException(e);
+        }
+    }
+}
@@ -1,8 +1,26 @@
 package com.projeto.sistema.factories;
 
+import com.projeto.sistema.repositories.BloomFilterUserRepository;
+import com.projeto.sistema.repositories.CachingUserRepository;
 import com.projeto.sistema.repositories.HSQLDBUserRepository;
+import com.projeto.sistema.repositories.MappedUserRepository;
 import com.projeto.sistema.repositories.MemoryUserRepository;
+import com.projeto.sistema.repositories.OffHeapUserRepository;
+import com.projeto.sistema.repositories.ShardedUserRepository;
+import com.projeto.sistema.repositories.UserIdSequence;
 import com.projeto.sistema.repositories.UserRepositoryInterface;
+import com.projeto.sistema.repositories.UserShard;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Fábrica para criar instâncias de {@link UserRepositoryInterface}.
@@ -10,22 +28,265 @@ import com.projeto.sistema.repositories.UserRepositoryInterface;
  */
 public class UserRepositoryFactory {
     /**
-     * Tipo de persistência configurado para o repositório.
+     * Tipo de persistência configurado para o repositório ({@code MEMORY}, {@code HSQLDB}, {@code MAPPED},
+     * {@code OFFHEAP} ou {@code SHARDED}), definido pela propriedade de sistema {@code sistema.repository}.
+     */
+    private static final String PERSISTENCE_TYPE = System.getProperty("sistema.repository", "MEMORY");
+
+    /**
+     * Quantidade de shards do repositório {@code SHARDED} ({@code sistema.shards.count}).
+     * Por padrão, um por processador.
+     */
+    private static final int SHARD_COUNT =
+        Integer.getInteger("sistema.shards.count", Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Tipo de armazenamento de cada shard ({@code MEMORY}, {@code HSQLDB} ou {@code OFFHEAP}), definido pela
+     * propriedade de sistema {@code sistema.shards.type}.
+     */
+    private static final String SHARD_TYPE = System.getProperty("sistema.shards.type", "MEMORY");
+
+    /**
+     * Diretório dos shards em memória duráveis; o mesmo {@code sistema.memory.dir} do repositório em memória.
      */
-    private static final String PERSISTENCE_TYPE = "MEMORY";
+    private static final String MEMORY_DIRECTORY = System.getProperty("sistema.memory.dir");
+
+    /**
+     * Arquivo, em {@code sistema.memory.dir}, com a quantidade de shards da configuração atual.
+     */
+    private static final String ACTIVE_LAYOUT_FILE = "shards.current";
+
+    /**
+     * Indica se as buscas passam por um filtro de Bloom de emails.
+     * Configurável pela propriedade de sistema {@code sistema.bloom.enabled}.
+     */
+    private static final boolean BLOOM_ENABLED =
+        Boolean.parseBoolean(System.getProperty("sistema.bloom.enabled", "true"));
+
+    /**
+     * Quantidade de usuários esperada para o dimensionamento do filtro de Bloom
+     * ({@code sistema.bloom.expected}).
+     */
+    private static final long BLOOM_EXPECTED = Long.getLong("sistema.bloom.expected", 1_000_000L);
+
+    /**
+     * Taxa de falsos positivos do filtro de Bloom ({@code sistema.bloom.fpp}).
+     */
+    private static final double BLOOM_FPP = Double.parseDouble(System.getProperty("sistema.bloom.fpp", "0.01"));
+
+    /**
+     * Indica se as buscas passam por um cache de usuários ({@code sistema.cache.enabled}).
+     * Por padrão, ativado apenas quando o armazenamento não é em memória.
+     */
+    private static final boolean CACHE_ENABLED = Boolean.parseBoolean(
+        System.getProperty("sistema.cache.enabled", String.valueOf(!"MEMORY".equals(PERSISTENCE_TYPE))));
+
+    /**
+     * Quantidade máxima de usuários em cache ({@code sistema.cache.size}).
+     */
+    private static final int CACHE_SIZE = Integer.getInteger("sistema.cache.size", 10_000);
+
+    /**
+     * Tempo de vida das entradas do cache, em milissegundos ({@code sistema.cache.ttl}).
+     */
+    private static final long CACHE_TTL_MILLIS = Long.getLong("sistema.cache.ttl", 60_000L);
+
+    /**
+     * Repositório já configurado, compartilhado por todos os pontos de injeção.
+     */
+    private static UserRepositoryInterface repository;
+
+    /**
+     * Repositório de armazenamento por trás dos decoradores.
+     */
+    private static UserRepositoryInterface baseRepository;
 
     /**
      * Cria uma instância de {@link UserRepositoryInterface} com base no tipo de persistência configurado.
      *
      * @return Uma instância de {@link UserRepositoryInterface}.
      */
-    public static UserRepositoryInterface createRepository() {
+    public static synchronized UserRepositoryInterface createRepository() {
+        if (repository == null) {
+            baseRepository = createBaseRepository();
+            UserRepositoryInterface configured = baseRepository;
+            if (CACHE_ENABLED) {
+                configured = new CachingUserRepository(configured, CACHE_SIZE, CACHE_TTL_MILLIS);
+            }
+            if (BLOOM_ENABLED) {
+                // Mais externo, para que emails inexistentes não ocupem nem consultem o cache
+                configured = new BloomFilterUserRepository(configured, BLOOM_EXPECTED, BLOOM_FPP);
+            }
+            repository = configured;
+        }
+        return repository;
+    }
+
+    /**
+     * Cria o repositório de armazenamento, sem decoradores.
+     *
+     * @return O repositório correspondente ao tipo de persistência.
+     */
+    private static UserRepositoryInterface createBaseRepository() {
         switch (PERSISTENCE_TYPE) {
             case "HSQLDB":
                 return HSQLDBUserRepository.getInstance();
+            case "MAPPED":
+                return MappedUserRepository.getInstance();
+            case "OFFHEAP":
+                return OffHeapUserRepository.getInstance();
+            case "SHARDED":
+                return createShardedRepository(SHARD_COUNT);
             case "MEMORY":
             default:
                 return MemoryUserRepository.getInstance();
         }
     }
+
+    /**
+     * Cria, ou reabre, um repositório particionado com a quantidade de shards informada.
+     * Shards em memória com durabilidade guardam seus arquivos em
+     * {@code sistema.memory.dir/shards-<quantidade>/shard-<índice>}, e a configuração atual é
+     * registrada em {@code sistema.memory.dir/shards.current}; shards HSQLDB usam cada
+     * um o próprio banco em memória, e shards {@code OFFHEAP}, as próprias arenas.
+     *
+     * @param shardCount A quantidade de shards.
+     * @return O repositório particionado.
+     * @throws IllegalStateException Se os dados duráveis atuais tiverem outra quantidade de shards.
+     */
+    public static ShardedUserRepository createShardedRepository(int shardCount) {
+        if ("HSQLDB".equals(SHARD_TYPE)) {
+            return new ShardedUserRepository(shardCount, (index, count, ids) ->
+                new HSQLDBUserRepository("jdbc:hsqldb:mem:usuarios-" + count + "-" + index, ids));
+        }
+        if ("OFFHEAP".equals(SHARD_TYPE)) {
+            return new ShardedUserRepository(shardCount, (index, count, ids) -> new OffHeapUserRepository(ids));
+        }
+        if (MEMORY_DIRECTORY != null) {
+            return createDurableShardedRepository(Paths.get(MEMORY_DIRECTORY), shardCount);
+        }
+        return new ShardedUserRepository(shardCount, (index, count, ids) -> new MemoryUserRepository(null, ids));
+    }
+
+    /**
+     * Cria, ou reabre, um repositório particionado com shards em memória duráveis em {@code root}.
+     */
+    static ShardedUserRepository createDurableShardedRepository(Path root, int shardCount) {
+        checkShardLayout(root, shardCount);
+        return new ShardedUserRepository(shardCount, new ShardedUserRepository.ShardFactory() {
+            @Override
+            public UserShard create(int index, int count, UserIdSequence ids) {
+                return new MemoryUserRepository(root.resolve("shards-" + count).resolve("shard-" + index).toString(), ids);
+            }
+
+            @Override
+            public void activate(int count) {
+                recordActiveShardCount(root, count);
+            }
+        });
+    }
+
+    /**
+     * Retorna o diretório dos shards duráveis de uma configuração com {@code shardCount} shards.
+     *
+     * @param shardCount A quantidade de shards.
+     * @return O diretório, ou {@code null} se a durabilidade estiver desativada.
+     */
+    public static Path shardDirectory(int shardCount) {
+        return MEMORY_DIRECTORY == null ? null : Paths.get(MEMORY_DIRECTORY, "shards-" + shardCount);
+    }
+
+    /**
+     * Retorna a quantidade de shards da configuração durável atual, registrada na abertura do
+     * repositório e a cada redistribuição.
+     *
+     * @return A quantidade de shards, ou -1 se a durabilidade estiver desativada ou nada tiver
+     *         sido registrado.
+     */
+    public static int activeShardCount() {
+        return MEMORY_DIRECTORY == null ? -1 : activeShardCount(Paths.get(MEMORY_DIRECTORY));
+    }
+
+    static int activeShardCount(Path root) {
+        Path file = root.resolve(ACTIVE_LAYOUT_FILE);
+        if (!Files.exists(file)) {
+            return -1;
+        }
+        try {
+            return Integer.parseInt(new String(Files.readAllBytes(file), StandardCharsets.UTF_8).trim());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ler " + file, e);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Configuração de shards inválida em " + file, e);
+        }
+    }
+
+    /**
+     * Registra a configuração atual com uma troca atômica do arquivo, para que uma queda durante
+     * a gravação mantenha a configuração anterior.
+     */
+    static void recordActiveShardCount(Path root, int shardCount) {
+        Path file = root.resolve(ACTIVE_LAYOUT_FILE);
+        Path temporary = root.resolve(ACTIVE_LAYOUT_FILE + ".tmp");
+        try {
+            Files.createDirectories(root);
+            Files.write(temporary, Integer.toString(shardCount).getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao registrar a configuração de shards em " + file, e);
+        }
+    }
+
+    /**
+     * Impede que uma mudança em {@code sistema.shards.count}, ou o diretório deixado por uma
+     * redistribuição, esconda os usuários da configuração atual. Sem o registro da configuração
+     * atual (dados gravados antes dele), só é aceito um único diretório de shards.
+     */
+    static void checkShardLayout(Path root, int shardCount) {
+        int active = activeShardCount(root);
+        if (active > 0) {
+            if (active != shardCount) {
+                throw new IllegalStateException("Os usuários estão gravados em shards-" + active + ", mas "
+                    + "sistema.shards.count é " + shardCount + "; ajuste a propriedade ou execute o ShardRebalancer");
+            }
+            return;
+        }
+        if (!Files.isDirectory(root)) {
+            return;
+        }
+        List<String> existing;
+        try (Stream<Path> entries = Files.list(root)) {
+            existing = entries.filter(Files::isDirectory)
+                .map(path -> path.getFileName().toString())
+                .filter(name -> name.matches("shards-\\d+"))
+                .sorted()
+                .collect(Collectors.toList());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao verificar os shards em " + root, e);
+        }
+        if (existing.size() > 1) {
+            throw new IllegalStateException("Há mais de uma configuração de shards em " + root + " " + existing
+                + " e nenhuma registrada em " + ACTIVE_LAYOUT_FILE + "; remova as que não estão em uso");
+        }
+        if (existing.size() == 1 && !existing.get(0).equals("shards-" + shardCount)) {
+            throw new IllegalStateException("Os usuários estão gravados em " + existing.get(0) + ", mas "
+                + "sistema.shards.count é " + shardCount + "; execute o ShardRebalancer antes");
+        }
+    }
+
+    /**
+     * Libera os recursos do repositório de armazenamento, caso ele os mantenha (arquivos,
+     * por exemplo). Uma chamada posterior a {@link #createRepository()} cria um novo repositório.
+     */
+    public static synchronized void close() {
+        if (baseRepository instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) baseRepository).close();
+            } catch (Exception e) {
+                throw new IllegalStateException("Erro ao fechar o repositório de usuários", e);
+            }
+        }
+        baseRepository = null;
+        repository = null;
+    }
 }
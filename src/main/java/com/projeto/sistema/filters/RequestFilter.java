@@ -0,0 +1,24 @@
+package com.projeto.sistema.filters;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Etapa executada pelo {@link com.projeto.sistema.servlets.MainServlet} depois que a rota é
+ * encontrada e antes que o seu comando seja executado.
+ */
+@FunctionalInterface
+public interface RequestFilter {
+
+    /**
+     * Processa a requisição.
+     *
+     * @param req  Objeto {@link HttpServletRequest} contendo a requisição HTTP.
+     * @param resp Objeto {@link HttpServletResponse} para enviar a resposta.
+     * @return {@code true} para continuar o processamento, ou {@code false} se o filtro já
+     *         tiver respondido à requisição.
+     * @throws IOException Caso ocorra algum erro ao escrever a resposta.
+     */
+    boolean filter(HttpServletRequest req, HttpServletResponse resp) throws IOException;
+}
@@ -0,0 +1,49 @@
+package com.projeto.sistema.filters;
+
+import com.projeto.sistema.models.AuthenticatedUser;
+import com.projeto.sistema.utils.SessionTokenService;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Verifica o token de sessão do cabeçalho {@code Authorization: Bearer <token>} e disponibiliza
+ * o usuário no atributo {@link SessionTokenService#ATTRIBUTE} da requisição.
+ * <p>
+ * Requisições sem o cabeçalho seguem normalmente, sem usuário associado; cada rota decide se
+ * exige autenticação. Um token inválido ou expirado também não associa usuário, e a requisição é
+ * marcada com {@link SessionTokenService#REJECTED_ATTRIBUTE}: as rotas que exigem sessão
+ * respondem 401, e as de registro e autenticação continuam acessíveis a um cliente que ainda
+ * envie um token antigo.
+ */
+public class TokenAuthenticationFilter implements RequestFilter {
+
+    private static final String BEARER = "Bearer ";
+
+    private final SessionTokenService tokens;
+
+    /**
+     * Cria o filtro.
+     *
+     * @param tokens O serviço que verifica os tokens.
+     */
+    public TokenAuthenticationFilter(SessionTokenService tokens) {
+        this.tokens = tokens;
+    }
+
+    @Override
+    public boolean filter(HttpServletRequest req, HttpServletResponse resp) {
+        String authorization = req.getHeader("Authorization");
+        if (authorization == null || !authorization.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return true;
+        }
+
+        AuthenticatedUser user = tokens.verify(authorization.substring(BEARER.length()).trim());
+        if (user == null) {
+            req.setAttribute(SessionTokenService.REJECTED_ATTRIBUTE, Boolean.TRUE);
+        } else {
+            req.setAttribute(SessionTokenService.ATTRIBUTE, user);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,36 @@
+package com.projeto.sistema.index;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Índice dos componentes anotados da aplicação: rotas, pontos de injeção e singletons.
+ * <p>
+ * A implementação preferida é gerada em tempo de compilação pelo
+ * {@code com.projeto.sistema.processors.ComponentIndexProcessor}; na sua ausência,
+ * {@link ReflectionsComponentIndex} varre o classpath em tempo de execução.
+ */
+public interface ComponentIndex {
+
+    /**
+     * Retorna os métodos anotados com {@link com.projeto.sistema.annotations.Rota}.
+     *
+     * @return Os métodos de rota.
+     */
+    Set<Method> getRouteMethods();
+
+    /**
+     * Retorna os campos anotados com {@link com.projeto.sistema.annotations.Inject}.
+     *
+     * @return Os campos a serem injetados.
+     */
+    Set<Field> getInjectFields();
+
+    /**
+     * Retorna as classes anotadas com {@link com.projeto.sistema.annotations.Singleton}.
+     *
+     * @return As classes singleton.
+     */
+    Set<Class<?>> getSingletonTypes();
+}
@@ -0,0 +1,56 @@
+package com.projeto.sistema.index;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Carrega o {@link ComponentIndex} da aplicação.
+ * Utiliza o índice gerado em tempo de compilação e recorre à varredura do classpath
+ * quando ele não existe, quando referencia classes ou membros que não existem mais
+ * (índice desatualizado por uma compilação incremental) ou quando a propriedade de sistema
+ * {@code sistema.index.scan} estiver definida como {@code true}.
+ */
+public class ComponentIndexLoader {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ComponentIndexLoader.class);
+
+    /**
+     * Nome da classe gerada pelo {@code com.projeto.sistema.processors.ComponentIndexProcessor}.
+     */
+    public static final String GENERATED_INDEX_CLASS = "com.projeto.sistema.index.GeneratedComponentIndex";
+
+    private ComponentIndexLoader() {}
+
+    /**
+     * Carrega o índice de componentes.
+     *
+     * @param basePackage O pacote a ser varrido caso o índice gerado não esteja disponível.
+     * @return O índice de componentes.
+     */
+    public static ComponentIndex load(String basePackage) {
+        if (!Boolean.getBoolean("sistema.index.scan")) {
+            ComponentIndex generated = loadGenerated();
+            if (generated != null) {
+                return generated;
+            }
+        }
+        return new ReflectionsComponentIndex(basePackage);
+    }
+
+    /**
+     * Instancia o índice gerado, se presente no classpath.
+     *
+     * @return O índice gerado, ou {@code null} caso não exista ou esteja desatualizado.
+     */
+    private static ComponentIndex loadGenerated() {
+        try {
+            Class<?> indexClass = Class.forName(GENERATED_INDEX_CLASS, true, ComponentIndexLoader.class.getClassLoader());
+            return (ComponentIndex) indexClass.getDeclaredConstructor().newInstance();
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            LOGGER.warn("Índice de componentes gerado está desatualizado; varrendo o classpath", e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.projeto.sistema.index;
+
+import com.projeto.sistema.annotations.Inject;
+import com.projeto.sistema.annotations.Rota;
+import com.projeto.sistema.annotations.Singleton;
+
+import org.reflections.Reflections;
+import org.reflections.scanners.Scanners;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * {@link ComponentIndex} construído varrendo o classpath com a biblioteca Reflections.
+ * Utilizado apenas quando o índice gerado em tempo de compilação não está disponível.
+ */
+public class ReflectionsComponentIndex implements ComponentIndex {
+
+    private final Reflections reflections;
+
+    /**
+     * Varre o pacote especificado em busca de componentes anotados.
+     *
+     * @param basePackage O pacote base a ser varrido.
+     */
+    public ReflectionsComponentIndex(String basePackage) {
+        this.reflections = new Reflections(
+            basePackage,
+            Scanners.MethodsAnnotated,
+            Scanners.FieldsAnnotated,
+            Scanners.TypesAnnotated
+        );
+    }
+
+    @Override
+    public Set<Method> getRouteMethods() {
+        return reflections.getMethodsAnnotatedWith(Rota.class);
+    }
+
+    @Override
+    public Set<Field> getInjectFields() {
+        return reflections.getFieldsAnnotatedWith(Inject.class);
+    }
+
+    @Override
+    public Set<Class<?>> getSingletonTypes() {
+        return reflections.getTypesAnnotatedWith(Singleton.class);
+    }
+}
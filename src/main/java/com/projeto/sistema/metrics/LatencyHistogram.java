@@ -0,0 +1,119 @@
+package com.projeto.sistema.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências sem bloqueios, com buckets log-lineares.
+ * <p>
+ * Os valores são registrados em microssegundos. Cada potência de dois é dividida em
+ * {@value #SUB_BUCKETS} buckets, o que limita o erro relativo dos percentis a cerca de 12,5%.
+ * O registro é apenas um incremento atômico, adequado ao caminho de cada requisição.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * Cobre valores de até 2^40 µs (cerca de 12 dias).
+     */
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKETS = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0L);
+
+    /**
+     * Registra uma latência.
+     *
+     * @param micros A latência, em microssegundos.
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(bucketIndex(value));
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    /**
+     * Retorna o total de valores registrados.
+     *
+     * @return A quantidade de registros.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Retorna a soma dos valores registrados.
+     *
+     * @return A soma, em microssegundos.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Retorna o maior valor registrado.
+     *
+     * @return O máximo, em microssegundos.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Estima o percentil solicitado, retornando o limite superior do bucket correspondente.
+     *
+     * @param quantile O quantil, entre 0 e 1 (por exemplo, 0.99).
+     * @return A latência estimada, em microssegundos, ou 0 se não houver registros.
+     */
+    public long getPercentile(double quantile) {
+        long[] snapshot = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= Math.max(1, rank)) {
+                return Math.min(bucketUpperBound(i), getMax());
+            }
+        }
+        return getMax();
+    }
+
+    static int bucketIndex(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKETS - 1;
+        }
+        int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKETS + SUB_BUCKET_BITS - 1;
+        int subBucket = index % SUB_BUCKETS;
+        long lower = (1L << exponent) + ((long) subBucket << (exponent - SUB_BUCKET_BITS));
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
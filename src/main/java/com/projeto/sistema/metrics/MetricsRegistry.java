@@ -0,0 +1,69 @@
+package com.projeto.sistema.metrics;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Registro das métricas da aplicação: métricas por rota e medidores (gauges) de outros componentes.
+ */
+public class MetricsRegistry {
+
+    private final Map<String, RouteMetrics> routes = new ConcurrentSkipListMap<>();
+    private final Map<String, LongSupplier> gauges = new ConcurrentSkipListMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+
+    /**
+     * Obtém, ou cria, as métricas de uma rota.
+     *
+     * @param route O caminho da rota.
+     * @return As métricas da rota.
+     */
+    public RouteMetrics forRoute(String route) {
+        return routes.computeIfAbsent(route, RouteMetrics::new);
+    }
+
+    /**
+     * Retorna as métricas de todas as rotas, ordenadas pelo caminho.
+     *
+     * @return As métricas das rotas.
+     */
+    public Collection<RouteMetrics> getRoutes() {
+        return routes.values();
+    }
+
+    /**
+     * Registra um medidor, cujo valor é lido no momento da exportação.
+     *
+     * @param name     O nome do medidor, no formato de métricas do Prometheus.
+     * @param supplier A função que fornece o valor atual.
+     */
+    public void gauge(String name, LongSupplier supplier) {
+        gauges.put(name, supplier);
+    }
+
+    /**
+     * Obtém, ou cria, um contador simples.
+     *
+     * @param name O nome do contador, no formato de métricas do Prometheus.
+     * @return O contador.
+     */
+    public LongAdder counter(String name) {
+        return counters.computeIfAbsent(name, key -> new LongAdder());
+    }
+
+    /**
+     * Retorna os valores atuais de todos os medidores e contadores, ordenados pelo nome.
+     *
+     * @return Mapa de nome para valor.
+     */
+    public Map<String, Long> snapshotValues() {
+        Map<String, Long> values = new ConcurrentSkipListMap<>();
+        gauges.forEach((name, supplier) -> values.put(name, supplier.getAsLong()));
+        counters.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+}
@@ -0,0 +1,99 @@
+package com.projeto.sistema.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Métricas de uma rota: total de requisições, respostas por código de status e latências.
+ */
+public class RouteMetrics {
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final String route;
+    private final LongAdder requests = new LongAdder();
+    private final AtomicLongArray statusCounts = new AtomicLongArray(MAX_STATUS - MIN_STATUS + 1);
+    private final LatencyHistogram latency = new LatencyHistogram();
+
+    /**
+     * Cria as métricas da rota.
+     *
+     * @param route O caminho da rota.
+     */
+    public RouteMetrics(String route) {
+        this.route = route;
+    }
+
+    /**
+     * Registra uma requisição concluída.
+     *
+     * @param status       O código de status HTTP da resposta.
+     * @param elapsedNanos A duração da requisição, em nanossegundos.
+     */
+    public void record(int status, long elapsedNanos) {
+        requests.increment();
+        if (status >= MIN_STATUS && status <= MAX_STATUS) {
+            statusCounts.incrementAndGet(status - MIN_STATUS);
+        }
+        latency.record(elapsedNanos / 1_000);
+    }
+
+    /**
+     * Retorna o caminho da rota.
+     *
+     * @return O caminho.
+     */
+    public String getRoute() {
+        return route;
+    }
+
+    /**
+     * Retorna o total de requisições concluídas.
+     *
+     * @return A quantidade de requisições.
+     */
+    public long getRequests() {
+        return requests.sum();
+    }
+
+    /**
+     * Retorna a quantidade de respostas por código de status, apenas para os códigos observados.
+     *
+     * @return Mapa de código de status para quantidade.
+     */
+    public Map<Integer, Long> getStatusCounts() {
+        Map<Integer, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < statusCounts.length(); i++) {
+            long value = statusCounts.get(i);
+            if (value > 0) {
+                result.put(i + MIN_STATUS, value);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Retorna a quantidade de respostas de erro (status 4xx e 5xx).
+     *
+     * @return A quantidade de erros.
+     */
+    public long getErrors() {
+        long errors = 0;
+        for (int i = 400 - MIN_STATUS; i < statusCounts.length(); i++) {
+            errors += statusCounts.get(i);
+        }
+        return errors;
+    }
+
+    /**
+     * Retorna o histograma de latências da rota.
+     *
+     * @return O histograma.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+}
@@ -0,0 +1,93 @@
+package com.projeto.sistema.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+
+/**
+ * Resposta de uma autenticação bem-sucedida e usuário associado a um token de sessão verificado.
+ */
+@JsonPropertyOrder({"id", "email", "token", "expiresAt"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AuthenticatedUser {
+
+    /**
+     * Identificador único do usuário.
+     */
+    private final int id;
+
+    /**
+     * Email do usuário.
+     */
+    private final String email;
+
+    /**
+     * Token de sessão, ou {@code null} se nenhum token tiver sido emitido.
+     */
+    private final String token;
+
+    /**
+     * Expiração do token, em segundos desde a época Unix.
+     */
+    private final long expiresAt;
+
+    /**
+     * Construtor para inicializar um objeto {@link AuthenticatedUser}.
+     *
+     * @param id    Identificador único do usuário.
+     * @param email Email do usuário.
+     */
+    public AuthenticatedUser(int id, String email) {
+        this(id, email, null, 0);
+    }
+
+    /**
+     * Construtor para inicializar um objeto {@link AuthenticatedUser} com um token de sessão.
+     *
+     * @param id        Identificador único do usuário.
+     * @param email     Email do usuário.
+     * @param token     Token de sessão.
+     * @param expiresAt Expiração do token, em segundos desde a época Unix.
+     */
+    public AuthenticatedUser(int id, String email, String token, long expiresAt) {
+        this.id = id;
+        this.email = email;
+        this.token = token;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * Retorna o identificador único do usuário.
+     *
+     * @return ID do usuário.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Retorna o email do usuário.
+     *
+     * @return Email do usuário.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Retorna o token de sessão.
+     *
+     * @return O token, ou {@code null} se nenhum token tiver sido emitido.
+     */
+    public String getToken() {
+        return token;
+    }
+
+    /**
+     * Retorna a expiração do token de sessão.
+     *
+     * @return Segundos desde a época Unix, ou {@code null} se nenhum token tiver sido emitido.
+     */
+    public Long getExpiresAt() {
+        return token == null ? null : expiresAt;
+    }
+}
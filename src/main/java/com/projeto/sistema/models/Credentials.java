@@ -0,0 +1,61 @@
+package com.projeto.sistema.models;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Corpo das requisições de registro e autenticação: email e senha em texto puro.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class Credentials {
+
+    /**
+     * Email informado.
+     */
+    private final String email;
+
+    /**
+     * Senha informada, em texto puro.
+     */
+    private final String password;
+
+    /**
+     * Construtor utilizado pelo Jackson na leitura do corpo da requisição.
+     *
+     * @param email    Email informado.
+     * @param password Senha informada.
+     */
+    @JsonCreator
+    public Credentials(@JsonProperty("email") String email, @JsonProperty("password") String password) {
+        this.email = email;
+        this.password = password;
+    }
+
+    /**
+     * Retorna o email informado.
+     *
+     * @return Email informado.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Retorna a senha informada.
+     *
+     * @return Senha em texto puro.
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Verifica se email e senha foram informados e não estão vazios.
+     *
+     * @return {@code true} se ambos estiverem preenchidos.
+     */
+    public boolean isComplete() {
+        return email != null && password != null && !email.isEmpty() && !password.isEmpty();
+    }
+}
@@ -1,8 +1,11 @@
 package com.projeto.sistema.models;
 
+import com.projeto.sistema.utils.PasswordUtils;
+
 /**
  * Representa um usuário no sistema.
  * Contém informações essenciais, como ID, email, senha hasheada e o salt usado para hashing.
+ * O hash e o salt são mantidos em bytes; a forma Base64 é usada apenas na persistência.
  */
 public class User {
 
@@ -19,12 +22,12 @@ public class User {
     /**
      * Senha do usuário em formato hasheado.
      */
-    private final String hashedPassword;
+    private final byte[] hashedPassword;
 
     /**
      * Salt utilizado para hashear a senha do usuário.
      */
-    private final String salt;
+    private final byte[] salt;
 
     /**
      * Construtor para inicializar um objeto {@link User}.
@@ -34,13 +37,26 @@ public class User {
      * @param hashedPassword Senha do usuário em formato hasheado.
      * @param salt           Salt utilizado para o hashing da senha.
      */
-    public User(int id, String email, String hashedPassword, String salt) {
+    public User(int id, String email, byte[] hashedPassword, byte[] salt) {
         this.id = id;
         this.email = email;
         this.hashedPassword = hashedPassword;
         this.salt = salt;
     }
 
+    /**
+     * Construtor para usuários cujo hash e salt estão armazenados em Base64,
+     * como nos registros persistidos antes da representação em bytes.
+     *
+     * @param id             Identificador único do usuário.
+     * @param email          Email do usuário.
+     * @param hashedPassword Senha do usuário em formato hasheado, codificada em Base64.
+     * @param salt           Salt utilizado para o hashing da senha, codificado em Base64.
+     */
+    public User(int id, String email, String hashedPassword, String salt) {
+        this(id, email, PasswordUtils.decode(hashedPassword), PasswordUtils.decode(salt));
+    }
+
     /**
      * Retorna o identificador único do usuário.
      *
@@ -60,20 +76,48 @@ public class User {
     }
 
     /**
-     * Retorna a senha do usuário em formato hasheado.
+     * Retorna a senha do usuário em formato hasheado, codificada em Base64.
      *
      * @return Senha hasheada do usuário.
      */
     public String getHashedPassword() {
-        return hashedPassword;
+        return PasswordUtils.encode(hashedPassword);
     }
 
     /**
-     * Retorna o salt utilizado para o hashing da senha.
+     * Retorna o salt utilizado para o hashing da senha, codificado em Base64.
      *
      * @return Salt da senha do usuário.
      */
     public String getSalt() {
+        return PasswordUtils.encode(salt);
+    }
+
+    /**
+     * Retorna a senha hasheada em bytes. O array não deve ser modificado.
+     *
+     * @return Senha hasheada do usuário.
+     */
+    public byte[] getHashedPasswordBytes() {
+        return hashedPassword;
+    }
+
+    /**
+     * Retorna o salt em bytes. O array não deve ser modificado.
+     *
+     * @return Salt da senha do usuário.
+     */
+    public byte[] getSaltBytes() {
         return salt;
     }
+
+    /**
+     * Verifica, em tempo constante, se a senha informada corresponde à do usuário.
+     *
+     * @param rawPassword A senha em texto puro.
+     * @return {@code true} se a senha estiver correta.
+     */
+    public boolean checkPassword(String rawPassword) {
+        return PasswordUtils.verify(rawPassword, salt, hashedPassword);
+    }
 }
@@ -0,0 +1,83 @@
+package com.projeto.sistema.models;
+
+import com.projeto.sistema.utils.PasswordUtils;
+
+/**
+ * Representa os dados de um usuário ainda não registrado, com a senha já hasheada.
+ * Utilizado nas inserções em lote, nas quais o hashing é feito antes de chegar ao repositório.
+ */
+public class UserRegistration {
+
+    /**
+     * Email do usuário, utilizado para autenticação.
+     */
+    private final String email;
+
+    /**
+     * Senha do usuário em formato hasheado.
+     */
+    private final byte[] hashedPassword;
+
+    /**
+     * Salt utilizado para hashear a senha do usuário.
+     */
+    private final byte[] salt;
+
+    /**
+     * Construtor para inicializar um objeto {@link UserRegistration}.
+     *
+     * @param email          Email do usuário.
+     * @param hashedPassword Senha do usuário em formato hasheado.
+     * @param salt           Salt utilizado para o hashing da senha.
+     */
+    public UserRegistration(String email, byte[] hashedPassword, byte[] salt) {
+        this.email = email;
+        this.hashedPassword = hashedPassword;
+        this.salt = salt;
+    }
+
+    /**
+     * Retorna o email do usuário.
+     *
+     * @return Email do usuário.
+     */
+    public String getEmail() {
+        return email;
+    }
+
+    /**
+     * Retorna a senha do usuário em formato hasheado.
+     *
+     * @return Senha hasheada do usuário.
+     */
+    public byte[] getHashedPassword() {
+        return hashedPassword;
+    }
+
+    /**
+     * Retorna o salt utilizado para o hashing da senha.
+     *
+     * @return Salt da senha do usuário.
+     */
+    public byte[] getSalt() {
+        return salt;
+    }
+
+    /**
+     * Retorna a senha hasheada codificada em Base64, formato utilizado na persistência.
+     *
+     * @return Senha hasheada em Base64.
+     */
+    public String getHashedPasswordBase64() {
+        return PasswordUtils.encode(hashedPassword);
+    }
+
+    /**
+     * Retorna o salt codificado em Base64, formato utilizado na persistência.
+     *
+     * @return Salt em Base64.
+     */
+    public String getSaltBase64() {
+        return PasswordUtils.encode(salt);
+    }
+}
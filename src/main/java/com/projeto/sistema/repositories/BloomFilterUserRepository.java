@@ -0,0 +1,126 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.BloomFilter;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de {@link UserRepositoryInterface} que consulta um {@link BloomFilter} de emails
+ * antes de acessar o repositório real.
+ * <p>
+ * Buscas por emails que certamente não existem, comuns em ataques de credential stuffing,
+ * são respondidas sem tocar o armazenamento. O filtro é construído a partir dos emails já
+ * existentes e atualizado a cada registro.
+ */
+public class BloomFilterUserRepository implements UserRepositoryInterface {
+
+    private final UserRepositoryInterface delegate;
+    private final BloomFilter filter;
+
+    private final AtomicLong definiteMisses = new AtomicLong();
+    private final AtomicLong passedToDelegate = new AtomicLong();
+    private final AtomicLong falsePositives = new AtomicLong();
+
+    /**
+     * Cria o decorador e popula o filtro com os emails já registrados no repositório.
+     *
+     * @param delegate           O repositório decorado.
+     * @param expectedInsertions Quantidade de usuários esperada, usada no dimensionamento do filtro.
+     * @param falsePositiveRate  Taxa de falsos positivos desejada.
+     */
+    public BloomFilterUserRepository(UserRepositoryInterface delegate, long expectedInsertions, double falsePositiveRate) {
+        this.delegate = delegate;
+        this.filter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        delegate.forEachEmail(filter::put);
+    }
+
+    /**
+     * Registra um novo usuário. O email é adicionado ao filtro antes da inserção, para que
+     * buscas concorrentes nunca o considerem inexistente depois de registrado.
+     *
+     * @param email       O email do usuário.
+     * @param rawPassword A senha em texto puro.
+     * @throws IllegalArgumentException Se o email já estiver registrado.
+     */
+    @Override
+    public void createUser(String email, String rawPassword) {
+        filter.put(email);
+        delegate.createUser(email, rawPassword);
+    }
+
+    /**
+     * Busca um usuário pelo email, consultando o repositório apenas se o filtro indicar
+     * que o email pode existir.
+     *
+     * @param email O email do usuário.
+     * @return Um {@link Optional} contendo o usuário, caso encontrado.
+     */
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null || !filter.mightContain(email)) {
+            definiteMisses.incrementAndGet();
+            return Optional.empty();
+        }
+
+        passedToDelegate.incrementAndGet();
+        Optional<User> user = delegate.findUserByEmail(email);
+        if (!user.isPresent()) {
+            falsePositives.incrementAndGet();
+        }
+        return user;
+    }
+
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        for (UserRegistration registration : registrations) {
+            filter.put(registration.getEmail());
+        }
+        return delegate.createUsers(registrations);
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        delegate.forEachEmail(action);
+    }
+
+    /**
+     * Retorna o repositório decorado.
+     *
+     * @return O repositório real.
+     */
+    public UserRepositoryInterface getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * Retorna o total de buscas respondidas pelo filtro, sem acessar o repositório.
+     *
+     * @return O número de ausências definitivas.
+     */
+    public long getDefiniteMisses() {
+        return definiteMisses.get();
+    }
+
+    /**
+     * Retorna o total de buscas que o filtro encaminhou ao repositório.
+     *
+     * @return O número de buscas encaminhadas.
+     */
+    public long getPassedToDelegate() {
+        return passedToDelegate.get();
+    }
+
+    /**
+     * Retorna o total de buscas encaminhadas que não encontraram o usuário.
+     *
+     * @return O número de falsos positivos observados.
+     */
+    public long getFalsePositives() {
+        return falsePositives.get();
+    }
+}
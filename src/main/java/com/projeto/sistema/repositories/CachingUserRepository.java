@@ -0,0 +1,269 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Decorador de {@link UserRepositoryInterface} que mantém em cache os usuários buscados por email.
+ * <p>
+ * O cache é dividido em segmentos, cada um com sua própria lista LRU limitada, e as entradas
+ * expiram após um TTL. Buscas concorrentes pelo mesmo email ausente do cache resultam em uma
+ * única consulta ao repositório real (single-flight). Apenas usuários encontrados são
+ * armazenados; um registro invalida a entrada do email correspondente.
+ */
+public class CachingUserRepository implements UserRepositoryInterface {
+
+    private static final int SEGMENTS = 16;
+
+    private final UserRepositoryInterface delegate;
+    private final long ttlNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    /**
+     * Carregamentos em andamento, compartilhados entre as buscas concorrentes pelo mesmo email.
+     */
+    private final ConcurrentMap<String, CompletableFuture<Optional<User>>> inFlight = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong coalescedLoads = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong expirations = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Cria o decorador de cache.
+     *
+     * @param delegate   O repositório decorado.
+     * @param maxSize    Quantidade máxima de usuários em cache.
+     * @param ttlMillis  Tempo de vida de cada entrada, em milissegundos.
+     */
+    public CachingUserRepository(UserRepositoryInterface delegate, int maxSize, long ttlMillis) {
+        this.delegate = delegate;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        int segmentSize = Math.max(1, (maxSize + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentSize);
+        }
+    }
+
+    @Override
+    public void createUser(String email, String rawPassword) {
+        try {
+            delegate.createUser(email, rawPassword);
+        } finally {
+            invalidate(email);
+        }
+    }
+
+    /**
+     * Busca um usuário pelo email, consultando o cache antes do repositório real.
+     *
+     * @param email O email do usuário.
+     * @return Um {@link Optional} contendo o usuário, caso encontrado.
+     */
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+
+        User cached = segmentFor(email).get(email, System.nanoTime());
+        if (cached != null) {
+            hits.incrementAndGet();
+            return Optional.of(cached);
+        }
+        misses.incrementAndGet();
+
+        CompletableFuture<Optional<User>> future = new CompletableFuture<>();
+        CompletableFuture<Optional<User>> existing = inFlight.putIfAbsent(email, future);
+        if (existing != null) {
+            coalescedLoads.incrementAndGet();
+            return await(existing);
+        }
+
+        try {
+            loads.incrementAndGet();
+            Optional<User> user = delegate.findUserByEmail(email);
+            user.ifPresent(u -> segmentFor(email).put(email, u, System.nanoTime() + ttlNanos));
+            future.complete(user);
+            return user;
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(email, future);
+        }
+    }
+
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        try {
+            return delegate.createUsers(registrations);
+        } finally {
+            for (UserRegistration registration : registrations) {
+                invalidate(registration.getEmail());
+            }
+        }
+    }
+
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        delegate.forEachEmail(action);
+    }
+
+    /**
+     * Remove um email do cache.
+     *
+     * @param email O email a ser removido.
+     */
+    public void invalidate(String email) {
+        if (segmentFor(email).remove(email)) {
+            invalidations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Retorna o repositório decorado.
+     *
+     * @return O repositório real.
+     */
+    public UserRepositoryInterface getDelegate() {
+        return delegate;
+    }
+
+    /** @return Buscas respondidas pelo cache. */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /** @return Buscas que não encontraram o usuário em cache. */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /** @return Consultas efetivamente feitas ao repositório real. */
+    public long getLoads() {
+        return loads.get();
+    }
+
+    /** @return Buscas que aguardaram uma consulta já em andamento para o mesmo email. */
+    public long getCoalescedLoads() {
+        return coalescedLoads.get();
+    }
+
+    /** @return Entradas removidas por falta de espaço (LRU). */
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    /** @return Entradas removidas por expiração do TTL. */
+    public long getExpirations() {
+        return expirations.get();
+    }
+
+    /** @return Entradas removidas por registros de usuários. */
+    public long getInvalidations() {
+        return invalidations.get();
+    }
+
+    /** @return Quantidade de usuários em cache no momento. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String email) {
+        int hash = email.hashCode();
+        return segments[(hash ^ (hash >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private static Optional<User> await(CompletableFuture<Optional<User>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Entrada do cache com o instante de expiração.
+     */
+    private static class Entry {
+        final User user;
+        final long expiresAt;
+
+        Entry(User user, long expiresAt) {
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Segmento do cache: um {@link LinkedHashMap} em ordem de acesso, protegido por seu próprio monitor.
+     */
+    private class Segment {
+        private final int maxSize;
+        private final LinkedHashMap<String, Entry> entries;
+
+        Segment(int maxSize) {
+            this.maxSize = maxSize;
+            this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    if (size() > Segment.this.maxSize) {
+                        evictions.incrementAndGet();
+                        return true;
+                    }
+                    return false;
+                }
+            };
+        }
+
+        synchronized User get(String email, long now) {
+            Entry entry = entries.get(email);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.expiresAt >= 0) {
+                entries.remove(email);
+                expirations.incrementAndGet();
+                return null;
+            }
+            return entry.user;
+        }
+
+        synchronized void put(String email, User user, long expiresAt) {
+            entries.put(email, new Entry(user, expiresAt));
+        }
+
+        synchronized boolean remove(String email) {
+            return entries.remove(email) != null;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.UserRegistration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Escritor único que agrupa registros concorrentes em uma única transação (group commit).
+ * <p>
+ * Os registros são enfileirados por {@link #submit(UserRegistration)} e uma thread dedicada os
+ * retira da fila: a partir do primeiro registro pendente, aguarda até {@code maxWaitMillis} por
+ * outros, até o limite de {@code maxBatch}, e grava o grupo de uma só vez. Enquanto um grupo é
+ * gravado, os registros seguintes se acumulam na fila e formam o próximo grupo; assim, quanto
+ * maior a carga, maiores os grupos e menor o custo de commit por registro.
+ * <p>
+ * A fila é limitada a {@code maxQueue} registros: com ela cheia, novos registros são recusados
+ * imediatamente, em vez de acumularem uma espera maior que a de quem os aguarda. Um registro
+ * ainda na fila pode ser retirado por {@link #cancel(CompletableFuture)}.
+ * <p>
+ * Uma falha na gravação de um grupo é repassada aos seus registros, e o escritor continua. Se a
+ * thread terminar por um {@link Error} ou por interrupção, os registros pendentes falham e os
+ * novos são recusados, em vez de aguardarem um escritor que não existe mais.
+ */
+public class GroupCommitWriter implements AutoCloseable {
+
+    /**
+     * Grava um grupo de registros em uma única transação.
+     */
+    @FunctionalInterface
+    interface BatchWriter {
+
+        /**
+         * Grava os registros.
+         *
+         * @param registrations Os registros do grupo.
+         * @return Para cada registro, {@code true} se foi inserido ou {@code false} se o email já existia.
+         * @throws Exception Se o grupo não pôde ser gravado; nenhum registro do grupo é mantido.
+         */
+        boolean[] write(List<UserRegistration> registrations) throws Exception;
+    }
+
+    /**
+     * Registro aguardando gravação e o futuro do seu resultado.
+     */
+    private static final class Pending {
+        final UserRegistration registration;
+        final CompletableFuture<Boolean> result = new CompletableFuture<>();
+
+        Pending(UserRegistration registration) {
+            this.registration = registration;
+        }
+    }
+
+    private final BlockingQueue<Pending> queue;
+    private final BatchWriter writer;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final Thread thread;
+    private volatile boolean closed;
+    private volatile Throwable failure;
+
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+
+    /**
+     * Cria o escritor e inicia a sua thread.
+     *
+     * @param name          O nome da thread.
+     * @param maxBatch      Quantidade máxima de registros por grupo.
+     * @param maxQueue      Quantidade máxima de registros aguardando na fila.
+     * @param maxWaitMillis Tempo máximo, em milissegundos, que o primeiro registro de um grupo aguarda por outros.
+     * @param writer        A gravação de cada grupo.
+     */
+    GroupCommitWriter(String name, int maxBatch, int maxQueue, long maxWaitMillis, BatchWriter writer) {
+        if (maxBatch < 1) {
+            throw new IllegalArgumentException("Tamanho de grupo inválido: " + maxBatch);
+        }
+        if (maxQueue < 1) {
+            throw new IllegalArgumentException("Tamanho de fila inválido: " + maxQueue);
+        }
+        this.queue = new LinkedBlockingQueue<>(maxQueue);
+        this.writer = writer;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, maxWaitMillis));
+        this.thread = new Thread(this::run, name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Enfileira um registro para o próximo grupo.
+     *
+     * @param registration O usuário a ser registrado, com a senha já hasheada.
+     * @return Um futuro completado com {@code true} se o usuário foi inserido, ou {@code false}
+     *         se o email já estava registrado.
+     * @throws IllegalStateException      Se o escritor já tiver sido fechado ou a sua thread tiver terminado.
+     * @throws RejectedExecutionException Se a fila estiver cheia.
+     */
+    public CompletableFuture<Boolean> submit(UserRegistration registration) {
+        checkRunning();
+        Pending pending = new Pending(registration);
+        if (!queue.offer(pending)) {
+            throw new RejectedExecutionException("A fila de registros está cheia.");
+        }
+        // Um registro enfileirado durante o fechamento, ou depois de a thread do escritor terminar,
+        // pode não ser visto por ela
+        if ((closed || failure != null) && queue.remove(pending)) {
+            checkRunning();
+        }
+        return pending.result;
+    }
+
+    /**
+     * Retira da fila um registro que ainda não foi gravado, completando o seu futuro com
+     * {@link java.util.concurrent.CancellationException}.
+     *
+     * @param result O futuro retornado por {@link #submit(UserRegistration)}.
+     * @return {@code true} se o registro foi retirado e não será gravado; {@code false} se ele já
+     *         faz parte de um grupo em gravação ou já tem resultado.
+     */
+    public boolean cancel(CompletableFuture<Boolean> result) {
+        if (!queue.removeIf(pending -> pending.result == result)) {
+            return false;
+        }
+        result.cancel(false);
+        return true;
+    }
+
+    private void checkRunning() {
+        Throwable cause = failure;
+        if (cause != null) {
+            throw new IllegalStateException("O escritor de registros terminou por uma falha.", cause);
+        }
+        if (closed) {
+            throw new IllegalStateException("O escritor de registros foi encerrado.");
+        }
+    }
+
+    /** @return Grupos gravados. */
+    public long getBatches() {
+        return batches.get();
+    }
+
+    /** @return Registros gravados, inclusive os rejeitados por email duplicado. */
+    public long getWritten() {
+        return written.get();
+    }
+
+    /** @return Registros aguardando na fila. */
+    public int getQueueDepth() {
+        return queue.size();
+    }
+
+    /**
+     * Grava os registros já enfileirados e encerra a thread do escritor.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            thread.interrupt();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        List<Pending> batch = new ArrayList<>(maxBatch);
+        try {
+            while (true) {
+                Pending first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (closed && queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                batch.add(first);
+                collect(batch);
+                flush(batch);
+                batch.clear();
+            }
+        } catch (Throwable e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            IllegalStateException error = new IllegalStateException("O escritor de registros terminou por uma falha.", e);
+            // Registrada antes de esvaziar a fila, para que submit() não deixe registros sem resposta
+            failure = e;
+            batch.forEach(pending -> pending.result.completeExceptionally(error));
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                pending.result.completeExceptionally(error);
+            }
+            if (e instanceof Error) {
+                throw (Error) e;
+            }
+        }
+    }
+
+    /**
+     * Completa o grupo com os registros que chegarem até o prazo ou até o tamanho máximo.
+     */
+    private void collect(List<Pending> batch) throws InterruptedException {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatch) {
+            queue.drainTo(batch, maxBatch - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() == maxBatch || remaining <= 0) {
+                return;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+
+    private void flush(List<Pending> batch) {
+        List<UserRegistration> registrations = new ArrayList<>(batch.size());
+        for (Pending pending : batch) {
+            registrations.add(pending.registration);
+        }
+        try {
+            boolean[] created = writer.write(registrations);
+            batches.incrementAndGet();
+            written.addAndGet(batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result.complete(created[i]);
+            }
+        } catch (Throwable e) {
+            for (Pending pending : batch) {
+                pending.result.completeExceptionally(e);
+            }
+            if (e instanceof Error) {
+                // O escritor não continua depois de um erro da JVM; run() recusa os registros seguintes
+                throw (Error) e;
+            }
+        }
+    }
+}
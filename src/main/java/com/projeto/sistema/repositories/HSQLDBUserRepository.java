@@ -1,18 +1,40 @@
 package com.projeto.sistema.repositories;
 
 import com.projeto.sistema.annotations.Singleton;
+import com.projeto.sistema.database.ConnectionPool;
+import com.projeto.sistema.database.PoolStatistics;
+import com.projeto.sistema.database.PooledConnection;
 import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
 import com.projeto.sistema.utils.PasswordUtils;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
 
 /**
  * Implementação de {@link UserRepositoryInterface} utilizando o banco de dados HSQLDB.
  * Esta classe é um Singleton, garantindo que apenas uma instância seja criada.
+ * As conexões são emprestadas de um {@link ConnectionPool}, que também mantém as
+ * instruções preparadas em cache.
+ * <p>
+ * Os IDs são gerados por uma {@link UserIdSequence}, e não pelo banco, para que shards de um
+ * {@link ShardedUserRepository}, cada um com o próprio banco, nunca gerem IDs repetidos.
+ * <p>
+ * Com {@code sistema.hsqldb.groupCommit=true}, {@link #createUser(String, String)} não consulta o
+ * email antes de inserir: o registro é entregue a um {@link GroupCommitWriter}, que grava os
+ * registros concorrentes em um único lote JDBC e uma única transação, e a restrição {@code UNIQUE}
+ * do email identifica os duplicados de cada grupo.
  */
 @Singleton
-public class HSQLDBUserRepository implements UserRepositoryInterface {
+public class HSQLDBUserRepository implements UserShard, AutoCloseable {
     private static HSQLDBUserRepository instance;
 
     private static final String JDBC_URL = "jdbc:hsqldb:mem:testdb";
@@ -20,20 +42,114 @@ public class HSQLDBUserRepository implements UserRepositoryInterface {
     private static final String JDBC_PASSWORD = "";
 
     /**
-     * Construtor privado para evitar criação de múltiplas instâncias.
-     * Inicializa a tabela "Users" no banco de dados, caso ainda não exista.
+     * Tamanho máximo do pool, configurável pela propriedade de sistema {@code sistema.hsqldb.pool.size}.
+     */
+    private static final int POOL_SIZE = Integer.getInteger("sistema.hsqldb.pool.size", 10);
+
+    /**
+     * Tempo máximo de espera por uma conexão, em milissegundos, configurável pela
+     * propriedade de sistema {@code sistema.hsqldb.pool.timeout}.
+     */
+    private static final long POOL_TIMEOUT_MILLIS = Long.getLong("sistema.hsqldb.pool.timeout", 5000L);
+
+    /**
+     * Ativa a gravação agrupada dos registros individuais ({@code sistema.hsqldb.groupCommit}).
+     */
+    private static final boolean GROUP_COMMIT = Boolean.getBoolean("sistema.hsqldb.groupCommit");
+
+    /**
+     * Quantidade máxima de registros por grupo ({@code sistema.hsqldb.groupCommit.maxBatch}).
+     */
+    private static final int GROUP_COMMIT_MAX_BATCH = Integer.getInteger("sistema.hsqldb.groupCommit.maxBatch", 256);
+
+    /**
+     * Quantidade máxima de registros aguardando um grupo; com a fila cheia, os registros são
+     * recusados ({@code sistema.hsqldb.groupCommit.maxQueue}).
+     */
+    private static final int GROUP_COMMIT_MAX_QUEUE = Integer.getInteger("sistema.hsqldb.groupCommit.maxQueue", 4096);
+
+    /**
+     * Tempo máximo, em milissegundos, que um registro aguarda por outros antes de o grupo ser
+     * gravado ({@code sistema.hsqldb.groupCommit.maxWait}).
+     */
+    private static final long GROUP_COMMIT_MAX_WAIT_MILLIS = Long.getLong("sistema.hsqldb.groupCommit.maxWait", 1L);
+
+    /**
+     * Tempo máximo, em milissegundos, que um registro aguarda o resultado do seu grupo
+     * ({@code sistema.hsqldb.groupCommit.timeout}).
+     */
+    private static final long GROUP_COMMIT_TIMEOUT_MILLIS = Long.getLong("sistema.hsqldb.groupCommit.timeout", 5000L);
+
+    private static final String INSERT_SQL = "INSERT INTO Users (id, email, password, salt) VALUES (?, ?, ?, ?)";
+    /**
+     * Inserção condicional usada nos lotes: linhas cujo email já existe (inclusive as
+     * inseridas anteriormente no mesmo lote) resultam em contagem de atualização zero.
+     */
+    private static final String MERGE_SQL =
+        "MERGE INTO Users u USING (VALUES(CAST(? AS INT), CAST(? AS VARCHAR(100)), CAST(? AS VARCHAR(255)), " +
+        "CAST(? AS VARCHAR(255)))) AS v(id, email, password, salt) ON u.email = v.email " +
+        "WHEN NOT MATCHED THEN INSERT (id, email, password, salt) VALUES (v.id, v.email, v.password, v.salt)";
+
+    /**
+     * Número máximo de linhas enviadas ao banco em cada chamada de {@code executeBatch}.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    private static final String SELECT_EMAILS_SQL = "SELECT email FROM Users";
+
+    private static final String SELECT_USERS_SQL = "SELECT id, email, password, salt FROM Users";
+
+    private static final String SELECT_BY_EMAIL_SQL = "SELECT id, email, password, salt FROM Users WHERE email = ?";
+
+    private final ConnectionPool pool;
+
+    /**
+     * Gerador dos IDs dos usuários criados.
+     */
+    private final UserIdSequence ids;
+
+    /**
+     * Escritor dos registros agrupados, ou {@code null} se a gravação agrupada estiver desativada.
+     */
+    private final GroupCommitWriter groupCommit;
+
+    /**
+     * Construtor privado da instância única, que utiliza o banco {@value #JDBC_URL}.
      */
     private HSQLDBUserRepository() {
-        try (Connection connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
-             Statement stmt = connection.createStatement()) {
+        this(JDBC_URL, new UserIdSequence());
+    }
+
+    /**
+     * Cria um repositório independente da instância única, usado como shard.
+     * Inicializa a tabela "Users" no banco de dados, caso ainda não exista, e avança a
+     * sequência de IDs além dos usuários já registrados.
+     *
+     * @param jdbcUrl A URL do banco de dados do repositório.
+     * @param ids     A sequência que gera os IDs dos usuários criados.
+     */
+    public HSQLDBUserRepository(String jdbcUrl, UserIdSequence ids) {
+        this.pool = new ConnectionPool(jdbcUrl, JDBC_USER, JDBC_PASSWORD, POOL_SIZE, POOL_TIMEOUT_MILLIS);
+        this.ids = ids;
+        try (PooledConnection connection = pool.acquire();
+             Statement stmt = connection.getConnection().createStatement()) {
             stmt.execute("CREATE TABLE IF NOT EXISTS Users (" +
-                         "id INT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, " +
+                         "id INT PRIMARY KEY, " +
                          "email VARCHAR(100) UNIQUE NOT NULL, " +
                          "password VARCHAR(255) NOT NULL, " +
                          "salt VARCHAR(255) NOT NULL)");
+            try (ResultSet rs = stmt.executeQuery("SELECT COALESCE(MAX(id), 0) FROM Users")) {
+                rs.next();
+                ids.advancePast(rs.getInt(1));
+            }
         } catch (SQLException e) {
+            pool.close();
             throw new RuntimeException("Erro ao inicializar o banco de dados HSQLDB", e);
         }
+        this.groupCommit = GROUP_COMMIT
+            ? new GroupCommitWriter("sistema-hsqldb-writer", GROUP_COMMIT_MAX_BATCH, GROUP_COMMIT_MAX_QUEUE,
+                                    GROUP_COMMIT_MAX_WAIT_MILLIS, this::insertGroup)
+            : null;
     }
 
     /**
@@ -58,25 +174,72 @@ public class HSQLDBUserRepository implements UserRepositoryInterface {
      */
     @Override
     public void createUser(String email, String rawPassword) {
+        if (groupCommit != null) {
+            createUserInGroup(email, rawPassword);
+            return;
+        }
         if (findUserByEmail(email).isPresent()) {
             throw new IllegalArgumentException("O e-mail já está registrado.");
         }
 
-        String salt = PasswordUtils.generateSalt();
-        String hashedPassword = PasswordUtils.hashWithSalt(rawPassword, salt);
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hashedPassword = PasswordUtils.hash(rawPassword, salt);
 
-        try (Connection connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
-             PreparedStatement stmt = connection.prepareStatement(
-                     "INSERT INTO Users (email, password, salt) VALUES (?, ?, ?)")) {
-            stmt.setString(1, email);
-            stmt.setString(2, hashedPassword);
-            stmt.setString(3, salt);
-            stmt.executeUpdate();
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement stmt = connection.prepareStatement(INSERT_SQL);
+                stmt.setInt(1, ids.next());
+                stmt.setString(2, email);
+                stmt.setString(3, PasswordUtils.encode(hashedPassword));
+                stmt.setString(4, PasswordUtils.encode(salt));
+                stmt.executeUpdate();
+            } catch (SQLIntegrityConstraintViolationException e) {
+                // Outro registro concorrente inseriu o mesmo email após a verificação
+                throw new IllegalArgumentException("O e-mail já está registrado.", e);
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw e;
+            }
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao registrar usuário no HSQLDB", e);
         }
     }
 
+    /**
+     * Registra um usuário pelo {@link GroupCommitWriter}, sem consultar o email antes: a senha é
+     * hasheada na thread que chamou, e o resultado da inserção vem do grupo em que ela foi gravada.
+     * A espera pelo resultado é limitada a {@code sistema.hsqldb.groupCommit.timeout}: ao fim do
+     * prazo, o registro é retirado da fila se ainda não foi gravado; se já fazia parte de um grupo
+     * em gravação, o resultado é indeterminado e a exceção o informa.
+     *
+     * @throws java.util.concurrent.RejectedExecutionException Se a fila do escritor estiver cheia.
+     */
+    private void createUserInGroup(String email, String rawPassword) {
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        CompletableFuture<Boolean> result =
+            groupCommit.submit(new UserRegistration(email, PasswordUtils.hash(rawPassword, salt), salt));
+        boolean created;
+        try {
+            created = result.get(GROUP_COMMIT_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Erro ao registrar usuário no HSQLDB", e.getCause());
+        } catch (TimeoutException e) {
+            if (groupCommit.cancel(result)) {
+                throw new RuntimeException("Tempo esgotado aguardando a gravação do registro no HSQLDB; "
+                    + "o registro não foi gravado", e);
+            }
+            throw new RuntimeException("Tempo esgotado aguardando a gravação do registro no HSQLDB; "
+                + "o registro pode ter sido gravado", e);
+        } catch (InterruptedException e) {
+            groupCommit.cancel(result);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrompido aguardando a gravação do registro no HSQLDB", e);
+        }
+        if (!created) {
+            throw new IllegalArgumentException("O e-mail já está registrado.");
+        }
+    }
+
     /**
      * Busca um usuário no banco de dados pelo email.
      *
@@ -85,24 +248,290 @@ public class HSQLDBUserRepository implements UserRepositoryInterface {
      */
     @Override
     public Optional<User> findUserByEmail(String email) {
-        try (Connection connection = DriverManager.getConnection(JDBC_URL, JDBC_USER, JDBC_PASSWORD);
-             PreparedStatement stmt = connection.prepareStatement(
-                     "SELECT id, email, password, salt FROM Users WHERE email = ?")) {
-            stmt.setString(1, email);
-            try (ResultSet rs = stmt.executeQuery()) {
-                if (rs.next()) {
-                    User user = new User(
-                        rs.getInt("id"),
-                        rs.getString("email"),
-                        rs.getString("password"),
-                        rs.getString("salt")
-                    );
-                    return Optional.of(user);
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement stmt = connection.prepareStatement(SELECT_BY_EMAIL_SQL);
+                stmt.setString(1, email);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    if (rs.next()) {
+                        User user = new User(
+                            rs.getInt("id"),
+                            rs.getString("email"),
+                            rs.getString("password"),
+                            rs.getString("salt")
+                        );
+                        return Optional.of(user);
+                    }
                 }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw e;
             }
         } catch (SQLException e) {
             throw new RuntimeException("Erro ao buscar usuário no HSQLDB", e);
         }
         return Optional.empty();
     }
+
+    /**
+     * Registra vários usuários no banco de dados utilizando lotes JDBC em uma única transação.
+     *
+     * @param registrations Os usuários a serem registrados, com as senhas já hasheadas.
+     * @return Para cada usuário, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        if (registrations.isEmpty()) {
+            return new boolean[0];
+        }
+
+        try {
+            return merge(assignIds(registrations));
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao registrar usuários em lote no HSQLDB", e);
+        }
+    }
+
+    /**
+     * Reserva IDs consecutivos da sequência para os registros.
+     */
+    private List<User> assignIds(List<UserRegistration> registrations) {
+        int firstId = ids.reserve(registrations.size());
+        List<User> users = new ArrayList<>(registrations.size());
+        for (int i = 0; i < registrations.size(); i++) {
+            UserRegistration registration = registrations.get(i);
+            users.add(new User(firstId + i * ids.getStride(), registration.getEmail(),
+                               registration.getHashedPassword(), registration.getSalt()));
+        }
+        return users;
+    }
+
+    /**
+     * Insere usuários migrados de outro shard, preservando seus IDs.
+     *
+     * @param users Os usuários a serem importados.
+     */
+    @Override
+    public void importUsers(List<User> users) {
+        if (users.isEmpty()) {
+            return;
+        }
+        for (User user : users) {
+            ids.advancePast(user.getId());
+        }
+        try {
+            merge(users);
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao importar usuários no HSQLDB", e);
+        }
+    }
+
+    /**
+     * Insere os usuários cujo email ainda não existe, em lotes JDBC de uma única transação.
+     *
+     * @return Para cada usuário, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    private boolean[] merge(List<User> users) throws SQLException {
+        boolean[] created = new boolean[users.size()];
+
+        try (PooledConnection pooled = pool.acquire()) {
+            Connection connection = pooled.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                PreparedStatement stmt = pooled.prepareStatement(MERGE_SQL);
+                int batchStart = 0;
+                for (int i = 0; i < users.size(); i++) {
+                    User user = users.get(i);
+                    stmt.setInt(1, user.getId());
+                    stmt.setString(2, user.getEmail());
+                    stmt.setString(3, user.getHashedPassword());
+                    stmt.setString(4, user.getSalt());
+                    stmt.addBatch();
+
+                    if (i - batchStart + 1 == BATCH_SIZE || i == users.size() - 1) {
+                        int[] counts = stmt.executeBatch();
+                        for (int j = 0; j < counts.length; j++) {
+                            created[batchStart + j] = counts[j] > 0;
+                        }
+                        batchStart = i + 1;
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                pooled.markBroken();
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                if (!pooled.isBroken()) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Grava um grupo do {@link GroupCommitWriter} com {@code INSERT} em um único lote JDBC e uma
+     * única transação. O HSQLDB interrompe o lote na primeira linha que viola a restrição
+     * {@code UNIQUE} do email, mantendo as anteriores na transação; essa linha é marcada como
+     * duplicada e o lote continua a partir da seguinte.
+     *
+     * @return Para cada registro, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    private boolean[] insertGroup(List<UserRegistration> registrations) throws SQLException {
+        List<User> users = assignIds(registrations);
+        boolean[] created = new boolean[users.size()];
+
+        try (PooledConnection pooled = pool.acquire()) {
+            Connection connection = pooled.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                PreparedStatement stmt = pooled.prepareStatement(INSERT_SQL);
+                int start = 0;
+                while (start < users.size()) {
+                    for (int i = start; i < users.size(); i++) {
+                        User user = users.get(i);
+                        stmt.setInt(1, user.getId());
+                        stmt.setString(2, user.getEmail());
+                        stmt.setString(3, user.getHashedPassword());
+                        stmt.setString(4, user.getSalt());
+                        stmt.addBatch();
+                    }
+                    try {
+                        stmt.executeBatch();
+                        Arrays.fill(created, start, users.size(), true);
+                        start = users.size();
+                    } catch (BatchUpdateException e) {
+                        if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                            throw e;
+                        }
+                        stmt.clearBatch();
+                        int[] counts = e.getUpdateCounts();
+                        if (start + counts.length >= users.size()) {
+                            // O driver executou todas as linhas e indicou as que falharam
+                            for (int j = 0; j < counts.length; j++) {
+                                created[start + j] = counts[j] != Statement.EXECUTE_FAILED;
+                            }
+                            start = users.size();
+                        } else {
+                            Arrays.fill(created, start, start + counts.length, true);
+                            start += counts.length + 1;
+                        }
+                    }
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                pooled.markBroken();
+                try {
+                    connection.rollback();
+                } catch (SQLException rollbackError) {
+                    e.addSuppressed(rollbackError);
+                }
+                throw e;
+            } finally {
+                if (!pooled.isBroken()) {
+                    connection.setAutoCommit(true);
+                }
+            }
+        }
+        return created;
+    }
+
+    /**
+     * Retorna o escritor dos registros agrupados.
+     *
+     * @return O escritor, ou {@code null} se a gravação agrupada estiver desativada.
+     */
+    public GroupCommitWriter getGroupCommitWriter() {
+        return groupCommit;
+    }
+
+    /**
+     * Percorre os emails de todos os usuários do banco de dados.
+     *
+     * @param action A ação executada para cada email.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement stmt = connection.prepareStatement(SELECT_EMAILS_SQL);
+                stmt.setFetchSize(1000);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(rs.getString(1));
+                    }
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar emails no HSQLDB", e);
+        }
+    }
+
+    /**
+     * Percorre todos os usuários do banco de dados.
+     *
+     * @param action A ação executada para cada usuário.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        try (PooledConnection connection = pool.acquire()) {
+            try {
+                PreparedStatement stmt = connection.prepareStatement(SELECT_USERS_SQL);
+                stmt.setFetchSize(1000);
+                try (ResultSet rs = stmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(new User(rs.getInt(1), rs.getString(2), rs.getString(3), rs.getString(4)));
+                    }
+                }
+            } catch (SQLException e) {
+                connection.markBroken();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao listar usuários no HSQLDB", e);
+        }
+    }
+
+    /**
+     * Retorna as estatísticas do pool de conexões utilizado pelo repositório.
+     *
+     * @return As estatísticas atuais do pool.
+     */
+    public PoolStatistics getPoolStatistics() {
+        return pool.getStatistics();
+    }
+
+    /**
+     * Grava os registros agrupados pendentes, encerra o banco de dados, descartando seu conteúdo
+     * em memória, e fecha o pool de conexões.
+     * Uma chamada posterior a {@link #getInstance()} cria uma nova instância.
+     */
+    @Override
+    public void close() {
+        synchronized (HSQLDBUserRepository.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+        if (groupCommit != null) {
+            groupCommit.close();
+        }
+        try (PooledConnection connection = pool.acquire();
+             Statement stmt = connection.getConnection().createStatement()) {
+            stmt.execute("SHUTDOWN");
+            connection.markBroken();
+        } catch (SQLException e) {
+            throw new RuntimeException("Erro ao encerrar o banco de dados HSQLDB", e);
+        } finally {
+            pool.close();
+        }
+    }
 }
@@ -0,0 +1,720 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.annotations.Singleton;
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.PasswordUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Implementação persistente de {@link UserRepositoryInterface} baseada em arquivos mapeados em memória.
+ * <p>
+ * Os usuários são gravados em um log somente de acréscimo ({@code users.log}), dividido em
+ * segmentos mapeados, e localizados por um índice de hash em disco ({@code users.idx}), também
+ * mapeado, com endereçamento aberto. As buscas percorrem o índice e comparam o email diretamente
+ * nas páginas mapeadas, sem copiar registros; apenas o usuário encontrado é materializado.
+ * <p>
+ * As gravações são confirmadas em grupo: cada escritor acrescenta o seu registro e aguarda até
+ * que um único {@code force} torne durável tudo o que foi acrescentado até então.
+ * <p>
+ * Na abertura, um índice fechado corretamente é usado como está. Após uma queda, o índice é
+ * reconstruído a partir do log, lendo apenas o email e a posição de cada registro; registros
+ * incompletos no fim do log são descartados pela verificação de CRC.
+ */
+@Singleton
+public class MappedUserRepository implements UserRepositoryInterface, AutoCloseable {
+
+    /**
+     * Diretório dos arquivos do repositório ({@code sistema.mapped.dir}).
+     */
+    private static final String DIRECTORY = System.getProperty("sistema.mapped.dir", "dados");
+
+    /**
+     * Tamanho de cada segmento mapeado do log, em bytes ({@code sistema.mapped.segmentSize}).
+     */
+    private static final int SEGMENT_SIZE = Integer.getInteger("sistema.mapped.segmentSize", 64 << 20);
+
+    /**
+     * Capacidade máxima do índice: um {@link MappedByteBuffer} não ultrapassa {@link Integer#MAX_VALUE}
+     * bytes, e {@code INDEX_HEADER + slot * SLOT_SIZE} precisa caber em um {@code int}. Com a
+     * ocupação limitada à metade, comporta cerca de 33 milhões de usuários.
+     */
+    private static final int MAX_INDEX_CAPACITY = 1 << 26;
+
+    /**
+     * Quantidade inicial de posições do índice, potência de dois ({@code sistema.mapped.indexCapacity}).
+     */
+    private static final int INITIAL_INDEX_CAPACITY = Integer.highestOneBit(
+        Math.min(MAX_INDEX_CAPACITY, Math.max(16, Integer.getInteger("sistema.mapped.indexCapacity", 1 << 16))));
+
+    /**
+     * Indica se as gravações aguardam a sincronização com o disco ({@code sistema.mapped.fsync}).
+     */
+    private static final boolean FSYNC = Boolean.parseBoolean(System.getProperty("sistema.mapped.fsync", "true"));
+
+    private static final long LOG_MAGIC = 0x5349535455534C47L;   // "SISTUSLG"
+    private static final long INDEX_MAGIC = 0x5349535455534958L; // "SISTUSIX"
+    private static final int VERSION = 1;
+
+    /**
+     * Cabeçalho do log: magic (8) e versão (4), com espaço reservado.
+     */
+    private static final int LOG_HEADER = 16;
+
+    /**
+     * Cabeçalho do índice: magic (8), versão (4), capacidade (4), usuários (4),
+     * fechamento correto (4) e fim do log coberto pelo índice (8).
+     */
+    private static final int INDEX_HEADER = 64;
+    private static final int INDEX_CAPACITY_OFFSET = 12;
+    private static final int INDEX_SIZE_OFFSET = 16;
+    private static final int INDEX_CLEAN_OFFSET = 20;
+    private static final int INDEX_LOG_END_OFFSET = 24;
+
+    /**
+     * Cada posição do índice guarda a posição do registro no log mais um (zero indica vazio)
+     * e o hash completo do email, usado para descartar colisões e para redimensionar.
+     */
+    private static final int SLOT_SIZE = 16;
+
+    /**
+     * Registro: tamanho (4), ID (4), tamanho do email (2), email, hash (32), salt (16) e CRC32 (4).
+     */
+    private static final int ID_OFFSET = 4;
+    private static final int EMAIL_LENGTH_OFFSET = 8;
+    private static final int EMAIL_OFFSET = 10;
+    private static final int RECORD_OVERHEAD =
+        EMAIL_OFFSET + PasswordUtils.HASH_LENGTH + PasswordUtils.SALT_LENGTH + 4;
+    private static final int MAX_EMAIL_LENGTH = 0xFFFF;
+
+    /**
+     * Marca o espaço restante de um segmento em que o próximo registro não coube.
+     */
+    private static final int PADDING = -1;
+
+    /**
+     * Instância única do repositório.
+     */
+    private static MappedUserRepository instance;
+
+    private final FileChannel logChannel;
+    private final FileChannel indexChannel;
+    private final List<MappedByteBuffer> segments = new ArrayList<>();
+    private MappedByteBuffer index;
+    private int indexCapacity;
+    private int size;
+    private long writePosition;
+    private boolean closed;
+
+    /**
+     * Protege o índice e a posição de escrita: buscas concorrentes, uma gravação por vez.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Estado da confirmação em grupo: até onde o log já é durável e se há uma sincronização em curso.
+     */
+    private final Object syncMonitor = new Object();
+    private volatile long appendedPosition;
+    private long durablePosition;
+    private boolean syncing;
+
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Abre (ou cria) o repositório no diretório especificado.
+     *
+     * @param directory O diretório dos arquivos de log e de índice.
+     * @throws IOException Caso os arquivos não possam ser abertos ou estejam em formato inválido.
+     */
+    MappedUserRepository(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        logChannel = FileChannel.open(directory.resolve("users.log"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        indexChannel = FileChannel.open(directory.resolve("users.idx"),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+
+        boolean newLog = logChannel.size() == 0;
+        long segmentCount = Math.max(1, (logChannel.size() + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+        for (int i = 0; i < segmentCount; i++) {
+            mapSegment(i);
+        }
+        if (newLog) {
+            segments.get(0).putLong(0, LOG_MAGIC).putInt(8, VERSION);
+        } else if (segments.get(0).getLong(0) != LOG_MAGIC || segments.get(0).getInt(8) != VERSION) {
+            throw new IOException("Arquivo de log inválido: " + directory.resolve("users.log"));
+        }
+
+        // Um log recém-criado invalida qualquer índice que tenha sobrado no diretório
+        long recoverFrom = openIndex(!newLog) ? index.getLong(INDEX_LOG_END_OFFSET) : LOG_HEADER;
+        recover(recoverFrom);
+
+        // Enquanto aberto, o índice é considerado sujo: uma queda leva à reconstrução
+        index.putInt(INDEX_CLEAN_OFFSET, 0);
+        index.force();
+        appendedPosition = writePosition;
+        durablePosition = writePosition;
+    }
+
+    /**
+     * Obtém a instância única de {@link MappedUserRepository}.
+     *
+     * @return A instância única de {@link MappedUserRepository}.
+     */
+    public static synchronized MappedUserRepository getInstance() {
+        if (instance == null) {
+            try {
+                instance = new MappedUserRepository(Paths.get(DIRECTORY));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao abrir o repositório em arquivo", e);
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Registra um novo usuário no log.
+     * A senha é hasheada com um salt antes de ser armazenada, e o método só retorna depois
+     * que o registro estiver em disco.
+     *
+     * @param email       O email do usuário.
+     * @param rawPassword A senha em texto puro.
+     * @throws IllegalArgumentException Se o email já estiver registrado.
+     */
+    @Override
+    public void createUser(String email, String rawPassword) {
+        byte[] key = encodeEmail(email);
+        long hash = hash(key);
+        if (find(key, hash) >= 0) {
+            throw new IllegalArgumentException("O e-mail já está registrado.");
+        }
+
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hashedPassword = PasswordUtils.hash(rawPassword, salt);
+
+        long end;
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            if (findSlot(key, hash) >= 0) {
+                throw new IllegalArgumentException("O e-mail já está registrado.");
+            }
+            end = append(key, hash, hashedPassword, salt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(end);
+    }
+
+    /**
+     * Registra vários usuários de uma só vez, com uma única sincronização com o disco.
+     *
+     * @param registrations Os usuários a serem registrados, com as senhas já hasheadas.
+     * @return Para cada usuário, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        boolean[] created = new boolean[registrations.size()];
+        long end;
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            for (int i = 0; i < created.length; i++) {
+                UserRegistration registration = registrations.get(i);
+                byte[] key = encodeEmail(registration.getEmail());
+                long hash = hash(key);
+                if (findSlot(key, hash) < 0) {
+                    append(key, hash, registration.getHashedPassword(), registration.getSalt());
+                    created[i] = true;
+                }
+            }
+            end = writePosition;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        awaitDurable(end);
+        return created;
+    }
+
+    /**
+     * Busca um usuário pelo email, comparando-o diretamente no arquivo mapeado.
+     *
+     * @param email O email do usuário.
+     * @return Um {@link Optional} contendo o usuário, caso encontrado.
+     */
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        byte[] key = encodeEmail(email);
+        long hash = hash(key);
+
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            long position = findSlot(key, hash);
+            if (position < 0) {
+                return Optional.empty();
+            }
+            MappedByteBuffer segment = segments.get(segmentOf(position));
+            int offset = offsetOf(position);
+            int credentialsOffset = offset + EMAIL_OFFSET + key.length;
+            byte[] hashedPassword = new byte[PasswordUtils.HASH_LENGTH];
+            byte[] salt = new byte[PasswordUtils.SALT_LENGTH];
+            for (int i = 0; i < hashedPassword.length; i++) {
+                hashedPassword[i] = segment.get(credentialsOffset + i);
+            }
+            for (int i = 0; i < salt.length; i++) {
+                salt[i] = segment.get(credentialsOffset + hashedPassword.length + i);
+            }
+            return Optional.of(new User(segment.getInt(offset + ID_OFFSET), email, hashedPassword, salt));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre os emails de todos os usuários, na ordem do log.
+     *
+     * @param action A ação executada para cada email.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            long position = LOG_HEADER;
+            while (position < writePosition) {
+                MappedByteBuffer segment = segments.get(segmentOf(position));
+                int offset = offsetOf(position);
+                int length = offset + 4 <= SEGMENT_SIZE ? segment.getInt(offset) : PADDING;
+                if (length == PADDING) {
+                    position = nextSegment(position);
+                    continue;
+                }
+                int emailLength = segment.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF;
+                byte[] email = new byte[emailLength];
+                for (int i = 0; i < emailLength; i++) {
+                    email[i] = segment.get(offset + EMAIL_OFFSET + i);
+                }
+                action.accept(new String(email, StandardCharsets.UTF_8));
+                position += length;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de usuários armazenados.
+     *
+     * @return O número de usuários registrados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sincroniza o log e o índice com o disco e marca o índice como fechado corretamente,
+     * para que a próxima abertura não precise reconstruí-lo.
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            for (MappedByteBuffer segment : segments) {
+                segment.force();
+            }
+            index.putInt(INDEX_SIZE_OFFSET, size);
+            index.putLong(INDEX_LOG_END_OFFSET, writePosition);
+            index.putInt(INDEX_CLEAN_OFFSET, 1);
+            index.force();
+            logChannel.close();
+            indexChannel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        synchronized (MappedUserRepository.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("O repositório em arquivo foi fechado.");
+        }
+    }
+
+    /**
+     * Procura o email no índice sob o bloqueio de leitura.
+     */
+    private long find(byte[] key, long hash) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return findSlot(key, hash);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre o índice a partir da posição do hash até encontrar o email ou uma posição vazia.
+     *
+     * @return A posição do registro no log, ou -1 se o email não estiver registrado.
+     */
+    private long findSlot(byte[] key, long hash) {
+        int mask = indexCapacity - 1;
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            int base = INDEX_HEADER + slot * SLOT_SIZE;
+            long stored = index.getLong(base);
+            if (stored == 0) {
+                return -1;
+            }
+            if (index.getLong(base + 8) == hash && emailEquals(stored - 1, key)) {
+                return stored - 1;
+            }
+        }
+    }
+
+    private boolean emailEquals(long position, byte[] key) {
+        MappedByteBuffer segment = segments.get(segmentOf(position));
+        int offset = offsetOf(position);
+        if ((segment.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (segment.get(offset + EMAIL_OFFSET + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Acrescenta um registro ao log e o inclui no índice. Deve ser chamado com o bloqueio de escrita.
+     *
+     * @return A posição final do log após o registro.
+     */
+    private long append(byte[] key, long hash, byte[] hashedPassword, byte[] salt) {
+        // Amplia o índice antes de escrever, para que um índice cheio não deixe o registro só no log
+        if (size + 1 > indexCapacity / 2) {
+            growIndex();
+        }
+
+        int length = RECORD_OVERHEAD + key.length;
+        if (offsetOf(writePosition) + length > SEGMENT_SIZE) {
+            if (offsetOf(writePosition) + 4 <= SEGMENT_SIZE) {
+                segments.get(segmentOf(writePosition)).putInt(offsetOf(writePosition), PADDING);
+            }
+            writePosition = nextSegment(writePosition);
+        }
+        int segmentIndex = segmentOf(writePosition);
+        if (segmentIndex == segments.size()) {
+            try {
+                mapSegment(segmentIndex);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao ampliar o log de usuários", e);
+            }
+        }
+
+        int offset = offsetOf(writePosition);
+        ByteBuffer record = segments.get(segmentIndex).duplicate();
+        record.position(offset);
+        record.putInt(length)
+              .putInt(size + 1)
+              .putShort((short) key.length)
+              .put(key)
+              .put(hashedPassword)
+              .put(salt);
+        record.putInt(checksum(record, offset, length));
+
+        long position = writePosition;
+        insertSlot(hash, position);
+        size++;
+        index.putInt(INDEX_SIZE_OFFSET, size);
+
+        writePosition += length;
+        appendedPosition = writePosition;
+        return writePosition;
+    }
+
+    /**
+     * Aguarda até que o log esteja em disco até a posição informada. O primeiro escritor a chegar
+     * sincroniza tudo o que já foi acrescentado; os demais esperam por essa mesma sincronização.
+     */
+    private void awaitDurable(long position) {
+        if (!FSYNC) {
+            return;
+        }
+        while (true) {
+            long from;
+            synchronized (syncMonitor) {
+                while (durablePosition < position && syncing) {
+                    try {
+                        syncMonitor.wait();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new UncheckedIOException(new InterruptedIOException("Sincronização interrompida"));
+                    }
+                }
+                if (durablePosition >= position) {
+                    return;
+                }
+                syncing = true;
+                from = durablePosition;
+            }
+
+            long target = appendedPosition;
+            boolean synced = false;
+            try {
+                for (MappedByteBuffer segment : segmentsBetween(from, target)) {
+                    segment.force();
+                }
+                synced = true;
+            } finally {
+                synchronized (syncMonitor) {
+                    if (synced) {
+                        durablePosition = Math.max(durablePosition, target);
+                    }
+                    syncing = false;
+                    syncMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private List<MappedByteBuffer> segmentsBetween(long from, long to) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            int last = Math.min(segmentOf(Math.max(from, to - 1)), segments.size() - 1);
+            return new ArrayList<>(segments.subList(segmentOf(from), last + 1));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Abre o índice existente, se tiver sido fechado corretamente; caso contrário, cria um índice vazio.
+     *
+     * @param reuse Indica se um índice existente pode ser aproveitado.
+     * @return {@code true} se o índice existente foi aproveitado.
+     */
+    private boolean openIndex(boolean reuse) throws IOException {
+        if (reuse && indexChannel.size() >= INDEX_HEADER) {
+            MappedByteBuffer header = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER);
+            int capacity = header.getInt(INDEX_CAPACITY_OFFSET);
+            boolean usable = header.getLong(0) == INDEX_MAGIC
+                && header.getInt(8) == VERSION
+                && header.getInt(INDEX_CLEAN_OFFSET) == 1
+                && Integer.bitCount(capacity) == 1
+                && capacity <= MAX_INDEX_CAPACITY
+                && indexChannel.size() >= INDEX_HEADER + (long) capacity * SLOT_SIZE;
+            if (usable) {
+                indexCapacity = capacity;
+                index = mapIndex(capacity);
+                size = index.getInt(INDEX_SIZE_OFFSET);
+                return true;
+            }
+        }
+        indexCapacity = INITIAL_INDEX_CAPACITY;
+        index = mapIndex(indexCapacity);
+        clearSlots(indexCapacity);
+        index.putLong(0, INDEX_MAGIC).putInt(8, VERSION).putInt(INDEX_CAPACITY_OFFSET, indexCapacity);
+        size = 0;
+        return false;
+    }
+
+    /**
+     * Percorre o log a partir da posição informada, incluindo no índice os registros válidos.
+     * Apenas o tamanho, o email e o CRC de cada registro são lidos. Um registro incompleto
+     * marca o fim do log e é apagado, para não ser confundido com dados válidos depois.
+     */
+    private void recover(long from) {
+        long position = from;
+        while (segmentOf(position) < segments.size()) {
+            MappedByteBuffer segment = segments.get(segmentOf(position));
+            int offset = offsetOf(position);
+            int length = offset + 4 <= SEGMENT_SIZE ? segment.getInt(offset) : PADDING;
+            if (length == PADDING) {
+                position = nextSegment(position);
+                continue;
+            }
+            if (length == 0) {
+                break;
+            }
+            boolean valid = length >= RECORD_OVERHEAD
+                && offset + length <= SEGMENT_SIZE
+                && (segment.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF) == length - RECORD_OVERHEAD
+                && segment.getInt(offset + length - 4) == checksum(segment.duplicate(), offset, length);
+            if (!valid) {
+                for (int i = offset; i < SEGMENT_SIZE; i++) {
+                    segment.put(i, (byte) 0);
+                }
+                break;
+            }
+
+            if (size + 1 > indexCapacity / 2) {
+                growIndex();
+            }
+            insertSlot(hash(segment, offset + EMAIL_OFFSET, length - RECORD_OVERHEAD), position);
+            size++;
+            position += length;
+        }
+        writePosition = position;
+        index.putInt(INDEX_SIZE_OFFSET, size);
+    }
+
+    private void insertSlot(long hash, long position) {
+        int mask = indexCapacity - 1;
+        int slot = (int) hash & mask;
+        while (index.getLong(INDEX_HEADER + slot * SLOT_SIZE) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        int base = INDEX_HEADER + slot * SLOT_SIZE;
+        index.putLong(base + 8, hash);
+        index.putLong(base, position + 1);
+    }
+
+    /**
+     * Dobra a capacidade do índice e redistribui as posições ocupadas. A nova capacidade só é
+     * adotada depois que a região ampliada estiver mapeada: uma falha ao mapear mantém o índice
+     * atual intacto.
+     *
+     * @throws IllegalStateException Se o índice já estiver na capacidade máxima.
+     * @throws UncheckedIOException  Se o arquivo do índice não puder ser ampliado.
+     */
+    private void growIndex() {
+        if (indexCapacity >= MAX_INDEX_CAPACITY) {
+            throw new IllegalStateException("O índice de usuários atingiu a capacidade máxima de "
+                + MAX_INDEX_CAPACITY / 2 + " usuários.");
+        }
+        int newCapacity = indexCapacity * 2;
+        MappedByteBuffer grown;
+        try {
+            grown = mapIndex(newCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao ampliar o índice de usuários", e);
+        }
+
+        long[] entries = new long[size * 2];
+        int count = 0;
+        for (int slot = 0; slot < indexCapacity; slot++) {
+            int base = INDEX_HEADER + slot * SLOT_SIZE;
+            long stored = index.getLong(base);
+            if (stored != 0) {
+                entries[count++] = stored - 1;
+                entries[count++] = index.getLong(base + 8);
+            }
+        }
+
+        index = grown;
+        indexCapacity = newCapacity;
+        // A região nova pode conter restos de um índice maior, abandonado após uma queda
+        clearSlots(indexCapacity);
+        index.putInt(INDEX_CAPACITY_OFFSET, indexCapacity);
+        for (int i = 0; i < count; i += 2) {
+            insertSlot(entries[i + 1], entries[i]);
+        }
+    }
+
+    private void clearSlots(int capacity) {
+        for (int slot = 0; slot < capacity; slot++) {
+            index.putLong(INDEX_HEADER + slot * SLOT_SIZE, 0L);
+        }
+    }
+
+    private MappedByteBuffer mapIndex(int capacity) throws IOException {
+        return indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, INDEX_HEADER + (long) capacity * SLOT_SIZE);
+    }
+
+    private void mapSegment(int segmentIndex) throws IOException {
+        segments.add(logChannel.map(FileChannel.MapMode.READ_WRITE, (long) segmentIndex * SEGMENT_SIZE, SEGMENT_SIZE));
+    }
+
+    private int checksum(ByteBuffer buffer, int offset, int length) {
+        buffer.limit(offset + length - 4).position(offset + ID_OFFSET);
+        crc.reset();
+        crc.update(buffer);
+        buffer.limit(buffer.capacity());
+        return (int) crc.getValue();
+    }
+
+    private static int segmentOf(long position) {
+        return (int) (position / SEGMENT_SIZE);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) (position % SEGMENT_SIZE);
+    }
+
+    private static long nextSegment(long position) {
+        return (position / SEGMENT_SIZE + 1) * SEGMENT_SIZE;
+    }
+
+    private static byte[] encodeEmail(String email) {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        if (key.length > MAX_EMAIL_LENGTH || RECORD_OVERHEAD + key.length > SEGMENT_SIZE) {
+            throw new IllegalArgumentException("E-mail muito longo.");
+        }
+        return key;
+    }
+
+    /**
+     * Hash de 64 bits (FNV-1a seguido da finalização do MurmurHash3) dos bytes do email.
+     */
+    static long hash(byte[] key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            h = (h ^ (b & 0xFF)) * 0x100000001b3L;
+        }
+        return fmix64(h);
+    }
+
+    static long hash(ByteBuffer buffer, int offset, int length) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < length; i++) {
+            h = (h ^ (buffer.get(offset + i) & 0xFF)) * 0x100000001b3L;
+        }
+        return fmix64(h);
+    }
+
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xff51afd7ed558ccdL;
+        k ^= k >>> 33;
+        k *= 0xc4ceb9fe1a85ec53L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
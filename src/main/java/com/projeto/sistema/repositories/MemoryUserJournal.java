@@ -0,0 +1,688 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.zip.CRC32;
+
+/**
+ * Durabilidade opcional do {@link MemoryUserRepository}: log de escrita antecipada (WAL) e
+ * snapshots periódicos em formato binário compacto.
+ * <p>
+ * Cada usuário criado é acrescentado ao WAL da geração corrente ({@code wal-N.log}), com
+ * sincronização em grupo. Em segundo plano, um snapshot troca o WAL por uma nova geração, grava
+ * todos os usuários em {@code snapshot-N.bin} e então apaga os WALs e snapshots anteriores.
+ * <p>
+ * Na recuperação, o snapshot mais recente é lido em blocos independentes, decodificados em
+ * paralelo, e os WALs de gerações posteriores são reaplicados. Um registro incompleto no fim
+ * de um WAL, deixado por uma queda, é descartado pela verificação de CRC. Uma gravação que falhe
+ * no meio de um registro é desfeita antes da próxima, para que os registros seguintes não fiquem
+ * depois de um registro incompleto.
+ */
+public class MemoryUserJournal implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MemoryUserJournal.class);
+
+    private static final long WAL_MAGIC = 0x5349535457414C31L;      // "SISTWAL1"
+    private static final long SNAPSHOT_MAGIC = 0x5349535453505331L;  // "SISTSPS1"
+    private static final int FILE_HEADER = 12;
+
+    /**
+     * Usuários por bloco do snapshot; cada bloco é verificado e decodificado de forma independente.
+     */
+    private static final int SNAPSHOT_CHUNK = 16_384;
+
+    /**
+     * Registro: ID (4), tamanho do email (2), email, hash (32) e salt (16).
+     * No WAL, é precedido do seu tamanho (4) e seguido do CRC32 (4).
+     */
+    private static final int RECORD_FIXED = 6 + PasswordUtils.HASH_LENGTH + PasswordUtils.SALT_LENGTH;
+
+    private final Path directory;
+    private final boolean fsync;
+
+    /**
+     * Protege o WAL corrente, o buffer de codificação e o CRC das gravações. A leitura dos WALs e
+     * a escrita dos snapshots usam um {@link CRC32} próprio, pois não detêm esse bloqueio.
+     */
+    private final Object appendLock = new Object();
+    private FileChannel wal;
+    private long generation;
+    private ByteBuffer encodeBuffer = ByteBuffer.allocate(4096);
+    private final CRC32 crc = new CRC32();
+
+    /**
+     * Falha que impediu desfazer uma gravação incompleta; a partir dela, o WAL corrente recusa
+     * gravações até ser trocado pelo próximo snapshot.
+     */
+    private IOException failure;
+
+    /**
+     * Acréscimos em andamento, até a publicação dos usuários, compartilham o bloqueio; a troca do
+     * WAL o detém com exclusividade. Assim, quando o WAL é trocado, todo usuário das gerações
+     * anteriores já foi publicado, ou a sua gravação falhou e ele não será.
+     */
+    private final ReadWriteLock rotationLock = new ReentrantReadWriteLock();
+
+    /**
+     * Estado da sincronização em grupo, em bytes acrescentados desde a abertura (todas as gerações).
+     */
+    private final Object syncMonitor = new Object();
+    private long appendedBytes;
+    private long durableBytes;
+    private boolean syncing;
+
+    private ScheduledExecutorService snapshotExecutor;
+    private boolean dirtySinceSnapshot;
+    private volatile long lastSnapshotMillis = -1;
+
+    /**
+     * Cria o journal no diretório especificado. A recuperação deve ser feita antes de qualquer gravação.
+     *
+     * @param directory O diretório dos snapshots e WALs.
+     * @param fsync     Indica se as gravações aguardam a sincronização com o disco.
+     * @throws IOException Caso o diretório não possa ser criado.
+     */
+    public MemoryUserJournal(Path directory, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.fsync = fsync;
+    }
+
+    /**
+     * Carrega o snapshot mais recente e reaplica os WALs posteriores, e então abre um novo WAL.
+     *
+     * @param sink Recebe cada usuário recuperado e retorna {@code false} se o email já existia.
+     *             Pode ser chamado por várias threads ao mesmo tempo.
+     * @return O maior ID encontrado.
+     * @throws IOException Caso os arquivos não possam ser lidos ou o snapshot esteja corrompido.
+     */
+    public int recover(Predicate<User> sink) throws IOException {
+        AtomicInteger maxId = new AtomicInteger();
+        Predicate<User> tracking = user -> {
+            maxId.accumulateAndGet(user.getId(), Math::max);
+            return sink.test(user);
+        };
+
+        long snapshotGeneration = latestGeneration("snapshot-", ".bin");
+        if (snapshotGeneration >= 0) {
+            loadSnapshot(file("snapshot-", snapshotGeneration, ".bin"), tracking);
+        }
+
+        long lastWalGeneration = -1;
+        for (long walGeneration : generations("wal-", ".log")) {
+            if (walGeneration > snapshotGeneration) {
+                if (replayWal(file("wal-", walGeneration, ".log"), tracking) > 0) {
+                    dirtySinceSnapshot = true;
+                }
+                lastWalGeneration = walGeneration;
+            }
+        }
+
+        // Continua o último WAL, já sem a cauda incompleta, ou inicia a geração seguinte ao snapshot
+        synchronized (appendLock) {
+            generation = lastWalGeneration > 0 ? lastWalGeneration : Math.max(snapshotGeneration, 0) + 1;
+            wal = openWal(generation);
+        }
+        return maxId.get();
+    }
+
+    /**
+     * Inicia os snapshots periódicos em segundo plano.
+     *
+     * @param source         Fornece a coleção atual de usuários.
+     * @param intervalMillis O intervalo entre snapshots, em milissegundos.
+     */
+    public synchronized void startSnapshots(Supplier<Collection<User>> source, long intervalMillis) {
+        if (snapshotExecutor != null || intervalMillis <= 0) {
+            return;
+        }
+        snapshotExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "sistema-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        snapshotExecutor.scheduleWithFixedDelay(() -> {
+            try {
+                snapshot(source.get());
+            } catch (IOException | RuntimeException e) {
+                // O WAL continua íntegro; a próxima execução tenta de novo
+                LOGGER.error("Falha no snapshot de usuários em {}", directory, e);
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Acrescenta um usuário ao WAL e aguarda até que ele esteja em disco.
+     *
+     * @param user O usuário criado.
+     */
+    public void append(User user) {
+        append(Collections.singletonList(user), () -> { });
+    }
+
+    /**
+     * Acrescenta vários usuários ao WAL, com uma única espera pela sincronização, e então os publica.
+     * <p>
+     * A publicação, que torna os usuários visíveis na coleção lida pelos snapshots, só é executada
+     * depois que a gravação está em disco e termina antes de qualquer troca do WAL. Se a gravação
+     * falhar, a publicação não é executada.
+     *
+     * @param users   Os usuários criados.
+     * @param publish A publicação dos usuários.
+     */
+    public void append(List<User> users, Runnable publish) {
+        if (users.isEmpty()) {
+            return;
+        }
+        rotationLock.readLock().lock();
+        try {
+            awaitDurable(write(users));
+            publish.run();
+        } finally {
+            rotationLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Codifica e grava os registros no WAL corrente.
+     *
+     * @return A posição, em bytes acrescentados, que deve estar em disco.
+     */
+    private long write(List<User> users) {
+        synchronized (appendLock) {
+            if (failure != null) {
+                throw new UncheckedIOException("O log de usuários está inutilizável após uma falha de gravação", failure);
+            }
+            encodeBuffer.clear();
+            for (User user : users) {
+                byte[] email = user.getEmail().getBytes(StandardCharsets.UTF_8);
+                int length = RECORD_FIXED + email.length;
+                ensureCapacity(length + 8);
+                int start = encodeBuffer.position();
+                encodeBuffer.putInt(length);
+                putRecord(encodeBuffer, user, email);
+                crc.reset();
+                crc.update(encodeBuffer.array(), start + 4, length);
+                encodeBuffer.putInt((int) crc.getValue());
+            }
+            encodeBuffer.flip();
+            int bytes = encodeBuffer.remaining();
+            long start = -1;
+            try {
+                start = wal.position();
+                while (encodeBuffer.hasRemaining()) {
+                    wal.write(encodeBuffer);
+                }
+            } catch (IOException e) {
+                discardPartialWrite(start, e);
+                throw new UncheckedIOException("Erro ao gravar o log de usuários", e);
+            }
+            dirtySinceSnapshot = true;
+            synchronized (syncMonitor) {
+                appendedBytes += bytes;
+                return appendedBytes;
+            }
+        }
+    }
+
+    /**
+     * Remove do WAL o que uma gravação interrompida deixou. Se não for possível, o WAL passa a
+     * recusar gravações: um registro posterior à cauda incompleta seria descartado na recuperação.
+     * Deve ser chamado com o bloqueio de acréscimo.
+     */
+    private void discardPartialWrite(long start, IOException cause) {
+        try {
+            if (start < 0) {
+                throw cause;
+            }
+            wal.truncate(start);
+            wal.position(start);
+        } catch (IOException e) {
+            if (e != cause) {
+                e.addSuppressed(cause);
+            }
+            failure = e;
+            // Garante o próximo snapshot, que troca o WAL e volta a aceitar gravações
+            dirtySinceSnapshot = true;
+            LOGGER.error("Log de usuários em {} recusará gravações: não foi possível desfazer uma gravação incompleta",
+                         directory, e);
+        }
+    }
+
+    /**
+     * Grava um snapshot completo e apaga os arquivos que ele torna desnecessários.
+     * <p>
+     * O WAL é trocado antes da leitura dos usuários: como a troca aguarda a publicação dos
+     * acréscimos em andamento, todo usuário gravado nas gerações anteriores está na coleção lida.
+     * Um usuário que apareça tanto no snapshot quanto no novo WAL é ignorado na reaplicação.
+     *
+     * @param users A coleção atual de usuários.
+     * @throws IOException Caso o snapshot não possa ser gravado.
+     */
+    public synchronized void snapshot(Collection<User> users) throws IOException {
+        synchronized (appendLock) {
+            if (!dirtySinceSnapshot) {
+                return;
+            }
+            dirtySinceSnapshot = false;
+        }
+
+        long start = System.nanoTime();
+        long snapshotGeneration;
+        boolean written = false;
+        try {
+            snapshotGeneration = rotateWal();
+            Path target = file("snapshot-", snapshotGeneration, ".bin");
+            Path temporary = file("snapshot-", snapshotGeneration, ".tmp");
+            writeSnapshot(temporary, users);
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            syncDirectory();
+            written = true;
+        } finally {
+            if (!written) {
+                synchronized (appendLock) {
+                    dirtySinceSnapshot = true;
+                }
+            }
+        }
+
+        for (long old : generations("wal-", ".log")) {
+            if (old <= snapshotGeneration) {
+                Files.deleteIfExists(file("wal-", old, ".log"));
+            }
+        }
+        for (long old : generations("snapshot-", ".bin")) {
+            if (old < snapshotGeneration) {
+                Files.deleteIfExists(file("snapshot-", old, ".bin"));
+            }
+        }
+        lastSnapshotMillis = (System.nanoTime() - start) / 1_000_000;
+    }
+
+    /**
+     * Retorna a duração do último snapshot, em milissegundos, ou -1 se nenhum foi gravado.
+     *
+     * @return A duração do último snapshot.
+     */
+    public long getLastSnapshotMillis() {
+        return lastSnapshotMillis;
+    }
+
+    /**
+     * Interrompe os snapshots periódicos, grava um snapshot final e fecha o WAL, para que a
+     * próxima inicialização não precise reaplicar o log.
+     *
+     * @param users A coleção atual de usuários.
+     * @throws IOException Caso o snapshot final não possa ser gravado.
+     */
+    public synchronized void close(Collection<User> users) throws IOException {
+        if (snapshotExecutor != null) {
+            snapshotExecutor.shutdownNow();
+            snapshotExecutor = null;
+        }
+        try {
+            snapshot(users);
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (appendLock) {
+            if (wal != null) {
+                wal.force(false);
+                wal.close();
+                wal = null;
+            }
+        }
+    }
+
+    /**
+     * Fecha o WAL corrente e abre o da geração seguinte.
+     *
+     * @return A geração fechada, coberta pelo próximo snapshot.
+     */
+    private long rotateWal() throws IOException {
+        // Antes da sincronização: os acréscimos em andamento podem estar aguardando por ela
+        rotationLock.writeLock().lock();
+        try {
+            return rotateWalExclusively();
+        } finally {
+            rotationLock.writeLock().unlock();
+        }
+    }
+
+    private long rotateWalExclusively() throws IOException {
+        synchronized (syncMonitor) {
+            while (syncing) {
+                waitForSync();
+            }
+            syncing = true;
+        }
+        long closed;
+        long synced = 0;
+        try {
+            synchronized (appendLock) {
+                closed = generation;
+                FileChannel next = openWal(generation + 1);
+                wal.force(false);
+                wal.close();
+                wal = next;
+                generation++;
+                // A cauda incompleta fica na geração fechada, que o snapshot torna desnecessária
+                failure = null;
+                // Com o bloqueio de acréscimo, tudo o que foi acrescentado está no WAL recém-sincronizado
+                synchronized (syncMonitor) {
+                    synced = appendedBytes;
+                }
+            }
+        } finally {
+            synchronized (syncMonitor) {
+                durableBytes = Math.max(durableBytes, synced);
+                syncing = false;
+                syncMonitor.notifyAll();
+            }
+        }
+        return closed;
+    }
+
+    /**
+     * Aguarda até que o WAL esteja em disco até a posição informada. O primeiro escritor a chegar
+     * sincroniza tudo o que já foi acrescentado; os demais esperam por essa mesma sincronização.
+     */
+    private void awaitDurable(long target) {
+        if (!fsync) {
+            return;
+        }
+        while (true) {
+            synchronized (syncMonitor) {
+                while (durableBytes < target && syncing) {
+                    waitForSync();
+                }
+                if (durableBytes >= target) {
+                    return;
+                }
+                syncing = true;
+            }
+
+            long covered = 0;
+            boolean synced = false;
+            try {
+                FileChannel channel;
+                synchronized (appendLock) {
+                    channel = wal;
+                    synchronized (syncMonitor) {
+                        covered = appendedBytes;
+                    }
+                }
+                channel.force(false);
+                synced = true;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao sincronizar o log de usuários", e);
+            } finally {
+                synchronized (syncMonitor) {
+                    if (synced) {
+                        durableBytes = Math.max(durableBytes, covered);
+                    }
+                    syncing = false;
+                    syncMonitor.notifyAll();
+                }
+            }
+        }
+    }
+
+    private void waitForSync() {
+        try {
+            syncMonitor.wait();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new UncheckedIOException(new InterruptedIOException("Sincronização interrompida"));
+        }
+    }
+
+    private FileChannel openWal(long walGeneration) throws IOException {
+        FileChannel channel = FileChannel.open(file("wal-", walGeneration, ".log"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.READ);
+        if (channel.size() < FILE_HEADER) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).putLong(WAL_MAGIC).putInt(1);
+            header.flip();
+            channel.write(header, 0);
+        }
+        channel.position(channel.size());
+        return channel;
+    }
+
+    /**
+     * Reaplica um WAL. Um registro incompleto ou corrompido marca o fim do log, que é truncado ali.
+     *
+     * @return A quantidade de registros reaplicados.
+     */
+    private int replayWal(Path path, Predicate<User> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = channel.size();
+            if (size < FILE_HEADER) {
+                return 0;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getLong(0) != WAL_MAGIC) {
+                throw new IOException("Log de usuários inválido: " + path);
+            }
+
+            CRC32 checksum = new CRC32();
+            int position = FILE_HEADER;
+            int records = 0;
+            while (position + 8 <= size) {
+                int length = buffer.getInt(position);
+                if (length < RECORD_FIXED || position + 8L + length > size) {
+                    break;
+                }
+                checksum.reset();
+                ByteBuffer body = buffer.duplicate();
+                body.limit(position + 4 + length).position(position + 4);
+                checksum.update(body);
+                if ((int) checksum.getValue() != buffer.getInt(position + 4 + length)) {
+                    break;
+                }
+                sink.test(readRecord(buffer, position + 4));
+                records++;
+                position += 8 + length;
+            }
+            if (position < size) {
+                channel.truncate(position);
+            }
+            return records;
+        }
+    }
+
+    private void writeSnapshot(Path path, Collection<User> users) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER).putLong(SNAPSHOT_MAGIC).putInt(1);
+            header.flip();
+            channel.write(header);
+
+            ByteBuffer chunk = ByteBuffer.allocate(SNAPSHOT_CHUNK * (RECORD_FIXED + 64));
+            int count = 0;
+            for (User user : users) {
+                byte[] email = user.getEmail().getBytes(StandardCharsets.UTF_8);
+                if (chunk.remaining() < RECORD_FIXED + email.length || count == SNAPSHOT_CHUNK) {
+                    writeChunk(channel, chunk, count);
+                    count = 0;
+                    if (chunk.capacity() < RECORD_FIXED + email.length) {
+                        chunk = ByteBuffer.allocate(RECORD_FIXED + email.length);
+                    }
+                }
+                putRecord(chunk, user, email);
+                count++;
+            }
+            if (count > 0) {
+                writeChunk(channel, chunk, count);
+            }
+            channel.force(false);
+        }
+    }
+
+    /**
+     * Bloco do snapshot: quantidade de registros (4), tamanho em bytes (4), registros e CRC32 (4).
+     */
+    private void writeChunk(FileChannel channel, ByteBuffer chunk, int count) throws IOException {
+        chunk.flip();
+        CRC32 checksum = new CRC32();
+        checksum.update(chunk.array(), 0, chunk.limit());
+        ByteBuffer header = ByteBuffer.allocate(8).putInt(count).putInt(chunk.limit());
+        ByteBuffer trailer = ByteBuffer.allocate(4).putInt((int) checksum.getValue());
+        header.flip();
+        trailer.flip();
+        ByteBuffer[] parts = {header, chunk, trailer};
+        while (trailer.hasRemaining()) {
+            channel.write(parts);
+        }
+        chunk.clear();
+    }
+
+    /**
+     * Lê os cabeçalhos dos blocos em sequência e decodifica os blocos em paralelo.
+     */
+    private void loadSnapshot(Path path, Predicate<User> sink) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER);
+            channel.read(header, 0);
+            if (header.getLong(0) != SNAPSHOT_MAGIC) {
+                throw new IOException("Snapshot de usuários inválido: " + path);
+            }
+
+            List<long[]> chunks = new ArrayList<>();
+            ByteBuffer chunkHeader = ByteBuffer.allocate(8);
+            long position = FILE_HEADER;
+            long size = channel.size();
+            while (position + 8 <= size) {
+                chunkHeader.clear();
+                channel.read(chunkHeader, position);
+                int length = chunkHeader.getInt(4);
+                if (position + 12L + length > size) {
+                    throw new IOException("Snapshot de usuários incompleto: " + path);
+                }
+                chunks.add(new long[]{position + 8, length, chunkHeader.getInt(0)});
+                position += 12L + length;
+            }
+
+            MappedByteBuffer[] mapped = new MappedByteBuffer[chunks.size()];
+            for (int i = 0; i < mapped.length; i++) {
+                long[] chunk = chunks.get(i);
+                mapped[i] = channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] + 4);
+            }
+            IntStream.range(0, mapped.length).parallel().forEach(i -> {
+                MappedByteBuffer buffer = mapped[i];
+                int length = (int) chunks.get(i)[1];
+                CRC32 checksum = new CRC32();
+                ByteBuffer body = buffer.duplicate();
+                body.limit(length);
+                checksum.update(body);
+                if ((int) checksum.getValue() != buffer.getInt(length)) {
+                    throw new UncheckedIOException(new IOException("Snapshot de usuários corrompido: " + path));
+                }
+                int offset = 0;
+                for (int record = 0; record < chunks.get(i)[2]; record++) {
+                    User user = readRecord(buffer, offset);
+                    sink.test(user);
+                    offset += RECORD_FIXED + (buffer.getShort(offset + 4) & 0xFFFF);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static void putRecord(ByteBuffer buffer, User user, byte[] email) {
+        buffer.putInt(user.getId())
+              .putShort((short) email.length)
+              .put(email)
+              .put(user.getHashedPasswordBytes())
+              .put(user.getSaltBytes());
+    }
+
+    private static User readRecord(ByteBuffer buffer, int offset) {
+        int id = buffer.getInt(offset);
+        int emailLength = buffer.getShort(offset + 4) & 0xFFFF;
+        byte[] email = new byte[emailLength];
+        byte[] hashedPassword = new byte[PasswordUtils.HASH_LENGTH];
+        byte[] salt = new byte[PasswordUtils.SALT_LENGTH];
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + 6);
+        view.get(email).get(hashedPassword).get(salt);
+        return new User(id, new String(email, StandardCharsets.UTF_8), hashedPassword, salt);
+    }
+
+    private void ensureCapacity(int bytes) {
+        if (encodeBuffer.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(encodeBuffer.capacity() * 2, encodeBuffer.position() + bytes));
+            encodeBuffer.flip();
+            larger.put(encodeBuffer);
+            encodeBuffer = larger;
+        }
+    }
+
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException ignored) {
+            // Nem todos os sistemas permitem sincronizar diretórios
+        }
+    }
+
+    private Path file(String prefix, long fileGeneration, String suffix) {
+        return directory.resolve(prefix + fileGeneration + suffix);
+    }
+
+    private long latestGeneration(String prefix, String suffix) throws IOException {
+        long latest = -1;
+        for (long fileGeneration : generations(prefix, suffix)) {
+            latest = Math.max(latest, fileGeneration);
+        }
+        return latest;
+    }
+
+    private List<Long> generations(String prefix, String suffix) throws IOException {
+        List<Long> found = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, prefix + "*" + suffix)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                try {
+                    found.add(Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length())));
+                } catch (NumberFormatException ignored) {
+                    // Arquivo alheio ao journal
+                }
+            }
+        }
+        Collections.sort(found);
+        return found;
+    }
+}
@@ -2,20 +2,60 @@ package com.projeto.sistema.repositories;
 
 import com.projeto.sistema.annotations.Singleton;
 import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
 import com.projeto.sistema.utils.PasswordUtils;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Implementação de {@link UserRepositoryInterface} que utiliza memória para armazenar dados.
  * Esta classe é útil para testes ou quando não há necessidade de persistência em banco de dados.
  * Implementa o padrão Singleton para garantir que apenas uma instância seja utilizada.
+ * <p>
+ * Os usuários são indexados por email em um {@link ConcurrentHashMap}, o que garante buscas
+ * em tempo constante e inserções atômicas mesmo sob acesso concorrente das threads do servlet.
+ * <p>
+ * Opcionalmente, com a propriedade {@code sistema.memory.dir}, os usuários sobrevivem a
+ * reinicializações: cada criação é registrada em um {@link MemoryUserJournal} e só então
+ * publicada no índice, e o conjunto completo é gravado periodicamente em um snapshot. Enquanto
+ * a gravação não termina, o email fica reservado, para que registros concorrentes o recusem.
+ * <p>
+ * Além da instância única, instâncias independentes podem ser criadas como shards de um
+ * {@link ShardedUserRepository}, cada uma com o próprio diretório e sequência de IDs.
  */
 
 @Singleton
-public class MemoryUserRepository implements UserRepositoryInterface {
+public class MemoryUserRepository implements UserShard, AutoCloseable {
+
+    /**
+     * Capacidade inicial do índice, dimensionada para evitar redimensionamentos frequentes.
+     */
+    private static final int INITIAL_CAPACITY = 1 << 16;
+
+    /**
+     * Diretório do snapshot e do log de escrita antecipada ({@code sistema.memory.dir}).
+     * Sem essa propriedade, o repositório não persiste nada.
+     */
+    private static final String JOURNAL_DIRECTORY = System.getProperty("sistema.memory.dir");
+
+    /**
+     * Intervalo entre snapshots, em milissegundos ({@code sistema.memory.snapshotInterval}).
+     */
+    private static final long SNAPSHOT_INTERVAL_MILLIS = Long.getLong("sistema.memory.snapshotInterval", 60_000L);
+
+    /**
+     * Indica se as criações aguardam a sincronização do log com o disco ({@code sistema.memory.fsync}).
+     */
+    private static final boolean FSYNC = Boolean.parseBoolean(System.getProperty("sistema.memory.fsync", "true"));
 
     /**
      * Instância única do repositório.
@@ -23,14 +63,62 @@ public class MemoryUserRepository implements UserRepositoryInterface {
     private static MemoryUserRepository instance;
 
     /**
-     * Lista de usuários armazenados em memória.
+     * Índice concorrente de usuários armazenados em memória, chaveado pelo email.
+     */
+    private final ConcurrentMap<String, User> usersByEmail = new ConcurrentHashMap<>(INITIAL_CAPACITY);
+
+    /**
+     * Emails de usuários sendo gravados no log, ainda não publicados em {@link #usersByEmail}.
+     */
+    private final ConcurrentMap<String, User> reserved = new ConcurrentHashMap<>();
+
+    /**
+     * Gerador de IDs incrementais, livre de bloqueios.
+     */
+    private final UserIdSequence ids;
+
+    /**
+     * Log e snapshots dos usuários, ou {@code null} quando a durabilidade está desativada.
+     */
+    private final MemoryUserJournal journal;
+
+    /**
+     * Tempo gasto para recuperar os usuários do disco na criação, em milissegundos.
      */
-    private final List<User> users = new ArrayList<>();
+    private final long recoveryMillis;
 
     /**
-     * Construtor privado para evitar criação de múltiplas instâncias.
+     * Construtor privado da instância única, configurada pelas propriedades de sistema.
      */
-    private MemoryUserRepository() {}
+    private MemoryUserRepository() {
+        this(JOURNAL_DIRECTORY, new UserIdSequence());
+    }
+
+    /**
+     * Cria um repositório independente da instância única, usado como shard.
+     * Com a durabilidade ativada, recupera os usuários do último snapshot e do log.
+     *
+     * @param journalDirectory O diretório do snapshot e do log, ou {@code null} para não persistir nada.
+     * @param ids              A sequência que gera os IDs dos usuários criados.
+     */
+    public MemoryUserRepository(String journalDirectory, UserIdSequence ids) {
+        this.ids = ids;
+        if (journalDirectory == null) {
+            journal = null;
+            recoveryMillis = 0;
+            return;
+        }
+
+        long start = System.nanoTime();
+        try {
+            journal = new MemoryUserJournal(Paths.get(journalDirectory), FSYNC);
+            ids.advancePast(journal.recover(user -> usersByEmail.putIfAbsent(user.getEmail(), user) == null));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Erro ao recuperar os usuários em memória", e);
+        }
+        recoveryMillis = (System.nanoTime() - start) / 1_000_000;
+        journal.startSnapshots(usersByEmail::values, SNAPSHOT_INTERVAL_MILLIS);
+    }
 
     /**
      * Obtém a instância única de {@link MemoryUserRepository}.
@@ -47,6 +135,8 @@ public class MemoryUserRepository implements UserRepositoryInterface {
     /**
      * Registra um novo usuário na memória.
      * A senha fornecida é hasheada com um salt antes de ser armazenada.
+     * A detecção de duplicidade é atômica: apenas uma de várias inserções concorrentes
+     * com o mesmo email é aceita.
      *
      * @param email       O email do usuário.
      * @param rawPassword A senha em texto puro.
@@ -54,16 +144,117 @@ public class MemoryUserRepository implements UserRepositoryInterface {
      */
     @Override
     public void createUser(String email, String rawPassword) {
-        if (findUserByEmail(email).isPresent()) {
+        // Rejeição rápida, evitando o custo do hash para emails já conhecidos
+        if (usersByEmail.containsKey(email)) {
+            throw new IllegalArgumentException("O e-mail já está registrado.");
+        }
+
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hashedPassword = PasswordUtils.hash(rawPassword, salt);
+
+        User user = new User(ids.next(), email, hashedPassword, salt);
+        if (journal == null) {
+            if (usersByEmail.putIfAbsent(email, user) != null) {
+                throw new IllegalArgumentException("O e-mail já está registrado.");
+            }
+            return;
+        }
+        if (!reserve(user)) {
             throw new IllegalArgumentException("O e-mail já está registrado.");
         }
+        publishAfterJournal(Collections.singletonList(user));
+    }
+
+    /**
+     * Reserva o email de um usuário que será gravado no log.
+     *
+     * @return {@code false} se o email já estiver registrado ou reservado.
+     */
+    private boolean reserve(User user) {
+        if (reserved.putIfAbsent(user.getEmail(), user) != null) {
+            return false;
+        }
+        // Uma gravação concorrente pode ter publicado o email e liberado a reserva antes desta
+        if (usersByEmail.containsKey(user.getEmail())) {
+            reserved.remove(user.getEmail(), user);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Grava no log os usuários reservados e os publica no índice quando estiverem em disco.
+     * Se a gravação falhar, nenhum deles é publicado. Em ambos os casos, as reservas são liberadas.
+     */
+    private void publishAfterJournal(List<User> users) {
+        try {
+            journal.append(users, () -> users.forEach(user -> usersByEmail.put(user.getEmail(), user)));
+        } finally {
+            users.forEach(user -> reserved.remove(user.getEmail(), user));
+        }
+    }
+
+    /**
+     * Registra vários usuários na memória de uma só vez.
+     * Um bloco contíguo de IDs é reservado para todo o lote com uma única operação atômica.
+     *
+     * @param registrations Os usuários a serem registrados, com as senhas já hasheadas.
+     * @return Para cada usuário, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        boolean[] created = new boolean[registrations.size()];
+        int firstId = ids.reserve(registrations.size());
+        int stride = ids.getStride();
+        List<User> inserted = journal == null ? null : new ArrayList<>(created.length);
+
+        for (int i = 0; i < created.length; i++) {
+            UserRegistration registration = registrations.get(i);
+            User user = new User(firstId + i * stride, registration.getEmail(),
+                                 registration.getHashedPassword(), registration.getSalt());
+            if (inserted == null) {
+                created[i] = usersByEmail.putIfAbsent(registration.getEmail(), user) == null;
+            } else if (reserve(user)) {
+                created[i] = true;
+                inserted.add(user);
+            }
+        }
+
+        if (inserted != null && !inserted.isEmpty()) {
+            publishAfterJournal(inserted);
+        }
+        return created;
+    }
 
-        String salt = PasswordUtils.generateSalt();
-        String hashedPassword = PasswordUtils.hashWithSalt(rawPassword, salt);
+    /**
+     * Percorre todos os usuários armazenados em memória.
+     *
+     * @param action A ação executada para cada usuário.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        usersByEmail.values().forEach(action);
+    }
 
-        int userId = users.size() + 1; // ID incremental
-        User user = new User(userId, email, hashedPassword, salt);
-        users.add(user);
+    /**
+     * Insere usuários migrados de outro shard, preservando seus IDs.
+     *
+     * @param users Os usuários a serem importados.
+     */
+    @Override
+    public void importUsers(List<User> users) {
+        List<User> inserted = journal == null ? null : new ArrayList<>(users.size());
+        for (User user : users) {
+            ids.advancePast(user.getId());
+            if (inserted == null) {
+                usersByEmail.putIfAbsent(user.getEmail(), user);
+            } else if (reserve(user)) {
+                inserted.add(user);
+            }
+        }
+        if (inserted != null && !inserted.isEmpty()) {
+            publishAfterJournal(inserted);
+        }
     }
 
     /**
@@ -74,8 +265,54 @@ public class MemoryUserRepository implements UserRepositoryInterface {
      */
     @Override
     public Optional<User> findUserByEmail(String email) {
-        return users.stream()
-                    .filter(user -> user.getEmail().equals(email))
-                    .findFirst();
+        if (email == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(usersByEmail.get(email));
+    }
+
+    /**
+     * Percorre os emails de todos os usuários armazenados em memória.
+     *
+     * @param action A ação executada para cada email.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        usersByEmail.keySet().forEach(action);
+    }
+
+    /**
+     * Retorna a quantidade de usuários armazenados.
+     *
+     * @return O número de usuários registrados.
+     */
+    public int size() {
+        return usersByEmail.size();
+    }
+
+    /**
+     * Retorna o tempo gasto na recuperação dos usuários a partir do disco.
+     *
+     * @return A duração da recuperação, em milissegundos, ou 0 sem durabilidade.
+     */
+    public long getRecoveryMillis() {
+        return recoveryMillis;
+    }
+
+    /**
+     * Com a durabilidade ativada, grava um snapshot final e fecha o log, para que a próxima
+     * inicialização carregue apenas o snapshot. Sem durabilidade, não faz nada.
+     */
+    @Override
+    public void close() throws IOException {
+        if (journal == null) {
+            return;
+        }
+        synchronized (MemoryUserRepository.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+        journal.close(usersByEmail.values());
     }
 }
@@ -0,0 +1,484 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.annotations.Singleton;
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.PasswordUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Implementação de {@link UserRepositoryInterface} que mantém os usuários fora do heap.
+ * <p>
+ * Os registros (ID, email em UTF-8, hash e salt em bytes) são acrescentados a arenas de
+ * {@link ByteBuffer#allocateDirect(int) buffers diretos}, e localizados por um índice de hash
+ * com endereçamento aberto, também fora do heap, em que cada posição é um único {@code long}.
+ * Assim, milhões de usuários não ocupam objetos no heap nem aumentam o trabalho do coletor de
+ * lixo; um {@link User} é criado apenas quando uma busca o encontra.
+ * <p>
+ * Os dados não são persistidos. A memória fora do heap é limitada por
+ * {@code -XX:MaxDirectMemorySize}, que por padrão é igual ao tamanho máximo do heap.
+ */
+@Singleton
+public class OffHeapUserRepository implements UserShard, AutoCloseable {
+
+    /**
+     * Tamanho de cada arena de registros, em bytes ({@code sistema.offheap.arenaSize}).
+     */
+    private static final int ARENA_SIZE = Integer.getInteger("sistema.offheap.arenaSize", 64 << 20);
+
+    /**
+     * Maior capacidade do índice cujas posições de 8 bytes cabem em um único buffer e cujos
+     * deslocamentos ({@code slot * 8}) não estouram um {@code int}.
+     */
+    private static final int MAX_INDEX_CAPACITY = 1 << 27;
+
+    /**
+     * Quantidade inicial de posições do índice, potência de dois ({@code sistema.offheap.indexCapacity}).
+     */
+    private static final int INITIAL_INDEX_CAPACITY = Integer.highestOneBit(
+        Math.min(MAX_INDEX_CAPACITY, Math.max(16, Integer.getInteger("sistema.offheap.indexCapacity", 1 << 16))));
+
+    /**
+     * Registro: ID (4), tamanho do email (2), email, hash (32) e salt (16).
+     */
+    private static final int EMAIL_LENGTH_OFFSET = 4;
+    private static final int EMAIL_OFFSET = 6;
+    private static final int RECORD_OVERHEAD = EMAIL_OFFSET + PasswordUtils.HASH_LENGTH + PasswordUtils.SALT_LENGTH;
+    private static final int MAX_EMAIL_LENGTH = 0xFFFF;
+
+    /**
+     * Cada posição do índice guarda, nos 40 bits menos significativos, a posição do registro
+     * mais um (zero indica vazio) e, nos 24 restantes, bits do hash do email, que descartam
+     * quase todas as colisões sem acessar a arena.
+     */
+    private static final int POSITION_BITS = 40;
+    private static final long POSITION_MASK = (1L << POSITION_BITS) - 1;
+
+    /**
+     * Instância única do repositório.
+     */
+    private static OffHeapUserRepository instance;
+
+    private final UserIdSequence ids;
+    private final List<ByteBuffer> arenas = new ArrayList<>();
+    private ByteBuffer index;
+    private int indexCapacity;
+    private int size;
+    private long writePosition;
+    private boolean closed;
+
+    /**
+     * Protege as arenas e o índice: buscas concorrentes, uma gravação por vez.
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Construtor privado da instância única.
+     */
+    private OffHeapUserRepository() {
+        this(new UserIdSequence());
+    }
+
+    /**
+     * Cria um repositório independente da instância única, usado como shard.
+     *
+     * @param ids A sequência que gera os IDs dos usuários criados.
+     */
+    public OffHeapUserRepository(UserIdSequence ids) {
+        this.ids = ids;
+        this.indexCapacity = INITIAL_INDEX_CAPACITY;
+        this.index = ByteBuffer.allocateDirect(indexCapacity * 8);
+        this.arenas.add(ByteBuffer.allocateDirect(ARENA_SIZE));
+    }
+
+    /**
+     * Obtém a instância única de {@link OffHeapUserRepository}.
+     *
+     * @return A instância única de {@link OffHeapUserRepository}.
+     */
+    public static synchronized OffHeapUserRepository getInstance() {
+        if (instance == null) {
+            instance = new OffHeapUserRepository();
+        }
+        return instance;
+    }
+
+    /**
+     * Registra um novo usuário. A senha é hasheada com um salt fora do bloqueio.
+     *
+     * @param email       O email do usuário.
+     * @param rawPassword A senha em texto puro.
+     * @throws IllegalArgumentException Se o email já estiver registrado.
+     */
+    @Override
+    public void createUser(String email, String rawPassword) {
+        byte[] key = encodeEmail(email);
+        long hash = MappedUserRepository.hash(key);
+        if (find(key, hash) >= 0) {
+            throw new IllegalArgumentException("O e-mail já está registrado.");
+        }
+
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hashedPassword = PasswordUtils.hash(rawPassword, salt);
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            if (findSlot(key, hash) >= 0) {
+                throw new IllegalArgumentException("O e-mail já está registrado.");
+            }
+            append(ids.next(), key, hash, hashedPassword, salt);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Registra vários usuários sob uma única aquisição do bloqueio de escrita.
+     *
+     * @param registrations Os usuários a serem registrados, com as senhas já hasheadas.
+     * @return Para cada usuário, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        boolean[] created = new boolean[registrations.size()];
+        byte[][] keys = new byte[created.length][];
+        long[] hashes = new long[created.length];
+        for (int i = 0; i < created.length; i++) {
+            keys[i] = encodeEmail(registrations.get(i).getEmail());
+            hashes[i] = MappedUserRepository.hash(keys[i]);
+        }
+
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            for (int i = 0; i < created.length; i++) {
+                if (findSlot(keys[i], hashes[i]) < 0) {
+                    UserRegistration registration = registrations.get(i);
+                    append(ids.next(), keys[i], hashes[i], registration.getHashedPassword(), registration.getSalt());
+                    created[i] = true;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return created;
+    }
+
+    /**
+     * Busca um usuário pelo email, comparando-o diretamente na arena. Apenas o usuário
+     * encontrado é materializado.
+     *
+     * @param email O email do usuário.
+     * @return Um {@link Optional} contendo o usuário, caso encontrado.
+     */
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        long hash = MappedUserRepository.hash(key);
+
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            long position = findSlot(key, hash);
+            if (position < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(readUser(position, email));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre os emails de todos os usuários, na ordem de inserção.
+     *
+     * @param action A ação executada para cada email.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        forEachRecord(position -> action.accept(readEmail(position)));
+    }
+
+    /**
+     * Percorre todos os usuários, na ordem de inserção, materializando um de cada vez.
+     *
+     * @param action A ação executada para cada usuário.
+     */
+    @Override
+    public void forEachUser(Consumer<User> action) {
+        forEachRecord(position -> action.accept(readUser(position, readEmail(position))));
+    }
+
+    /**
+     * Insere usuários migrados de outro shard, preservando seus IDs.
+     *
+     * @param users Os usuários a serem importados.
+     */
+    @Override
+    public void importUsers(List<User> users) {
+        lock.writeLock().lock();
+        try {
+            ensureOpen();
+            for (User user : users) {
+                byte[] key = encodeEmail(user.getEmail());
+                long hash = MappedUserRepository.hash(key);
+                ids.advancePast(user.getId());
+                if (findSlot(key, hash) < 0) {
+                    append(user.getId(), key, hash, user.getHashedPasswordBytes(), user.getSaltBytes());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a quantidade de usuários armazenados.
+     *
+     * @return O número de usuários registrados.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Retorna a memória fora do heap reservada pelas arenas e pelo índice.
+     *
+     * @return A quantidade de bytes alocados.
+     */
+    public long getOffHeapBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) arenas.size() * ARENA_SIZE + (long) indexCapacity * 8;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Descarta todos os usuários. A memória fora do heap é devolvida quando os buffers forem
+     * coletados. Uma chamada posterior a {@link #getInstance()} cria uma nova instância.
+     */
+    @Override
+    public void close() {
+        lock.writeLock().lock();
+        try {
+            closed = true;
+            arenas.clear();
+            index = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        synchronized (OffHeapUserRepository.class) {
+            if (instance == this) {
+                instance = null;
+            }
+        }
+    }
+
+    private void ensureOpen() {
+        if (closed) {
+            throw new IllegalStateException("O repositório fora do heap foi fechado.");
+        }
+    }
+
+    /**
+     * Procura o email no índice sob o bloqueio de leitura.
+     */
+    private long find(byte[] key, long hash) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            return findSlot(key, hash);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Percorre o índice a partir da posição do hash até encontrar o email ou uma posição vazia.
+     *
+     * @return A posição do registro, ou -1 se o email não estiver registrado.
+     */
+    private long findSlot(byte[] key, long hash) {
+        int mask = indexCapacity - 1;
+        long tag = tagOf(hash);
+        for (int slot = (int) hash & mask; ; slot = (slot + 1) & mask) {
+            long stored = index.getLong(slot * 8);
+            if (stored == 0) {
+                return -1;
+            }
+            if ((stored & ~POSITION_MASK) == tag && emailEquals((stored & POSITION_MASK) - 1, key)) {
+                return (stored & POSITION_MASK) - 1;
+            }
+        }
+    }
+
+    private boolean emailEquals(long position, byte[] key) {
+        ByteBuffer arena = arenas.get(arenaOf(position));
+        int offset = offsetOf(position);
+        if ((arena.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF) != key.length) {
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            if (arena.get(offset + EMAIL_OFFSET + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Acrescenta um registro à arena atual, ou a uma nova, e o inclui no índice.
+     * Deve ser chamado com o bloqueio de escrita.
+     */
+    private void append(int id, byte[] key, long hash, byte[] hashedPassword, byte[] salt) {
+        int length = RECORD_OVERHEAD + key.length;
+        if (offsetOf(writePosition) + length > ARENA_SIZE) {
+            // O restante da arena fica sem uso; por estar zerado, seu tamanho de email zero marca o fim
+            writePosition = nextArena(writePosition);
+        }
+        if (size + 1 > indexCapacity / 2) {
+            growIndex();
+        }
+        if (arenaOf(writePosition) == arenas.size()) {
+            arenas.add(ByteBuffer.allocateDirect(ARENA_SIZE));
+        }
+
+        ByteBuffer record = arenas.get(arenaOf(writePosition)).duplicate();
+        record.position(offsetOf(writePosition));
+        record.putInt(id)
+              .putShort((short) key.length)
+              .put(key)
+              .put(hashedPassword)
+              .put(salt);
+
+        insertSlot(index, indexCapacity, hash, writePosition);
+        size++;
+        writePosition += length;
+    }
+
+    private User readUser(long position, String email) {
+        ByteBuffer arena = arenas.get(arenaOf(position)).duplicate();
+        int offset = offsetOf(position);
+        byte[] hashedPassword = new byte[PasswordUtils.HASH_LENGTH];
+        byte[] salt = new byte[PasswordUtils.SALT_LENGTH];
+        arena.position(offset + EMAIL_OFFSET + (arena.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF));
+        arena.get(hashedPassword).get(salt);
+        return new User(arena.getInt(offset), email, hashedPassword, salt);
+    }
+
+    private String readEmail(long position) {
+        ByteBuffer arena = arenas.get(arenaOf(position)).duplicate();
+        int offset = offsetOf(position);
+        byte[] email = new byte[arena.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF];
+        arena.position(offset + EMAIL_OFFSET);
+        arena.get(email);
+        return new String(email, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Percorre as posições de todos os registros sob o bloqueio de leitura.
+     */
+    private void forEachRecord(LongConsumer action) {
+        lock.readLock().lock();
+        try {
+            ensureOpen();
+            long position = 0;
+            int visited = 0;
+            while (visited < size) {
+                ByteBuffer arena = arenas.get(arenaOf(position));
+                int offset = offsetOf(position);
+                int emailLength = offset + EMAIL_OFFSET <= ARENA_SIZE
+                    ? arena.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF : 0;
+                if (emailLength == 0) {
+                    position = nextArena(position);
+                    continue;
+                }
+                action.accept(position);
+                visited++;
+                position += RECORD_OVERHEAD + emailLength;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private static void insertSlot(ByteBuffer target, int capacity, long hash, long position) {
+        int mask = capacity - 1;
+        int slot = (int) hash & mask;
+        while (target.getLong(slot * 8) != 0) {
+            slot = (slot + 1) & mask;
+        }
+        target.putLong(slot * 8, tagOf(hash) | (position + 1));
+    }
+
+    /**
+     * Dobra a capacidade do índice. Como as posições guardam apenas parte do hash, o hash
+     * completo de cada email é recalculado a partir da arena. O novo índice só substitui o atual
+     * depois de preenchido, para que uma falha na alocação mantenha o repositório consistente.
+     */
+    private void growIndex() {
+        if (indexCapacity >= MAX_INDEX_CAPACITY) {
+            throw new IllegalStateException("Capacidade máxima do índice de usuários atingida");
+        }
+        int newCapacity = indexCapacity * 2;
+        ByteBuffer grown = ByteBuffer.allocateDirect(newCapacity * 8);
+        for (int slot = 0; slot < indexCapacity; slot++) {
+            long stored = index.getLong(slot * 8);
+            if (stored != 0) {
+                long position = (stored & POSITION_MASK) - 1;
+                int offset = offsetOf(position);
+                ByteBuffer arena = arenas.get(arenaOf(position));
+                int emailLength = arena.getShort(offset + EMAIL_LENGTH_OFFSET) & 0xFFFF;
+                insertSlot(grown, newCapacity, MappedUserRepository.hash(arena, offset + EMAIL_OFFSET, emailLength), position);
+            }
+        }
+        index = grown;
+        indexCapacity = newCapacity;
+    }
+
+    private static long tagOf(long hash) {
+        return (hash >>> POSITION_BITS) << POSITION_BITS;
+    }
+
+    private static int arenaOf(long position) {
+        return (int) (position / ARENA_SIZE);
+    }
+
+    private static int offsetOf(long position) {
+        return (int) (position % ARENA_SIZE);
+    }
+
+    private static long nextArena(long position) {
+        return (position / ARENA_SIZE + 1) * ARENA_SIZE;
+    }
+
+    private static byte[] encodeEmail(String email) {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        if (key.length == 0) {
+            throw new IllegalArgumentException("E-mail inválido.");
+        }
+        if (key.length > MAX_EMAIL_LENGTH || RECORD_OVERHEAD + key.length > ARENA_SIZE) {
+            throw new IllegalArgumentException("E-mail muito longo.");
+        }
+        return key;
+    }
+}
@@ -0,0 +1,75 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.factories.UserRepositoryFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Ferramenta de linha de comando que redistribui os usuários de um repositório particionado
+ * durável (shards em memória com {@code sistema.memory.dir}) para outra quantidade de shards.
+ * Deve ser executada com a aplicação parada e com as mesmas propriedades de sistema dela:
+ * <pre>
+ * java -Dsistema.memory.dir=dados -cp "WEB-INF/classes:WEB-INF/lib/*" \
+ *     com.projeto.sistema.repositories.ShardRebalancer 4 8
+ * </pre>
+ * Os IDs dos usuários são preservados. A nova configuração passa a ser a registrada em
+ * {@code shards.current} ao fim da cópia, e o diretório da anterior só é removido depois que a
+ * nova foi gravada em snapshots; se a ferramenta for interrompida, ela deve ser executada
+ * novamente, com os mesmos argumentos, antes de a aplicação ser iniciada.
+ * <p>
+ * Com a aplicação em execução, ou com shards não duráveis, use {@link ShardedUserRepository#reshard(int)}.
+ */
+public class ShardRebalancer {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: ShardRebalancer <quantidade atual> <nova quantidade>");
+            System.exit(2);
+        }
+        int currentCount = Integer.parseInt(args[0]);
+        int newCount = Integer.parseInt(args[1]);
+
+        Path previousDirectory = UserRepositoryFactory.shardDirectory(currentCount);
+        if (previousDirectory == null || !Files.isDirectory(previousDirectory)) {
+            System.err.println("Nenhum shard durável encontrado para " + currentCount
+                + " shards; verifique sistema.memory.dir");
+            System.exit(1);
+        }
+        if (currentCount == newCount) {
+            System.out.println("A quantidade de shards já é " + newCount);
+            return;
+        }
+        if (UserRepositoryFactory.activeShardCount() == newCount) {
+            // Execução anterior interrompida depois da cópia: resta apenas remover a configuração antiga
+            deleteRecursively(previousDirectory);
+            System.out.println("Redistribuição para " + newCount + " shards já concluída; "
+                + previousDirectory + " removido");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long migrated;
+        ShardedUserRepository repository = UserRepositoryFactory.createShardedRepository(currentCount);
+        try {
+            migrated = repository.reshard(newCount);
+        } finally {
+            repository.close();
+        }
+        deleteRecursively(previousDirectory);
+
+        System.out.println(migrated + " usuários redistribuídos de " + currentCount + " para " + newCount
+            + " shards em " + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) entries.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,463 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Implementação de {@link UserRepositoryInterface} que particiona os usuários, pelo hash do
+ * email, entre vários repositórios independentes ({@link UserShard}).
+ * <p>
+ * Cada shard tem o próprio índice, log ou banco de dados, de modo que registros concorrentes
+ * de emails diferentes raramente disputam a mesma estrutura. Os IDs continuam globalmente
+ * únicos sem um contador central: o shard {@code i} de {@code n} gera apenas IDs congruentes
+ * a {@code i} módulo {@code n} (veja {@link UserIdSequence}), e todas as sequências começam
+ * acima do maior ID existente, inclusive os de usuários migrados de outra configuração.
+ * <p>
+ * A quantidade de shards pode ser alterada com {@link #reshard(int)}, que redistribui os
+ * usuários preservando seus IDs.
+ */
+public class ShardedUserRepository implements UserRepositoryInterface, AutoCloseable {
+
+    /**
+     * Cria os shards de uma configuração.
+     */
+    @FunctionalInterface
+    public interface ShardFactory {
+
+        /**
+         * Cria, ou reabre, o shard {@code index} de uma configuração com {@code shardCount} shards.
+         *
+         * @param index      O índice do shard, de 0 a {@code shardCount - 1}.
+         * @param shardCount A quantidade de shards da configuração.
+         * @param ids        A sequência que o shard deve usar para gerar IDs.
+         * @return O shard.
+         */
+        UserShard create(int index, int shardCount, UserIdSequence ids);
+
+        /**
+         * Chamado quando a configuração com {@code shardCount} shards passa a ser a atual: na
+         * abertura do repositório e, em {@link #reshard(int)}, depois que a cópia terminou e antes
+         * de os shards antigos serem fechados. Shards duráveis registram aqui qual configuração
+         * deve ser reaberta na próxima inicialização.
+         *
+         * @param shardCount A quantidade de shards da configuração atual.
+         */
+        default void activate(int shardCount) {
+            // Shards não duráveis não têm o que registrar
+        }
+    }
+
+    /**
+     * Quantidade de usuários migrados por chamada a {@link UserShard#importUsers(List)}.
+     */
+    private static final int IMPORT_BATCH_SIZE = 10_000;
+
+    /**
+     * Threads que gravam em paralelo as partes de um lote ({@code sistema.shards.writers}).
+     */
+    private static final int WRITER_THREADS =
+        Integer.getInteger("sistema.shards.writers", Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Partes de lotes aguardando uma thread de gravação; além disso, a thread que chamou
+     * {@link #createUsers(List)} grava a parte ela mesma.
+     */
+    private static final int WRITER_QUEUE_CAPACITY = 64;
+
+    private final ShardFactory factory;
+
+    /**
+     * Executor próprio das gravações em lote, para que elas não ocupem o pool comum da JVM,
+     * compartilhado com o restante da aplicação. É encerrado em {@link #close()}.
+     */
+    private final ThreadPoolExecutor writers;
+
+    /**
+     * Escritas compartilham o bloqueio de leitura; apenas a redistribuição usa o de escrita,
+     * para que nenhum registro seja feito em um shard que já foi copiado.
+     */
+    private final ReadWriteLock layoutLock = new ReentrantReadWriteLock();
+
+    private volatile Layout layout;
+
+    /**
+     * Shards de uma configuração e suas sequências de IDs, na mesma ordem.
+     */
+    private static final class Layout {
+        final UserShard[] shards;
+        final UserIdSequence[] ids;
+
+        Layout(UserShard[] shards, UserIdSequence[] ids) {
+            this.shards = shards;
+            this.ids = ids;
+        }
+    }
+
+    /**
+     * Cria, ou reabre, o repositório com a quantidade de shards informada.
+     *
+     * @param shardCount A quantidade de shards.
+     * @param factory    A fábrica dos shards.
+     */
+    public ShardedUserRepository(int shardCount, ShardFactory factory) {
+        this.factory = factory;
+        Layout initial = createLayout(shardCount);
+        try {
+            alignSequences(initial, 0);
+            factory.activate(shardCount);
+        } catch (RuntimeException e) {
+            closeShards(initial, e);
+            throw e;
+        }
+        this.layout = initial;
+        int threads = Math.max(1, WRITER_THREADS);
+        this.writers = new ThreadPoolExecutor(
+            threads, threads,
+            30L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(WRITER_QUEUE_CAPACITY),
+            new WriterThreadFactory(),
+            (task, executor) -> {
+                if (executor.isShutdown()) {
+                    throw new IllegalStateException("O repositório de usuários foi fechado.");
+                }
+                // Com a fila cheia, a própria thread que chamou grava a parte
+                task.run();
+            });
+        this.writers.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registra um novo usuário no shard correspondente ao email.
+     *
+     * @param email       O email do usuário.
+     * @param rawPassword A senha em texto puro.
+     * @throws IllegalArgumentException Se o email já estiver registrado.
+     */
+    @Override
+    public void createUser(String email, String rawPassword) {
+        layoutLock.readLock().lock();
+        try {
+            Layout current = layout;
+            current.shards[shardFor(email, current.shards.length)].createUser(email, rawPassword);
+        } finally {
+            layoutLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Busca um usuário no shard correspondente ao email. As buscas não usam bloqueios; se uma
+     * redistribuição fechar o shard consultado durante a busca, ela é refeita na nova configuração.
+     *
+     * @param email O email do usuário.
+     * @return Um {@link Optional} contendo o usuário, caso encontrado.
+     */
+    @Override
+    public Optional<User> findUserByEmail(String email) {
+        if (email == null) {
+            return Optional.empty();
+        }
+        while (true) {
+            Layout current = layout;
+            try {
+                return current.shards[shardFor(email, current.shards.length)].findUserByEmail(email);
+            } catch (RuntimeException e) {
+                if (current == layout) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra vários usuários, dividindo o lote entre os shards. As partes de shards
+     * diferentes são inseridas em paralelo no executor do repositório, cada uma com uma única
+     * chamada ao shard; a última parte é inserida pela própria thread que chamou, assim como as
+     * que não couberem na fila do executor.
+     *
+     * @param registrations Os usuários a serem registrados, com as senhas já hasheadas.
+     * @return Para cada usuário, {@code true} se foi inserido ou {@code false} se o email já existia.
+     */
+    @Override
+    public boolean[] createUsers(List<UserRegistration> registrations) {
+        boolean[] created = new boolean[registrations.size()];
+        layoutLock.readLock().lock();
+        try {
+            Layout current = layout;
+            int shardCount = current.shards.length;
+            List<List<UserRegistration>> parts = new ArrayList<>(shardCount);
+            List<List<Integer>> positions = new ArrayList<>(shardCount);
+            for (int s = 0; s < shardCount; s++) {
+                parts.add(new ArrayList<>());
+                positions.add(new ArrayList<>());
+            }
+            for (int i = 0; i < created.length; i++) {
+                int shard = shardFor(registrations.get(i).getEmail(), shardCount);
+                parts.get(shard).add(registrations.get(i));
+                positions.get(shard).add(i);
+            }
+
+            List<Runnable> tasks = new ArrayList<>(shardCount);
+            for (int s = 0; s < shardCount; s++) {
+                if (parts.get(s).isEmpty()) {
+                    continue;
+                }
+                int shard = s;
+                tasks.add(() -> {
+                    boolean[] shardCreated = current.shards[shard].createUsers(parts.get(shard));
+                    List<Integer> shardPositions = positions.get(shard);
+                    for (int j = 0; j < shardCreated.length; j++) {
+                        created[shardPositions.get(j)] = shardCreated[j];
+                    }
+                });
+            }
+            runAll(tasks);
+        } finally {
+            layoutLock.readLock().unlock();
+        }
+        return created;
+    }
+
+    /**
+     * Executa as tarefas, a última na thread atual e as demais no executor, e aguarda todas.
+     * A primeira falha é relançada depois que todas terminarem.
+     */
+    private void runAll(List<Runnable> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        List<Future<?>> submitted = new ArrayList<>(tasks.size() - 1);
+        for (Runnable task : tasks.subList(0, tasks.size() - 1)) {
+            submitted.add(writers.submit(task));
+        }
+
+        Throwable failure = null;
+        try {
+            tasks.get(tasks.size() - 1).run();
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        boolean interrupted = false;
+        for (Future<?> future : submitted) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    // As partes já submetidas terminam de qualquer forma; o resultado precisa delas
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    } else {
+                        failure.addSuppressed(e.getCause());
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Erro ao gravar o lote nos shards", failure);
+        }
+    }
+
+    /**
+     * Percorre os emails de todos os usuários, shard por shard.
+     *
+     * @param action A ação executada para cada email.
+     */
+    @Override
+    public void forEachEmail(Consumer<String> action) {
+        for (UserShard shard : layout.shards) {
+            shard.forEachEmail(action);
+        }
+    }
+
+    /**
+     * Retorna a quantidade de shards da configuração atual.
+     *
+     * @return A quantidade de shards.
+     */
+    public int getShardCount() {
+        return layout.shards.length;
+    }
+
+    /**
+     * Redistribui os usuários entre {@code newShardCount} novos shards, preservando seus IDs.
+     * Os registros ficam bloqueados durante a cópia; as buscas continuam sendo atendidas pelos
+     * shards atuais até a troca. A nova configuração é registrada com
+     * {@link ShardFactory#activate(int)} antes da troca. Ao final, os shards antigos são fechados,
+     * mas seus dados duráveis não são apagados; para isso, use o {@link ShardRebalancer} com a
+     * aplicação parada.
+     *
+     * @param newShardCount A nova quantidade de shards.
+     * @return A quantidade de usuários migrados.
+     */
+    public long reshard(int newShardCount) {
+        layoutLock.writeLock().lock();
+        try {
+            Layout previous = layout;
+            Layout next = createLayout(newShardCount);
+            long migrated = 0;
+            try {
+                List<List<User>> pending = new ArrayList<>(newShardCount);
+                for (int s = 0; s < newShardCount; s++) {
+                    pending.add(new ArrayList<>());
+                }
+                long[] counter = new long[1];
+                for (UserShard shard : previous.shards) {
+                    shard.forEachUser(user -> {
+                        int target = shardFor(user.getEmail(), newShardCount);
+                        List<User> batch = pending.get(target);
+                        batch.add(user);
+                        if (batch.size() == IMPORT_BATCH_SIZE) {
+                            next.shards[target].importUsers(batch);
+                            batch.clear();
+                        }
+                        counter[0]++;
+                    });
+                }
+                for (int s = 0; s < newShardCount; s++) {
+                    next.shards[s].importUsers(pending.get(s));
+                }
+                migrated = counter[0];
+                alignSequences(next, upperBound(previous));
+                factory.activate(newShardCount);
+            } catch (RuntimeException e) {
+                closeShards(next, e);
+                throw e;
+            }
+
+            layout = next;
+            closeShards(previous, null);
+            return migrated;
+        } finally {
+            layoutLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Encerra o executor das gravações em lote e fecha todos os shards.
+     */
+    @Override
+    public void close() {
+        layoutLock.writeLock().lock();
+        try {
+            // Com o bloqueio de escrita, nenhuma gravação em lote está em andamento
+            writers.shutdown();
+            closeShards(layout, null);
+        } finally {
+            layoutLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Escolhe o shard de um email. Os bits do hash são misturados antes do módulo para que
+     * emails com sufixos iguais, como o domínio, não se concentrem em poucos shards.
+     */
+    static int shardFor(String email, int shardCount) {
+        int h = email.hashCode();
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        return Math.floorMod(h, shardCount);
+    }
+
+    private Layout createLayout(int shardCount) {
+        if (shardCount <= 0) {
+            throw new IllegalArgumentException("Quantidade de shards inválida: " + shardCount);
+        }
+        UserShard[] shards = new UserShard[shardCount];
+        UserIdSequence[] ids = new UserIdSequence[shardCount];
+        try {
+            for (int i = 0; i < shardCount; i++) {
+                ids[i] = new UserIdSequence(i, shardCount);
+                shards[i] = factory.create(i, shardCount, ids[i]);
+            }
+        } catch (RuntimeException e) {
+            closeShards(new Layout(shards, ids), e);
+            throw e;
+        }
+        return new Layout(shards, ids);
+    }
+
+    /**
+     * Avança todas as sequências além do maior ID em uso, em qualquer shard. Sem isso, um shard
+     * que recebeu usuários migrados poderia gerar um ID já usado por outro shard.
+     */
+    private static void alignSequences(Layout target, int floor) {
+        int highest = Math.max(floor, upperBound(target));
+        for (UserIdSequence sequence : target.ids) {
+            sequence.advancePast(highest);
+        }
+    }
+
+    private static int upperBound(Layout target) {
+        int highest = 0;
+        for (UserIdSequence sequence : target.ids) {
+            highest = Math.max(highest, sequence.getUpperBound());
+        }
+        return highest;
+    }
+
+    /**
+     * Fecha os shards já criados de uma configuração. Falhas são anexadas a {@code failure},
+     * quando houver, ou relançadas ao final.
+     */
+    private static void closeShards(Layout target, RuntimeException failure) {
+        RuntimeException error = failure;
+        for (UserShard shard : target.shards) {
+            if (!(shard instanceof AutoCloseable)) {
+                continue;
+            }
+            try {
+                ((AutoCloseable) shard).close();
+            } catch (Exception e) {
+                if (error == null) {
+                    error = new IllegalStateException("Erro ao fechar os shards de usuários", e);
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if (error != null && failure == null) {
+            throw error;
+        }
+    }
+
+    /**
+     * Cria threads daemon nomeadas para as gravações em lote.
+     */
+    private static class WriterThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "shard-writer-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.projeto.sistema.repositories;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gerador de IDs de usuário livre de bloqueios.
+ * <p>
+ * Produz, em ordem crescente, os inteiros positivos congruentes a {@code offset} módulo
+ * {@code stride}. Com os valores padrão (0 e 1), gera 1, 2, 3... Em um
+ * {@link ShardedUserRepository}, cada shard usa o próprio índice como deslocamento e a
+ * quantidade de shards como passo, de modo que os IDs de shards diferentes nunca colidem
+ * sem que haja um contador compartilhado entre eles.
+ */
+public class UserIdSequence {
+
+    private final int offset;
+    private final int stride;
+
+    /**
+     * Quantidade de IDs já emitidos (ou ignorados) por esta sequência.
+     */
+    private final AtomicInteger counter = new AtomicInteger();
+
+    /**
+     * Cria a sequência 1, 2, 3...
+     */
+    public UserIdSequence() {
+        this(0, 1);
+    }
+
+    /**
+     * Cria uma sequência com deslocamento e passo próprios.
+     *
+     * @param offset O resto, módulo {@code stride}, de todos os IDs gerados.
+     * @param stride A distância entre dois IDs consecutivos.
+     */
+    public UserIdSequence(int offset, int stride) {
+        if (stride <= 0 || offset < 0 || offset >= stride) {
+            throw new IllegalArgumentException("Sequência de IDs inválida: " + offset + " mod " + stride);
+        }
+        this.offset = offset;
+        this.stride = stride;
+    }
+
+    /**
+     * Emite o próximo ID.
+     *
+     * @return Um ID ainda não emitido por esta sequência.
+     */
+    public int next() {
+        return idAt(counter.incrementAndGet());
+    }
+
+    /**
+     * Reserva um bloco de IDs com uma única operação atômica. Os IDs do bloco são
+     * {@code primeiro + i * getStride()}, para {@code i} de 0 a {@code count - 1}.
+     *
+     * @param count A quantidade de IDs reservados.
+     * @return O primeiro ID do bloco.
+     */
+    public int reserve(int count) {
+        return idAt(counter.getAndAdd(count) + 1);
+    }
+
+    /**
+     * Garante que os próximos IDs emitidos sejam maiores que {@code id}. Usado após a
+     * recuperação de usuários persistidos ou migrados de outro shard.
+     *
+     * @param id O maior ID já em uso.
+     */
+    public void advancePast(int id) {
+        int minimum = Math.floorDiv(id - offset, stride);
+        counter.accumulateAndGet(minimum, Math::max);
+    }
+
+    /**
+     * Retorna um limite superior para os IDs emitidos até agora: nenhum ID emitido por esta
+     * sequência, nem informado a {@link #advancePast(int)}, é maior que ele.
+     *
+     * @return O limite superior dos IDs em uso.
+     */
+    public int getUpperBound() {
+        return idAt(counter.get() + 1) - 1;
+    }
+
+    /**
+     * Retorna a distância entre dois IDs consecutivos desta sequência.
+     *
+     * @return O passo da sequência.
+     */
+    public int getStride() {
+        return stride;
+    }
+
+    private int idAt(int position) {
+        long id = offset + (long) stride * position;
+        if (id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("IDs de usuário esgotados");
+        }
+        return (int) id;
+    }
+}
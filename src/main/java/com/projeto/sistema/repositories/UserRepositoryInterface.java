@@ -1,8 +1,11 @@
 package com.projeto.sistema.repositories;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
 
 /**
  * Interface para operações relacionadas a repositórios de usuários.
@@ -25,4 +28,21 @@ public interface UserRepositoryInterface {
      * @return Um {@link Optional} contendo o usuário, caso encontrado.
      */
     Optional<User> findUserByEmail(String email);
+
+    /**
+     * Registra vários usuários, cujas senhas já foram hasheadas, em uma única operação.
+     * Emails já registrados, ou repetidos dentro do próprio lote, não são inseridos.
+     *
+     * @param registrations Os usuários a serem registrados.
+     * @return Um array, na mesma ordem de {@code registrations}, indicando para cada
+     *         usuário se ele foi inserido ({@code true}) ou se houve conflito de email ({@code false}).
+     */
+    boolean[] createUsers(List<UserRegistration> registrations);
+
+    /**
+     * Percorre os emails de todos os usuários registrados.
+     *
+     * @param action A ação executada para cada email.
+     */
+    void forEachEmail(Consumer<String> action);
 }
@@ -0,0 +1,30 @@
+package com.projeto.sistema.repositories;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.projeto.sistema.models.User;
+
+/**
+ * Repositório que pode servir como shard de um {@link ShardedUserRepository}.
+ * Além das operações comuns, permite percorrer e importar usuários completos, preservando
+ * seus IDs, o que é necessário para redistribuí-los quando a quantidade de shards muda.
+ */
+public interface UserShard extends UserRepositoryInterface {
+
+    /**
+     * Percorre todos os usuários do shard.
+     *
+     * @param action A ação executada para cada usuário.
+     */
+    void forEachUser(Consumer<User> action);
+
+    /**
+     * Insere usuários já existentes, mantendo os IDs, os hashes e os salts originais.
+     * Usuários cujo email já está no shard são ignorados, o que torna a importação idempotente.
+     * A sequência de IDs do shard avança além do maior ID importado.
+     *
+     * @param users Os usuários a serem importados.
+     */
+    void importUsers(List<User> users);
+}
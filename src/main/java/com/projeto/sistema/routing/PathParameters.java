@@ -0,0 +1,69 @@
+package com.projeto.sistema.routing;
+
+import javax.servlet.http.HttpServletRequest;
+
+/**
+ * Valores dos segmentos {@code {parametro}} de uma rota, extraídos do caminho da requisição.
+ * <p>
+ * Guarda apenas as posições de cada valor no caminho; a {@link String} de um parâmetro é
+ * criada quando ele é lido. Disponível para o {@link com.projeto.sistema.commands.Command}
+ * pelo atributo {@link #ATTRIBUTE} da requisição, ou por {@link #of(HttpServletRequest)}.
+ */
+public class PathParameters {
+
+    /**
+     * Nome do atributo da requisição que contém os parâmetros do caminho.
+     */
+    public static final String ATTRIBUTE = PathParameters.class.getName();
+
+    private static final PathParameters EMPTY = new PathParameters("", new String[0], new int[0]);
+
+    private final String path;
+    private final String[] names;
+
+    /**
+     * Início e fim (exclusivo) de cada valor no caminho, na ordem de {@link #names}.
+     */
+    private final int[] bounds;
+
+    PathParameters(String path, String[] names, int[] bounds) {
+        this.path = path;
+        this.names = names;
+        this.bounds = bounds;
+    }
+
+    /**
+     * Retorna os parâmetros do caminho de uma requisição.
+     *
+     * @param req A requisição.
+     * @return Os parâmetros, ou um conjunto vazio se a rota não tiver parâmetros.
+     */
+    public static PathParameters of(HttpServletRequest req) {
+        Object parameters = req.getAttribute(ATTRIBUTE);
+        return parameters instanceof PathParameters ? (PathParameters) parameters : EMPTY;
+    }
+
+    /**
+     * Retorna o valor de um parâmetro.
+     *
+     * @param name O nome do parâmetro, como declarado na rota, sem as chaves.
+     * @return O valor do parâmetro, ou {@code null} se a rota não o declarar.
+     */
+    public String get(String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return path.substring(bounds[2 * i], bounds[2 * i + 1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Retorna a quantidade de parâmetros da rota.
+     *
+     * @return A quantidade de parâmetros.
+     */
+    public int size() {
+        return names.length;
+    }
+}
@@ -0,0 +1,243 @@
+package com.projeto.sistema.routing;
+
+import com.projeto.sistema.commands.Command;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Tabela de rotas compilada em uma árvore de segmentos do caminho.
+ * <p>
+ * Cada nó corresponde a um segmento: os segmentos literais são comparados diretamente no
+ * caminho da requisição, sem criar substrings, e um segmento {@code {parametro}} aceita
+ * qualquer valor não vazio. Segmentos literais têm precedência sobre parâmetros. A busca
+ * percorre o caminho uma única vez e não aloca objetos; apenas rotas com parâmetros criam um
+ * {@link PathParameters} depois de escolhidas.
+ * <p>
+ * Um caminho encontrado pode aceitar apenas alguns métodos HTTP; {@link Route#handlerFor(String)}
+ * permite distinguir "rota inexistente" (404) de "método não permitido" (405).
+ */
+public class Router {
+
+    private final Node root = new Node();
+
+    /**
+     * Registra uma rota.
+     *
+     * @param pattern O caminho da rota, como {@code /usuario/{id}}.
+     * @param methods Os métodos HTTP aceitos; vazio aceita qualquer método.
+     * @param command O comando executado pela rota.
+     * @throws IllegalStateException Se o caminho já tiver uma rota para algum dos métodos.
+     */
+    public void add(String pattern, String[] methods, Command command) {
+        if (!pattern.startsWith("/")) {
+            throw new IllegalArgumentException("A rota deve começar com '/': " + pattern);
+        }
+
+        Node node = root;
+        List<String> names = new ArrayList<>();
+        List<Integer> positions = new ArrayList<>();
+        String[] segments = pattern.length() == 1 ? new String[0] : pattern.substring(1).split("/", -1);
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+            if (segment.length() > 2 && segment.startsWith("{") && segment.endsWith("}")) {
+                names.add(segment.substring(1, segment.length() - 1));
+                positions.add(i);
+                if (node.parameterChild == null) {
+                    node.parameterChild = new Node();
+                }
+                node = node.parameterChild;
+            } else {
+                node = node.literalChild(segment);
+            }
+        }
+
+        int[] parameterSegments = new int[positions.size()];
+        for (int i = 0; i < parameterSegments.length; i++) {
+            parameterSegments[i] = positions.get(i);
+        }
+        if (node.route == null) {
+            node.route = new Route();
+        }
+        node.route.add(pattern, methods, new Handler(command, names.toArray(new String[0]), parameterSegments));
+    }
+
+    /**
+     * Procura a rota correspondente a um caminho.
+     *
+     * @param path O caminho da requisição, como retornado por {@link HttpServletRequest#getPathInfo()}.
+     * @return A rota, ou {@code null} se nenhuma rota corresponder ao caminho.
+     */
+    public Route match(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return null;
+        }
+        return path.length() == 1 ? root.route : match(root, path, 0);
+    }
+
+    /**
+     * Procura a rota a partir de {@code node}, cujo segmento termina na barra em {@code slash}.
+     */
+    private static Route match(Node node, String path, int slash) {
+        if (slash == path.length()) {
+            return node.route;
+        }
+        int start = slash + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = path.length();
+        }
+        int length = end - start;
+
+        for (int i = 0; i < node.literals.length; i++) {
+            String literal = node.literals[i];
+            if (literal.length() == length && path.regionMatches(start, literal, 0, length)) {
+                Route route = match(node.literalChildren[i], path, end);
+                if (route != null) {
+                    return route;
+                }
+                break;
+            }
+        }
+        if (node.parameterChild != null && length > 0) {
+            return match(node.parameterChild, path, end);
+        }
+        return null;
+    }
+
+    /**
+     * Nó da árvore: filhos literais, em arrays paralelos, e no máximo um filho de parâmetro.
+     */
+    private static final class Node {
+        String[] literals = new String[0];
+        Node[] literalChildren = new Node[0];
+        Node parameterChild;
+        Route route;
+
+        Node literalChild(String segment) {
+            for (int i = 0; i < literals.length; i++) {
+                if (literals[i].equals(segment)) {
+                    return literalChildren[i];
+                }
+            }
+            literals = Arrays.copyOf(literals, literals.length + 1);
+            literalChildren = Arrays.copyOf(literalChildren, literalChildren.length + 1);
+            literals[literals.length - 1] = segment;
+            literalChildren[literalChildren.length - 1] = new Node();
+            return literalChildren[literalChildren.length - 1];
+        }
+    }
+
+    /**
+     * Conjunto de rotas de um mesmo caminho, uma por método HTTP.
+     */
+    public static final class Route {
+        private String[] methods = new String[0];
+        private Handler[] handlers = new Handler[0];
+        private Handler anyMethod;
+        private String allow = "";
+
+        /**
+         * Retorna o tratador de um método HTTP.
+         *
+         * @param method O método da requisição.
+         * @return O tratador, ou {@code null} se o caminho não aceitar o método.
+         */
+        public Handler handlerFor(String method) {
+            for (int i = 0; i < methods.length; i++) {
+                if (methods[i].equals(method)) {
+                    return handlers[i];
+                }
+            }
+            return anyMethod;
+        }
+
+        /**
+         * Retorna os métodos aceitos pelo caminho, no formato do cabeçalho {@code Allow}.
+         *
+         * @return Os métodos separados por vírgula.
+         */
+        public String getAllow() {
+            return allow;
+        }
+
+        private void add(String pattern, String[] routeMethods, Handler handler) {
+            if (routeMethods.length == 0) {
+                if (anyMethod != null) {
+                    throw new IllegalStateException("Rota duplicada detectada: " + pattern);
+                }
+                anyMethod = handler;
+                return;
+            }
+            for (String method : routeMethods) {
+                String normalized = method.toUpperCase(Locale.ROOT);
+                if (Arrays.asList(methods).contains(normalized)) {
+                    throw new IllegalStateException("Rota duplicada detectada: " + normalized + " " + pattern);
+                }
+                methods = Arrays.copyOf(methods, methods.length + 1);
+                handlers = Arrays.copyOf(handlers, handlers.length + 1);
+                methods[methods.length - 1] = normalized;
+                handlers[handlers.length - 1] = handler;
+            }
+            allow = String.join(", ", methods);
+        }
+    }
+
+    /**
+     * Comando de uma rota e a posição dos seus parâmetros no caminho.
+     */
+    public static final class Handler {
+        private final Command command;
+        private final String[] parameterNames;
+        private final int[] parameterSegments;
+
+        private Handler(Command command, String[] parameterNames, int[] parameterSegments) {
+            this.command = command;
+            this.parameterNames = parameterNames;
+            this.parameterSegments = parameterSegments;
+        }
+
+        /**
+         * Retorna o comando da rota.
+         *
+         * @return O comando.
+         */
+        public Command getCommand() {
+            return command;
+        }
+
+        /**
+         * Disponibiliza os parâmetros do caminho no atributo {@link PathParameters#ATTRIBUTE}
+         * da requisição. Rotas sem parâmetros não alteram a requisição.
+         *
+         * @param req  A requisição.
+         * @param path O caminho que correspondeu à rota.
+         */
+        public void bindParameters(HttpServletRequest req, String path) {
+            if (parameterNames.length == 0) {
+                return;
+            }
+            int[] bounds = new int[parameterNames.length * 2];
+            int segment = 0;
+            int parameter = 0;
+            int start = 1;
+            while (parameter < parameterSegments.length) {
+                int end = path.indexOf('/', start);
+                if (end < 0) {
+                    end = path.length();
+                }
+                if (segment == parameterSegments[parameter]) {
+                    bounds[2 * parameter] = start;
+                    bounds[2 * parameter + 1] = end;
+                    parameter++;
+                }
+                segment++;
+                start = end + 1;
+            }
+            req.setAttribute(PathParameters.ATTRIBUTE, new PathParameters(path, parameterNames, bounds));
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.projeto.sistema.servlets;
+
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Processamento assíncrono com prazo.
+ * <p>
+ * Inicia o modo assíncrono com o timeout de {@code sistema.async.timeout} (em milissegundos) e
+ * decide, uma única vez, quem conclui a resposta: a tarefa, por {@link #complete(ResponseAction)},
+ * ou o container, no timeout (respondendo 503) ou em um erro da conexão. Depois disso, as escritas
+ * e conclusões tardias da tarefa são descartadas, em vez de alcançarem uma resposta que o
+ * container pode já ter reciclado.
+ */
+public class AsyncGuard implements AsyncListener {
+
+    /**
+     * Prazo do processamento assíncrono, em milissegundos ({@code sistema.async.timeout}).
+     */
+    public static final long TIMEOUT_MILLIS = Long.getLong("sistema.async.timeout", 30_000L);
+
+    private static final byte[] TIMED_OUT = JsonResponses.error("Tempo de processamento esgotado.");
+
+    /**
+     * Escrita na resposta, executada apenas enquanto o contexto estiver ativo.
+     */
+    @FunctionalInterface
+    public interface ResponseAction {
+        void run() throws IOException;
+    }
+
+    private final AsyncContext context;
+    private final HttpServletResponse response;
+    private volatile Runnable abortHandler;
+    private volatile ResponseAction timeoutResponse;
+    private boolean finished;
+
+    private AsyncGuard(AsyncContext context, HttpServletResponse response) {
+        this.context = context;
+        this.response = response;
+    }
+
+    /**
+     * Coloca a requisição em modo assíncrono, com o prazo configurado.
+     *
+     * @param req  A requisição.
+     * @param resp A resposta.
+     * @return O guarda do contexto assíncrono.
+     */
+    public static AsyncGuard start(HttpServletRequest req, HttpServletResponse resp) {
+        AsyncContext context = req.startAsync();
+        context.setTimeout(TIMEOUT_MILLIS);
+        AsyncGuard guard = new AsyncGuard(context, resp);
+        context.addListener(guard);
+        return guard;
+    }
+
+    /**
+     * Retorna o contexto assíncrono.
+     *
+     * @return O contexto.
+     */
+    public AsyncContext getContext() {
+        return context;
+    }
+
+    /**
+     * Registra a ação executada quando o container encerra o processamento, por timeout ou erro,
+     * antes da tarefa.
+     *
+     * @param handler A ação, por exemplo o cancelamento das operações pendentes.
+     */
+    public void onAbort(Runnable handler) {
+        this.abortHandler = handler;
+    }
+
+    /**
+     * Registra a escrita feita no timeout no lugar da resposta 503, para tarefas que já enviaram
+     * parte da resposta e precisam terminá-la. A escrita é feita antes da conclusão do contexto
+     * e antes da ação de {@link #onAbort(Runnable)}.
+     *
+     * @param action A escrita final do timeout.
+     */
+    public void onTimeoutResponse(ResponseAction action) {
+        this.timeoutResponse = action;
+    }
+
+    /**
+     * Remove o prazo do processamento, se ele ainda não tiver sido concluído. Usado quando a
+     * resposta já está pronta e só resta enviá-la: a partir daí, um cliente lento é limitado pelo
+     * timeout de escrita do conector, e não pelo prazo da tarefa.
+     */
+    public synchronized void clearTimeout() {
+        if (!finished) {
+            context.setTimeout(0);
+        }
+    }
+
+    /**
+     * Escreve na resposta, se o processamento ainda não tiver sido concluído.
+     *
+     * @param action A escrita.
+     * @return {@code false} se a resposta já foi concluída e a escrita foi descartada.
+     * @throws IOException Caso ocorra algum erro ao escrever a saída.
+     */
+    public synchronized boolean write(ResponseAction action) throws IOException {
+        if (finished) {
+            return false;
+        }
+        action.run();
+        return true;
+    }
+
+    /**
+     * Escreve na resposta e conclui o processamento, se ele ainda não tiver sido concluído.
+     *
+     * @param action A escrita final.
+     * @return {@code false} se a resposta já foi concluída e a escrita foi descartada.
+     * @throws IOException Caso ocorra algum erro ao escrever a saída.
+     */
+    public synchronized boolean complete(ResponseAction action) throws IOException {
+        if (finished) {
+            return false;
+        }
+        finished = true;
+        try {
+            action.run();
+        } finally {
+            context.complete();
+        }
+        return true;
+    }
+
+    @Override
+    public void onTimeout(AsyncEvent event) {
+        abort(true);
+    }
+
+    @Override
+    public void onError(AsyncEvent event) {
+        abort(false);
+    }
+
+    @Override
+    public synchronized void onComplete(AsyncEvent event) {
+        finished = true;
+    }
+
+    @Override
+    public void onStartAsync(AsyncEvent event) {
+        // O guarda acompanha apenas o ciclo assíncrono em que foi criado
+    }
+
+    private void abort(boolean timedOut) {
+        synchronized (this) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            try {
+                ResponseAction custom = timeoutResponse;
+                if (timedOut && custom != null) {
+                    custom.run();
+                } else if (timedOut && !response.isCommitted()) {
+                    response.resetBuffer();
+                    JsonResponses.send(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, TIMED_OUT);
+                }
+            } catch (IOException | IllegalStateException ignored) {
+                // A conexão já não pode receber a resposta de timeout
+            } finally {
+                context.complete();
+            }
+        }
+        Runnable handler = abortHandler;
+        if (handler != null) {
+            handler.run();
+        }
+    }
+}
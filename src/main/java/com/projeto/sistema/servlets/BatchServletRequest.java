@@ -0,0 +1,120 @@
+package com.projeto.sistema.servlets;
+
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Requisição de uma operação de um lote: método, caminho e corpo próprios, sobre a conexão da
+ * requisição do lote.
+ * <p>
+ * Os cabeçalhos, como {@code Authorization}, e as informações da conexão vêm da requisição
+ * original. Os atributos são locais, para que operações executadas em paralelo não vejam os
+ * parâmetros de caminho ou o usuário umas das outras.
+ */
+public class BatchServletRequest extends BufferedServletRequest {
+
+    private final String method;
+    private final String pathInfo;
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+
+    /**
+     * Cria a requisição da operação.
+     *
+     * @param request  A requisição do lote.
+     * @param method   O método HTTP da operação.
+     * @param pathInfo O caminho da operação, relativo ao servlet.
+     * @param body     O corpo da operação.
+     * @param response A resposta em memória da operação.
+     */
+    public BatchServletRequest(HttpServletRequest request, String method, String pathInfo,
+                               byte[] body, ServletResponse response) {
+        super(request, body, response);
+        this.method = method;
+        this.pathInfo = pathInfo;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return pathInfo;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return getContextPath() + getServletPath() + pathInfo;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        StringBuffer url = super.getRequestURL();
+        url.setLength(url.length() - super.getRequestURI().length());
+        return url.append(getRequestURI());
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public String getContentType() {
+        return "application/json";
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return null;
+    }
+
+    @Override
+    public Map<String, String[]> getParameterMap() {
+        return Collections.emptyMap();
+    }
+
+    @Override
+    public Enumeration<String> getParameterNames() {
+        return Collections.emptyEnumeration();
+    }
+
+    @Override
+    public String[] getParameterValues(String name) {
+        return null;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public void setAttribute(String name, Object o) {
+        if (o == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, o);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+}
@@ -0,0 +1,156 @@
+package com.projeto.sistema.servlets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Requisição cujo corpo já foi lido por completo e é servido a partir da memória.
+ * <p>
+ * Quando criada com uma resposta, {@link #startAsync()} retorna um {@link DeferredAsyncContext}:
+ * o controlador pode concluir a resposta mais tarde, e quem executou o comando aguarda
+ * {@link #getCompletion()} antes de usar o corpo da resposta.
+ */
+public class BufferedServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] body;
+    private final ServletResponse response;
+    private volatile DeferredAsyncContext asyncContext;
+
+    /**
+     * Cria a requisição com o corpo informado, sem suporte a processamento assíncrono.
+     *
+     * @param request A requisição original.
+     * @param body    O corpo da requisição.
+     */
+    public BufferedServletRequest(HttpServletRequest request, byte[] body) {
+        this(request, body, null);
+    }
+
+    /**
+     * Cria a requisição com o corpo informado e suporte a processamento assíncrono adiado.
+     *
+     * @param request  A requisição original.
+     * @param body     O corpo da requisição.
+     * @param response A resposta em memória associada, ou {@code null} para não suportar
+     *                 processamento assíncrono.
+     */
+    public BufferedServletRequest(HttpServletRequest request, byte[] body, ServletResponse response) {
+        super(request);
+        this.body = body;
+        this.response = response;
+    }
+
+    /**
+     * Retorna um futuro completado quando a resposta estiver pronta: imediatamente, se o
+     * controlador não iniciou o modo assíncrono, ou quando ele chamar {@link AsyncContext#complete()}.
+     *
+     * @return O futuro de conclusão da resposta.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        DeferredAsyncContext context = asyncContext;
+        return context != null ? context.getCompletion() : CompletableFuture.completedFuture(null);
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return response != null;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncContext != null;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        return startAsync(this, response);
+    }
+
+    @Override
+    public synchronized AsyncContext startAsync(ServletRequest servletRequest, ServletResponse servletResponse) {
+        if (response == null) {
+            throw new IllegalStateException("Processamento assíncrono não suportado nesta requisição.");
+        }
+        if (asyncContext == null) {
+            asyncContext = new DeferredAsyncContext(servletRequest, servletResponse);
+        }
+        return asyncContext;
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("Processamento assíncrono não iniciado.");
+        }
+        return asyncContext;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return new ByteArrayServletInputStream(body);
+    }
+
+    @Override
+    public BufferedReader getReader() throws UnsupportedEncodingException {
+        String encoding = getCharacterEncoding();
+        return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+            encoding != null ? encoding : StandardCharsets.UTF_8.name()));
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    /**
+     * {@link ServletInputStream} sobre um array de bytes.
+     */
+    private static class ByteArrayServletInputStream extends ServletInputStream {
+        private final ByteArrayInputStream in;
+
+        ByteArrayServletInputStream(byte[] body) {
+            this.in = new ByteArrayInputStream(body);
+        }
+
+        @Override
+        public int read() {
+            return in.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return in.read(b, off, len);
+        }
+
+        @Override
+        public boolean isFinished() {
+            return in.available() == 0;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new IllegalStateException("O corpo da requisição já foi lido.");
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.projeto.sistema.servlets;
+
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Resposta que acumula o corpo em memória, em vez de escrevê-lo na conexão.
+ * Status e cabeçalhos são repassados à resposta original; o corpo é obtido com {@link #getBody()}.
+ * <p>
+ * {@link #sendError(int, String)} também é acumulado: define o status e produz um corpo JSON
+ * {@code {"error": mensagem}}, no lugar da página de erro do container, que concluiria a
+ * resposta original antes de o corpo acumulado ser escrito.
+ */
+public class BufferedServletResponse extends HttpServletResponseWrapper {
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    /**
+     * Cria a resposta sobre a resposta original.
+     *
+     * @param response A resposta original.
+     */
+    public BufferedServletResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        if (outputStream == null) {
+            outputStream = new ServletOutputStream() {
+                @Override
+                public void write(int b) {
+                    buffer.write(b);
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    buffer.write(b, off, len);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(WriteListener writeListener) {
+                    throw new IllegalStateException("A resposta é acumulada em memória.");
+                }
+            };
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws UnsupportedEncodingException {
+        if (writer == null) {
+            String encoding = getCharacterEncoding();
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(),
+                encoding != null ? encoding : StandardCharsets.ISO_8859_1.name()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        resetBuffer();
+        setStatus(sc);
+        if (msg != null) {
+            setContentType("application/json");
+            setCharacterEncoding("UTF-8");
+            getOutputStream().write(JsonResponses.error(msg));
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        // O tamanho é definido a partir do corpo acumulado
+    }
+
+    @Override
+    public void setContentLengthLong(long len) {
+        // O tamanho é definido a partir do corpo acumulado
+    }
+
+    @Override
+    public void flushBuffer() {
+        if (writer != null) {
+            writer.flush();
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        buffer.reset();
+    }
+
+    @Override
+    public void reset() {
+        super.reset();
+        buffer.reset();
+    }
+
+    @Override
+    public boolean isCommitted() {
+        return false;
+    }
+
+    /**
+     * Retorna o corpo acumulado até o momento.
+     *
+     * @return Os bytes do corpo da resposta.
+     */
+    public byte[] getBody() {
+        flushBuffer();
+        return buffer.toByteArray();
+    }
+}
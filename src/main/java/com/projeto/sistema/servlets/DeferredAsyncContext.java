@@ -0,0 +1,149 @@
+package com.projeto.sistema.servlets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * {@link AsyncContext} de uma {@link BufferedServletRequest}.
+ * <p>
+ * Permite que um controlador adie a conclusão da resposta (por exemplo, enquanto uma senha é
+ * hasheada em outro executor) mesmo quando executado sobre uma requisição em memória.
+ * A conclusão é sinalizada pelo futuro retornado em {@link #getCompletion()}.
+ */
+public class DeferredAsyncContext implements AsyncContext {
+
+    private final ServletRequest request;
+    private final ServletResponse response;
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+    private final List<AsyncListener> listeners = new ArrayList<>();
+    private boolean completed;
+    private volatile long timeout = 30_000L;
+
+    /**
+     * Cria o contexto para a requisição e a resposta em memória.
+     *
+     * @param request  A requisição em memória.
+     * @param response A resposta em memória.
+     */
+    public DeferredAsyncContext(ServletRequest request, ServletResponse response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    /**
+     * Retorna o futuro completado quando {@link #complete()} é chamado.
+     *
+     * @return O futuro de conclusão.
+     */
+    public CompletableFuture<Void> getCompletion() {
+        return completion;
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return true;
+    }
+
+    @Override
+    public void dispatch() {
+        throw new IllegalStateException("Dispatch não é suportado em requisições em memória.");
+    }
+
+    @Override
+    public void dispatch(String path) {
+        dispatch();
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        dispatch();
+    }
+
+    @Override
+    public void complete() {
+        List<AsyncListener> notified;
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+            notified = new ArrayList<>(listeners);
+        }
+        for (AsyncListener listener : notified) {
+            notifyComplete(listener);
+        }
+        completion.complete(null);
+    }
+
+    private void notifyComplete(AsyncListener listener) {
+        try {
+            listener.onComplete(new AsyncEvent(this, request, response));
+        } catch (IOException ignored) {
+            // Um listener com erro não impede a conclusão
+        }
+    }
+
+    @Override
+    public void start(Runnable run) {
+        CompletableFuture.runAsync(run);
+    }
+
+    /**
+     * Registra um listener. Como o controlador pode concluir a resposta em outra thread antes que
+     * quem o executou registre os seus listeners, um listener registrado após a conclusão é
+     * notificado imediatamente.
+     */
+    @Override
+    public void addListener(AsyncListener listener) {
+        synchronized (this) {
+            if (!completed) {
+                listeners.add(listener);
+                return;
+            }
+        }
+        notifyComplete(listener);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest servletRequest, ServletResponse servletResponse) {
+        addListener(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> clazz) throws ServletException {
+        try {
+            return clazz.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new ServletException("Não foi possível criar o listener " + clazz.getName(), e);
+        }
+    }
+
+    @Override
+    public void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public long getTimeout() {
+        return timeout;
+    }
+}
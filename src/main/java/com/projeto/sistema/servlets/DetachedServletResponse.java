@@ -0,0 +1,179 @@
+package com.projeto.sistema.servlets;
+
+import com.projeto.sistema.utils.JsonResponses;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Resposta inteiramente em memória: além do corpo, o status e os cabeçalhos também são
+ * guardados localmente, em vez de repassados à resposta original. Permite executar várias
+ * rotas sobre a mesma conexão, cada uma com a sua própria resposta.
+ * <p>
+ * {@link #sendError(int, String)} produz um corpo JSON {@code {"error": mensagem}}, no lugar da
+ * página de erro do container.
+ */
+public class DetachedServletResponse extends BufferedServletResponse {
+
+    private final Map<String, List<String>> headers = new LinkedHashMap<>();
+    private volatile int status = SC_OK;
+    private String contentType;
+    private String characterEncoding;
+
+    /**
+     * Cria a resposta.
+     *
+     * @param response A resposta original, usada apenas para as informações da conexão.
+     */
+    public DetachedServletResponse(HttpServletResponse response) {
+        super(response);
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        this.status = sc;
+    }
+
+    @Override
+    public int getStatus() {
+        return status;
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        sendError(sc, null);
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        resetBuffer();
+        status = sc;
+        if (msg != null) {
+            setContentType("application/json");
+            setCharacterEncoding("UTF-8");
+            getOutputStream().write(JsonResponses.error(msg));
+        }
+    }
+
+    @Override
+    public void sendRedirect(String location) {
+        setStatus(SC_FOUND);
+        setHeader("Location", location);
+    }
+
+    @Override
+    public synchronized void setHeader(String name, String value) {
+        if (value == null) {
+            headers.remove(key(name));
+        } else {
+            List<String> values = new ArrayList<>(1);
+            values.add(value);
+            headers.put(key(name), values);
+        }
+    }
+
+    @Override
+    public synchronized void addHeader(String name, String value) {
+        headers.computeIfAbsent(key(name), k -> new ArrayList<>(1)).add(value);
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        addHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, Long.toString(date));
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        addHeader(name, Long.toString(date));
+    }
+
+    @Override
+    public synchronized boolean containsHeader(String name) {
+        return headers.containsKey(key(name));
+    }
+
+    @Override
+    public synchronized String getHeader(String name) {
+        List<String> values = headers.get(key(name));
+        return values == null ? null : values.get(0);
+    }
+
+    @Override
+    public synchronized Collection<String> getHeaders(String name) {
+        List<String> values = headers.get(key(name));
+        return values == null ? Collections.emptyList() : new ArrayList<>(values);
+    }
+
+    @Override
+    public synchronized Collection<String> getHeaderNames() {
+        return new ArrayList<>(headers.keySet());
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        // Cookies não fazem sentido em uma resposta parcial
+    }
+
+    @Override
+    public void setContentType(String type) {
+        this.contentType = type;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        this.characterEncoding = charset;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public void setLocale(Locale loc) {
+        // O idioma da conexão é definido pela resposta original
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        // O corpo é acumulado em memória
+    }
+
+    @Override
+    public void reset() {
+        resetBuffer();
+        synchronized (this) {
+            headers.clear();
+        }
+        status = SC_OK;
+        contentType = null;
+        characterEncoding = null;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,22 +1,44 @@
 package com.projeto.sistema.servlets;
 
-import com.projeto.sistema.annotations.Inject;
+import com.projeto.sistema.admission.AdmissionPolicy;
+import com.projeto.sistema.admission.ConcurrencyLimit;
 import com.projeto.sistema.annotations.Rota;
+import com.projeto.sistema.index.ComponentIndex;
+import com.projeto.sistema.index.ComponentIndexLoader;
 import com.projeto.sistema.utils.DependencyManager;
+import com.projeto.sistema.commands.AdmissionCommand;
+import com.projeto.sistema.commands.BatchCommand;
 import com.projeto.sistema.commands.Command;
-import com.projeto.sistema.commands.RouteCommand;
-
-import org.reflections.Reflections;
-import org.reflections.scanners.Scanners;
+import com.projeto.sistema.commands.MeteredCommand;
+import com.projeto.sistema.commands.MetricsCommand;
+import com.projeto.sistema.commands.NonBlockingCommand;
+import com.projeto.sistema.factories.UserRepositoryFactory;
+import com.projeto.sistema.filters.RequestFilter;
+import com.projeto.sistema.filters.TokenAuthenticationFilter;
+import com.projeto.sistema.metrics.MetricsRegistry;
+import com.projeto.sistema.repositories.BloomFilterUserRepository;
+import com.projeto.sistema.repositories.CachingUserRepository;
+import com.projeto.sistema.repositories.GroupCommitWriter;
+import com.projeto.sistema.repositories.HSQLDBUserRepository;
+import com.projeto.sistema.repositories.MemoryUserRepository;
+import com.projeto.sistema.repositories.OffHeapUserRepository;
+import com.projeto.sistema.repositories.ShardedUserRepository;
+import com.projeto.sistema.repositories.UserRepositoryInterface;
+import com.projeto.sistema.routing.Router;
+import com.projeto.sistema.utils.HashingExecutor;
+import com.projeto.sistema.utils.PasswordUtils;
+import com.projeto.sistema.utils.SessionTokenService;
+import com.projeto.sistema.factories.CommandFactory;
 
 import javax.servlet.*;
 import javax.servlet.http.*;
 import java.io.IOException;
-import java.lang.reflect.Field;
 import java.lang.reflect.Method;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * Servlet principal responsável pelo roteamento e injeção de dependências.
@@ -25,63 +47,243 @@ import java.util.Set;
 public class MainServlet extends HttpServlet {
 
     private static final long serialVersionUID = 1L;
-	private final Map<String, Command> rotaMap = new HashMap<>();
+    private final Router router = new Router();
+    private final List<RequestFilter> filters = new ArrayList<>();
     private final DependencyManager dependencyManager = new DependencyManager();
     private final String BASE_PACKAGE = "com.projeto.sistema";
-    private Reflections reflections;
+
+    /**
+     * Tamanho máximo do corpo lido pelas rotas não bloqueantes ({@code sistema.nio.maxBody}).
+     */
+    private static final int MAX_NON_BLOCKING_BODY = Integer.getInteger("sistema.nio.maxBody", 64 * 1024);
+
+    /**
+     * Caminho da rota de métricas ({@code sistema.metrics.path}).
+     */
+    private static final String METRICS_PATH = System.getProperty("sistema.metrics.path", "/metricas");
+
+    /**
+     * Caminho da rota de lotes de operações ({@code sistema.batch.path}).
+     */
+    private static final String BATCH_PATH = System.getProperty("sistema.batch.path", "/lote");
+
+    /**
+     * Limite global de requisições simultâneas nas rotas da aplicação ({@code sistema.admission.maxConcurrent});
+     * zero desativa o limite.
+     */
+    private static final int MAX_CONCURRENT_REQUESTS = Integer.getInteger("sistema.admission.maxConcurrent", 1024);
+
+    private final MetricsRegistry metrics = new MetricsRegistry();
+    private final LongAdder unmatchedRequests = metrics.counter("sistema_unmatched_requests_total");
+    private final LongAdder methodNotAllowedRequests = metrics.counter("sistema_method_not_allowed_total");
+    private final LongAdder rejectedClients = metrics.counter("sistema_admission_client_rejected_total");
+    private final LongAdder rejectedEmails = metrics.counter("sistema_admission_email_rejected_total");
+    private final LongAdder rejectedConcurrency = metrics.counter("sistema_admission_concurrency_rejected_total");
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit(MAX_CONCURRENT_REQUESTS);
+    private ComponentIndex componentIndex;
     
 
     @Override
     public void init() throws ServletException {
         try {
-        	this.reflections = new Reflections(
-            		this.BASE_PACKAGE,
-                    Scanners.MethodsAnnotated,
-                    Scanners.FieldsAnnotated,
-                    Scanners.TypesAnnotated
-            );
+            long start = System.nanoTime();
+            this.componentIndex = ComponentIndexLoader.load(this.BASE_PACKAGE);
+            dependencyManager.registerSingletons(componentIndex.getSingletonTypes());
+            dependencyManager.registerInjectionPoints(componentIndex.getInjectFields());
+            createComponents();
             searchForRoute();
-            searchForInject();
+            registerFilters();
+            registerBatch();
+            registerMetrics();
+            openRepository();
+            log("Índice de componentes (" + componentIndex.getClass().getSimpleName() + ") carregado em "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
         } catch (Exception e) {
             throw new ServletException("Erro durante a inicialização do MainServlet", e);
         }
     }
 
     private void searchForRoute() throws Exception {
-        Set<Method> methodsWithRoutes = this.reflections.getMethodsAnnotatedWith(Rota.class);
+        Set<Method> methodsWithRoutes = this.componentIndex.getRouteMethods();
         for (Method method : methodsWithRoutes) {
             Class<?> controllerClass = method.getDeclaringClass();
             Object controllerInstance = dependencyManager.getOrCreateInstance(controllerClass);
 
             Rota rota = method.getAnnotation(Rota.class);
-            if (rotaMap.containsKey(rota.value())) {
-                throw new IllegalStateException("Rota duplicada detectada: " + rota.value());
-            }
 
-            // Adiciona um RouteCommand ao mapa de rotas
-            rotaMap.put(rota.value(), new RouteCommand(controllerInstance, method));
+            // Adiciona à tabela de rotas um Command vinculado diretamente ao método
+            Command command = CommandFactory.createCommand(controllerInstance, method);
+            if (rota.nonBlocking()) {
+                command = new NonBlockingCommand(command, MAX_NON_BLOCKING_BODY);
+            }
+            // O controle de admissão rejeita antes da leitura do corpo, e as rejeições entram nas métricas da rota
+            command = new AdmissionCommand(command,
+                AdmissionPolicy.forRoute(rota.value(), rota.clientLimit(), rejectedClients, rejectedEmails),
+                concurrencyLimit, rejectedConcurrency);
+            router.add(rota.value(), rota.method(), new MeteredCommand(command, metrics.forRoute(rota.value())));
         }
     }
     
-    private void searchForInject() throws Exception {
-        Set<Field> fieldsWithInject = this.reflections.getFieldsAnnotatedWith(Inject.class);
-        dependencyManager.injectDependencies(fieldsWithInject);
+    /**
+     * Cria, em paralelo, os controladores das rotas, os componentes usados pelo próprio servlet
+     * e as suas dependências.
+     */
+    private void createComponents() throws Exception {
+        Set<Class<?>> roots = new LinkedHashSet<>();
+        for (Method method : this.componentIndex.getRouteMethods()) {
+            roots.add(method.getDeclaringClass());
+        }
+        roots.add(HashingExecutor.class);
+        roots.add(SessionTokenService.class);
+        dependencyManager.initialize(roots);
+    }
+
+    /**
+     * Registra as etapas executadas antes do comando de cada rota.
+     */
+    private void registerFilters() throws Exception {
+        SessionTokenService tokens = (SessionTokenService) dependencyManager.getOrCreateInstance(SessionTokenService.class);
+        filters.add(new TokenAuthenticationFilter(tokens));
+    }
+
+    /**
+     * Registra a rota que executa várias operações em uma única requisição.
+     */
+    private void registerBatch() {
+        BatchCommand batch = new BatchCommand(this::dispatch, metrics.counter("sistema_batch_operations_total"));
+        router.add(BATCH_PATH, new String[] {"POST"}, new MeteredCommand(batch, metrics.forRoute(BATCH_PATH)));
+    }
+
+    /**
+     * Registra a rota de métricas e os medidores dos componentes compartilhados.
+     */
+    private void registerMetrics() throws Exception {
+        router.add(METRICS_PATH, new String[] {"GET"}, new MetricsCommand(metrics));
+
+        HashingExecutor hashingExecutor = (HashingExecutor) dependencyManager.getOrCreateInstance(HashingExecutor.class);
+        metrics.gauge("sistema_hashing_queue_depth", hashingExecutor::getQueueDepth);
+        metrics.gauge("sistema_hashing_active_threads", hashingExecutor::getActiveCount);
+        metrics.gauge("sistema_hashing_completed_total", hashingExecutor::getCompletedCount);
+        metrics.gauge("sistema_hashing_rejected_total", hashingExecutor::getRejectedCount);
+        metrics.gauge("sistema_admission_in_flight", concurrencyLimit::getInFlight);
+
+        SessionTokenService tokens = (SessionTokenService) dependencyManager.getOrCreateInstance(SessionTokenService.class);
+        metrics.gauge("sistema_tokens_issued_total", tokens::getIssuedCount);
+        metrics.gauge("sistema_tokens_cache_hits_total", tokens::getCacheHits);
+        metrics.gauge("sistema_tokens_verified_total", tokens::getVerificationCount);
+        metrics.gauge("sistema_tokens_rejected_total", tokens::getRejectedCount);
+        metrics.gauge("sistema_tokens_keys", tokens::getKeyCount);
+    }
+
+    /**
+     * Abre o repositório de usuários em segundo plano e, em seguida, registra os seus medidores.
+     * Os controladores recebem o repositório por um intermediário {@code @Lazy}: a inicialização
+     * não aguarda a abertura, e as requisições que chegarem antes dela aguardam na primeira chamada.
+     */
+    private void openRepository() {
+        Thread opener = new Thread(() -> {
+            try {
+                registerRepositoryMetrics(UserRepositoryFactory.createRepository());
+            } catch (RuntimeException e) {
+                // A próxima requisição tenta abrir o repositório novamente
+                log("Erro ao abrir o repositório de usuários", e);
+            }
+        }, "sistema-repositorio");
+        opener.setDaemon(true);
+        opener.start();
+    }
+
+    /**
+     * Registra os medidores do repositório de usuários e dos repositórios que ele encapsula.
+     */
+    private void registerRepositoryMetrics(UserRepositoryInterface repository) {
+        while (repository != null) {
+            if (repository instanceof BloomFilterUserRepository) {
+                BloomFilterUserRepository bloom = (BloomFilterUserRepository) repository;
+                metrics.gauge("sistema_bloom_definite_misses_total", bloom::getDefiniteMisses);
+                metrics.gauge("sistema_bloom_passed_total", bloom::getPassedToDelegate);
+                metrics.gauge("sistema_bloom_false_positives_total", bloom::getFalsePositives);
+                repository = bloom.getDelegate();
+            } else if (repository instanceof CachingUserRepository) {
+                CachingUserRepository cache = (CachingUserRepository) repository;
+                metrics.gauge("sistema_cache_hits_total", cache::getHits);
+                metrics.gauge("sistema_cache_misses_total", cache::getMisses);
+                metrics.gauge("sistema_cache_evictions_total", cache::getEvictions);
+                metrics.gauge("sistema_cache_size", cache::size);
+                repository = cache.getDelegate();
+            } else {
+                if (repository instanceof HSQLDBUserRepository) {
+                    HSQLDBUserRepository hsqldb = (HSQLDBUserRepository) repository;
+                    metrics.gauge("sistema_db_pool_active", () -> hsqldb.getPoolStatistics().getActive());
+                    metrics.gauge("sistema_db_pool_idle", () -> hsqldb.getPoolStatistics().getIdle());
+                    metrics.gauge("sistema_db_pool_timeouts_total", () -> hsqldb.getPoolStatistics().getTimeouts());
+                    GroupCommitWriter groupCommit = hsqldb.getGroupCommitWriter();
+                    if (groupCommit != null) {
+                        metrics.gauge("sistema_db_group_commit_batches_total", groupCommit::getBatches);
+                        metrics.gauge("sistema_db_group_commit_users_total", groupCommit::getWritten);
+                        metrics.gauge("sistema_db_group_commit_queue_depth", groupCommit::getQueueDepth);
+                    }
+                } else if (repository instanceof MemoryUserRepository) {
+                    MemoryUserRepository memory = (MemoryUserRepository) repository;
+                    metrics.gauge("sistema_memory_recovery_millis", memory::getRecoveryMillis);
+                } else if (repository instanceof OffHeapUserRepository) {
+                    OffHeapUserRepository offHeap = (OffHeapUserRepository) repository;
+                    metrics.gauge("sistema_offheap_bytes", offHeap::getOffHeapBytes);
+                    metrics.gauge("sistema_offheap_users", offHeap::size);
+                } else if (repository instanceof ShardedUserRepository) {
+                    metrics.gauge("sistema_shards", ((ShardedUserRepository) repository)::getShardCount);
+                }
+                repository = null;
+            }
+        }
+    }
+
+    @Override
+    public void destroy() {
+        dependencyManager.closeAll();
+        UserRepositoryFactory.close();
+        PasswordUtils.clear();
     }
 
     @Override
     protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        try {
+            dispatch(req, resp);
+        } catch (IOException | ServletException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ServletException("Erro ao processar rota", e);
+        }
+    }
+
+    /**
+     * Encontra a rota da requisição, executa os filtros e o comando da rota. Usado tanto pelas
+     * requisições recebidas pelo servlet quanto pelas operações de um lote.
+     */
+    private void dispatch(HttpServletRequest req, HttpServletResponse resp) throws Exception {
         String path = req.getPathInfo();
-        Command command = rotaMap.get(path);
+        Router.Route route = router.match(path);
 
-        if (command == null) {
+        if (route == null) {
+            unmatchedRequests.increment();
             resp.sendError(HttpServletResponse.SC_NOT_FOUND, "Rota não encontrada");
             return;
         }
 
-        try {
-            command.execute(req, resp);
-        } catch (Exception e) {
-            throw new ServletException("Erro ao processar rota", e);
+        Router.Handler handler = route.handlerFor(req.getMethod());
+        if (handler == null) {
+            methodNotAllowedRequests.increment();
+            resp.setHeader("Allow", route.getAllow());
+            resp.sendError(HttpServletResponse.SC_METHOD_NOT_ALLOWED, "Método não permitido");
+            return;
+        }
+
+        handler.bindParameters(req, path);
+        for (RequestFilter filter : filters) {
+            if (!filter.filter(req, resp)) {
+                return;
+            }
         }
+        handler.getCommand().execute(req, resp);
     }
 }
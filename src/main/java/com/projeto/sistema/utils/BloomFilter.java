@@ -0,0 +1,124 @@
+package com.projeto.sistema.utils;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtro de Bloom concorrente para strings.
+ * <p>
+ * Responde se um valor <em>pode</em> ter sido inserido: uma resposta negativa é definitiva,
+ * enquanto uma positiva pode ser um falso positivo, com probabilidade próxima da configurada
+ * enquanto o número de inserções não exceder o esperado. Os bits ficam em um
+ * {@link AtomicLongArray}, permitindo inserções e consultas simultâneas sem bloqueios.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitCount;
+    private final int hashFunctions;
+
+    /**
+     * Cria um filtro dimensionado para a quantidade de inserções e a taxa de falsos positivos desejadas.
+     *
+     * @param expectedInsertions  Quantidade de valores esperada.
+     * @param falsePositiveRate   Probabilidade de falso positivo desejada, entre 0 e 1 (exclusivo).
+     */
+    public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Taxa de falsos positivos inválida: " + falsePositiveRate);
+        }
+        long n = Math.max(1, expectedInsertions);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) >>> 6));
+        this.bits = new AtomicLongArray(words);
+        this.bitCount = (long) words << 6;
+        this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Insere um valor no filtro.
+     *
+     * @param value O valor a ser inserido.
+     */
+    public void put(String value) {
+        long hash = hash64(value);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            setBit(index);
+        }
+    }
+
+    /**
+     * Verifica se o valor pode ter sido inserido.
+     *
+     * @param value O valor a ser verificado.
+     * @return {@code false} se o valor certamente não foi inserido.
+     */
+    public boolean mightContain(String value) {
+        long hash = hash64(value);
+        long h1 = fmix64(hash);
+        long h2 = fmix64(hash ^ 0x9E3779B97F4A7C15L) | 1L;
+        for (int i = 0; i < hashFunctions; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Retorna o tamanho do filtro em bits.
+     *
+     * @return A quantidade de bits.
+     */
+    public long getBitCount() {
+        return bitCount;
+    }
+
+    /**
+     * Retorna a quantidade de funções de hash utilizadas.
+     *
+     * @return A quantidade de funções de hash.
+     */
+    public int getHashFunctions() {
+        return hashFunctions;
+    }
+
+    private void setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        long current;
+        do {
+            current = bits.get(word);
+            if ((current & mask) != 0) {
+                return;
+            }
+        } while (!bits.compareAndSet(word, current, current | mask));
+    }
+
+    /**
+     * Hash FNV-1a de 64 bits sobre os caracteres da string.
+     */
+    private static long hash64(String value) {
+        long hash = 0xCBF29CE484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001B3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Etapa final de mistura do MurmurHash3, para espalhar bem os bits.
+     */
+    private static long fmix64(long k) {
+        k ^= k >>> 33;
+        k *= 0xFF51AFD7ED558CCDL;
+        k ^= k >>> 33;
+        k *= 0xC4CEB93FE1A85EC3L;
+        k ^= k >>> 33;
+        return k;
+    }
+}
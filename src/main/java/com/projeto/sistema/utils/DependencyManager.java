@@ -1,24 +1,158 @@
 package com.projeto.sistema.utils;
 
 import com.projeto.sistema.annotations.Inject;
+import com.projeto.sistema.annotations.Lazy;
 import com.projeto.sistema.annotations.Singleton;
 import com.projeto.sistema.factories.UserRepositoryFactory;
 import com.projeto.sistema.repositories.UserRepositoryInterface;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
-import java.util.HashMap;
-import java.util.Map;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Gerenciador de dependências responsável por criar e injetar instâncias.
+ * <p>
+ * Os campos {@link Inject} formam um grafo de dependências entre as classes. Na inicialização,
+ * {@link #initialize(Collection)} cria as classes informadas e as suas dependências em paralelo:
+ * cada singleton é construído assim que solicitado, e os seus campos são injetados quando as
+ * dependências estiverem construídas. Assim, singletons independentes e caros, como o
+ * repositório de usuários, são criados ao mesmo tempo que os demais, e o tempo de inicialização
+ * é o da criação mais demorada, não a soma de todas. Dependências circulares entre campos são
+ * aceitas, pois a injeção depende apenas da construção das outras instâncias.
+ * <p>
+ * Singletons que declaram um método estático {@code getInstance()} são obtidos por ele, para
+ * que a instância seja a mesma usada pelo restante da aplicação; os demais são criados pelo
+ * construtor sem argumentos. Cada singleton é criado uma única vez, mesmo quando solicitado por
+ * várias threads, e as buscas por singletons já criados não usam bloqueios.
  */
 public class DependencyManager {
 
     /**
-     * Mapa para armazenar instâncias únicas (Singletons).
+     * Singletons prontos, com as dependências injetadas. Consultado sem bloqueios.
      */
-    private final Map<String, Object> instanceCache = new HashMap<>();
+    private final ConcurrentMap<Class<?>, Object> instances = new ConcurrentHashMap<>();
+
+    /**
+     * Criações de singletons em andamento ou concluídas, garantindo uma única criação por classe.
+     */
+    private final ConcurrentMap<Class<?>, Creation> creations = new ConcurrentHashMap<>();
+
+    /**
+     * Classes singleton conhecidas pelo índice de componentes.
+     * Complementa a verificação da anotação {@link Singleton} em cada classe.
+     */
+    private final Set<Class<?>> singletonTypes = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Campos {@link Inject} de cada classe, conhecidos pelo índice de componentes.
+     */
+    private final ConcurrentMap<Class<?>, List<Field>> injectionPoints = new ConcurrentHashMap<>();
+
+    /**
+     * Executor das criações fora da inicialização: a própria thread que solicitou a instância.
+     */
+    private static final Executor CALLER = Runnable::run;
+
+    /**
+     * Criação de um singleton: {@code constructed} é concluído quando a instância existe e
+     * {@code ready} quando as suas dependências foram injetadas.
+     */
+    private static final class Creation {
+        final CompletableFuture<Object> constructed = new CompletableFuture<>();
+        final CompletableFuture<Object> ready = new CompletableFuture<>();
+    }
+
+    /**
+     * Registra as classes singleton informadas pelo índice de componentes.
+     *
+     * @param types As classes anotadas com {@link Singleton}.
+     */
+    public void registerSingletons(Set<Class<?>> types) {
+        singletonTypes.addAll(types);
+    }
+
+    /**
+     * Registra os campos a serem injetados, agrupados pela classe que os declara.
+     *
+     * @param fields Os campos anotados com {@link Inject}.
+     * @throws IllegalArgumentException Se um campo {@link Lazy} não tiver uma interface como tipo.
+     */
+    public void registerInjectionPoints(Set<Field> fields) {
+        for (Field field : fields) {
+            if (field.isAnnotationPresent(Lazy.class) && !field.getType().isInterface()) {
+                throw new IllegalArgumentException("Campos @Lazy devem ter uma interface como tipo: "
+                                                   + field.getDeclaringClass().getName() + "." + field.getName());
+            }
+            field.setAccessible(true);
+            injectionPoints.computeIfAbsent(field.getDeclaringClass(), type -> new ArrayList<>()).add(field);
+        }
+    }
+
+    /**
+     * Cria, em paralelo, os singletons informados e as suas dependências, e aguarda a conclusão.
+     * Classes anotadas com {@link Lazy} são ignoradas e criadas no primeiro uso.
+     *
+     * @param roots As classes necessárias para atender às requisições, como os controladores.
+     * @throws Exception A primeira falha de criação, caso alguma ocorra.
+     */
+    public void initialize(Collection<Class<?>> roots) throws Exception {
+        // As criações costumam esperar por E/S (arquivos, banco de dados), e não pela CPU:
+        // o pool cresce conforme a demanda, limitado pela quantidade de criações simultâneas
+        AtomicInteger threadCount = new AtomicInteger();
+        ExecutorService bootstrap = Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, "sistema-bootstrap-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<CompletableFuture<Object>> pending = new ArrayList<>();
+            for (Class<?> root : roots) {
+                if (!root.isAnnotationPresent(Lazy.class)) {
+                    pending.add(isSingleton(root) ? creationOf(root, bootstrap).ready : createPrototype(root, bootstrap));
+                }
+            }
+            await(CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])));
+
+            // Dependências de dependências podem ter sido iniciadas depois que as raízes ficaram prontas
+            List<Creation> started;
+            do {
+                started = new ArrayList<>(creations.values());
+                for (Creation creation : started) {
+                    await(creation.ready);
+                }
+            } while (creations.size() > started.size());
+        } finally {
+            bootstrap.shutdown();
+        }
+    }
+
+    /**
+     * Verifica se a classe deve ter uma única instância.
+     *
+     * @param type A classe a ser verificada.
+     * @return {@code true} se a classe for um singleton.
+     */
+    private boolean isSingleton(Class<?> type) {
+        return singletonTypes.contains(type) || type.isAnnotationPresent(Singleton.class);
+    }
 
     /**
      * Resolve e retorna a dependência para o tipo especificado.
@@ -28,78 +162,239 @@ public class DependencyManager {
      * @throws Exception Caso ocorra um erro durante a resolução.
      */
     public Object resolveDependency(Class<?> type) throws Exception {
+        return await(dependency(type, CALLER));
+    }
+
+    /**
+     * Obtém ou cria uma instância para a classe especificada.
+     * Respeita a anotação {@link Singleton} para reutilizar instâncias.
+     *
+     * @param clazz A classe para a qual criar ou obter a instância.
+     * @return A instância da classe.
+     * @throws Exception Caso ocorra um erro durante a criação.
+     */
+    public Object getOrCreateInstance(Class<?> clazz) throws Exception {
+        Object instance = instances.get(clazz);
+        if (instance != null) {
+            return instance;
+        }
+        return resolveDependency(clazz);
+    }
+
+    /**
+     * Inicia a resolução de uma dependência: o singleton da classe, o repositório de usuários
+     * configurado ou uma nova instância de uma classe concreta.
+     */
+    private CompletableFuture<Object> dependency(Class<?> type, Executor executor) {
         // Caso a classe seja anotada como Singleton, reutiliza a instância
-        if (type.isAnnotationPresent(Singleton.class)) {
-            return getOrCreateInstance(type);
+        if (isSingleton(type)) {
+            Object instance = instances.get(type);
+            return instance != null ? CompletableFuture.completedFuture(instance) : creationOf(type, executor).ready;
         }
 
         // Caso a dependência seja o repositório de usuários
         if (type == UserRepositoryInterface.class) {
-            return UserRepositoryFactory.createRepository();
+            return CompletableFuture.supplyAsync(UserRepositoryFactory::createRepository, executor);
         }
 
-        // Caso o tipo seja uma interface genérica, lança uma exceção
+        // Caso o tipo seja uma interface genérica, a dependência não pode ser resolvida
         if (type.isInterface()) {
-            throw new IllegalArgumentException("Não é possível resolver dependência para a interface: " + type.getName());
+            CompletableFuture<Object> failed = new CompletableFuture<>();
+            failed.completeExceptionally(new IllegalArgumentException(
+                "Não é possível resolver dependência para a interface: " + type.getName()));
+            return failed;
         }
 
         // Cria uma nova instância para classes concretas
-        return type.getDeclaredConstructor().newInstance();
+        return createPrototype(type, executor);
+    }
+
+    /**
+     * Retorna a criação de um singleton, iniciando-a se ainda não existir. Apenas a thread que
+     * registra a criação a executa; as demais aguardam o mesmo resultado.
+     */
+    private Creation creationOf(Class<?> type, Executor executor) {
+        Creation creation = creations.get(type);
+        if (creation != null) {
+            return creation;
+        }
+        Creation started = new Creation();
+        creation = creations.putIfAbsent(type, started);
+        if (creation != null) {
+            return creation;
+        }
+
+        CompletableFuture.supplyAsync(() -> instantiate(type), executor).whenComplete((instance, error) -> {
+            if (error == null) {
+                started.constructed.complete(instance);
+            } else {
+                started.constructed.completeExceptionally(error);
+            }
+        });
+        // A injeção depende apenas da construção das dependências, o que permite ciclos entre campos
+        started.constructed
+            .thenCompose(instance -> inject(type, instance, executor, true))
+            .whenComplete((instance, error) -> {
+                if (error == null) {
+                    instances.put(type, instance);
+                    started.ready.complete(instance);
+                } else {
+                    // Permite uma nova tentativa em uma próxima solicitação
+                    creations.remove(type, started);
+                    started.ready.completeExceptionally(error);
+                }
+            });
+        return started;
     }
 
+    /**
+     * Cria uma nova instância de uma classe que não é singleton e injeta as suas dependências.
+     */
+    private CompletableFuture<Object> createPrototype(Class<?> type, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> instantiate(type), executor)
+            .thenCompose(instance -> inject(type, instance, executor, false));
+    }
 
     /**
-     * Obtém ou cria uma instância para a classe especificada.
-     * Respeita a anotação {@link Singleton} para reutilizar instâncias.
+     * Injeta os campos {@link Inject} de uma instância quando as suas dependências estiverem disponíveis.
      *
-     * @param clazz A classe para a qual criar ou obter a instância.
-     * @return A instância da classe.
-     * @throws Exception Caso ocorra um erro durante a criação.
+     * @param constructedOnly Se basta que os singletons das dependências estejam construídos.
      */
-    public Object getOrCreateInstance(Class<?> clazz) throws Exception {
-        // Verifica se é uma interface, delega ao resolveDependency
-        if (clazz.isInterface()) {
-            return resolveDependency(clazz);
+    private CompletableFuture<Object> inject(Class<?> type, Object instance, Executor executor, boolean constructedOnly) {
+        List<Field> fields = injectionPoints.getOrDefault(type, Collections.emptyList());
+        if (fields.isEmpty()) {
+            return CompletableFuture.completedFuture(instance);
         }
 
-        // Retorna uma instância já existente, se disponível
-        if (instanceCache.containsKey(clazz.getName())) {
-            return instanceCache.get(clazz.getName());
+        List<CompletableFuture<Object>> dependencies = new ArrayList<>(fields.size());
+        for (Field field : fields) {
+            Class<?> fieldType = field.getType();
+            if (field.isAnnotationPresent(Lazy.class)) {
+                dependencies.add(CompletableFuture.completedFuture(lazyProxy(fieldType)));
+            } else if (constructedOnly && isSingleton(fieldType)) {
+                dependencies.add(creationOf(fieldType, executor).constructed);
+            } else {
+                dependencies.add(dependency(fieldType, executor));
+            }
         }
 
-        // Cria uma nova instância
-        Object instance = clazz.getDeclaredConstructor().newInstance();
+        return CompletableFuture.allOf(dependencies.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            for (int i = 0; i < fields.size(); i++) {
+                Field field = fields.get(i);
+                Object dependency = dependencies.get(i).join();
+                if (dependency == null) {
+                    throw new IllegalStateException("Não foi possível resolver dependência para o campo: "
+                                                    + field.getName() + " em " + type.getName());
+                }
+                try {
+                    field.set(instance, dependency);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Erro ao injetar o campo " + field.getName() + " em " + type.getName(), e);
+                }
+            }
+            return instance;
+        });
+    }
 
-        // Se a classe for anotada com @Singleton, salva no cache
-        if (clazz.isAnnotationPresent(Singleton.class)) {
-            instanceCache.put(clazz.getName(), instance);
+    /**
+     * Cria a instância de uma classe, pelo método estático {@code getInstance()} quando a classe
+     * o declarar, ou pelo construtor sem argumentos.
+     */
+    private static Object instantiate(Class<?> type) {
+        try {
+            Method factory = findGetInstance(type);
+            if (factory != null) {
+                return factory.invoke(null);
+            }
+            Constructor<?> constructor = type.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor.newInstance();
+        } catch (InvocationTargetException e) {
+            throw new CompletionException(e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new CompletionException(e);
         }
+    }
 
-        return instance;
+    private static Method findGetInstance(Class<?> type) {
+        try {
+            Method method = type.getDeclaredMethod("getInstance");
+            if (Modifier.isStatic(method.getModifiers()) && type.isAssignableFrom(method.getReturnType())) {
+                method.setAccessible(true);
+                return method;
+            }
+        } catch (NoSuchMethodException e) {
+            // A classe não declara um método de fábrica
+        }
+        return null;
     }
 
+    /**
+     * Cria um intermediário para uma interface, que resolve a dependência na primeira chamada.
+     */
+    private Object lazyProxy(Class<?> type) {
+        InvocationHandler handler = new InvocationHandler() {
+            private volatile Object target;
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                if (method.getDeclaringClass() == Object.class && method.getName().equals("toString")) {
+                    return "Lazy[" + type.getName() + "]";
+                }
+                Object resolved = target;
+                if (resolved == null) {
+                    synchronized (this) {
+                        resolved = target;
+                        if (resolved == null) {
+                            resolved = resolveDependency(type);
+                            target = resolved;
+                        }
+                    }
+                }
+                try {
+                    return method.invoke(resolved, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        };
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type}, handler);
+    }
 
     /**
-     * Injeta dependências em campos anotados com {@link Inject}.
-     *
-     * @param fields Os campos anotados para injeção.
-     * @throws Exception Caso ocorra um erro durante a injeção.
+     * Aguarda uma criação e relança a sua falha original.
      */
-    public void injectDependencies(Set<Field> fields) throws Exception {
-        for (Field field : fields) {
-            Class<?> declaringClass = field.getDeclaringClass();
-            Object instance = getOrCreateInstance(declaringClass);
-            
-            field.setAccessible(true);
-            Class<?> fieldType = field.getType();
-            Object dependency = resolveDependency(fieldType);
-                        
-            if (dependency == null) {
-                throw new IllegalStateException("Não foi possível resolver dependência para o campo: " 
-                                                + field.getName() + " em " + declaringClass.getName());
+    private static <T> T await(CompletableFuture<T> future) throws Exception {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            while (cause instanceof CompletionException && cause.getCause() != null) {
+                cause = cause.getCause();
+            }
+            if (cause instanceof Exception) {
+                throw (Exception) cause;
             }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
 
-            field.set(instance, dependency);
+    /**
+     * Libera os recursos dos singletons que implementam {@link AutoCloseable},
+     * como pools de threads. Deve ser chamado no encerramento da aplicação.
+     */
+    public void closeAll() {
+        for (Object instance : instances.values()) {
+            if (instance instanceof AutoCloseable) {
+                try {
+                    ((AutoCloseable) instance).close();
+                } catch (Exception ignored) {
+                    // O encerramento dos demais singletons continua
+                }
+            }
         }
     }
 
@@ -0,0 +1,196 @@
+package com.projeto.sistema.utils;
+
+import com.projeto.sistema.annotations.Singleton;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntConsumer;
+
+/**
+ * Executor dedicado às operações de hashing de senhas.
+ * <p>
+ * Possui um número fixo de threads, dimensionado pela quantidade de processadores, e uma
+ * fila limitada. Quando a fila está cheia, novas tarefas são rejeitadas imediatamente com
+ * {@link RejectedExecutionException}, em vez de acumularem e ocuparem as threads do container.
+ * <p>
+ * Configurável pelas propriedades de sistema {@code sistema.hash.threads} e {@code sistema.hash.queue}.
+ */
+@Singleton
+public class HashingExecutor implements AutoCloseable {
+
+    private static final int THREADS = Integer.getInteger("sistema.hash.threads", Runtime.getRuntime().availableProcessors());
+    private static final int QUEUE_CAPACITY = Integer.getInteger("sistema.hash.queue", 1024);
+
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Cria o executor com a configuração padrão.
+     */
+    public HashingExecutor() {
+        this(THREADS, QUEUE_CAPACITY);
+    }
+
+    /**
+     * Cria o executor com o número de threads e a capacidade de fila especificados.
+     *
+     * @param threads       Número de threads de hashing.
+     * @param queueCapacity Número máximo de tarefas aguardando execução.
+     */
+    public HashingExecutor(int threads, int queueCapacity) {
+        this.executor = new ThreadPoolExecutor(
+            threads, threads,
+            0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new HashingThreadFactory(),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Submete uma tarefa para execução no pool de hashing.
+     *
+     * @param task A tarefa a ser executada.
+     * @throws RejectedExecutionException Se a fila estiver cheia.
+     */
+    public void execute(Runnable task) {
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            rejected.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * Executa {@code task} para cada índice de {@code 0} a {@code count - 1}, repartindo os índices
+     * entre as threads do pool e a thread que chamou, e aguarda o término.
+     * <p>
+     * Os índices são distribuídos sob demanda: se a fila estiver cheia, as partes rejeitadas não
+     * são contadas como rejeições, e os índices restantes são executados pela própria thread que
+     * chamou.
+     *
+     * @param count Quantidade de índices.
+     * @param task  A tarefa executada para cada índice.
+     * @throws InterruptedException Se a thread for interrompida enquanto aguarda as demais.
+     * @throws RuntimeException     A primeira falha de uma das execuções de {@code task}.
+     */
+    public void forEachIndex(int count, IntConsumer task) throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Runnable worker = () -> {
+            int i;
+            while (failure.get() == null && (i = next.getAndIncrement()) < count) {
+                try {
+                    task.accept(i);
+                } catch (Throwable e) {
+                    failure.compareAndSet(null, e);
+                }
+            }
+        };
+
+        int parts = Math.min(executor.getCorePoolSize(), count) - 1;
+        CountDownLatch done = new CountDownLatch(Math.max(parts, 0));
+        int submitted;
+        for (submitted = 0; submitted < parts; submitted++) {
+            try {
+                executor.execute(() -> {
+                    try {
+                        worker.run();
+                    } finally {
+                        done.countDown();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                break;
+            }
+        }
+        for (int part = submitted; part < parts; part++) {
+            done.countDown();
+        }
+        worker.run();
+        done.await();
+
+        Throwable error = failure.get();
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de tarefas aguardando na fila.
+     *
+     * @return A profundidade atual da fila.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Retorna a capacidade máxima da fila.
+     *
+     * @return A capacidade da fila.
+     */
+    public int getQueueCapacity() {
+        return executor.getQueue().size() + executor.getQueue().remainingCapacity();
+    }
+
+    /**
+     * Retorna a quantidade de threads executando tarefas no momento.
+     *
+     * @return O número de threads ativas.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Retorna o total de tarefas concluídas.
+     *
+     * @return O número de tarefas concluídas.
+     */
+    public long getCompletedCount() {
+        return executor.getCompletedTaskCount();
+    }
+
+    /**
+     * Retorna o total de tarefas rejeitadas por falta de espaço na fila.
+     *
+     * @return O número de rejeições.
+     */
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Encerra o executor, descartando as tarefas pendentes.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cria threads daemon nomeadas para o pool de hashing.
+     */
+    private static class HashingThreadFactory implements ThreadFactory {
+        private final AtomicInteger counter = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
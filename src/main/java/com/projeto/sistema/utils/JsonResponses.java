@@ -0,0 +1,74 @@
+package com.projeto.sistema.utils;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Collections;
+
+/**
+ * Utilitários para respostas JSON.
+ * <p>
+ * Corpos constantes, como mensagens de erro fixas, podem ser codificados uma única vez em
+ * UTF-8 com {@link #error(String)} ou {@link #message(String)} e enviados diretamente ao
+ * {@link javax.servlet.ServletOutputStream} com {@link #send(HttpServletResponse, int, byte[])}.
+ */
+public class JsonResponses {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final ObjectWriter WRITER = MAPPER.writer();
+
+    private JsonResponses() {}
+
+    /**
+     * Codifica um corpo {@code {"error": mensagem}} em UTF-8.
+     *
+     * @param message A mensagem de erro.
+     * @return O corpo JSON codificado.
+     */
+    public static byte[] error(String message) {
+        return encode(Collections.singletonMap("error", message));
+    }
+
+    /**
+     * Codifica um corpo {@code {"message": mensagem}} em UTF-8.
+     *
+     * @param message A mensagem.
+     * @return O corpo JSON codificado.
+     */
+    public static byte[] message(String message) {
+        return encode(Collections.singletonMap("message", message));
+    }
+
+    /**
+     * Codifica um valor qualquer como JSON em UTF-8.
+     *
+     * @param value O valor a ser codificado.
+     * @return O corpo JSON codificado.
+     */
+    public static byte[] encode(Object value) {
+        try {
+            return WRITER.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Não foi possível serializar a resposta JSON", e);
+        }
+    }
+
+    /**
+     * Envia um corpo JSON já codificado em UTF-8.
+     *
+     * @param resp   Objeto {@link HttpServletResponse} para enviar a resposta HTTP.
+     * @param status O código de status HTTP.
+     * @param body   O corpo JSON codificado.
+     * @throws IOException Caso ocorra algum erro ao escrever a saída.
+     */
+    public static void send(HttpServletResponse resp, int status, byte[] body) throws IOException {
+        resp.setStatus(status);
+        resp.setContentType("application/json");
+        resp.setCharacterEncoding("UTF-8");
+        resp.setContentLength(body.length);
+        resp.getOutputStream().write(body);
+    }
+}
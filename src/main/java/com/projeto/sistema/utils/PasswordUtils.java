@@ -1,21 +1,57 @@
 package com.projeto.sistema.utils;
 
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.util.Base64;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
+/**
+ * Utilitários para geração de salts e hashing de senhas com SHA-256.
+ * <p>
+ * O hash é calculado sobre a senha em UTF-8 seguida do salt na sua forma Base64, exatamente
+ * como na versão baseada em Strings; assim, hashes já armazenados continuam válidos depois de
+ * decodificados com {@link #decode(String)}. A API baseada em {@code byte[]} reutiliza o
+ * {@link MessageDigest} e os buffers intermediários, emprestados de um pequeno conjunto
+ * compartilhado, e não aloca memória ao verificar senhas de tamanho usual.
+ * <p>
+ * O conjunto é um campo estático desta classe, e não um {@link ThreadLocal}: as threads do
+ * container sobrevivem à aplicação, e um estado preso a elas manteria o classloader da aplicação
+ * na memória depois de um redeploy. {@link #clear()} descarta o conjunto no encerramento.
+ */
 public class PasswordUtils {
 
+    /**
+     * Tamanho do salt, em bytes.
+     */
+    public static final int SALT_LENGTH = 16;
+
+    /**
+     * Tamanho do hash SHA-256, em bytes.
+     */
+    public static final int HASH_LENGTH = 32;
+
+    /**
+     * Gerador de números aleatórios compartilhado. {@link SecureRandom} é thread-safe.
+     */
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Estados de hashing disponíveis para reutilização. Cada thread começa pela posição derivada
+     * do seu ID, para que threads diferentes raramente disputem a mesma posição.
+     */
+    private static final AtomicReferenceArray<HashState> POOL = new AtomicReferenceArray<>(
+        Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2) - 1) << 1);
+
     /**
      * Gera um salt aleatório para ser usado no hashing de senhas.
      * 
      * @return Uma string representando o salt.
      */
     public static String generateSalt() {
-        byte[] salt = new byte[16];
-        new SecureRandom().nextBytes(salt);
-        return Base64.getEncoder().encodeToString(salt);
+        return encode(generateSaltBytes());
     }
 
     /**
@@ -26,13 +62,192 @@ public class PasswordUtils {
      * @return O hash da senha com o salt.
      */
     public static String hashWithSalt(String password, String salt) {
+        return encode(hash(password, decode(salt)));
+    }
+
+    /**
+     * Gera um salt aleatório em bytes.
+     *
+     * @return Um novo salt de {@value #SALT_LENGTH} bytes.
+     */
+    public static byte[] generateSaltBytes() {
+        byte[] salt = new byte[SALT_LENGTH];
+        RANDOM.nextBytes(salt);
+        return salt;
+    }
+
+    /**
+     * Hashea a senha combinada com o salt fornecido usando SHA-256.
+     *
+     * @param password A senha original.
+     * @param salt     O salt associado, em bytes.
+     * @return Um novo array com o hash de {@value #HASH_LENGTH} bytes.
+     */
+    public static byte[] hash(String password, byte[] salt) {
+        HashState state = acquire();
+        try {
+            state.digest(password, salt);
+            return state.hash.clone();
+        } finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Verifica se a senha corresponde ao hash armazenado, com comparação em tempo constante.
+     *
+     * @param password     A senha informada.
+     * @param salt         O salt armazenado, em bytes.
+     * @param expectedHash O hash armazenado, em bytes.
+     * @return {@code true} se a senha estiver correta.
+     */
+    public static boolean verify(String password, byte[] salt, byte[] expectedHash) {
+        HashState state = acquire();
         try {
-            MessageDigest md = MessageDigest.getInstance("SHA-256");
-            String saltedPassword = password + salt;
-            byte[] hash = md.digest(saltedPassword.getBytes());
-            return Base64.getEncoder().encodeToString(hash);
-        } catch (NoSuchAlgorithmException e) {
-            throw new RuntimeException("Erro ao hashear senha", e);
+            state.digest(password, salt);
+            return MessageDigest.isEqual(state.hash, expectedHash);
+        } finally {
+            release(state);
+        }
+    }
+
+    /**
+     * Descarta os estados de hashing guardados para reutilização. Chamado no encerramento da
+     * aplicação; chamadas seguintes de hashing voltam a preencher o conjunto.
+     */
+    public static void clear() {
+        for (int i = 0; i < POOL.length(); i++) {
+            POOL.set(i, null);
+        }
+    }
+
+    /**
+     * Empresta um estado do conjunto, ou cria um novo se as posições examinadas estiverem vazias.
+     */
+    private static HashState acquire() {
+        int mask = POOL.length() - 1;
+        int start = (int) Thread.currentThread().getId() & mask;
+        for (int i = 0; i < 2; i++) {
+            HashState state = POOL.getAndSet((start + i) & mask, null);
+            if (state != null) {
+                return state;
+            }
+        }
+        return new HashState();
+    }
+
+    /**
+     * Devolve o estado ao conjunto; se as posições examinadas estiverem ocupadas, ele é descartado.
+     */
+    private static void release(HashState state) {
+        int mask = POOL.length() - 1;
+        int start = (int) Thread.currentThread().getId() & mask;
+        for (int i = 0; i < 2; i++) {
+            if (POOL.compareAndSet((start + i) & mask, null, state)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Codifica bytes em Base64, formato utilizado na persistência.
+     *
+     * @param bytes Os bytes a serem codificados.
+     * @return A representação Base64.
+     */
+    public static String encode(byte[] bytes) {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    /**
+     * Decodifica um valor Base64 armazenado anteriormente (salt ou hash).
+     *
+     * @param value O valor em Base64.
+     * @return Os bytes decodificados.
+     */
+    public static byte[] decode(String value) {
+        return Base64.getDecoder().decode(value);
+    }
+
+    /**
+     * Digest e buffers, usados por uma única thread enquanto emprestados do conjunto.
+     */
+    private static class HashState {
+        private final MessageDigest digest;
+        private final byte[] passwordBuffer = new byte[256];
+        private final byte[] saltBuffer = new byte[(SALT_LENGTH + 2) / 3 * 4];
+        private final byte[] hash = new byte[HASH_LENGTH];
+
+        HashState() {
+            try {
+                this.digest = MessageDigest.getInstance("SHA-256");
+            } catch (NoSuchAlgorithmException e) {
+                throw new RuntimeException("Erro ao hashear senha", e);
+            }
+        }
+
+        /**
+         * Calcula SHA-256(senha em UTF-8 + salt em Base64) e armazena o resultado em {@link #hash}.
+         */
+        void digest(String password, byte[] salt) {
+            digest.reset();
+
+            int length = encodeUtf8(password, passwordBuffer);
+            if (length >= 0) {
+                digest.update(passwordBuffer, 0, length);
+            } else {
+                // Senha maior que o buffer reutilizável
+                digest.update(password.getBytes(StandardCharsets.UTF_8));
+            }
+
+            if (salt.length == SALT_LENGTH) {
+                digest.update(saltBuffer, 0, Base64.getEncoder().encode(salt, saltBuffer));
+            } else {
+                digest.update(Base64.getEncoder().encode(salt));
+            }
+
+            try {
+                digest.digest(hash, 0, HASH_LENGTH);
+            } catch (DigestException e) {
+                throw new RuntimeException("Erro ao hashear senha", e);
+            }
+        }
+
+        /**
+         * Codifica a string em UTF-8 no buffer, com o mesmo resultado de
+         * {@code getBytes(StandardCharsets.UTF_8)} (surrogates isolados viram '?').
+         *
+         * @return O número de bytes escritos, ou -1 se o buffer for insuficiente.
+         */
+        private static int encodeUtf8(String value, byte[] buffer) {
+            int position = 0;
+            int length = value.length();
+            for (int i = 0; i < length; i++) {
+                char c = value.charAt(i);
+                if (position + 4 > buffer.length) {
+                    return -1;
+                }
+                if (c < 0x80) {
+                    buffer[position++] = (byte) c;
+                } else if (c < 0x800) {
+                    buffer[position++] = (byte) (0xC0 | (c >> 6));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                } else if (Character.isHighSurrogate(c) && i + 1 < length
+                        && Character.isLowSurrogate(value.charAt(i + 1))) {
+                    int codePoint = Character.toCodePoint(c, value.charAt(++i));
+                    buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+                } else if (Character.isSurrogate(c)) {
+                    buffer[position++] = (byte) '?';
+                } else {
+                    buffer[position++] = (byte) (0xE0 | (c >> 12));
+                    buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                    buffer[position++] = (byte) (0x80 | (c & 0x3F));
+                }
+            }
+            return position;
         }
     }
 }
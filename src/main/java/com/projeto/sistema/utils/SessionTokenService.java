@@ -0,0 +1,345 @@
+package com.projeto.sistema.utils;
+
+import com.projeto.sistema.annotations.Singleton;
+import com.projeto.sistema.models.AuthenticatedUser;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Emite e verifica tokens de sessão sem estado, assinados com HMAC-SHA256.
+ * <p>
+ * Um token é {@code base64url(conteúdo).base64url(assinatura)}, em que o conteúdo contém a
+ * versão do formato, o identificador da chave, o ID do usuário, a expiração e o email. A
+ * verificação não consulta o repositório nem hasheia senhas; tokens já verificados ficam em
+ * um pequeno cache, para que requisições repetidas dispensem até o cálculo do HMAC.
+ * <p>
+ * As chaves são rotacionadas sem invalidar as sessões ativas: a chave atual assina os novos
+ * tokens, e as anteriores continuam aceitas até que os tokens assinados por elas expirem.
+ * Com a propriedade {@code sistema.token.keys} (segredos em Base64, separados por vírgula,
+ * o primeiro sendo o atual), várias instâncias compartilham as chaves, e a rotação é feita
+ * acrescentando um novo segredo no início da lista. Sem ela, uma chave aleatória é gerada na
+ * inicialização e trocada a cada {@code sistema.token.rotationInterval} milissegundos.
+ */
+@Singleton
+public class SessionTokenService implements AutoCloseable {
+
+    /**
+     * Nome do atributo da requisição que contém o {@link AuthenticatedUser} do token verificado.
+     */
+    public static final String ATTRIBUTE = SessionTokenService.class.getName() + ".user";
+
+    /**
+     * Nome do atributo da requisição que indica que o token enviado foi recusado.
+     */
+    public static final String REJECTED_ATTRIBUTE = SessionTokenService.class.getName() + ".rejected";
+
+    /**
+     * Validade dos tokens, em milissegundos ({@code sistema.token.ttl}).
+     */
+    private static final long TTL_MILLIS = Long.getLong("sistema.token.ttl", 3_600_000L);
+
+    /**
+     * Intervalo de rotação das chaves geradas automaticamente, em milissegundos
+     * ({@code sistema.token.rotationInterval}); zero desativa a rotação.
+     */
+    private static final long ROTATION_INTERVAL_MILLIS = Long.getLong("sistema.token.rotationInterval", 86_400_000L);
+
+    /**
+     * Segredos configurados ({@code sistema.token.keys}).
+     */
+    private static final String CONFIGURED_KEYS = System.getProperty("sistema.token.keys");
+
+    /**
+     * Quantidade máxima de tokens verificados em cache ({@code sistema.token.cacheSize}).
+     */
+    private static final int CACHE_SIZE = Integer.getInteger("sistema.token.cacheSize", 10_000);
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Conteúdo: versão (1), chave (4), ID do usuário (4), expiração em segundos (8) e email.
+     */
+    private static final int HEADER_LENGTH = 17;
+    private static final int SECRET_LENGTH = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final SecureRandom random = new SecureRandom();
+    private final long ttlMillis;
+
+    /**
+     * Chave atual seguida das anteriores ainda aceitas. Substituída por inteiro a cada rotação.
+     */
+    private volatile List<SigningKey> keys;
+
+    private final ConcurrentMap<String, AuthenticatedUser> verified = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService rotation;
+
+    private final AtomicLong issued = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong verifications = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+
+    /**
+     * Cria o serviço com a configuração das propriedades de sistema.
+     */
+    public SessionTokenService() {
+        this(TTL_MILLIS);
+    }
+
+    /**
+     * Cria o serviço com a validade de token especificada.
+     *
+     * @param ttlMillis A validade dos tokens, em milissegundos.
+     */
+    public SessionTokenService(long ttlMillis) {
+        this.ttlMillis = ttlMillis;
+        List<SigningKey> initial = new ArrayList<>();
+        if (CONFIGURED_KEYS != null && !CONFIGURED_KEYS.trim().isEmpty()) {
+            for (String secret : CONFIGURED_KEYS.split(",")) {
+                initial.add(new SigningKey(Base64.getDecoder().decode(secret.trim()), Long.MAX_VALUE));
+            }
+            this.rotation = null;
+        } else {
+            initial.add(new SigningKey(newSecret(), Long.MAX_VALUE));
+            this.rotation = ROTATION_INTERVAL_MILLIS > 0 ? startRotation(ROTATION_INTERVAL_MILLIS) : null;
+        }
+        this.keys = initial;
+    }
+
+    /**
+     * Emite um token para o usuário autenticado, assinado com a chave atual.
+     *
+     * @param id    O ID do usuário.
+     * @param email O email do usuário.
+     * @return O usuário com o token e a sua expiração.
+     */
+    public AuthenticatedUser issue(int id, String email) {
+        long expiresAt = (System.currentTimeMillis() + ttlMillis) / 1000;
+        SigningKey key = keys.get(0);
+        byte[] emailBytes = email.getBytes(StandardCharsets.UTF_8);
+        byte[] payload = ByteBuffer.allocate(HEADER_LENGTH + emailBytes.length)
+            .put(VERSION)
+            .putInt(key.id)
+            .putInt(id)
+            .putLong(expiresAt)
+            .put(emailBytes)
+            .array();
+        String token = ENCODER.encodeToString(payload) + "." + ENCODER.encodeToString(key.sign(payload));
+        issued.incrementAndGet();
+        return new AuthenticatedUser(id, email, token, expiresAt);
+    }
+
+    /**
+     * Verifica um token.
+     *
+     * @param token O token recebido.
+     * @return O usuário do token, ou {@code null} se o token for inválido, expirado ou assinado
+     *         por uma chave que não é mais aceita.
+     */
+    public AuthenticatedUser verify(String token) {
+        long nowSeconds = System.currentTimeMillis() / 1000;
+        AuthenticatedUser cached = verified.get(token);
+        if (cached != null) {
+            if (cached.getExpiresAt() > nowSeconds) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            verified.remove(token, cached);
+        }
+
+        verifications.incrementAndGet();
+        AuthenticatedUser user = decode(token, nowSeconds);
+        if (user == null) {
+            rejected.incrementAndGet();
+            return null;
+        }
+        if (verified.size() >= CACHE_SIZE) {
+            // Descarta uma entrada qualquer: o cache só evita recalcular HMACs
+            Iterator<String> oldest = verified.keySet().iterator();
+            if (oldest.hasNext()) {
+                verified.remove(oldest.next());
+            }
+        }
+        verified.put(token, user);
+        return user;
+    }
+
+    private AuthenticatedUser decode(String token, long nowSeconds) {
+        int dot = token.indexOf('.');
+        if (dot <= 0 || dot == token.length() - 1) {
+            return null;
+        }
+        byte[] payload;
+        byte[] signature;
+        try {
+            payload = DECODER.decode(token.substring(0, dot));
+            signature = DECODER.decode(token.substring(dot + 1));
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (payload.length < HEADER_LENGTH || payload[0] != VERSION) {
+            return null;
+        }
+
+        ByteBuffer fields = ByteBuffer.wrap(payload);
+        fields.get();
+        SigningKey key = findKey(fields.getInt());
+        if (key == null || !MessageDigest.isEqual(key.sign(payload), signature)) {
+            return null;
+        }
+        int id = fields.getInt();
+        long expiresAt = fields.getLong();
+        if (expiresAt <= nowSeconds) {
+            return null;
+        }
+        String email = new String(payload, HEADER_LENGTH, payload.length - HEADER_LENGTH, StandardCharsets.UTF_8);
+        return new AuthenticatedUser(id, email, token, expiresAt);
+    }
+
+    private SigningKey findKey(int id) {
+        long now = System.currentTimeMillis();
+        for (SigningKey key : keys) {
+            if (key.id == id && key.acceptedUntil > now) {
+                return key;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gera uma nova chave atual. A chave substituída continua aceita durante a validade dos
+     * tokens, e chaves cujo prazo já terminou são descartadas.
+     */
+    public void rotateKeys() {
+        synchronized (this) {
+            long now = System.currentTimeMillis();
+            List<SigningKey> rotated = new ArrayList<>();
+            rotated.add(new SigningKey(newSecret(), Long.MAX_VALUE));
+            List<SigningKey> current = keys;
+            for (int i = 0; i < current.size(); i++) {
+                SigningKey key = current.get(i);
+                long acceptedUntil = i == 0 ? now + ttlMillis : key.acceptedUntil;
+                if (acceptedUntil > now) {
+                    rotated.add(i == 0 ? key.retire(acceptedUntil) : key);
+                }
+            }
+            keys = rotated;
+        }
+    }
+
+    /**
+     * Retorna a quantidade de chaves aceitas na verificação, incluindo a atual.
+     *
+     * @return A quantidade de chaves.
+     */
+    public int getKeyCount() {
+        return keys.size();
+    }
+
+    public long getIssuedCount() {
+        return issued.get();
+    }
+
+    public long getCacheHits() {
+        return cacheHits.get();
+    }
+
+    public long getVerificationCount() {
+        return verifications.get();
+    }
+
+    public long getRejectedCount() {
+        return rejected.get();
+    }
+
+    /**
+     * Interrompe a rotação automática das chaves.
+     */
+    @Override
+    public void close() {
+        if (rotation != null) {
+            rotation.shutdownNow();
+        }
+    }
+
+    private ScheduledExecutorService startRotation(long intervalMillis) {
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "sistema-token-rotation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleAtFixedRate(this::rotateKeys, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return executor;
+    }
+
+    private byte[] newSecret() {
+        byte[] secret = new byte[SECRET_LENGTH];
+        random.nextBytes(secret);
+        return secret;
+    }
+
+    /**
+     * Chave de assinatura. O identificador é derivado do próprio segredo, para que instâncias
+     * configuradas com os mesmos segredos concordem sem coordenação.
+     */
+    private static final class SigningKey {
+        final int id;
+        final long acceptedUntil;
+        private final SecretKeySpec secret;
+        private final ThreadLocal<Mac> mac;
+
+        SigningKey(byte[] secret, long acceptedUntil) {
+            this(new SecretKeySpec(secret, "HmacSHA256"), deriveId(secret), acceptedUntil);
+        }
+
+        private SigningKey(SecretKeySpec secret, int id, long acceptedUntil) {
+            this.secret = secret;
+            this.id = id;
+            this.acceptedUntil = acceptedUntil;
+            this.mac = ThreadLocal.withInitial(() -> {
+                try {
+                    Mac instance = Mac.getInstance("HmacSHA256");
+                    instance.init(secret);
+                    return instance;
+                } catch (GeneralSecurityException e) {
+                    throw new IllegalStateException("HMAC-SHA256 indisponível", e);
+                }
+            });
+        }
+
+        SigningKey retire(long until) {
+            return new SigningKey(secret, id, until);
+        }
+
+        byte[] sign(byte[] payload) {
+            return mac.get().doFinal(payload);
+        }
+
+        private static int deriveId(byte[] secret) {
+            try {
+                return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(secret)).getInt();
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 indisponível", e);
+            }
+        }
+    }
+}
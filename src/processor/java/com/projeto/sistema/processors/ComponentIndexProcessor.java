@@ -0,0 +1,249 @@
+package com.projeto.sistema.processors;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Processador de anotações que gera, em tempo de compilação, o índice de rotas,
+ * pontos de injeção e singletons da aplicação
+ * ({@code com.projeto.sistema.index.GeneratedComponentIndex}).
+ * <p>
+ * Com o índice gerado, o {@code MainServlet} não precisa varrer o classpath na inicialização.
+ * As anotações são referenciadas pelo nome, pois este processador é compilado antes delas.
+ * <p>
+ * As entradas também são gravadas em {@value #INDEX_RESOURCE}. Em compilações incrementais,
+ * que processam apenas parte das classes, o índice anterior é mesclado ao da compilação atual:
+ * são mantidas as entradas das classes que não foram recompiladas e que ainda existem.
+ * <p>
+ * O processador fica em {@code src/processor/java} e é usado apenas durante a compilação;
+ * ele não é empacotado no WAR.
+ */
+public class ComponentIndexProcessor extends AbstractProcessor {
+
+    private static final String ROTA = "com.projeto.sistema.annotations.Rota";
+    private static final String INJECT = "com.projeto.sistema.annotations.Inject";
+    private static final String SINGLETON = "com.projeto.sistema.annotations.Singleton";
+
+    private static final Set<String> INDEXED = new HashSet<>(Arrays.asList(ROTA, INJECT, SINGLETON));
+
+    private static final String INDEX_PACKAGE = "com.projeto.sistema.index";
+    private static final String INDEX_CLASS = "GeneratedComponentIndex";
+
+    /**
+     * Recurso com as entradas do índice, uma por linha: tipo, classe de topo e instrução.
+     */
+    static final String INDEX_RESOURCE = "META-INF/sistema/component-index";
+
+    private static final String ROUTE = "route";
+    private static final String FIELD = "field";
+    private static final String SINGLETON_TYPE = "singleton";
+
+    private final Set<String> entries = new LinkedHashSet<>();
+    private final Set<String> compiledTypes = new HashSet<>();
+    private boolean generated;
+
+    /**
+     * Aceita todas as anotações para ser chamado também quando as classes recompiladas
+     * não têm mais nenhuma das anotações indexadas, o que remove suas entradas do índice.
+     */
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton("*");
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        for (Element root : roundEnv.getRootElements()) {
+            if (root instanceof TypeElement) {
+                compiledTypes.add(((TypeElement) root).getQualifiedName().toString());
+            }
+        }
+        for (TypeElement annotation : annotations) {
+            String name = annotation.getQualifiedName().toString();
+            if (!INDEXED.contains(name)) {
+                continue;
+            }
+            for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (ROTA.equals(name) && element.getKind() == ElementKind.METHOD) {
+                    addEntry(ROUTE, element, routeStatement((ExecutableElement) element));
+                } else if (INJECT.equals(name) && element.getKind() == ElementKind.FIELD) {
+                    addEntry(FIELD, element, injectStatement((VariableElement) element));
+                } else if (SINGLETON.equals(name) && element instanceof TypeElement) {
+                    addEntry(SINGLETON_TYPE, element, "singletons.add(" + classExpression((TypeElement) element) + ");");
+                }
+            }
+        }
+
+        if (!generated) {
+            generated = true;
+            writeIndex();
+        }
+        return false;
+    }
+
+    private void addEntry(String kind, Element element, String statement) {
+        entries.add(kind + '\t' + topLevelName(element) + '\t' + statement);
+    }
+
+    /**
+     * Retorna o nome da classe de topo que declara o elemento, que é a unidade recompilada.
+     */
+    private static String topLevelName(Element element) {
+        Element current = element;
+        while (current.getEnclosingElement() != null
+                && current.getEnclosingElement().getKind() != ElementKind.PACKAGE) {
+            current = current.getEnclosingElement();
+        }
+        return ((TypeElement) current).getQualifiedName().toString();
+    }
+
+    private String routeStatement(ExecutableElement method) {
+        StringBuilder statement = new StringBuilder("routes.add(")
+            .append(classExpression((TypeElement) method.getEnclosingElement()))
+            .append(".getDeclaredMethod(\"").append(method.getSimpleName()).append('"');
+        for (VariableElement parameter : method.getParameters()) {
+            statement.append(", ").append(typeLiteral(parameter.asType()));
+        }
+        return statement.append("));").toString();
+    }
+
+    private String injectStatement(VariableElement field) {
+        return "fields.add(" + classExpression((TypeElement) field.getEnclosingElement())
+            + ".getDeclaredField(\"" + field.getSimpleName() + "\"));";
+    }
+
+    /**
+     * Gera a expressão que obtém a classe pelo nome binário, funcionando também para
+     * classes aninhadas ou não públicas.
+     */
+    private String classExpression(TypeElement type) {
+        return "Class.forName(\"" + processingEnv.getElementUtils().getBinaryName(type) + "\")";
+    }
+
+    private String typeLiteral(TypeMirror type) {
+        TypeMirror erased = processingEnv.getTypeUtils().erasure(type);
+        if (erased.getKind() == TypeKind.DECLARED) {
+            TypeElement element = (TypeElement) processingEnv.getTypeUtils().asElement(erased);
+            return classExpression(element);
+        }
+        return erased.toString() + ".class";
+    }
+
+    private void writeIndex() {
+        Set<String> merged = new LinkedHashSet<>();
+        for (String entry : readPreviousIndex()) {
+            String owner = entry.split("\t", 3)[1];
+            if (!compiledTypes.contains(owner) && processingEnv.getElementUtils().getTypeElement(owner) != null) {
+                merged.add(entry);
+            }
+        }
+        merged.addAll(entries);
+
+        try {
+            FileObject resource = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = resource.openWriter()) {
+                for (String entry : merged) {
+                    writer.write(entry);
+                    writer.write('\n');
+                }
+            }
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(INDEX_PACKAGE + "." + INDEX_CLASS);
+            try (Writer writer = file.openWriter()) {
+                writer.write(render(merged));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR,
+                "Não foi possível gerar o índice de componentes: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Lê as entradas gravadas pela compilação anterior, se houver.
+     */
+    private Set<String> readPreviousIndex() {
+        Set<String> previous = new LinkedHashSet<>();
+        try {
+            FileObject resource = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(resource.openInputStream(), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (line.split("\t", 3).length == 3) {
+                        previous.add(line);
+                    }
+                }
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // Primeira compilação: não há índice anterior
+        }
+        return previous;
+    }
+
+    private String render(Set<String> merged) {
+        StringBuilder source = new StringBuilder();
+        source.append("package ").append(INDEX_PACKAGE).append(";\n\n")
+              .append("import java.lang.reflect.Field;\n")
+              .append("import java.lang.reflect.Method;\n")
+              .append("import java.util.Collections;\n")
+              .append("import java.util.LinkedHashSet;\n")
+              .append("import java.util.Set;\n\n")
+              .append("/**\n * Índice de componentes gerado por {@code ")
+              .append(ComponentIndexProcessor.class.getName())
+              .append("}. Não edite.\n */\n")
+              .append("public final class ").append(INDEX_CLASS).append(" implements ComponentIndex {\n\n")
+              .append("    private final Set<Method> routeMethods;\n")
+              .append("    private final Set<Field> injectFields;\n")
+              .append("    private final Set<Class<?>> singletonTypes;\n\n")
+              .append("    public ").append(INDEX_CLASS).append("() throws ReflectiveOperationException {\n");
+        appendSet(source, "Method", "routes", ROUTE, merged);
+        appendSet(source, "Field", "fields", FIELD, merged);
+        appendSet(source, "Class<?>", "singletons", SINGLETON_TYPE, merged);
+        source.append("        this.routeMethods = Collections.unmodifiableSet(routes);\n")
+              .append("        this.injectFields = Collections.unmodifiableSet(fields);\n")
+              .append("        this.singletonTypes = Collections.unmodifiableSet(singletons);\n")
+              .append("    }\n\n")
+              .append("    @Override\n    public Set<Method> getRouteMethods() {\n        return routeMethods;\n    }\n\n")
+              .append("    @Override\n    public Set<Field> getInjectFields() {\n        return injectFields;\n    }\n\n")
+              .append("    @Override\n    public Set<Class<?>> getSingletonTypes() {\n        return singletonTypes;\n    }\n")
+              .append("}\n");
+        return source.toString();
+    }
+
+    private static void appendSet(StringBuilder source, String type, String name, String kind, Set<String> merged) {
+        source.append("        Set<").append(type).append("> ").append(name)
+              .append(" = new LinkedHashSet<>();\n");
+        for (String entry : merged) {
+            String[] parts = entry.split("\t", 3);
+            if (kind.equals(parts[0])) {
+                source.append("        ").append(parts[2]).append('\n');
+            }
+        }
+    }
+}
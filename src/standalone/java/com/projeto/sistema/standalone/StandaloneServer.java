@@ -0,0 +1,117 @@
+package com.projeto.sistema.standalone;
+
+import com.projeto.sistema.servlets.MainServlet;
+
+import org.apache.catalina.Context;
+import org.apache.catalina.LifecycleException;
+import org.apache.catalina.Wrapper;
+import org.apache.catalina.connector.Connector;
+import org.apache.catalina.startup.Tomcat;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Inicializador autônomo: executa o {@link MainServlet}, com a mesma tabela de rotas e a mesma
+ * injeção de dependências da implantação WAR, em um Tomcat embutido, sem container externo.
+ * <p>
+ * Cada requisição é processada em sua própria virtual thread (JDK 21+). O servidor não faz
+ * varredura de JARs nem carrega configurações de aplicação web, o que reduz o tempo de início.
+ * <p>
+ * Compilado apenas com o perfil Maven {@code standalone}:
+ * <pre>
+ * mvn -Pstandalone package
+ * java -jar target/sistema-0.0.1-SNAPSHOT-standalone.jar
+ * </pre>
+ * A porta é definida pela propriedade de sistema {@code sistema.port} (padrão 8080).
+ */
+public class StandaloneServer {
+
+    private static final int PORT = Integer.getInteger("sistema.port", 8080);
+
+    private final Tomcat tomcat = new Tomcat();
+    private final ExecutorService requestExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    /**
+     * Configura o servidor na porta especificada.
+     *
+     * @param port A porta HTTP. Use 0 para uma porta livre qualquer.
+     * @throws IOException Caso o diretório de trabalho não possa ser criado.
+     */
+    public StandaloneServer(int port) throws IOException {
+        File baseDir = Files.createTempDirectory("sistema-standalone").toFile();
+        baseDir.deleteOnExit();
+        tomcat.setBaseDir(baseDir.getAbsolutePath());
+
+        Connector connector = tomcat.getConnector();
+        connector.setPort(port);
+        connector.getProtocolHandler().setExecutor(requestExecutor);
+
+        Context context = tomcat.addContext("", baseDir.getAbsolutePath());
+        Wrapper servlet = Tomcat.addServlet(context, "MainServlet", new MainServlet());
+        servlet.setAsyncSupported(true);
+        servlet.setLoadOnStartup(1);
+        context.addServletMappingDecoded("/*", "MainServlet");
+    }
+
+    /**
+     * Inicia o servidor. O {@link MainServlet} é inicializado antes do retorno.
+     *
+     * @throws LifecycleException Caso o servidor não possa ser iniciado.
+     */
+    public void start() throws LifecycleException {
+        tomcat.start();
+    }
+
+    /**
+     * Retorna a porta em que o servidor está escutando.
+     *
+     * @return A porta local.
+     */
+    public int getPort() {
+        return tomcat.getConnector().getLocalPort();
+    }
+
+    /**
+     * Encerra o servidor e o executor de requisições.
+     *
+     * @throws LifecycleException Caso ocorra um erro no encerramento.
+     */
+    public void stop() throws LifecycleException {
+        tomcat.stop();
+        tomcat.destroy();
+        requestExecutor.shutdown();
+    }
+
+    /**
+     * Aguarda até que o servidor seja encerrado.
+     */
+    public void await() {
+        tomcat.getServer().await();
+    }
+
+    public static void main(String[] args) throws Exception {
+        StandaloneServer server = new StandaloneServer(PORT);
+        server.start();
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long usedHeap = (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024);
+        System.out.println("Servidor iniciado na porta " + server.getPort() + " em "
+            + ManagementFactory.getRuntimeMXBean().getUptime() + " ms (desde o início da JVM), heap em uso: "
+            + usedHeap + " MB");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            try {
+                server.stop();
+            } catch (LifecycleException ignored) {
+                // A JVM já está sendo encerrada
+            }
+        }));
+        server.await();
+    }
+}
@@ -0,0 +1,61 @@
+package com.projeto.sistema.admission;
+
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdmissionPolicyTest {
+
+    @Test
+    void appliesRouteClientLimit() throws IOException {
+        LongAdder rejected = new LongAdder();
+        AdmissionPolicy policy = AdmissionPolicy.forRoute("/teste/importar", "0.001/1", rejected, new LongAdder());
+
+        assertTrue(policy.admitClient(new MockServletRequest("POST", "/teste/importar", null), new MockServletResponse()));
+        // Outro cliente tem o seu próprio bucket
+        assertTrue(policy.admitClient(new MockServletRequest("POST", "/teste/importar", null).remoteAddr("10.0.0.2"),
+                                      new MockServletResponse()));
+
+        MockServletResponse resp = new MockServletResponse();
+        assertFalse(policy.admitClient(new MockServletRequest("POST", "/teste/importar", null), resp));
+        assertEquals(429, resp.getStatus());
+        assertEquals(1, rejected.sum());
+    }
+
+    @Test
+    void rejectsWithRetryAfter() throws IOException {
+        LongAdder rejected = new LongAdder();
+        AdmissionPolicy policy = new AdmissionPolicy(null, new TokenBucketTable(0.5, 1, 100), new LongAdder(), rejected);
+
+        assertTrue(policy.admitEmail("A@Teste", new MockServletResponse()));
+        // O limite por email não diferencia maiúsculas
+        MockServletResponse resp = new MockServletResponse();
+        assertFalse(policy.admitEmail("a@teste", resp));
+        assertEquals(429, resp.getStatus());
+        assertEquals("2", resp.getHeader("Retry-After"));
+        assertEquals(1, rejected.sum());
+        // Sem buckets por cliente, nenhum cliente é limitado
+        assertTrue(policy.admitClient(new MockServletRequest("POST", "/usuario", null), new MockServletResponse()));
+    }
+
+    @Test
+    void routePropertyOverridesRouteClientLimit() throws IOException {
+        System.setProperty("sistema.admission.client./teste/sem-limite", "0");
+        try {
+            AdmissionPolicy policy = AdmissionPolicy.forRoute("/teste/sem-limite", "0.001/1", new LongAdder(), new LongAdder());
+            for (int i = 0; i < 3; i++) {
+                assertTrue(policy.admitClient(new MockServletRequest("POST", "/teste/sem-limite", null),
+                                              new MockServletResponse()));
+            }
+        } finally {
+            System.clearProperty("sistema.admission.client./teste/sem-limite");
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.projeto.sistema.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTableTest {
+
+    @Test
+    void admitsBurstThenReportsWait() {
+        TokenBucketTable table = new TokenBucketTable(1, 3, 100);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, table.tryAcquire("10.0.0.1"));
+        }
+        long wait = table.tryAcquire("10.0.0.1");
+        assertTrue(wait > 0 && wait <= TimeUnit.SECONDS.toNanos(1), "espera: " + wait);
+        // Cada chave tem o seu próprio bucket
+        assertEquals(0, table.tryAcquire("10.0.0.2"));
+    }
+
+    @Test
+    void refillsOverTime() throws InterruptedException {
+        TokenBucketTable table = new TokenBucketTable(1000, 1, 100);
+
+        assertEquals(0, table.tryAcquire("cliente"));
+        long wait = table.tryAcquire("cliente");
+        assertTrue(wait > 0);
+        TimeUnit.NANOSECONDS.sleep(wait + TimeUnit.MILLISECONDS.toNanos(5));
+        assertEquals(0, table.tryAcquire("cliente"));
+    }
+
+    @Test
+    void boundsKeys() {
+        TokenBucketTable table = new TokenBucketTable(0.001, 1, 16);
+
+        for (int i = 0; i < 1000; i++) {
+            table.tryAcquire("cliente" + i);
+        }
+        assertTrue(table.size() <= 16, "buckets: " + table.size());
+        assertTrue(table.getEvictions() >= 1000 - 16);
+    }
+
+    @Test
+    void rejectsInvalidLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(0, 1, 10));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucketTable(1, 0, 10));
+    }
+}
@@ -0,0 +1,88 @@
+package com.projeto.sistema.commands;
+
+import com.projeto.sistema.admission.AdmissionPolicy;
+import com.projeto.sistema.admission.ConcurrencyLimit;
+import com.projeto.sistema.admission.TokenBucketTable;
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import com.projeto.sistema.utils.JsonResponses;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class AdmissionCommandTest {
+
+    private static final AdmissionPolicy UNLIMITED = new AdmissionPolicy(null, null, new LongAdder(), new LongAdder());
+
+    private final ConcurrencyLimit limit = new ConcurrencyLimit(1);
+    private final LongAdder rejected = new LongAdder();
+
+    @Test
+    void holdsPermitUntilAsyncCompletes() throws Exception {
+        AdmissionCommand command = new AdmissionCommand((req, resp) -> req.startAsync(), UNLIMITED, limit, rejected);
+
+        MockServletResponse resp = new MockServletResponse();
+        MockServletRequest req = new MockServletRequest("POST", "/usuario", null).async().bind(resp);
+        command.execute(req, resp);
+        assertEquals(1, limit.getInFlight());
+        assertSame(UNLIMITED, AdmissionPolicy.of(req));
+
+        // Com a permissão em uso, a próxima requisição é recusada
+        MockServletResponse overloaded = new MockServletResponse();
+        command.execute(new MockServletRequest("POST", "/usuario", null).async(), overloaded);
+        assertEquals(503, overloaded.getStatus());
+        assertEquals("1", overloaded.getHeader("Retry-After"));
+        assertEquals(1, rejected.sum());
+
+        req.getMockAsyncContext().complete();
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void releasesPermitOnceOnTimeout() throws Exception {
+        AdmissionCommand command = new AdmissionCommand((req, resp) -> req.startAsync(), UNLIMITED, limit, rejected);
+
+        MockServletResponse resp = new MockServletResponse();
+        MockServletRequest req = new MockServletRequest("POST", "/usuario", null).async().bind(resp);
+        command.execute(req, resp);
+        // O timeout é seguido da conclusão do contexto; a permissão é devolvida uma única vez
+        req.getMockAsyncContext().fireTimeout();
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void releasesPermitOfSynchronousAndFailedCommands() throws Exception {
+        new AdmissionCommand((req, resp) -> JsonResponses.send(resp, 200, new byte[0]), UNLIMITED, limit, rejected)
+            .execute(new MockServletRequest("GET", "/usuario", null), new MockServletResponse());
+        assertEquals(0, limit.getInFlight());
+
+        AdmissionCommand failing = new AdmissionCommand((req, resp) -> {
+            throw new IllegalStateException("falha simulada");
+        }, UNLIMITED, limit, rejected);
+        assertThrows(IllegalStateException.class,
+            () -> failing.execute(new MockServletRequest("GET", "/usuario", null), new MockServletResponse()));
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void rejectsClientOverRateBeforeTakingPermit() throws Exception {
+        AdmissionPolicy policy = new AdmissionPolicy(new TokenBucketTable(0.001, 1, 100), null,
+                                                     new LongAdder(), new LongAdder());
+        AdmissionCommand command = new AdmissionCommand((req, resp) -> JsonResponses.send(resp, 200, new byte[0]),
+                                                        policy, limit, rejected);
+
+        command.execute(new MockServletRequest("GET", "/usuario", null), new MockServletResponse());
+        MockServletResponse resp = new MockServletResponse();
+        command.execute(new MockServletRequest("GET", "/usuario", null), resp);
+
+        assertEquals(429, resp.getStatus());
+        assertNotNull(resp.getHeader("Retry-After"));
+        assertEquals(0, limit.getInFlight());
+        assertEquals(0, rejected.sum());
+    }
+}
@@ -0,0 +1,154 @@
+package com.projeto.sistema.commands;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.sistema.servlets.MockAsyncContext;
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import com.projeto.sistema.utils.JsonResponses;
+import org.junit.jupiter.api.Test;
+
+import javax.servlet.AsyncContext;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchCommandTest {
+
+    private static final byte[] OK = JsonResponses.message("ok");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void startsDependentOperationsAfterTheirDependencies() throws Exception {
+        BatchCommand batch = new BatchCommand((req, resp) -> {
+            events.add("início " + req.getPathInfo());
+            if (req.getPathInfo().equals("/lento")) {
+                AsyncContext context = req.startAsync();
+                new Thread(() -> {
+                    try {
+                        Thread.sleep(50);
+                        events.add("fim /lento");
+                        JsonResponses.send(resp, 200, OK);
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                    context.complete();
+                }).start();
+            } else {
+                JsonResponses.send(resp, 200, OK);
+            }
+        }, new LongAdder());
+
+        MockServletResponse resp = new MockServletResponse();
+        MockServletRequest req = new MockServletRequest("POST", "/lote",
+            "[{\"path\": \"/lento\"}, {\"path\": \"/depois\", \"dependsOn\": [0]}, {\"path\": \"/livre\"}]")
+            .async().bind(resp);
+        batch.execute(req, resp);
+        awaitCompletion(req.getMockAsyncContext());
+
+        assertTrue(events.indexOf("início /depois") > events.indexOf("fim /lento"), events.toString());
+        assertTrue(events.indexOf("início /livre") < events.indexOf("fim /lento"), events.toString());
+        Map<Integer, Integer> statuses = statuses(resp);
+        assertEquals(3, statuses.size());
+        statuses.values().forEach(status -> assertEquals(200, status));
+    }
+
+    @Test
+    void rejectsInvalidBatches() throws Exception {
+        BatchCommand batch = new BatchCommand((req, resp) -> JsonResponses.send(resp, 200, OK), new LongAdder());
+
+        StringBuilder tooMany = new StringBuilder("[");
+        for (int i = 0; i < 21; i++) {
+            tooMany.append(i == 0 ? "" : ",").append("{\"path\": \"/a\"}");
+        }
+        tooMany.append(']');
+        assertEquals(400, execute(batch, tooMany.toString()).getStatus());
+        assertEquals(400, execute(batch, "[{\"path\": \"/a\", \"dependsOn\": [0]}]").getStatus());
+        assertEquals(400, execute(batch, "[{\"path\": \"a\"}]").getStatus());
+        assertEquals(400, execute(batch, "{\"path\": \"/a\"}").getStatus());
+
+        StringBuilder tooLarge = new StringBuilder("[{\"path\": \"/a\", \"body\": \"");
+        for (int i = 0; i < 256 * 1024; i++) {
+            tooLarge.append('x');
+        }
+        tooLarge.append("\"}]");
+        assertEquals(413, execute(batch, tooLarge.toString()).getStatus());
+    }
+
+    @Test
+    void rejectsOperationsResolvedToTheBatchRoute() throws Exception {
+        BatchCommand[] self = new BatchCommand[1];
+        self[0] = new BatchCommand((req, resp) -> {
+            // Qualquer caminho que leve ao comando de lotes, não apenas o caminho padrão
+            if (req.getPathInfo().startsWith("/v1/")) {
+                self[0].execute(req, resp);
+            } else {
+                JsonResponses.send(resp, 200, OK);
+            }
+        }, new LongAdder());
+
+        MockServletResponse resp = execute(self[0], "[{\"path\": \"/v1/lote\", \"body\": []}, {\"path\": \"/a\"}]");
+        assertEquals(200, resp.getStatus());
+        Map<Integer, Integer> statuses = statuses(resp);
+        assertEquals(400, statuses.get(0));
+        assertEquals(200, statuses.get(1));
+    }
+
+    @Test
+    void closesArrayOnTimeout() throws Exception {
+        BatchCommand batch = new BatchCommand((req, resp) -> {
+            if (req.getPathInfo().equals("/parado")) {
+                req.startAsync();
+            } else {
+                JsonResponses.send(resp, 200, OK);
+            }
+        }, new LongAdder());
+
+        MockServletResponse resp = new MockServletResponse();
+        MockServletRequest req = new MockServletRequest("POST", "/lote",
+            "[{\"path\": \"/parado\"}, {\"path\": \"/a\"}, {\"path\": \"/b\", \"dependsOn\": [0]}]")
+            .async().bind(resp);
+        batch.execute(req, resp);
+        req.getMockAsyncContext().fireTimeout();
+
+        Map<Integer, Integer> statuses = statuses(resp);
+        assertEquals(503, statuses.get(0));
+        assertEquals(200, statuses.get(1));
+        assertEquals(503, statuses.get(2));
+        assertTrue(req.getMockAsyncContext().isCompleted());
+    }
+
+    private static MockServletResponse execute(BatchCommand batch, String body) throws Exception {
+        MockServletResponse resp = new MockServletResponse();
+        batch.execute(new MockServletRequest("POST", "/lote", body), resp);
+        return resp;
+    }
+
+    private Map<Integer, Integer> statuses(MockServletResponse resp) throws Exception {
+        JsonNode results = objectMapper.readTree(resp.getBody());
+        assertTrue(results.isArray(), resp.getBody());
+        Map<Integer, Integer> statuses = new HashMap<>();
+        for (JsonNode result : results) {
+            statuses.put(result.get("index").asInt(), result.get("status").asInt());
+        }
+        assertEquals(results.size(), statuses.size(), resp.getBody());
+        return statuses;
+    }
+
+    private static void awaitCompletion(MockAsyncContext context) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!context.isCompleted() && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(context.isCompleted());
+    }
+}
@@ -0,0 +1,71 @@
+package com.projeto.sistema.commands;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.projeto.sistema.metrics.MetricsRegistry;
+import com.projeto.sistema.metrics.RouteMetrics;
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsCommandTest {
+
+    private final MetricsRegistry registry = new MetricsRegistry();
+    private final MetricsCommand command = new MetricsCommand(registry);
+
+    @BeforeEach
+    void record() {
+        RouteMetrics route = registry.forRoute("/usuario");
+        route.record(200, TimeUnit.MILLISECONDS.toNanos(2));
+        route.record(200, TimeUnit.MILLISECONDS.toNanos(4));
+        route.record(409, TimeUnit.MILLISECONDS.toNanos(1));
+        registry.counter("sistema_batch_operations_total").add(5);
+        registry.gauge("sistema_hashing_queue_depth", () -> 3);
+    }
+
+    @Test
+    void rendersPrometheusText() throws Exception {
+        MockServletResponse resp = new MockServletResponse();
+        command.execute(new MockServletRequest("GET", "/metricas", null), resp);
+
+        assertEquals(200, resp.getStatus());
+        assertTrue(resp.getContentType().startsWith("text/plain"));
+        List<String> lines = Arrays.asList(resp.getBody().split("\n"));
+        assertTrue(lines.contains("sistema_requests_total{route=\"/usuario\"} 3"), resp.getBody());
+        assertTrue(lines.contains("sistema_responses_total{route=\"/usuario\",status=\"200\"} 2"), resp.getBody());
+        assertTrue(lines.contains("sistema_responses_total{route=\"/usuario\",status=\"409\"} 1"), resp.getBody());
+        assertTrue(lines.contains("sistema_request_duration_seconds_count{route=\"/usuario\"} 3"), resp.getBody());
+        assertTrue(lines.contains("sistema_request_duration_seconds_sum{route=\"/usuario\"} 0.007000"), resp.getBody());
+        assertTrue(lines.contains("# TYPE sistema_batch_operations_total counter"), resp.getBody());
+        assertTrue(lines.contains("sistema_batch_operations_total 5"), resp.getBody());
+        assertTrue(lines.contains("# TYPE sistema_hashing_queue_depth gauge"), resp.getBody());
+        assertTrue(lines.contains("sistema_hashing_queue_depth 3"), resp.getBody());
+    }
+
+    @Test
+    void rendersJson() throws Exception {
+        MockServletResponse byParameter = new MockServletResponse();
+        command.execute(new MockServletRequest("GET", "/metricas", null).parameter("format", "json"), byParameter);
+        MockServletResponse byAccept = new MockServletResponse();
+        command.execute(new MockServletRequest("GET", "/metricas", null).header("Accept", "application/json"), byAccept);
+
+        for (MockServletResponse resp : new MockServletResponse[] {byParameter, byAccept}) {
+            JsonNode json = new ObjectMapper().readTree(resp.getBody());
+            JsonNode route = json.get("routes").get("/usuario");
+            assertEquals(3, route.get("requests").asInt());
+            assertEquals(1, route.get("errors").asInt());
+            assertEquals(2, route.get("statuses").get("200").asInt());
+            assertEquals(4.0, route.get("latency").get("max_ms").asDouble());
+            assertEquals(5, json.get("values").get("sistema_batch_operations_total").asInt());
+            assertEquals(3, json.get("values").get("sistema_hashing_queue_depth").asInt());
+        }
+    }
+}
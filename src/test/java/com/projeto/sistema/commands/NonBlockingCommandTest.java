@@ -0,0 +1,50 @@
+package com.projeto.sistema.commands;
+
+import com.projeto.sistema.servlets.MockAsyncContext;
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import com.projeto.sistema.utils.JsonResponses;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NonBlockingCommandTest {
+
+    @Test
+    void writesBufferedBodyWithoutTimeout() throws Exception {
+        MockServletResponse resp = new MockServletResponse();
+        MockServletRequest req = new MockServletRequest("POST", "/eco", "{\"a\":1}").async().bind(resp);
+
+        new NonBlockingCommand((request, response) -> {
+            InputStream input = request.getInputStream();
+            byte[] body = new byte[64];
+            int read = input.read(body);
+            JsonResponses.send(response, 200, Arrays.copyOf(body, read));
+        }, 1024).execute(req, resp);
+
+        MockAsyncContext context = req.getMockAsyncContext();
+        assertTrue(context.isCompleted());
+        // Com a resposta pronta, o prazo da tarefa não limita mais a escrita
+        assertEquals(0, context.getTimeout());
+        assertEquals(200, resp.getStatus());
+        assertEquals("{\"a\":1}", resp.getBody());
+    }
+
+    @Test
+    void buffersSendError() throws Exception {
+        MockServletResponse resp = new MockServletResponse();
+        MockServletRequest req = new MockServletRequest("POST", "/erro", "{}").async().bind(resp);
+
+        new NonBlockingCommand((request, response) -> response.sendError(404, "Não encontrado"), 1024)
+            .execute(req, resp);
+
+        assertTrue(req.getMockAsyncContext().isCompleted());
+        assertEquals(404, resp.getStatus());
+        assertEquals(new String(JsonResponses.error("Não encontrado"), StandardCharsets.UTF_8), resp.getBody());
+    }
+}
@@ -0,0 +1,26 @@
+package com.projeto.sistema.controllers;
+
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserControllerTest {
+
+    private final UserController controller = new UserController();
+
+    @Test
+    void rejectsImportBodyThatIsNotAnArray() throws IOException {
+        for (String body : new String[] {"{x", "{\"email\": \"a@teste\"}", "", "]"}) {
+            MockServletResponse resp = new MockServletResponse();
+            controller.importUsers(new MockServletRequest("POST", "/usuario/importar", body), resp);
+
+            assertEquals(400, resp.getStatus(), body);
+            assertTrue(resp.getBody().contains("array JSON"), body);
+        }
+    }
+}
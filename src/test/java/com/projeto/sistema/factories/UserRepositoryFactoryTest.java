@@ -0,0 +1,73 @@
+package com.projeto.sistema.factories;
+
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.repositories.ShardedUserRepository;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserRepositoryFactoryTest {
+
+    private static final byte[] SALT = PasswordUtils.generateSaltBytes();
+    private static final byte[] HASH = PasswordUtils.hash("senha", SALT);
+
+    @TempDir
+    Path root;
+
+    @Test
+    void reopensReshardedLayout() {
+        List<UserRegistration> registrations = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            registrations.add(new UserRegistration("usuario" + i + "@teste", HASH, SALT));
+        }
+        ShardedUserRepository repository = UserRepositoryFactory.createDurableShardedRepository(root, 4);
+        try {
+            repository.createUsers(registrations);
+            assertEquals(500, repository.reshard(6));
+        } finally {
+            repository.close();
+        }
+        assertEquals(6, UserRepositoryFactory.activeShardCount(root));
+        assertTrue(Files.isDirectory(root.resolve("shards-4")));
+
+        // O diretório antigo continua no disco, mas não pode mais ser reaberto como o atual
+        assertThrows(IllegalStateException.class, () -> UserRepositoryFactory.createDurableShardedRepository(root, 4));
+
+        ShardedUserRepository reopened = UserRepositoryFactory.createDurableShardedRepository(root, 6);
+        try {
+            int[] count = {0};
+            reopened.forEachEmail(email -> count[0]++);
+            assertEquals(500, count[0]);
+            assertTrue(reopened.findUserByEmail("usuario499@teste").isPresent());
+        } finally {
+            reopened.close();
+        }
+    }
+
+    @Test
+    void refusesAmbiguousLayoutWithoutRecord() throws IOException {
+        Files.createDirectories(root.resolve("shards-4"));
+        Files.createDirectories(root.resolve("shards-6"));
+
+        assertThrows(IllegalStateException.class, () -> UserRepositoryFactory.checkShardLayout(root, 4));
+        assertThrows(IllegalStateException.class, () -> UserRepositoryFactory.checkShardLayout(root, 6));
+    }
+
+    @Test
+    void refusesOtherCountForUnrecordedLayout() throws IOException {
+        Files.createDirectories(root.resolve("shards-4"));
+
+        UserRepositoryFactory.checkShardLayout(root, 4);
+        assertThrows(IllegalStateException.class, () -> UserRepositoryFactory.checkShardLayout(root, 6));
+    }
+}
@@ -0,0 +1,71 @@
+package com.projeto.sistema.filters;
+
+import com.projeto.sistema.controllers.UserController;
+import com.projeto.sistema.models.AuthenticatedUser;
+import com.projeto.sistema.servlets.MockServletRequest;
+import com.projeto.sistema.servlets.MockServletResponse;
+import com.projeto.sistema.utils.SessionTokenService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenAuthenticationFilterTest {
+
+    private final SessionTokenService tokens = new SessionTokenService(60000);
+    private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokens);
+
+    @AfterEach
+    void closeTokens() {
+        tokens.close();
+    }
+
+    @Test
+    void passesRequestsWithoutToken() {
+        MockServletRequest req = new MockServletRequest("POST", "/usuario/autenticar", null);
+
+        assertTrue(filter.filter(req, new MockServletResponse()));
+        assertNull(req.getAttribute(SessionTokenService.ATTRIBUTE));
+        assertNull(req.getAttribute(SessionTokenService.REJECTED_ATTRIBUTE));
+    }
+
+    @Test
+    void attachesUserOfValidToken() {
+        String token = tokens.issue(7, "a@teste").getToken();
+        MockServletRequest req = new MockServletRequest("GET", "/usuario/sessao", null)
+            .header("Authorization", "bearer " + token);
+
+        assertTrue(filter.filter(req, new MockServletResponse()));
+        AuthenticatedUser user = (AuthenticatedUser) req.getAttribute(SessionTokenService.ATTRIBUTE);
+        assertEquals(7, user.getId());
+    }
+
+    @Test
+    void staleTokenOnlyFailsRoutesThatNeedSession() throws IOException {
+        try (SessionTokenService expired = new SessionTokenService(-5000)) {
+            String token = expired.issue(7, "a@teste").getToken();
+
+            // As rotas de registro e autenticação seguem acessíveis
+            MockServletRequest login = new MockServletRequest("POST", "/usuario/autenticar", null)
+                .header("Authorization", "Bearer " + token);
+            MockServletResponse loginResponse = new MockServletResponse();
+            assertTrue(filter.filter(login, loginResponse));
+            assertNull(login.getAttribute(SessionTokenService.ATTRIBUTE));
+            assertEquals(200, loginResponse.getStatus());
+
+            // A rota de sessão responde 401 indicando o token inválido
+            MockServletRequest session = new MockServletRequest("GET", "/usuario/sessao", null)
+                .header("Authorization", "Bearer " + token);
+            MockServletResponse sessionResponse = new MockServletResponse();
+            assertTrue(filter.filter(session, sessionResponse));
+            new UserController().currentSession(session, sessionResponse);
+
+            assertEquals(401, sessionResponse.getStatus());
+            assertEquals("Bearer error=\"invalid_token\"", sessionResponse.getHeader("WWW-Authenticate"));
+        }
+    }
+}
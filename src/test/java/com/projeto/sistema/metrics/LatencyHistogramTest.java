@@ -0,0 +1,42 @@
+package com.projeto.sistema.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void estimatesPercentilesWithinBucketError() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long micros = 1; micros <= 10_000; micros++) {
+            histogram.record(micros);
+        }
+
+        assertEquals(10_000, histogram.getCount());
+        assertEquals(10_000L * 10_001 / 2, histogram.getSum());
+        assertEquals(10_000, histogram.getMax());
+        assertWithin(5_000, histogram.getPercentile(0.5));
+        assertWithin(9_900, histogram.getPercentile(0.99));
+        assertEquals(10_000, histogram.getPercentile(1.0));
+    }
+
+    @Test
+    void reportsZeroWithoutRecords() {
+        assertEquals(0, new LatencyHistogram().getPercentile(0.99));
+    }
+
+    @Test
+    void bucketBoundsContainTheirValues() {
+        for (long value : new long[] {0, 7, 8, 9, 15, 16, 1_000, 123_456_789, 1L << 40}) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(LatencyHistogram.bucketUpperBound(index) >= value, "valor " + value);
+            assertTrue(index == 0 || LatencyHistogram.bucketUpperBound(index - 1) < value, "valor " + value);
+        }
+    }
+
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(actual >= expected && actual <= expected * 1.125, "esperado ~" + expected + ", obtido " + actual);
+    }
+}
@@ -0,0 +1,87 @@
+package com.projeto.sistema.processors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComponentIndexProcessorTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void mergesEntriesOfClassesNotRecompiled() throws IOException {
+        Path alpha = source("Alpha", "@com.projeto.sistema.annotations.Singleton");
+        Path beta = source("Beta", "@com.projeto.sistema.annotations.Singleton");
+        compile(alpha, beta);
+        assertTrue(index().contains("exemplo.Alpha"));
+        assertTrue(index().contains("exemplo.Beta"));
+
+        // Apenas Alpha é recompilada, já sem a anotação
+        compile(source("Alpha", ""));
+
+        assertFalse(index().contains("exemplo.Alpha"));
+        assertTrue(index().contains("exemplo.Beta"));
+        assertTrue(generatedIndex().contains("Class.forName(\"exemplo.Beta\")"));
+    }
+
+    @Test
+    void dropsEntriesOfRemovedClasses() throws IOException {
+        Path alpha = source("Alpha", "@com.projeto.sistema.annotations.Singleton");
+        Path beta = source("Beta", "@com.projeto.sistema.annotations.Singleton");
+        compile(alpha, beta);
+
+        Files.delete(dir.resolve("classes/exemplo/Beta.class"));
+        compile(alpha);
+
+        assertTrue(index().contains("exemplo.Alpha"));
+        assertFalse(index().contains("exemplo.Beta"));
+    }
+
+    private Path source(String name, String annotation) throws IOException {
+        Path file = dir.resolve("src/exemplo/" + name + ".java");
+        Files.createDirectories(file.getParent());
+        Files.write(file, ("package exemplo;\n" + annotation + "\npublic class " + name + " {}\n")
+            .getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    private void compile(Path... sources) throws IOException {
+        Path classes = Files.createDirectories(dir.resolve("classes"));
+        Path generated = Files.createDirectories(dir.resolve("generated"));
+        List<String> args = new ArrayList<>(Arrays.asList(
+            "-processor", ComponentIndexProcessor.class.getName(),
+            "-classpath", classes + File.pathSeparator + System.getProperty("java.class.path"),
+            "-d", classes.toString(),
+            "-s", generated.toString()));
+        for (Path source : sources) {
+            args.add(source.toString());
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        assertEquals(0, compiler.run(null, null, null, args.toArray(new String[0])));
+    }
+
+    private String index() throws IOException {
+        return new String(Files.readAllBytes(dir.resolve("classes/" + ComponentIndexProcessor.INDEX_RESOURCE)),
+            StandardCharsets.UTF_8);
+    }
+
+    private String generatedIndex() throws IOException {
+        return new String(Files.readAllBytes(dir.resolve("generated/com/projeto/sistema/index/GeneratedComponentIndex.java")),
+            StandardCharsets.UTF_8);
+    }
+}
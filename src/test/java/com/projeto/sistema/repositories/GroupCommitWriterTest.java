@@ -0,0 +1,108 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.UserRegistration;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupCommitWriterTest {
+
+    private static final byte[] HASH = new byte[32];
+    private static final byte[] SALT = new byte[16];
+
+    @Test
+    void continuesAfterFailedBatch() throws Exception {
+        boolean[] failNext = {true};
+        try (GroupCommitWriter writer = new GroupCommitWriter("teste-grupo", 16, 64, 0, registrations -> {
+            if (failNext[0]) {
+                failNext[0] = false;
+                throw new IllegalStateException("falha simulada");
+            }
+            boolean[] created = new boolean[registrations.size()];
+            Arrays.fill(created, true);
+            return created;
+        })) {
+            ExecutionException failed = assertThrows(ExecutionException.class,
+                () -> writer.submit(registration("a@teste")).get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, failed.getCause());
+
+            assertTrue(writer.submit(registration("b@teste")).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void failsPendingAndRejectsNewAfterError() throws Exception {
+        GroupCommitWriter writer = new GroupCommitWriter("teste-grupo", 16, 64, 0, registrations -> {
+            throw new AssertionError("erro simulado");
+        });
+        try {
+            CompletableFuture<Boolean> result = writer.submit(registration("a@teste"));
+            ExecutionException failed = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(AssertionError.class, failed.getCause());
+
+            // A thread do escritor termina logo depois de falhar o grupo
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            IllegalStateException rejected = null;
+            while (rejected == null && System.nanoTime() < deadline) {
+                try {
+                    CompletableFuture<Boolean> late = writer.submit(registration("b@teste"));
+                    // Enfileirado antes de a thread terminar: falha junto com os pendentes
+                    ExecutionException lateFailure = assertThrows(ExecutionException.class,
+                        () -> late.get(5, TimeUnit.SECONDS));
+                    assertInstanceOf(IllegalStateException.class, lateFailure.getCause());
+                } catch (IllegalStateException e) {
+                    rejected = e;
+                }
+            }
+            assertInstanceOf(AssertionError.class, rejected.getCause());
+        } finally {
+            writer.close();
+        }
+    }
+
+    @Test
+    void rejectsWhenFullAndCancelsQueued() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (GroupCommitWriter writer = new GroupCommitWriter("teste-grupo", 1, 1, 0, registrations -> {
+            release.await();
+            return new boolean[] {true};
+        })) {
+            CompletableFuture<Boolean> inFlight = writer.submit(registration("a@teste"));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (writer.getQueueDepth() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+
+            // Com o primeiro em gravação, a fila comporta um único registro
+            CompletableFuture<Boolean> queued = writer.submit(registration("b@teste"));
+            assertThrows(RejectedExecutionException.class, () -> writer.submit(registration("c@teste")));
+
+            assertTrue(writer.cancel(queued));
+            assertTrue(queued.isCancelled());
+            assertEquals(0, writer.getQueueDepth());
+            assertFalse(writer.cancel(inFlight));
+
+            release.countDown();
+            assertTrue(inFlight.get(5, TimeUnit.SECONDS));
+            assertTrue(writer.submit(registration("d@teste")).get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+        }
+    }
+
+    private static UserRegistration registration(String email) {
+        return new UserRegistration(email, HASH, SALT);
+    }
+}
@@ -0,0 +1,127 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MappedUserRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopensAfterCleanClose() throws IOException {
+        try (MappedUserRepository repository = new MappedUserRepository(directory)) {
+            repository.createUser("a@teste", "senha-a");
+            repository.createUser("b@teste", "senha-b");
+        }
+
+        try (MappedUserRepository repository = new MappedUserRepository(directory)) {
+            Optional<User> user = repository.findUserByEmail("b@teste");
+            assertTrue(user.isPresent());
+            assertTrue(user.get().checkPassword("senha-b"));
+            assertThrows(IllegalArgumentException.class, () -> repository.createUser("a@teste", "outra"));
+        }
+    }
+
+    @Test
+    void rebuildsIndexAfterCrash() throws IOException {
+        MappedUserRepository crashed = new MappedUserRepository(directory);
+        try {
+            crashed.createUser("a@teste", "senha-a");
+            crashed.createUser("b@teste", "senha-b");
+
+            // Sem close(), o índice continua marcado como sujo e é reconstruído a partir do log
+            try (MappedUserRepository repository = new MappedUserRepository(directory)) {
+                assertTrue(repository.findUserByEmail("a@teste").isPresent());
+                assertTrue(repository.findUserByEmail("b@teste").get().checkPassword("senha-b"));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void dropsTornLastRecord() throws IOException {
+        MappedUserRepository crashed = new MappedUserRepository(directory);
+        try {
+            crashed.createUser("a@teste", "senha-a");
+            crashed.createUser("b@teste", "senha-b");
+            corrupt(directory.resolve("users.log"), "b@teste");
+
+            try (MappedUserRepository repository = new MappedUserRepository(directory)) {
+                assertTrue(repository.findUserByEmail("a@teste").isPresent());
+                assertFalse(repository.findUserByEmail("b@teste").isPresent());
+
+                repository.createUser("b@teste", "nova-senha");
+                assertTrue(repository.findUserByEmail("b@teste").get().checkPassword("nova-senha"));
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void growsIndexBeyondInitialCapacity() throws IOException {
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hash = PasswordUtils.hash("senha", salt);
+        List<UserRegistration> registrations = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            registrations.add(new UserRegistration("usuario" + i + "@teste", hash, salt));
+        }
+
+        try (MappedUserRepository repository = new MappedUserRepository(directory)) {
+            boolean[] created = repository.createUsers(registrations);
+            for (boolean c : created) {
+                assertTrue(c);
+            }
+        }
+
+        try (MappedUserRepository repository = new MappedUserRepository(directory)) {
+            int[] count = {0};
+            repository.forEachEmail(email -> count[0]++);
+            assertEquals(registrations.size(), count[0]);
+            assertTrue(repository.findUserByEmail("usuario39999@teste").isPresent());
+        }
+    }
+
+    /**
+     * Altera um byte do email no log, como uma gravação interrompida no meio do registro.
+     */
+    private static void corrupt(Path log, String email) throws IOException {
+        byte[] key = email.getBytes(StandardCharsets.UTF_8);
+        try (FileChannel channel = FileChannel.open(log, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer head = ByteBuffer.allocate(4096);
+            channel.read(head, 0);
+            byte[] bytes = head.array();
+            for (int i = 0; i + key.length <= bytes.length; i++) {
+                int j = 0;
+                while (j < key.length && bytes[i + j] == key[j]) {
+                    j++;
+                }
+                if (j == key.length) {
+                    channel.write(ByteBuffer.wrap(new byte[] {'X'}), i);
+                    return;
+                }
+            }
+        }
+        throw new AssertionError("Registro não encontrado no log: " + email);
+    }
+}
@@ -0,0 +1,273 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryUserJournalTest {
+
+    private static final byte[] SALT = PasswordUtils.generateSaltBytes();
+    private static final byte[] HASH = PasswordUtils.hash("senha", SALT);
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversFromSnapshotAndWal() throws IOException {
+        MemoryUserJournal journal = new MemoryUserJournal(directory, false);
+        journal.recover(user -> true);
+        List<User> users = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            User user = user(i);
+            users.add(user);
+            journal.append(user);
+            if (i == 60) {
+                journal.snapshot(users);
+            }
+        }
+        journal.close();
+
+        Map<String, User> recovered = recover();
+        assertEquals(100, recovered.size());
+        User last = recovered.get("usuario100@teste");
+        assertEquals(100, last.getId());
+        assertArrayEquals(HASH, last.getHashedPasswordBytes());
+    }
+
+    @Test
+    void truncatesTornWalTail() throws IOException {
+        MemoryUserJournal journal = new MemoryUserJournal(directory, false);
+        journal.recover(user -> true);
+        for (int i = 1; i <= 3; i++) {
+            journal.append(user(i));
+        }
+        journal.close();
+
+        Path wal;
+        try (Stream<Path> files = Files.list(directory)) {
+            wal = files.filter(path -> path.getFileName().toString().startsWith("wal-")).findFirst().get();
+        }
+        try (FileChannel channel = FileChannel.open(wal, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+
+        MemoryUserJournal reopened = new MemoryUserJournal(directory, false);
+        Map<String, User> recovered = new ConcurrentHashMap<>();
+        reopened.recover(user -> recovered.putIfAbsent(user.getEmail(), user) == null);
+        assertEquals(2, recovered.size());
+        assertTrue(recovered.containsKey("usuario2@teste"));
+
+        // O WAL truncado continua recebendo gravações válidas
+        reopened.append(user(3));
+        reopened.close();
+        assertEquals(3, recover().size());
+    }
+
+    @Test
+    void snapshotsConcurrentlyWithAppends() throws Exception {
+        MemoryUserJournal journal = new MemoryUserJournal(directory, false);
+        journal.recover(user -> true);
+        Collection<User> users = new ConcurrentLinkedQueue<>();
+
+        int writers = 4;
+        int perWriter = 20_000;
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int first = w * perWriter + 1;
+            Thread thread = new Thread(() -> {
+                for (int id = first; id < first + perWriter; id++) {
+                    User user = user(id);
+                    // Como no repositório: o usuário entra na coleção depois de gravado no WAL
+                    journal.append(Collections.singletonList(user), () -> users.add(user));
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        while (threads.stream().anyMatch(Thread::isAlive)) {
+            journal.snapshot(users);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Sem snapshot final: a recuperação combina o último snapshot com o WAL corrente
+        journal.close();
+
+        assertEquals(writers * perWriter, recover().size());
+    }
+
+    @Test
+    void discardsPartialWriteBeforeNextAppend() throws Exception {
+        MemoryUserJournal journal = new MemoryUserJournal(directory, false);
+        journal.recover(user -> true);
+        journal.append(user(1));
+
+        Field walField = MemoryUserJournal.class.getDeclaredField("wal");
+        walField.setAccessible(true);
+        FileChannel wal = (FileChannel) walField.get(journal);
+        walField.set(journal, new FailingChannel(wal));
+
+        boolean[] published = {false};
+        assertThrows(UncheckedIOException.class,
+            () -> journal.append(Collections.singletonList(user(2)), () -> published[0] = true));
+        assertFalse(published[0]);
+
+        // A gravação seguinte não pode ficar depois da cauda incompleta
+        journal.append(user(3));
+        journal.close();
+
+        Map<String, User> recovered = recover();
+        assertEquals(2, recovered.size());
+        assertTrue(recovered.containsKey("usuario3@teste"));
+        assertFalse(recovered.containsKey("usuario2@teste"));
+    }
+
+    private Map<String, User> recover() throws IOException {
+        Map<String, User> recovered = new ConcurrentHashMap<>();
+        MemoryUserJournal journal = new MemoryUserJournal(directory, false);
+        try {
+            journal.recover(user -> recovered.putIfAbsent(user.getEmail(), user) == null);
+        } finally {
+            journal.close();
+        }
+        return recovered;
+    }
+
+    private static User user(int id) {
+        return new User(id, "usuario" + id + "@teste", HASH, SALT);
+    }
+
+    /**
+     * Canal que, na primeira gravação, grava apenas parte dos bytes e falha, como um disco cheio.
+     */
+    private static final class FailingChannel extends FileChannel {
+        private final FileChannel delegate;
+        private boolean failed;
+
+        FailingChannel(FileChannel delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            if (!failed) {
+                failed = true;
+                ByteBuffer half = src.duplicate();
+                half.limit(src.position() + src.remaining() / 2);
+                src.position(src.position() + delegate.write(half));
+                throw new IOException("falha simulada");
+            }
+            return delegate.write(src);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
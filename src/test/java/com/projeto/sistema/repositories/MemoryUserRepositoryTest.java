@@ -0,0 +1,46 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MemoryUserRepositoryTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void publishesOnlyJournaledUsers() throws IOException {
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hash = PasswordUtils.hash("senha", salt);
+
+        try (MemoryUserRepository repository = new MemoryUserRepository(directory.toString(), new UserIdSequence())) {
+            repository.createUser("a@teste", "senha-a");
+            assertThrows(IllegalArgumentException.class, () -> repository.createUser("a@teste", "outra"));
+
+            // Emails repetidos no mesmo lote, ou já registrados, são recusados
+            boolean[] created = repository.createUsers(Arrays.asList(
+                new UserRegistration("b@teste", hash, salt),
+                new UserRegistration("b@teste", hash, salt),
+                new UserRegistration("a@teste", hash, salt)));
+            assertArrayEquals(new boolean[] {true, false, false}, created);
+            assertEquals(2, repository.size());
+        }
+
+        try (MemoryUserRepository reopened = new MemoryUserRepository(directory.toString(), new UserIdSequence())) {
+            assertEquals(2, reopened.size());
+            assertTrue(reopened.findUserByEmail("a@teste").get().checkPassword("senha-a"));
+            assertTrue(reopened.findUserByEmail("b@teste").isPresent());
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffHeapUserRepositoryTest {
+
+    @Test
+    void growsIndexBeyondInitialCapacity() {
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] hash = PasswordUtils.hash("senha", salt);
+        List<UserRegistration> registrations = new ArrayList<>();
+        for (int i = 0; i < 40_000; i++) {
+            registrations.add(new UserRegistration("usuario" + i + "@teste", hash, salt));
+        }
+
+        OffHeapUserRepository repository = new OffHeapUserRepository(new UserIdSequence());
+        boolean[] created = repository.createUsers(registrations);
+        for (boolean c : created) {
+            assertTrue(c);
+        }
+        int[] count = {0};
+        repository.forEachEmail(email -> count[0]++);
+        assertEquals(registrations.size(), count[0]);
+        for (int i = 0; i < registrations.size(); i += 997) {
+            assertTrue(repository.findUserByEmail("usuario" + i + "@teste").get().checkPassword("senha"));
+        }
+    }
+}
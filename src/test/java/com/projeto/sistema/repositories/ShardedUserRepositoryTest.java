@@ -0,0 +1,91 @@
+package com.projeto.sistema.repositories;
+
+import com.projeto.sistema.models.User;
+import com.projeto.sistema.models.UserRegistration;
+import com.projeto.sistema.utils.PasswordUtils;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedUserRepositoryTest {
+
+    private static final byte[] SALT = PasswordUtils.generateSaltBytes();
+    private static final byte[] HASH = PasswordUtils.hash("senha", SALT);
+
+    @Test
+    void reshardKeepsIdsUnique() {
+        ShardedUserRepository repository = new ShardedUserRepository(4,
+            (index, count, ids) -> new MemoryUserRepository(null, ids));
+        try {
+            repository.createUsers(registrations(0, 1_000));
+
+            assertEquals(1_000, repository.reshard(3));
+            assertEquals(3, repository.getShardCount());
+
+            // Registros depois da troca continuam a sequência de IDs da configuração anterior
+            repository.createUsers(registrations(1_000, 500));
+            Set<Integer> ids = new HashSet<>();
+            for (int i = 0; i < 1_500; i++) {
+                Optional<User> user = repository.findUserByEmail(email(i));
+                assertTrue(user.isPresent(), email(i));
+                assertTrue(ids.add(user.get().getId()), "ID repetido: " + user.get().getId());
+            }
+        } finally {
+            repository.close();
+        }
+    }
+
+    @Test
+    void writesBatchPartsOnOwnThreads() {
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+        ShardedUserRepository repository = new ShardedUserRepository(4,
+            (index, count, ids) -> new MemoryUserRepository(null, ids) {
+                @Override
+                public boolean[] createUsers(List<UserRegistration> registrations) {
+                    threads.add(Thread.currentThread().getName());
+                    if (index == 2) {
+                        throw new IllegalStateException("falha simulada");
+                    }
+                    return super.createUsers(registrations);
+                }
+            });
+        try {
+            assertThrows(IllegalStateException.class, () -> repository.createUsers(registrations(0, 100)));
+            for (String thread : threads) {
+                assertTrue(thread.equals(Thread.currentThread().getName()) || thread.startsWith("shard-writer-"), thread);
+            }
+            // As partes dos outros shards foram gravadas
+            int found = 0;
+            for (int i = 0; i < 100; i++) {
+                if (repository.findUserByEmail(email(i)).isPresent()) {
+                    found++;
+                }
+            }
+            assertTrue(found > 0 && found < 100, "gravados: " + found);
+        } finally {
+            repository.close();
+        }
+        assertThrows(IllegalStateException.class, () -> repository.createUsers(registrations(100, 100)));
+    }
+
+    static List<UserRegistration> registrations(int first, int count) {
+        List<UserRegistration> registrations = new ArrayList<>(count);
+        for (int i = first; i < first + count; i++) {
+            registrations.add(new UserRegistration(email(i), HASH, SALT));
+        }
+        return registrations;
+    }
+
+    static String email(int i) {
+        return "usuario" + i + "@teste";
+    }
+}
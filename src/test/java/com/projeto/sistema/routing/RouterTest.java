@@ -0,0 +1,74 @@
+package com.projeto.sistema.routing;
+
+import com.projeto.sistema.commands.Command;
+import com.projeto.sistema.servlets.MockServletRequest;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RouterTest {
+
+    private static final Command LIST = (req, resp) -> { };
+    private static final Command CREATE = (req, resp) -> { };
+    private static final Command SESSION = (req, resp) -> { };
+    private static final Command BY_ID = (req, resp) -> { };
+    private static final Command ORDERS = (req, resp) -> { };
+
+    private Router router() {
+        Router router = new Router();
+        router.add("/usuario", new String[] {"GET"}, LIST);
+        router.add("/usuario", new String[] {"post"}, CREATE);
+        router.add("/usuario/sessao", new String[] {"GET"}, SESSION);
+        router.add("/usuario/{id}", new String[] {"GET"}, BY_ID);
+        router.add("/usuario/{id}/pedidos/{pedido}", new String[] {"GET"}, ORDERS);
+        return router;
+    }
+
+    @Test
+    void prefersLiteralSegments() {
+        Router router = router();
+
+        assertSame(SESSION, router.match("/usuario/sessao").handlerFor("GET").getCommand());
+        assertSame(BY_ID, router.match("/usuario/42").handlerFor("GET").getCommand());
+    }
+
+    @Test
+    void backtracksFromLiteralDeadEndToParameter() {
+        Router router = router();
+
+        // "sessao" corresponde ao literal, mas só o ramo do parâmetro continua com "pedidos"
+        Router.Route route = router.match("/usuario/sessao/pedidos/7");
+        Router.Handler handler = route.handlerFor("GET");
+        assertSame(ORDERS, handler.getCommand());
+
+        MockServletRequest req = new MockServletRequest("GET", "/usuario/sessao/pedidos/7", null);
+        handler.bindParameters(req, "/usuario/sessao/pedidos/7");
+        PathParameters parameters = PathParameters.of(req);
+        assertEquals("sessao", parameters.get("id"));
+        assertEquals("7", parameters.get("pedido"));
+    }
+
+    @Test
+    void distinguishesUnknownPathsFromUnsupportedMethods() {
+        Router router = router();
+
+        assertNull(router.match("/usuario/42/outro"));
+        assertNull(router.match("/usuario//pedidos/7"));
+        assertNull(router.match("usuario"));
+
+        Router.Route route = router.match("/usuario");
+        assertSame(CREATE, route.handlerFor("POST").getCommand());
+        assertNull(route.handlerFor("DELETE"));
+        assertEquals("GET, POST", route.getAllow());
+    }
+
+    @Test
+    void rejectsDuplicateRoutes() {
+        Router router = router();
+
+        assertThrows(IllegalStateException.class, () -> router.add("/usuario", new String[] {"GET"}, LIST));
+    }
+}
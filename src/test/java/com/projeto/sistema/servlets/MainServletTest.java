@@ -0,0 +1,35 @@
+package com.projeto.sistema.servlets;
+
+import com.projeto.sistema.routing.Router;
+import com.projeto.sistema.utils.JsonResponses;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MainServletTest {
+
+    @Test
+    void answersUnsupportedMethodWithAllow() throws Exception {
+        MainServlet servlet = new MainServlet();
+        Field field = MainServlet.class.getDeclaredField("router");
+        field.setAccessible(true);
+        Router router = (Router) field.get(servlet);
+        router.add("/usuario", new String[] {"POST"}, (req, resp) -> JsonResponses.send(resp, 200, new byte[0]));
+        router.add("/usuario/{id}", new String[] {"GET", "PUT"}, (req, resp) -> JsonResponses.send(resp, 200, new byte[0]));
+
+        MockServletResponse notAllowed = new MockServletResponse();
+        servlet.service(new MockServletRequest("DELETE", "/usuario/7", null), notAllowed);
+        assertEquals(405, notAllowed.getStatus());
+        assertEquals("GET, PUT", notAllowed.getHeader("Allow"));
+
+        MockServletResponse notFound = new MockServletResponse();
+        servlet.service(new MockServletRequest("GET", "/usuario/7/outro", null), notFound);
+        assertEquals(404, notFound.getStatus());
+
+        MockServletResponse found = new MockServletResponse();
+        servlet.service(new MockServletRequest("POST", "/usuario", null), found);
+        assertEquals(200, found.getStatus());
+    }
+}
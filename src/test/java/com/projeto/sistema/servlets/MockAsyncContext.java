@@ -0,0 +1,142 @@
+package com.projeto.sistema.servlets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.ServletContext;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Contexto assíncrono simulado para os testes.
+ * <p>
+ * {@link #start(Runnable)} executa a tarefa na própria thread; timeout e erro só ocorrem quando o
+ * teste chama {@link #fireTimeout()} ou {@link #fireError(Throwable)}.
+ */
+public class MockAsyncContext implements AsyncContext {
+
+    private final ServletRequest request;
+    private final ServletResponse response;
+    private final List<AsyncListener> listeners = new ArrayList<>();
+    private long timeout = 30000;
+    private boolean completed;
+
+    MockAsyncContext(ServletRequest request, ServletResponse response) {
+        this.request = request;
+        this.response = response;
+    }
+
+    public synchronized boolean isCompleted() {
+        return completed;
+    }
+
+    /**
+     * Simula o timeout do container; completa o contexto se nenhum listener o fizer.
+     */
+    public void fireTimeout() throws IOException {
+        for (AsyncListener listener : snapshot()) {
+            listener.onTimeout(new AsyncEvent(this, request, response));
+        }
+        complete();
+    }
+
+    /**
+     * Simula um erro de I/O do container; completa o contexto se nenhum listener o fizer.
+     *
+     * @param cause A causa do erro.
+     */
+    public void fireError(Throwable cause) throws IOException {
+        for (AsyncListener listener : snapshot()) {
+            listener.onError(new AsyncEvent(this, request, response, cause));
+        }
+        complete();
+    }
+
+    private synchronized List<AsyncListener> snapshot() {
+        return new ArrayList<>(listeners);
+    }
+
+    @Override
+    public ServletRequest getRequest() {
+        return request;
+    }
+
+    @Override
+    public ServletResponse getResponse() {
+        return response;
+    }
+
+    @Override
+    public boolean hasOriginalRequestAndResponse() {
+        return true;
+    }
+
+    @Override
+    public void dispatch() {
+        throw new UnsupportedOperationException("dispatch");
+    }
+
+    @Override
+    public void dispatch(String path) {
+        throw new UnsupportedOperationException("dispatch");
+    }
+
+    @Override
+    public void dispatch(ServletContext context, String path) {
+        throw new UnsupportedOperationException("dispatch");
+    }
+
+    @Override
+    public void complete() {
+        synchronized (this) {
+            if (completed) {
+                return;
+            }
+            completed = true;
+        }
+        for (AsyncListener listener : snapshot()) {
+            try {
+                listener.onComplete(new AsyncEvent(this, request, response));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    @Override
+    public void start(Runnable run) {
+        run.run();
+    }
+
+    @Override
+    public synchronized void addListener(AsyncListener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public void addListener(AsyncListener listener, ServletRequest request, ServletResponse response) {
+        addListener(listener);
+    }
+
+    @Override
+    public <T extends AsyncListener> T createListener(Class<T> type) {
+        try {
+            return type.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public synchronized void setTimeout(long timeout) {
+        this.timeout = timeout;
+    }
+
+    @Override
+    public synchronized long getTimeout() {
+        return timeout;
+    }
+}
@@ -0,0 +1,296 @@
+package com.projeto.sistema.servlets;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Requisição simulada para os testes, sem container de servlets.
+ * <p>
+ * Implementa o que as rotas e os comandos utilizam; os demais métodos lançam
+ * {@link UnsupportedOperationException}. Com {@link #async()}, {@code startAsync()} cria um
+ * {@link MockAsyncContext}, cujos eventos de timeout e erro são disparados pelo próprio teste.
+ */
+public class MockServletRequest extends HttpServletRequestWrapper {
+
+    private static final HttpServletRequest UNSUPPORTED = (HttpServletRequest) Proxy.newProxyInstance(
+        HttpServletRequest.class.getClassLoader(),
+        new Class<?>[]{HttpServletRequest.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+    private final String method;
+    private final String path;
+    private final byte[] body;
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final Map<String, Object> attributes = new ConcurrentHashMap<>();
+    private final Map<String, String> parameters = new TreeMap<>();
+    private String remoteAddr = "127.0.0.1";
+    private boolean asyncSupported;
+    private MockAsyncContext asyncContext;
+    private ServletInputStream inputStream;
+    private ServletResponse response;
+
+    /**
+     * Cria a requisição simulada.
+     *
+     * @param method O método HTTP.
+     * @param path   O caminho, como retornado por {@link #getPathInfo()}.
+     * @param body   O corpo da requisição, ou {@code null}.
+     */
+    public MockServletRequest(String method, String path, String body) {
+        super(UNSUPPORTED);
+        this.method = method;
+        this.path = path;
+        this.body = body == null ? new byte[0] : body.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Habilita o processamento assíncrono.
+     *
+     * @return Esta requisição.
+     */
+    public MockServletRequest async() {
+        this.asyncSupported = true;
+        return this;
+    }
+
+    /**
+     * Associa a resposta usada por {@code startAsync()} sem argumentos.
+     *
+     * @param response A resposta.
+     * @return Esta requisição.
+     */
+    public MockServletRequest bind(ServletResponse response) {
+        this.response = response;
+        return this;
+    }
+
+    public MockServletRequest header(String name, String value) {
+        headers.put(name, value);
+        return this;
+    }
+
+    public MockServletRequest parameter(String name, String value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    public MockServletRequest remoteAddr(String address) {
+        this.remoteAddr = address;
+        return this;
+    }
+
+    /**
+     * Retorna o contexto assíncrono criado por {@code startAsync()}, ou {@code null}.
+     *
+     * @return O contexto.
+     */
+    public MockAsyncContext getMockAsyncContext() {
+        return asyncContext;
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public String getPathInfo() {
+        return path;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return path;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer("http://localhost").append(path);
+    }
+
+    @Override
+    public String getServletPath() {
+        return "";
+    }
+
+    @Override
+    public String getContextPath() {
+        return "";
+    }
+
+    @Override
+    public String getQueryString() {
+        return null;
+    }
+
+    @Override
+    public String getParameter(String name) {
+        return parameters.get(name);
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaders(String name) {
+        String value = headers.get(name);
+        return Collections.enumeration(value == null ? Collections.emptyList() : Collections.singletonList(value));
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+
+    @Override
+    public String getContentType() {
+        return headers.get("Content-Type");
+    }
+
+    @Override
+    public int getContentLength() {
+        return body.length;
+    }
+
+    @Override
+    public long getContentLengthLong() {
+        return body.length;
+    }
+
+    @Override
+    public String getCharacterEncoding() {
+        return "UTF-8";
+    }
+
+    @Override
+    public String getRemoteAddr() {
+        return remoteAddr;
+    }
+
+    @Override
+    public Object getAttribute(String name) {
+        return attributes.get(name);
+    }
+
+    @Override
+    public void setAttribute(String name, Object value) {
+        if (value == null) {
+            attributes.remove(name);
+        } else {
+            attributes.put(name, value);
+        }
+    }
+
+    @Override
+    public void removeAttribute(String name) {
+        attributes.remove(name);
+    }
+
+    @Override
+    public Enumeration<String> getAttributeNames() {
+        return Collections.enumeration(attributes.keySet());
+    }
+
+    @Override
+    public synchronized ServletInputStream getInputStream() {
+        if (inputStream == null) {
+            inputStream = new BodyInputStream();
+        }
+        return inputStream;
+    }
+
+    @Override
+    public boolean isAsyncSupported() {
+        return asyncSupported;
+    }
+
+    @Override
+    public boolean isAsyncStarted() {
+        return asyncContext != null && !asyncContext.isCompleted();
+    }
+
+    @Override
+    public AsyncContext getAsyncContext() {
+        if (asyncContext == null) {
+            throw new IllegalStateException("Processamento assíncrono não iniciado");
+        }
+        return asyncContext;
+    }
+
+    @Override
+    public AsyncContext startAsync() {
+        if (response == null) {
+            throw new IllegalStateException("Resposta não associada; use bind(response)");
+        }
+        return startAsync(this, response);
+    }
+
+    @Override
+    public AsyncContext startAsync(ServletRequest request, ServletResponse response) {
+        if (!asyncSupported) {
+            throw new IllegalStateException("Processamento assíncrono não suportado");
+        }
+        asyncContext = new MockAsyncContext(request, response);
+        return asyncContext;
+    }
+
+    /**
+     * Corpo lido de uma só vez; com um {@link ReadListener}, todo o corpo fica disponível imediatamente.
+     */
+    private final class BodyInputStream extends ServletInputStream {
+        private int position;
+
+        @Override
+        public boolean isFinished() {
+            return position >= body.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener listener) {
+            try {
+                listener.onDataAvailable();
+                listener.onAllDataRead();
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+
+        @Override
+        public int read() {
+            return position < body.length ? body[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) {
+            if (position >= body.length) {
+                return -1;
+            }
+            int count = Math.min(length, body.length - position);
+            System.arraycopy(body, position, buffer, offset, count);
+            position += count;
+            return count;
+        }
+    }
+}
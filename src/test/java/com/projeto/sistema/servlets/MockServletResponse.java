@@ -0,0 +1,245 @@
+package com.projeto.sistema.servlets;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Resposta simulada para os testes, sem container de servlets.
+ * <p>
+ * Acumula status, cabeçalhos e corpo em memória; os demais métodos lançam
+ * {@link UnsupportedOperationException}. O fluxo de saída está sempre pronto para escrita.
+ */
+public class MockServletResponse extends HttpServletResponseWrapper {
+
+    private static final HttpServletResponse UNSUPPORTED = (HttpServletResponse) Proxy.newProxyInstance(
+        HttpServletResponse.class.getClassLoader(),
+        new Class<?>[]{HttpServletResponse.class},
+        (proxy, method, args) -> {
+            throw new UnsupportedOperationException(method.getName());
+        });
+
+    private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+    private final BodyOutputStream outputStream = new BodyOutputStream();
+    private PrintWriter writer;
+    private int status = SC_OK;
+    private String contentType;
+    private String characterEncoding = "UTF-8";
+    private boolean committed;
+
+    public MockServletResponse() {
+        super(UNSUPPORTED);
+    }
+
+    /**
+     * Retorna o corpo escrito até o momento.
+     *
+     * @return O corpo em UTF-8.
+     */
+    public synchronized String getBody() {
+        if (writer != null) {
+            writer.flush();
+        }
+        return new String(body.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public synchronized int getStatus() {
+        return status;
+    }
+
+    @Override
+    public synchronized void setStatus(int status) {
+        if (!committed) {
+            this.status = status;
+        }
+    }
+
+    @Override
+    public synchronized void sendError(int status) {
+        sendError(status, null);
+    }
+
+    @Override
+    public synchronized void sendError(int status, String message) {
+        if (committed) {
+            throw new IllegalStateException("Resposta já enviada");
+        }
+        this.status = status;
+        body.reset();
+        if (message != null) {
+            body.write(message.getBytes(StandardCharsets.UTF_8), 0, message.getBytes(StandardCharsets.UTF_8).length);
+        }
+        committed = true;
+    }
+
+    @Override
+    public synchronized String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public synchronized Collection<String> getHeaderNames() {
+        return new ArrayList<>(headers.keySet());
+    }
+
+    @Override
+    public synchronized boolean containsHeader(String name) {
+        return headers.containsKey(name);
+    }
+
+    @Override
+    public synchronized void setHeader(String name, String value) {
+        if (!committed) {
+            headers.put(name, value);
+        }
+    }
+
+    @Override
+    public synchronized void addHeader(String name, String value) {
+        if (!committed) {
+            headers.merge(name, value, (current, added) -> current + ", " + added);
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        setHeader(name, Integer.toString(value));
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        setHeader(name, Long.toString(date));
+    }
+
+    @Override
+    public synchronized String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public synchronized void setContentType(String type) {
+        if (!committed) {
+            this.contentType = type;
+            headers.put("Content-Type", type);
+        }
+    }
+
+    @Override
+    public synchronized String getCharacterEncoding() {
+        return characterEncoding;
+    }
+
+    @Override
+    public synchronized void setCharacterEncoding(String charset) {
+        this.characterEncoding = charset;
+    }
+
+    @Override
+    public void setContentLength(int length) {
+        setHeader("Content-Length", Integer.toString(length));
+    }
+
+    @Override
+    public void setContentLengthLong(long length) {
+        setHeader("Content-Length", Long.toString(length));
+    }
+
+    @Override
+    public int getBufferSize() {
+        return 8192;
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+    }
+
+    @Override
+    public synchronized boolean isCommitted() {
+        return committed;
+    }
+
+    @Override
+    public synchronized void flushBuffer() {
+        committed = true;
+    }
+
+    @Override
+    public synchronized void resetBuffer() {
+        if (committed) {
+            throw new IllegalStateException("Resposta já enviada");
+        }
+        body.reset();
+    }
+
+    @Override
+    public synchronized void reset() {
+        resetBuffer();
+        headers.clear();
+        status = SC_OK;
+        contentType = null;
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() {
+        return outputStream;
+    }
+
+    @Override
+    public synchronized PrintWriter getWriter() {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        }
+        return writer;
+    }
+
+    private final class BodyOutputStream extends ServletOutputStream {
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setWriteListener(WriteListener listener) {
+            try {
+                listener.onWritePossible();
+            } catch (IOException e) {
+                listener.onError(e);
+            }
+        }
+
+        @Override
+        public void write(int b) {
+            synchronized (MockServletResponse.this) {
+                body.write(b);
+                committed = true;
+            }
+        }
+
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            synchronized (MockServletResponse.this) {
+                body.write(buffer, offset, length);
+                committed = true;
+            }
+        }
+
+        @Override
+        public void flush() {
+            flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.projeto.sistema.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordUtilsTest {
+
+    @Test
+    void matchesStringBasedHash() throws Exception {
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        String longPassword = new String(new char[300]).replace('\0', 'ç');
+
+        for (String password : new String[] {"senha", "", "açaí 😀", longPassword}) {
+            byte[] expected = MessageDigest.getInstance("SHA-256")
+                .digest((password + PasswordUtils.encode(salt)).getBytes(StandardCharsets.UTF_8));
+            assertArrayEquals(expected, PasswordUtils.hash(password, salt), password);
+            assertTrue(PasswordUtils.verify(password, salt, expected));
+            assertFalse(PasswordUtils.verify(password + "x", salt, expected));
+        }
+    }
+
+    @Test
+    void sharesStateSafelyAcrossThreads() throws Exception {
+        byte[] salt = PasswordUtils.generateSaltBytes();
+        byte[] expected = PasswordUtils.hash("senha", salt);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                int n = i;
+                results.add(executor.submit(() -> {
+                    for (int j = 0; j < 500; j++) {
+                        if (!PasswordUtils.verify("senha", salt, expected)
+                                || PasswordUtils.verify("outra" + n, salt, expected)) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+                if (i == 32) {
+                    PasswordUtils.clear();
+                }
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.projeto.sistema.utils;
+
+import com.projeto.sistema.models.AuthenticatedUser;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class SessionTokenServiceTest {
+
+    @Test
+    void verifiesIssuedTokens() {
+        try (SessionTokenService tokens = new SessionTokenService(60000)) {
+            AuthenticatedUser issued = tokens.issue(42, "a@teste");
+
+            AuthenticatedUser verified = tokens.verify(issued.getToken());
+            assertNotNull(verified);
+            assertEquals(42, verified.getId());
+            assertEquals("a@teste", verified.getEmail());
+            assertEquals(issued.getExpiresAt(), verified.getExpiresAt());
+
+            // A segunda verificação vem do cache
+            assertNotNull(tokens.verify(issued.getToken()));
+            assertEquals(1, tokens.getCacheHits());
+            assertEquals(1, tokens.getIssuedCount());
+        }
+    }
+
+    @Test
+    void rejectsTamperedAndForeignTokens() {
+        try (SessionTokenService tokens = new SessionTokenService(60000);
+             SessionTokenService other = new SessionTokenService(60000)) {
+            String token = tokens.issue(42, "a@teste").getToken();
+            // O último caractere da assinatura tem bits de preenchimento; altera o primeiro
+            int signature = token.indexOf('.') + 1;
+            char replaced = token.charAt(signature) == 'A' ? 'B' : 'A';
+            String tampered = token.substring(0, signature) + replaced + token.substring(signature + 1);
+
+            assertNull(tokens.verify(tampered));
+            assertNull(tokens.verify(other.issue(42, "a@teste").getToken()));
+            assertNull(tokens.verify("sem-assinatura"));
+            assertNull(tokens.verify("."));
+            assertEquals(4, tokens.getRejectedCount());
+        }
+    }
+
+    @Test
+    void rejectsExpiredTokens() {
+        try (SessionTokenService tokens = new SessionTokenService(-5000)) {
+            assertNull(tokens.verify(tokens.issue(42, "a@teste").getToken()));
+        }
+    }
+
+    @Test
+    void acceptsTokensSignedBeforeRotation() {
+        try (SessionTokenService tokens = new SessionTokenService(60000)) {
+            String token = tokens.issue(42, "a@teste").getToken();
+            tokens.rotateKeys();
+
+            assertEquals(2, tokens.getKeyCount());
+            assertNotNull(tokens.verify(token));
+        }
+    }
+}